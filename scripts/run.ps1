@@ -1,2 +1,13 @@
 # Run the Diary CLI application
-mvn compile exec:java -f "$PSScriptRoot\..\pom.xml"
+# Uses the packaged jar and its class data sharing archive when they are up to date
+# (build them with: mvn -P cds package), and otherwise compiles and runs through Maven.
+$target = "$PSScriptRoot\..\target"
+$jar = "$target\diary.jar"
+$archive = "$target\diary.jsa"
+
+if ((Test-Path $jar) -and (Test-Path $archive) -and
+    ((Get-Item $archive).LastWriteTime -gt (Get-Item $jar).LastWriteTime)) {
+  java "-XX:SharedArchiveFile=$archive" -Xlog:cds=off -jar $jar @args
+} else {
+  mvn compile exec:java -f "$PSScriptRoot\..\pom.xml"
+}
@@ -0,0 +1,13 @@
+#!/bin/sh
+# Run the Diary CLI application
+# Uses the packaged jar and its class data sharing archive when they are up to date
+# (build them with: mvn -P cds package), and otherwise compiles and runs through Maven.
+target="$(dirname "$0")/../target"
+jar="$target/diary.jar"
+archive="$target/diary.jsa"
+
+if [ -f "$jar" ] && [ "$archive" -nt "$jar" ]; then
+  exec java "-XX:SharedArchiveFile=$archive" -Xlog:cds=off -jar "$jar" "$@"
+else
+  exec mvn compile exec:java -f "$(dirname "$0")/../pom.xml"
+fi
@@ -0,0 +1,138 @@
+package edu.ntnu.idi.idatt.util;
+
+import edu.ntnu.idi.idatt.repository.ActivityRepository;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.StatisticsRepository;
+import edu.ntnu.idi.idatt.service.DatasetGenerator;
+import edu.ntnu.idi.idatt.service.DatasetSpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import org.hibernate.SessionFactory;
+
+/**
+ * File-backed SQLite databases with a fixed number of synthetic diary entries, shared by the JMH
+ * benchmarks.
+ *
+ * <p>Each size is generated once by {@link DatasetGenerator} into
+ * {@code target/benchmark-db/diary-<entries>.db} and reused by later runs and forks;
+ * {@code mvn clean} removes them. The seed is fixed, so the same size always holds the same data.
+ */
+final class BenchmarkDatabase {
+
+  /** Rank of the search term in the vocabulary; the word occurs in about 1% of the entries. */
+  private static final int KEYWORD_RANK = 999;
+
+  private static final int ENTRIES_PER_AUTHOR = 1_000;
+  private static final int MAX_AUTHORS = 1_000;
+  private static final Path DIRECTORY = Path.of("target", "benchmark-db");
+
+  private BenchmarkDatabase() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Returns the spec of the database with the given number of entries.
+   *
+   * @param entries the number of entries
+   * @return the spec
+   */
+  static DatasetSpec spec(int entries) {
+    int authors = Math.max(1, Math.min(MAX_AUTHORS, entries / ENTRIES_PER_AUTHOR));
+    return DatasetSpec.of(authors, entries, entries);
+  }
+
+  /**
+   * Returns a word of the spec's vocabulary found in about 1% of the entries.
+   *
+   * @param spec the spec
+   * @return the search term
+   */
+  static String keyword(DatasetSpec spec) {
+    return spec.vocabulary().get(KEYWORD_RANK);
+  }
+
+  /**
+   * Opens the database with the given number of entries, generating it first if it does not
+   * exist. Any {@code hibernate.*} system property overrides the application configuration,
+   * except for the connection URL.
+   *
+   * @param entries the number of entries
+   * @return a SessionFactory for the database, to be closed by the caller
+   */
+  static SessionFactory open(int entries) {
+    Path file = DIRECTORY.resolve("diary-" + entries + ".db");
+    if (!Files.exists(file)) {
+      generate(file, spec(entries));
+    }
+    return build(file, System.getProperties());
+  }
+
+  /**
+   * Builds a SessionFactory for a database file and creates the same schema objects as the
+   * application does at startup.
+   *
+   * @param file      the database file
+   * @param overrides the properties applied on top of {@code hibernate.cfg.xml}
+   * @return the SessionFactory
+   */
+  private static SessionFactory build(Path file, Properties overrides) {
+    SessionFactory sessionFactory = connect(file, overrides);
+    new AuthorRepository(sessionFactory).initIdGenerator();
+    DiaryEntryRepository entryRepository = new DiaryEntryRepository(sessionFactory);
+    entryRepository.initIdGenerator();
+    entryRepository.initFullTextSearch();
+    new StatisticsRepository(sessionFactory).initAuthorStatistics();
+    new ActivityRepository(sessionFactory).initActivity();
+    return sessionFactory;
+  }
+
+  /**
+   * Builds a SessionFactory for a database file without creating the search index and
+   * statistics tables.
+   *
+   * @param file      the database file
+   * @param overrides the properties applied on top of {@code hibernate.cfg.xml}
+   * @return the SessionFactory
+   */
+  private static SessionFactory connect(Path file, Properties overrides) {
+    Properties properties = new Properties();
+    properties.putAll(overrides);
+    properties.setProperty("hibernate.connection.url", "jdbc:sqlite:" + file);
+    return HibernateUtil.buildSessionFactory(properties);
+  }
+
+  /**
+   * Writes a new database to a temporary file and moves it into place, so an interrupted run
+   * never leaves a partly generated database behind. The entries are saved before the search
+   * index and statistics tables exist; those are built in one pass when the database is first
+   * opened.
+   *
+   * @param file the database file to create
+   * @param spec the dataset to generate
+   */
+  private static void generate(Path file, DatasetSpec spec) {
+    try {
+      Files.createDirectories(DIRECTORY);
+      Path partial = DIRECTORY.resolve(file.getFileName() + ".partial");
+      Files.deleteIfExists(partial);
+      Properties overrides = new Properties();
+      overrides.setProperty("hibernate.cache.use_second_level_cache", "false");
+      overrides.setProperty("hibernate.cache.use_query_cache", "false");
+      System.out.printf("Generating %d entries into %s%n", spec.entries(), file);
+      try (SessionFactory sessionFactory = connect(partial, overrides)) {
+        new DatasetGenerator(new AuthorRepository(sessionFactory),
+            new DiaryEntryRepository(sessionFactory)).generate(spec);
+      }
+      Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+      Files.deleteIfExists(DIRECTORY.resolve(partial.getFileName() + "-wal"));
+      Files.deleteIfExists(DIRECTORY.resolve(partial.getFileName() + "-shm"));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not create " + file, e);
+    }
+  }
+}
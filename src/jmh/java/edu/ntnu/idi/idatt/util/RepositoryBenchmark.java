@@ -0,0 +1,178 @@
+package edu.ntnu.idi.idatt.util;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.service.DatasetSpec;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the repository operations behind the main screens, on file-backed databases
+ * of 1k, 100k and 1M entries with the application configuration.
+ *
+ * <p>Run all of them, with results written to {@code target/jmh-result.json}, with:
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec@jmh
+ * </pre>
+ * Options after {@code -Djmh.args=} are passed to JMH, e.g. {@code -Djmh.args="-p entries=1000
+ * findByEmail"} to run one benchmark on the smallest database. Queries answered from the query
+ * cache measure the cache; add {@code -jvmArgsAppend -Dhibernate.cache.use_query_cache=false} to
+ * the JMH options to measure the database instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RepositoryBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int entries;
+
+  private SessionFactory sessionFactory;
+  private AuthorRepository authorRepository;
+  private DiaryEntryRepository entryRepository;
+  private Author author;
+  private List<String> emails;
+  private String keyword;
+  private LocalDate rangeStart;
+  private long lastSeededId;
+  private int nextAuthor;
+
+  /**
+   * Opens the database of the current size, generating it on first use.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    DatasetSpec spec = BenchmarkDatabase.spec(entries);
+    sessionFactory = BenchmarkDatabase.open(entries);
+    authorRepository = new AuthorRepository(sessionFactory);
+    entryRepository = new DiaryEntryRepository(sessionFactory);
+    emails = authorRepository.findAll().stream().map(Author::getEmail).toList();
+    author = authorRepository.findByEmail(emails.get(0)).orElseThrow();
+    keyword = BenchmarkDatabase.keyword(spec);
+    // One week in the middle of the data
+    rangeStart = spec.from().plusDays(ChronoUnit.DAYS.between(spec.from(), spec.to()) / 2);
+    try (var session = sessionFactory.openSession()) {
+      lastSeededId = session.createQuery("SELECT MAX(id) FROM DiaryEntry", Long.class)
+          .getSingleResult();
+    }
+  }
+
+  /**
+   * Removes the entries written by {@link #save()} so every trial starts from the seeded data,
+   * and closes the database.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    try (var session = sessionFactory.openSession()) {
+      var transaction = session.beginTransaction();
+      session.createMutationQuery("DELETE FROM DiaryEntry WHERE id > :id")
+          .setParameter("id", lastSeededId)
+          .executeUpdate();
+      transaction.commit();
+    }
+    sessionFactory.close();
+  }
+
+  /**
+   * Returns the email address of the next author, cycling through all of them.
+   *
+   * @return an existing author's email address
+   */
+  private String nextEmail() {
+    nextAuthor = (nextAuthor + 1) % emails.size();
+    return emails.get(nextAuthor);
+  }
+
+  /**
+   * Loads every entry.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public List<DiaryEntry> findAll() {
+    return entryRepository.findAll();
+  }
+
+  /**
+   * Searches titles and contents for a word found in 1% of the entries.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public List<DiaryEntry> searchByTitleOrContent() {
+    return entryRepository.searchByTitleOrContent(keyword);
+  }
+
+  /**
+   * Loads the entries of one week.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public List<DiaryEntry> findByDateRange() {
+    return entryRepository.findByDateRange(rangeStart, rangeStart.plusDays(6));
+  }
+
+  /**
+   * Counts the entries of every author.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public Map<Long, Long> countEntriesGroupedByAuthor() {
+    return entryRepository.countEntriesGroupedByAuthor();
+  }
+
+  /**
+   * Saves one new entry in its own transaction.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public DiaryEntry save() {
+    return entryRepository.save(new DiaryEntry("Benchmark", author, "Benchmark content"));
+  }
+
+  /**
+   * Checks whether an author with a given email address exists.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public boolean existsByEmail() {
+    return authorRepository.existsByEmail(nextEmail());
+  }
+
+  /**
+   * Looks up an author by email address.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public Optional<Author> findByEmail() {
+    return authorRepository.findByEmail(nextEmail());
+  }
+}
@@ -0,0 +1,139 @@
+package edu.ntnu.idi.idatt.util;
+
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.service.DatasetSpec;
+import edu.ntnu.idi.idatt.service.SearchIndex;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the in-memory search index against the SQL searches, on the databases of
+ * {@link RepositoryBenchmark}. Run them alone with:
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec@jmh -Djmh.args="SearchIndexBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchIndexBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int entries;
+
+  private SessionFactory sessionFactory;
+  private DiaryEntryRepository entryRepository;
+  private SearchIndex searchIndex;
+  private String keyword;
+  private String otherKeyword;
+  private String misspelledKeyword;
+
+  /**
+   * Opens the database of the current size and builds the index.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    sessionFactory = BenchmarkDatabase.open(entries);
+    entryRepository = new DiaryEntryRepository(sessionFactory);
+    entryRepository.initFullTextSearch();
+    DatasetSpec spec = BenchmarkDatabase.spec(entries);
+    keyword = BenchmarkDatabase.keyword(spec);
+    // A word about twice as frequent, by the Zipf weights of the vocabulary
+    otherKeyword = spec.vocabulary().get(499);
+    // The keyword with its second letter left out
+    misspelledKeyword = keyword.charAt(0) + keyword.substring(2);
+    searchIndex = new SearchIndex();
+    searchIndex.build(entryRepository);
+  }
+
+  /**
+   * Closes the database.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    sessionFactory.close();
+  }
+
+  /**
+   * Builds the index from every entry.
+   *
+   * @return the new index, consumed by JMH
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public SearchIndex build() {
+    SearchIndex index = new SearchIndex();
+    index.build(entryRepository);
+    return index;
+  }
+
+  /**
+   * Ranks the entries containing a word found in 1% of the entries.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public List<Long> searchIndex() {
+    return searchIndex.search(keyword);
+  }
+
+  /**
+   * Ranks the entries containing either of two words, merging two posting lists.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public List<Long> searchIndexOr() {
+    return searchIndex.search(keyword + " OR " + otherKeyword);
+  }
+
+  /**
+   * Ranks the entries containing a word one edit away from a misspelled keyword, finding the
+   * similar words through the trigram index of the vocabulary.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public List<Long> searchIndexFuzzy() {
+    return searchIndex.searchFuzzy(misspelledKeyword, SearchIndex.DEFAULT_MAX_DISTANCE);
+  }
+
+  /**
+   * Ranks the same entries through the FTS5 index, loading their summaries.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public List<DiaryEntrySummary> searchFullText() {
+    return entryRepository.searchSummariesFullText(keyword);
+  }
+
+  /**
+   * Loads the summaries of the entries ranked by the in-memory index, as the service does.
+   *
+   * @return the result, consumed by JMH
+   */
+  @Benchmark
+  public List<DiaryEntrySummary> searchIndexSummaries() {
+    return entryRepository.findSummariesByIds(searchIndex.search(keyword));
+  }
+}
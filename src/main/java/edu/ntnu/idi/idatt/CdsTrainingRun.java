@@ -0,0 +1,65 @@
+package edu.ntnu.idi.idatt;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Training run for the class data sharing (AppCDS) archive built by the {@code cds} Maven
+ * profile.
+ *
+ * <p>Starts the application on a fresh database and drives the router through the main screens
+ * with scripted input: creating, listing and opening authors and entries, keyword search, and the
+ * statistics and activity screens. Run with {@code -XX:ArchiveClassesAtExit}, the JVM then stores
+ * every class loaded on the way, so later launches with {@code -XX:SharedArchiveFile} map them
+ * instead of loading and verifying them again.
+ */
+public final class CdsTrainingRun {
+
+  // One line per prompt; comments name the screen each group of lines drives
+  private static final List<String> SCRIPT = List.of(
+      // Authors: create one, list, open it and its entries, back to the main menu
+      "2", "2", "Ada", "Lovelace", "ada@example.com", "",
+      "1", "1", "1", "b", "b", "b", "b",
+      // Entries: create one, list and open it, search for it, back to the main menu
+      "1", "2", "First entry", "1", "Dear diary, today was a good day.", "", "", "",
+      "1", "1", "b", "b",
+      "3", "1", "diary", "1", "b", "b", "b", "b",
+      // Statistics and activity
+      "3", "a", "b", "b",
+      "q");
+
+  private CdsTrainingRun() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Main method.
+   *
+   * @param args the database file to train on; it is deleted first
+   * @throws IOException if the old training database cannot be deleted
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: CdsTrainingRun <database file>");
+      System.exit(2);
+      return;
+    }
+    Path database = Path.of(args[0]);
+    for (String suffix : List.of("", "-wal", "-shm")) {
+      Files.deleteIfExists(Path.of(database + suffix));
+    }
+    System.setProperty("hibernate.connection.url", "jdbc:sqlite:" + database);
+
+    // Screens are rendered as usual, but not shown
+    DiaryApp app = new DiaryApp();
+    app.init(new Scanner(String.join("\n", SCRIPT) + "\n"),
+        new PrintStream(OutputStream.nullOutputStream()));
+    app.start();
+    System.out.println("Training run finished.");
+  }
+}
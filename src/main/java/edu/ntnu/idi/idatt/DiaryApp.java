@@ -5,12 +5,21 @@ import edu.ntnu.idi.idatt.controller.AuthorController;
 import edu.ntnu.idi.idatt.controller.DiaryController;
 import edu.ntnu.idi.idatt.controller.MainMenuController;
 import edu.ntnu.idi.idatt.controller.Router;
+import edu.ntnu.idi.idatt.repository.ActivityRepository;
 import edu.ntnu.idi.idatt.repository.AuthorRepository;
 import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.StatisticsRepository;
 import edu.ntnu.idi.idatt.service.AuthorService;
+import edu.ntnu.idi.idatt.service.DatasetGenerator;
+import edu.ntnu.idi.idatt.service.DatasetReport;
+import edu.ntnu.idi.idatt.service.DatasetSpec;
 import edu.ntnu.idi.idatt.service.DiaryEntryService;
+import edu.ntnu.idi.idatt.service.ExportService;
+import edu.ntnu.idi.idatt.service.ImportService;
+import edu.ntnu.idi.idatt.service.SearchIndex;
 import edu.ntnu.idi.idatt.service.StatisticsService;
 import edu.ntnu.idi.idatt.util.HibernateUtil;
+import edu.ntnu.idi.idatt.util.StartupReport;
 import edu.ntnu.idi.idatt.view.author.AuthorMenuView;
 import edu.ntnu.idi.idatt.view.author.AuthorView;
 import edu.ntnu.idi.idatt.view.author.CreateAuthorView;
@@ -21,11 +30,16 @@ import edu.ntnu.idi.idatt.view.diary.CreateDiaryEntryView;
 import edu.ntnu.idi.idatt.view.diary.DiaryEntriesView;
 import edu.ntnu.idi.idatt.view.diary.DiaryEntryView;
 import edu.ntnu.idi.idatt.view.diary.EditDiaryEntryView;
+import edu.ntnu.idi.idatt.view.diary.ExportEntriesView;
+import edu.ntnu.idi.idatt.view.diary.ImportEntriesView;
 import edu.ntnu.idi.idatt.view.diary.ListDiaryEntryView;
 import edu.ntnu.idi.idatt.view.diary.SearchEntriesView;
 import edu.ntnu.idi.idatt.view.mainmenu.MainMenuView;
+import edu.ntnu.idi.idatt.view.statistics.ActivityView;
 import edu.ntnu.idi.idatt.view.statistics.StatisticsView;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.Scanner;
 import org.hibernate.SessionFactory;
 
@@ -38,6 +52,11 @@ import org.hibernate.SessionFactory;
  */
 public class DiaryApp {
 
+  // Snapshot of the in-memory search index, next to the database file
+  private static final Path SEARCH_INDEX_SNAPSHOT = Path.of("db", "diary.db.search-index");
+
+  private boolean inMemorySearch;
+
   // I/O
   private Scanner scanner;
   private PrintStream out;
@@ -45,11 +64,16 @@ public class DiaryApp {
   // Repositories
   private AuthorRepository authorRepository;
   private DiaryEntryRepository diaryEntryRepository;
+  private StatisticsRepository statisticsRepository;
+  private ActivityRepository activityRepository;
 
   // Services
   private AuthorService authorService;
   private DiaryEntryService diaryEntryService;
   private StatisticsService statisticsService;
+  private ExportService exportService;
+  private ImportService importService;
+  private SearchIndex searchIndex;
 
   // Views
   private MainMenuView mainMenuView;
@@ -65,32 +89,64 @@ public class DiaryApp {
   private CreateDiaryEntryView createDiaryEntryView;
   private SearchEntriesView searchEntriesView;
   private EditDiaryEntryView editDiaryEntryView;
+  private ExportEntriesView exportEntriesView;
+  private ImportEntriesView importEntriesView;
   private StatisticsView statisticsView;
+  private ActivityView activityView;
 
   // Controllers
   private MainMenuController mainMenuController;
   private AuthorController authorController;
   private DiaryController diaryController;
 
+  /**
+   * Makes searches use the in-memory search index even when the SQLite full-text index is
+   * available. Call this before {@link #init()}.
+   *
+   * @param inMemorySearch true to always use the in-memory search index
+   */
+  public void setInMemorySearch(boolean inMemorySearch) {
+    this.inMemorySearch = inMemorySearch;
+  }
+
   /**
    * Initializes all application components. Call this before {@link #start()}.
    */
   public void init() {
+    init(new Scanner(System.in), System.out);
+  }
+
+  /**
+   * Initializes all application components with the given input and output. Call this before
+   * {@link #start()}.
+   *
+   * @param scanner the source of user input
+   * @param out     the output stream the screens are written to
+   */
+  public void init(Scanner scanner, PrintStream out) {
+    long start = StartupReport.now();
+
     // I/O
-    this.scanner = new Scanner(System.in);
-    this.out = System.out;
+    this.scanner = scanner;
+    this.out = out;
 
-    // Initialize Hibernate (fail-fast if config is bad)
-    SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+    // Build Hibernate in the background; repositories wait for it on their first query
+    HibernateUtil.startBootstrap(this::initDatabase);
+    SessionFactory sessionFactory = HibernateUtil.getDeferredSessionFactory();
 
     // Repositories
     this.authorRepository = new AuthorRepository(sessionFactory);
     this.diaryEntryRepository = new DiaryEntryRepository(sessionFactory);
+    this.statisticsRepository = new StatisticsRepository(sessionFactory);
+    this.activityRepository = new ActivityRepository(sessionFactory);
 
     // Services
     this.authorService = new AuthorService(authorRepository);
-    this.diaryEntryService = new DiaryEntryService(diaryEntryRepository);
-    this.statisticsService = new StatisticsService(authorService, diaryEntryService);
+    this.searchIndex = new SearchIndex();
+    this.diaryEntryService = new DiaryEntryService(diaryEntryRepository, searchIndex);
+    this.statisticsService = new StatisticsService(statisticsRepository, activityRepository);
+    this.exportService = new ExportService(diaryEntryRepository);
+    this.importService = new ImportService(authorRepository, diaryEntryRepository);
 
     // Views
     this.mainMenuView = new MainMenuView();
@@ -106,17 +162,21 @@ public class DiaryApp {
     this.createDiaryEntryView = new CreateDiaryEntryView();
     this.searchEntriesView = new SearchEntriesView();
     this.editDiaryEntryView = new EditDiaryEntryView();
+    this.exportEntriesView = new ExportEntriesView();
+    this.importEntriesView = new ImportEntriesView();
     this.statisticsView = new StatisticsView();
+    this.activityView = new ActivityView();
 
     // Controllers
     this.mainMenuController = new MainMenuController(mainMenuView, statisticsService,
-        statisticsView);
+        diaryEntryService, statisticsView, activityView);
     this.authorController = new AuthorController(authorService, diaryEntryService, authorMenuView,
         listAuthorView, authorView, createAuthorView, findAuthorView, editAuthorView,
         listDiaryEntryView);
     this.diaryController = new DiaryController(diaryEntryService, authorService,
         diaryEntriesView, listDiaryEntryView, diaryEntryView, createDiaryEntryView,
-        searchEntriesView, editDiaryEntryView);
+        searchEntriesView, editDiaryEntryView, exportService, exportEntriesView, importService,
+        importEntriesView);
 
     // Wire navigation references (setter injection to break circular dependencies)
     mainMenuController.setAuthorController(authorController);
@@ -127,6 +187,48 @@ public class DiaryApp {
 
     // Register shutdown hook for cleanup on Ctrl+C
     Runtime.getRuntime().addShutdownHook(new Thread(this::cleanup));
+    StartupReport.record("Application wiring", start);
+  }
+
+  /**
+   * Sets up the id generators, the search index and the statistics tables. Runs on the bootstrap
+   * thread before the SessionFactory is handed out, so it must use the given factory rather than
+   * the deferred one.
+   *
+   * @param sessionFactory the newly built SessionFactory
+   */
+  private void initDatabase(SessionFactory sessionFactory) {
+    long start = StartupReport.now();
+    DiaryEntryRepository entries = new DiaryEntryRepository(sessionFactory);
+    new AuthorRepository(sessionFactory).initIdGenerator();
+    entries.initIdGenerator();
+    boolean fullTextSearch = entries.initFullTextSearch();
+    new StatisticsRepository(sessionFactory).initAuthorStatistics();
+    new ActivityRepository(sessionFactory).initActivity();
+    StartupReport.record("Feature tables", start);
+    if (!fullTextSearch || inMemorySearch) {
+      startSearchIndex(entries);
+    }
+  }
+
+  /**
+   * Loads or builds the in-memory search index on a background thread. Searches use the SQL
+   * search until the index is ready.
+   *
+   * @param entries a repository on the newly built SessionFactory
+   */
+  private void startSearchIndex(DiaryEntryRepository entries) {
+    Thread thread = new Thread(() -> {
+      long start = StartupReport.now();
+      try {
+        boolean loaded = searchIndex.loadOrBuild(entries, SEARCH_INDEX_SNAPSHOT);
+        StartupReport.record(loaded ? "Search index (snapshot)" : "Search index (build)", start);
+      } catch (RuntimeException e) {
+        // Searches keep using SQL, for instance when the application exits during the build
+      }
+    }, "search-index");
+    thread.setDaemon(true);
+    thread.start();
   }
 
   /**
@@ -145,6 +247,87 @@ public class DiaryApp {
     cleanup();
   }
 
+  /**
+   * Rebuilds the full-text search index from the existing diary entries and exits. Intended for
+   * databases created before the index existed or modified by external tools.
+   *
+   * @param out the output stream for progress messages
+   */
+  public void rebuildSearchIndex(PrintStream out) {
+    DiaryEntryRepository repository = new DiaryEntryRepository(HibernateUtil.getSessionFactory());
+    try {
+      if (!repository.initFullTextSearch()) {
+        out.println("Full-text search (FTS5) is not available in this SQLite build.");
+        return;
+      }
+      repository.rebuildFullTextIndex();
+      out.println("Rebuilt search index for " + repository.count() + " entries.");
+    } finally {
+      HibernateUtil.shutdown();
+    }
+  }
+
+  /**
+   * Fills the database with a synthetic dataset and exits.
+   *
+   * <p>The search index and statistics tables are set up after the entries are saved. On a new
+   * database they are then built in one pass, which is much faster than maintaining them row by
+   * row; on a database that already has them, the triggers keep them current during the run.
+   *
+   * @param spec the dataset to create
+   * @param out  the output stream for progress messages
+   */
+  public void generateDataset(DatasetSpec spec, PrintStream out) {
+    SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+    AuthorRepository authors = new AuthorRepository(sessionFactory);
+    DiaryEntryRepository entries = new DiaryEntryRepository(sessionFactory);
+    try {
+      authors.initIdGenerator();
+      entries.initIdGenerator();
+      out.printf("Generating %d authors and %d entries (seed %d)...%n", spec.authors(),
+          spec.entries(), spec.seed());
+      DatasetReport report = new DatasetGenerator(authors, entries).generate(spec);
+      out.printf("Created %d authors and %d entries with %d words in %.1f s (%.0f entries/s).%n",
+          report.authors(), report.entries(), report.words(),
+          report.elapsed().toMillis() / 1000.0, report.rowsPerSecond());
+      long start = System.nanoTime();
+      entries.initFullTextSearch();
+      new StatisticsRepository(sessionFactory).initAuthorStatistics();
+      new ActivityRepository(sessionFactory).initActivity();
+      out.printf("Search index and statistics ready in %.1f s.%n",
+          (System.nanoTime() - start) / 1e9);
+    } finally {
+      HibernateUtil.shutdown();
+    }
+  }
+
+  /**
+   * Checks the maintained per-author entry counts and the activity rollup against the entries,
+   * rebuilds them if they differ and exits. Intended for databases modified by external tools.
+   *
+   * @param out the output stream for progress messages
+   */
+  public void rebuildStatistics(PrintStream out) {
+    SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+    StatisticsRepository statistics = new StatisticsRepository(sessionFactory);
+    ActivityRepository activity = new ActivityRepository(sessionFactory);
+    try {
+      statistics.initAuthorStatistics();
+      activity.initActivity();
+      StatisticsService service = new StatisticsService(statistics, activity);
+      long staleAuthors = service.reconcileAuthorStatistics();
+      long staleActivity = service.reconcileActivity();
+      if (staleAuthors == 0 && staleActivity == 0) {
+        out.println("Statistics are up to date.");
+      } else {
+        out.println("Rebuilt statistics; " + staleAuthors + " author counts and "
+            + staleActivity + " activity rows were out of date.");
+      }
+    } finally {
+      HibernateUtil.shutdown();
+    }
+  }
+
   /**
    * Cleans up resources before exit. This is called from the shutdown hook and can also be called
    * manually. Safe to call multiple times.
@@ -154,6 +337,13 @@ public class DiaryApp {
       scanner.close();
       scanner = null;
     }
+    if (searchIndex != null && searchIndex.isReady() && searchIndex.isModified()) {
+      try {
+        searchIndex.save(diaryEntryRepository, SEARCH_INDEX_SNAPSHOT);
+      } catch (IOException e) {
+        System.err.println("Could not save the search index: " + e.getMessage());
+      }
+    }
     HibernateUtil.shutdown();
   }
 }
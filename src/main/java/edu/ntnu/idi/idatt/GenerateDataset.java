@@ -0,0 +1,150 @@
+package edu.ntnu.idi.idatt;
+
+import edu.ntnu.idi.idatt.service.DatasetSpec;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line entry point that fills a database with a synthetic dataset for load and scale
+ * testing. Run it with:
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=edu.ntnu.idi.idatt.GenerateDataset \
+ *     -Dexec.args="--database=db/load.db --authors=1000 --entries=1000000"
+ * </pre>
+ */
+public final class GenerateDataset {
+
+  private static final Set<String> OPTIONS = Set.of("database", "authors", "entries", "seed",
+      "author-skew", "median-words", "words-sigma", "from", "to", "vocabulary",
+      "vocabulary-size");
+
+  private static final String USAGE = """
+      Usage: GenerateDataset --authors=N --entries=N [options]
+        --database=FILE       database file (default: the application database)
+        --seed=N              random seed (default: 1)
+        --author-skew=S       Zipf exponent of entries per author (default: %s)
+        --median-words=N      median content length in words (default: %d)
+        --words-sigma=S       spread of the log-normal content length (default: %s)
+        --from=YYYY-MM-DD     first creation day (default: 2020-01-01)
+        --to=YYYY-MM-DD       day after the last creation day (default: 2025-01-01)
+        --vocabulary=FILE     words to use, one per line, most frequent first
+        --vocabulary-size=N   number of synthetic words if no file is given (default: %d)
+      """.formatted(DatasetSpec.DEFAULT_AUTHOR_SKEW, DatasetSpec.DEFAULT_MEDIAN_WORDS,
+      DatasetSpec.DEFAULT_WORDS_SIGMA, DatasetSpec.DEFAULT_VOCABULARY_SIZE);
+
+  private GenerateDataset() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Main method.
+   *
+   * @param args options of the form {@code --name=value}
+   */
+  public static void main(String[] args) {
+    DatasetSpec spec;
+    Map<String, String> options;
+    try {
+      options = parseOptions(args);
+      spec = parseSpec(options);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(USAGE);
+      System.exit(2);
+      return;
+    }
+    if (options.containsKey("database")) {
+      System.setProperty("hibernate.connection.url", "jdbc:sqlite:" + options.get("database"));
+    }
+    new DiaryApp().generateDataset(spec, System.out);
+  }
+
+  /**
+   * Splits {@code --name=value} arguments into a map.
+   *
+   * @param args the command line arguments
+   * @return the values by option name
+   * @throws IllegalArgumentException if an argument is malformed or unknown
+   */
+  static Map<String, String> parseOptions(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+      }
+      String name = arg.substring(2, separator);
+      if (!OPTIONS.contains(name)) {
+        throw new IllegalArgumentException("Unknown option: --" + name);
+      }
+      options.put(name, arg.substring(separator + 1));
+    }
+    return options;
+  }
+
+  /**
+   * Builds the dataset spec from the parsed options, using the defaults of
+   * {@link DatasetSpec#of(int, long, long)} for missing ones.
+   *
+   * @param options the values by option name
+   * @return the spec
+   * @throws IllegalArgumentException if a required option is missing or a value is invalid
+   */
+  static DatasetSpec parseSpec(Map<String, String> options) {
+    if (!options.containsKey("authors") || !options.containsKey("entries")) {
+      throw new IllegalArgumentException("--authors and --entries are required");
+    }
+    try {
+      DatasetSpec spec = DatasetSpec.of(Integer.parseInt(options.get("authors")),
+          Long.parseLong(options.get("entries")),
+          Long.parseLong(options.getOrDefault("seed", "1")));
+      if (options.containsKey("author-skew")) {
+        spec = spec.withAuthorSkew(Double.parseDouble(options.get("author-skew")));
+      }
+      if (options.containsKey("median-words") || options.containsKey("words-sigma")) {
+        spec = spec.withContentLength(
+            Integer.parseInt(options.getOrDefault("median-words",
+                String.valueOf(spec.medianWords()))),
+            Double.parseDouble(options.getOrDefault("words-sigma",
+                String.valueOf(spec.wordsSigma()))));
+      }
+      if (options.containsKey("from") || options.containsKey("to")) {
+        spec = spec.withPeriod(
+            LocalDate.parse(options.getOrDefault("from", spec.from().toString())),
+            LocalDate.parse(options.getOrDefault("to", spec.to().toString())));
+      }
+      if (options.containsKey("vocabulary")) {
+        spec = spec.withVocabulary(readVocabulary(Path.of(options.get("vocabulary"))));
+      } else if (options.containsKey("vocabulary-size")) {
+        spec = spec.withVocabulary(DatasetSpec.syntheticVocabulary(
+            Integer.parseInt(options.get("vocabulary-size"))));
+      }
+      return spec;
+    } catch (NumberFormatException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid value: " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reads a vocabulary file with one word per line, skipping blank lines.
+   *
+   * @param file the file to read
+   * @return the words in file order
+   * @throws IllegalArgumentException if the file cannot be read
+   */
+  private static List<String> readVocabulary(Path file) {
+    try (var lines = Files.lines(file)) {
+      return lines.map(String::strip).filter(word -> !word.isEmpty()).toList();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot read vocabulary " + file + ": " + e.getMessage(),
+          e);
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package edu.ntnu.idi.idatt;
 
+import edu.ntnu.idi.idatt.util.StartupReport;
+import java.util.List;
+
 /**
  * Application entry point.
  */
@@ -8,11 +11,31 @@ public class Main {
   /**
    * Main method.
    *
-   * @param args command line arguments (not used)
+   * <p>Supported options: {@code --rebuild-search-index} rebuilds the full-text search index and
+   * exits. {@code --rebuild-statistics} reconciles the per-author entry counts and the activity
+   * rollup with the entries and exits. {@code --startup-report} prints the duration of each
+   * startup phase when the application exits. {@code --in-memory-search} answers searches from an
+   * in-memory index even when the SQLite full-text index is available.
+   *
+   * @param args command line arguments
    */
   public static void main(String[] args) {
+    StartupReport.record("JVM startup", 0);
+    List<String> options = List.of(args);
     DiaryApp app = new DiaryApp();
+    if (options.contains("--rebuild-search-index")) {
+      app.rebuildSearchIndex(System.out);
+      return;
+    }
+    if (options.contains("--rebuild-statistics")) {
+      app.rebuildStatistics(System.out);
+      return;
+    }
+    app.setInMemorySearch(options.contains("--in-memory-search"));
     app.init();
     app.start();
+    if (options.contains("--startup-report")) {
+      System.out.print(StartupReport.format());
+    }
   }
 }
@@ -1,8 +1,11 @@
 package edu.ntnu.idi.idatt.controller;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
-import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
+import edu.ntnu.idi.idatt.repository.Page;
+import edu.ntnu.idi.idatt.repository.PageRequest;
 import edu.ntnu.idi.idatt.service.AuthorService;
+import edu.ntnu.idi.idatt.service.ConcurrentEditException;
 import edu.ntnu.idi.idatt.service.DiaryEntryService;
 import edu.ntnu.idi.idatt.view.author.AuthorMenuView;
 import edu.ntnu.idi.idatt.view.author.AuthorView;
@@ -168,7 +171,8 @@ public class AuthorController {
   }
 
   /**
-   * Shows the find author by email form.
+   * Shows the find author form. Typed text lists the authors whose name or email starts with it,
+   * a full email opens its author directly, and the number of a listed match opens that author.
    *
    * @param in  Scanner for user input
    * @param out PrintStream for output
@@ -177,32 +181,46 @@ public class AuthorController {
   public Action showFindAuthor(Scanner in, PrintStream out) {
     findAuthorView.render(out);
 
-    // Retry loop for email validation and search
+    // Retry loop narrowing the matches down until an author is picked
+    List<Author> matches = List.of();
     while (true) {
-      findAuthorView.promptEmail(out);
-      String email = in.nextLine().trim();
+      findAuthorView.promptQuery(out);
+      String query = in.nextLine().trim();
 
       // Empty input cancels
-      if (email.isBlank()) {
+      if (query.isBlank()) {
         return this::showAuthorMenu;
       }
 
-      // Validate email format
-      if (!Author.isValidEmail(email)) {
-        findAuthorView.showError("Invalid email format. Try again.", out);
-        continue;
+      // A number picks one of the shown matches
+      try {
+        int index = Integer.parseInt(query) - 1;
+        if (index >= 0 && index < matches.size()) {
+          Author found = matches.get(index);
+          return (in2, out2) -> showAuthorDetail(found, this::showAuthorMenu, in2, out2);
+        }
+      } catch (NumberFormatException ignored) {
+        // Not a number, search by the text instead
       }
 
-      // Search for author
-      Optional<Author> result = authorService.findByEmail(email);
-
+      // A full email goes straight to its author
+      Optional<Author> result = Author.isValidEmail(query)
+          ? authorService.findByEmail(query)
+          : Optional.empty();
       if (result.isPresent()) {
         Author found = result.get();
         // Back from detail should return to author menu (not list)
         return (in2, out2) -> showAuthorDetail(found, this::showAuthorMenu, in2, out2);
-      } else {
+      }
+
+      // Otherwise show the authors whose name or email starts with the text
+      List<Author> completions = authorService.complete(query, DiaryController.PAGE_SIZE);
+      if (completions.isEmpty()) {
         // Not found - show warning and let user try again
-        findAuthorView.showNotFound(email, out);
+        findAuthorView.showNotFound(query, out);
+      } else {
+        matches = completions;
+        findAuthorView.showMatches(matches, out);
       }
     }
   }
@@ -280,7 +298,7 @@ public class AuthorController {
   }
 
   /**
-   * Shows entries by the selected author.
+   * Shows the first page of entries by the selected author.
    *
    * @param author          the author whose entries to view
    * @param backDestination where to navigate when returning from author detail
@@ -290,8 +308,25 @@ public class AuthorController {
    */
   private Action viewAuthorEntries(Author author, Action backDestination, Scanner in,
       PrintStream out) {
-    List<DiaryEntry> entries = diaryEntryService.findByAuthor(author);
-    listDiaryEntryView.renderAuthorEntries(entries, author.getFullName(), out);
+    return viewAuthorEntries(author, backDestination, PageRequest.first(DiaryController.PAGE_SIZE),
+        in, out);
+  }
+
+  /**
+   * Shows one page of entries by the selected author.
+   *
+   * @param author          the author whose entries to view
+   * @param backDestination where to navigate when returning from author detail
+   * @param request         the page to show
+   * @param in              Scanner for user input
+   * @param out             PrintStream for output
+   * @return the next action to execute
+   */
+  private Action viewAuthorEntries(Author author, Action backDestination, PageRequest request,
+      Scanner in, PrintStream out) {
+    Page<DiaryEntrySummary> page =
+        diaryEntryService.findSummaryPageByAuthorId(author.getId(), request);
+    listDiaryEntryView.renderAuthorEntries(page, author.getFullName(), out);
 
     while (true) {
       String choice = in.nextLine().trim().toLowerCase();
@@ -299,15 +334,24 @@ public class AuthorController {
       if (choice.equals("b")) {
         return (in2, out2) -> showAuthorDetail(author, backDestination, in2, out2);
       }
+      if (choice.equals("n") && page.hasNext()) {
+        PageRequest next = page.nextRequest();
+        return (in2, out2) -> viewAuthorEntries(author, backDestination, next, in2, out2);
+      }
+      if (choice.equals("p") && page.hasPrevious()) {
+        PageRequest previous = page.previousRequest();
+        return (in2, out2) -> viewAuthorEntries(author, backDestination, previous, in2, out2);
+      }
 
       // Try to parse as number for entry selection
       try {
         int index = Integer.parseInt(choice) - 1;
-        if (index >= 0 && index < entries.size()) {
-          DiaryEntry selected = entries.get(index);
-          // Back from entry detail should return to author's entries list
-          return (in2, out2) -> diaryController.showEntryDetail(selected,
-              (in3, out3) -> viewAuthorEntries(author, backDestination, in3, out3), in2, out2);
+        if (index >= 0 && index < page.items().size()) {
+          DiaryEntrySummary selected = page.items().get(index);
+          // Back from entry detail should return to the same page of the author's entries
+          return (in2, out2) -> diaryController.showEntryDetail(selected.id(),
+              (in3, out3) -> viewAuthorEntries(author, backDestination, request, in3, out3),
+              in2, out2);
         }
       } catch (NumberFormatException ignored) {
         // Fall through to error
@@ -355,13 +399,19 @@ public class AuthorController {
     if (newFirstName == null && newLastName == null) {
       editAuthorView.showNoChanges(out);
     } else {
-      if (newFirstName != null) {
-        author.setFirstName(newFirstName);
-      }
-      if (newLastName != null) {
-        author.setLastName(newLastName);
+      try {
+        authorService.rename(author, newFirstName, newLastName);
+      } catch (ConcurrentEditException e) {
+        editAuthorView.showConflict(out);
+        editAuthorView.promptContinue(out);
+        in.nextLine();
+        // Show what is saved now instead of the unsaved changes
+        Optional<Author> reloaded = authorService.findById(author.getId());
+        if (reloaded.isEmpty()) {
+          return backDestination;
+        }
+        return (in2, out2) -> showAuthorDetail(reloaded.get(), backDestination, in2, out2);
       }
-      authorService.update(author);
       editAuthorView.showUpdated(author.getFullName(), out);
     }
 
@@ -381,7 +431,19 @@ public class AuthorController {
     String confirmation = in.nextLine().trim().toLowerCase();
 
     if (confirmation.equals("yes")) {
-      authorService.delete(author);
+      try {
+        authorService.delete(author);
+      } catch (ConcurrentEditException e) {
+        // Show the current state of the author, or that it is gone, before deleting again
+        authorView.showDeleteConflict(out);
+        authorView.promptContinue(out);
+        in.nextLine();
+        Optional<Author> reloaded = authorService.findById(author.getId());
+        if (reloaded.isEmpty()) {
+          return backDestination;
+        }
+        return (in2, out2) -> showAuthorDetail(reloaded.get(), backDestination, in2, out2);
+      }
       authorView.showDeleted(out);
       authorView.promptContinue(out);
       in.nextLine();
@@ -2,26 +2,52 @@ package edu.ntnu.idi.idatt.controller;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
 import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
+import edu.ntnu.idi.idatt.repository.DiaryEntryQuery;
+import edu.ntnu.idi.idatt.repository.EntryFilter;
+import edu.ntnu.idi.idatt.repository.EntrySort;
+import edu.ntnu.idi.idatt.repository.Page;
+import edu.ntnu.idi.idatt.repository.PageRequest;
 import edu.ntnu.idi.idatt.service.AuthorService;
+import edu.ntnu.idi.idatt.service.ConcurrentEditException;
 import edu.ntnu.idi.idatt.service.DiaryEntryService;
+import edu.ntnu.idi.idatt.service.EntryFileFormat;
+import edu.ntnu.idi.idatt.service.ExportReport;
+import edu.ntnu.idi.idatt.service.ExportService;
+import edu.ntnu.idi.idatt.service.ImportReport;
+import edu.ntnu.idi.idatt.service.ImportService;
+import edu.ntnu.idi.idatt.service.SearchIndex;
 import edu.ntnu.idi.idatt.view.diary.CreateDiaryEntryView;
 import edu.ntnu.idi.idatt.view.diary.DiaryEntriesView;
 import edu.ntnu.idi.idatt.view.diary.DiaryEntryView;
 import edu.ntnu.idi.idatt.view.diary.EditDiaryEntryView;
+import edu.ntnu.idi.idatt.view.diary.ExportEntriesView;
+import edu.ntnu.idi.idatt.view.diary.ImportEntriesView;
 import edu.ntnu.idi.idatt.view.diary.ListDiaryEntryView;
 import edu.ntnu.idi.idatt.view.diary.SearchEntriesView;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 /**
  * Controller for diary-related actions. Handles viewing and managing diary entries.
  */
 public class DiaryController {
 
+  /**
+   * Number of entries shown per page in list screens.
+   */
+  static final int PAGE_SIZE = 10;
+
   private final DiaryEntryService diaryEntryService;
   private final AuthorService authorService;
   private final DiaryEntriesView entriesView;
@@ -30,6 +56,10 @@ public class DiaryController {
   private final CreateDiaryEntryView createEntryView;
   private final SearchEntriesView searchEntriesView;
   private final EditDiaryEntryView editEntryView;
+  private final ExportService exportService;
+  private final ExportEntriesView exportEntriesView;
+  private final ImportService importService;
+  private final ImportEntriesView importEntriesView;
 
   // Navigation reference
   private MainMenuController mainMenuController;
@@ -45,6 +75,10 @@ public class DiaryController {
    * @param createEntryView    the create entry view
    * @param searchEntriesView  the search entries view
    * @param editEntryView      the edit entry view
+   * @param exportService      the export service
+   * @param exportEntriesView  the export entries view
+   * @param importService      the import service
+   * @param importEntriesView  the import entries view
    */
   public DiaryController(DiaryEntryService diaryEntryService,
       AuthorService authorService,
@@ -53,7 +87,11 @@ public class DiaryController {
       DiaryEntryView entryView,
       CreateDiaryEntryView createEntryView,
       SearchEntriesView searchEntriesView,
-      EditDiaryEntryView editEntryView) {
+      EditDiaryEntryView editEntryView,
+      ExportService exportService,
+      ExportEntriesView exportEntriesView,
+      ImportService importService,
+      ImportEntriesView importEntriesView) {
     this.diaryEntryService = diaryEntryService;
     this.authorService = authorService;
     this.entriesView = entriesView;
@@ -62,6 +100,10 @@ public class DiaryController {
     this.createEntryView = createEntryView;
     this.searchEntriesView = searchEntriesView;
     this.editEntryView = editEntryView;
+    this.exportService = exportService;
+    this.exportEntriesView = exportEntriesView;
+    this.importService = importService;
+    this.importEntriesView = importEntriesView;
   }
 
   /**
@@ -96,6 +138,12 @@ public class DiaryController {
         case "3" -> {
           return (in2, out2) -> showSearchEntries(in2, out2);
         }
+        case "4" -> {
+          return (in2, out2) -> showExportEntries(in2, out2);
+        }
+        case "5" -> {
+          return (in2, out2) -> showImportEntries(in2, out2);
+        }
         case "b" -> {
           return (in2, out2) -> mainMenuController.showMenu(in2, out2);
         }
@@ -108,15 +156,27 @@ public class DiaryController {
   }
 
   /**
-   * Shows the list of all diary entries.
+   * Shows the first page of all diary entries.
    *
    * @param in  Scanner for user input
    * @param out PrintStream for output
    * @return the next action to execute
    */
   public Action showEntriesList(Scanner in, PrintStream out) {
-    List<DiaryEntry> entries = diaryEntryService.findAll();
-    listEntryView.render(entries, out);
+    return showEntriesPage(PageRequest.first(PAGE_SIZE), in, out);
+  }
+
+  /**
+   * Shows one page of all diary entries.
+   *
+   * @param request the page to show
+   * @param in      Scanner for user input
+   * @param out     PrintStream for output
+   * @return the next action to execute
+   */
+  private Action showEntriesPage(PageRequest request, Scanner in, PrintStream out) {
+    Page<DiaryEntrySummary> page = diaryEntryService.findSummaryPage(request);
+    listEntryView.render(page, out);
 
     while (true) {
       String choice = in.nextLine().trim().toLowerCase();
@@ -124,14 +184,23 @@ public class DiaryController {
       if (choice.equals("b")) {
         return this::showEntriesMenu;
       }
+      if (choice.equals("n") && page.hasNext()) {
+        PageRequest next = page.nextRequest();
+        return (in2, out2) -> showEntriesPage(next, in2, out2);
+      }
+      if (choice.equals("p") && page.hasPrevious()) {
+        PageRequest previous = page.previousRequest();
+        return (in2, out2) -> showEntriesPage(previous, in2, out2);
+      }
 
       // Try to parse as number for entry selection
       try {
         int index = Integer.parseInt(choice) - 1;
-        if (index >= 0 && index < entries.size()) {
-          DiaryEntry selected = entries.get(index);
-          // Back from detail should return to list
-          return (in2, out2) -> showEntryDetail(selected, this::showEntriesList, in2, out2);
+        if (index >= 0 && index < page.items().size()) {
+          DiaryEntrySummary selected = page.items().get(index);
+          // Back from detail should return to the same page
+          return (in2, out2) -> showEntryDetail(selected.id(),
+              (in3, out3) -> showEntriesPage(request, in3, out3), in2, out2);
         }
       } catch (NumberFormatException ignored) {
         // Fall through to error
@@ -153,7 +222,7 @@ public class DiaryController {
     createEntryView.render(out);
 
     // Check if any authors exist
-    List<Author> authors = authorService.findAll();
+    List<Author> authors = authorService.complete("", PAGE_SIZE);
     if (authors.isEmpty()) {
       createEntryView.showNoAuthors(out);
       createEntryView.promptContinue(out);
@@ -168,7 +237,8 @@ public class DiaryController {
       return this::showEntriesMenu;
     }
 
-    // Select author
+    // Select author, narrowing the list down by the typed name or email
+    createEntryView.showAuthorInstructions(out);
     createEntryView.showAuthorSelection(authors, out);
     Author selectedAuthor = null;
     while (selectedAuthor == null) {
@@ -186,7 +256,13 @@ public class DiaryController {
           createEntryView.showError("Invalid selection. Try again.", out);
         }
       } catch (NumberFormatException e) {
-        createEntryView.showError("Enter a number. Try again.", out);
+        List<Author> matches = authorService.complete(authorInput, PAGE_SIZE);
+        if (matches.isEmpty()) {
+          createEntryView.showNoMatchingAuthors(authorInput, out);
+        } else {
+          authors = matches;
+          createEntryView.showAuthorSelection(authors, out);
+        }
       }
     }
 
@@ -223,6 +299,165 @@ public class DiaryController {
     return this::showEntriesMenu;
   }
 
+  /**
+   * Shows the export form and writes the chosen entries to a file.
+   *
+   * @param in  Scanner for user input
+   * @param out PrintStream for output
+   * @return the next action to execute
+   */
+  public Action showExportEntries(Scanner in, PrintStream out) {
+    exportEntriesView.render(out);
+
+    // Select format
+    EntryFileFormat format = null;
+    while (format == null) {
+      exportEntriesView.promptFormat(out);
+      String choice = in.nextLine().trim();
+      switch (choice) {
+        case "" -> {
+          return this::showEntriesMenu;
+        }
+        case "1" -> format = EntryFileFormat.NDJSON;
+        case "2" -> format = EntryFileFormat.CSV;
+        default -> exportEntriesView.showError("Invalid selection. Try again.", out);
+      }
+    }
+
+    // Get target file
+    exportEntriesView.promptFile("entries." + format.extension() + ".gz", out);
+    String file = in.nextLine().trim();
+    if (file.isBlank()) {
+      return this::showEntriesMenu;
+    }
+
+    // Get optional filters
+    exportEntriesView.showFilterInstructions(out);
+    Long authorId = null;
+    while (true) {
+      exportEntriesView.promptAuthorEmail(out);
+      String email = in.nextLine().trim();
+      if (email.isBlank()) {
+        break;
+      }
+      Optional<Author> author = authorService.findByEmail(email);
+      if (author.isPresent()) {
+        authorId = author.get().getId();
+        break;
+      }
+      exportEntriesView.showAuthorNotFound(email, out);
+    }
+    LocalDate startDate = readOptionalDate(in, out, true);
+    LocalDate endDate;
+    while (true) {
+      endDate = readOptionalDate(in, out, false);
+      if (startDate == null || endDate == null || !endDate.isBefore(startDate)) {
+        break;
+      }
+      exportEntriesView.showEndDateBeforeStart(out);
+    }
+
+    // Run the export
+    out.println();
+    try {
+      ExportReport report = exportService.export(Path.of(file), format, file.endsWith(".gz"),
+          new EntryFilter(authorId, startDate, endDate),
+          progress -> exportEntriesView.showProgress(progress, out));
+      exportEntriesView.showExported(report, file, out);
+    } catch (IOException e) {
+      exportEntriesView.showExportFailed(e.getMessage(), out);
+    }
+
+    exportEntriesView.promptContinue(out);
+    in.nextLine();
+    return this::showEntriesMenu;
+  }
+
+  /**
+   * Shows the import form and reads entries from the chosen file.
+   *
+   * @param in  Scanner for user input
+   * @param out PrintStream for output
+   * @return the next action to execute
+   */
+  public Action showImportEntries(Scanner in, PrintStream out) {
+    importEntriesView.render(out);
+
+    // Select format
+    EntryFileFormat format = null;
+    while (format == null) {
+      importEntriesView.promptFormat(out);
+      String choice = in.nextLine().trim();
+      switch (choice) {
+        case "" -> {
+          return this::showEntriesMenu;
+        }
+        case "1" -> format = EntryFileFormat.NDJSON;
+        case "2" -> format = EntryFileFormat.CSV;
+        default -> importEntriesView.showError("Invalid selection. Try again.", out);
+      }
+    }
+
+    // Get source file
+    Path source;
+    while (true) {
+      importEntriesView.promptFile(out);
+      String file = in.nextLine().trim();
+      if (file.isBlank()) {
+        return this::showEntriesMenu;
+      }
+      source = Path.of(file);
+      if (Files.isRegularFile(source)) {
+        break;
+      }
+      importEntriesView.showFileNotFound(file, out);
+    }
+
+    // Run the import
+    out.println();
+    try {
+      ImportReport report = importService.importEntries(source, format,
+          progress -> importEntriesView.showProgress(progress, out));
+      importEntriesView.showImported(report, out);
+    } catch (IOException e) {
+      importEntriesView.showImportFailed(e.getMessage(), out);
+    }
+    // Chunks committed before a failure are in the database as well
+    diaryEntryService.refreshAfterBulkChanges();
+    authorService.refreshAfterBulkChanges();
+
+    importEntriesView.promptContinue(out);
+    in.nextLine();
+    return this::showEntriesMenu;
+  }
+
+  /**
+   * Reads an optional export filter date, asking again until the input is empty or valid.
+   *
+   * @param in    Scanner for user input
+   * @param out   PrintStream for output
+   * @param start true to prompt for the start date, false for the end date
+   * @return the date, or null if the input was empty
+   */
+  private LocalDate readOptionalDate(Scanner in, PrintStream out, boolean start) {
+    while (true) {
+      if (start) {
+        exportEntriesView.promptStartDate(out);
+      } else {
+        exportEntriesView.promptEndDate(out);
+      }
+      String input = in.nextLine().trim();
+      if (input.isBlank()) {
+        return null;
+      }
+      try {
+        return LocalDate.parse(input, DATE_INPUT_FORMAT);
+      } catch (DateTimeParseException e) {
+        exportEntriesView.showInvalidDateFormat(out);
+      }
+    }
+  }
+
   /**
    * Shows the search entries menu.
    *
@@ -246,6 +481,15 @@ public class DiaryController {
         case "3" -> {
           return (in2, out2) -> searchByDateRange(in2, out2);
         }
+        case "4" -> {
+          return (in2, out2) -> searchCombined(in2, out2);
+        }
+        case "5" -> {
+          return (in2, out2) -> findByTitle(in2, out2);
+        }
+        case "6" -> {
+          return (in2, out2) -> searchFuzzy(in2, out2);
+        }
         case "b" -> {
           return this::showEntriesMenu;
         }
@@ -273,7 +517,7 @@ public class DiaryController {
       return this::showSearchEntries;
     }
 
-    List<DiaryEntry> results = diaryEntryService.search(keyword);
+    List<DiaryEntrySummary> results = diaryEntryService.searchSummaries(keyword);
 
     if (results.isEmpty()) {
       searchEntriesView.showNoResults(keyword, out);
@@ -286,6 +530,74 @@ public class DiaryController {
     return (in2, out2) -> showSearchResults(results, keyword, in2, out2);
   }
 
+  /**
+   * Search entries by keyword, tolerating typos.
+   *
+   * @param in  Scanner for user input
+   * @param out PrintStream for output
+   * @return the next action to execute
+   */
+  private Action searchFuzzy(Scanner in, PrintStream out) {
+    searchEntriesView.renderFuzzySearch(out);
+    searchEntriesView.promptKeyword(out);
+    String keyword = in.nextLine().trim();
+
+    if (keyword.isBlank()) {
+      return this::showSearchEntries;
+    }
+
+    int maxDistance = readMaxDistance(in, out);
+
+    // The first fuzzy search builds the in-memory index unless it was loaded at startup
+    if (!diaryEntryService.isFuzzySearchReady()) {
+      searchEntriesView.showPreparingFuzzySearch(out);
+    }
+    boolean fuzzy = diaryEntryService.prepareFuzzySearch();
+    List<DiaryEntrySummary> results = diaryEntryService.searchSummariesFuzzy(keyword,
+        maxDistance);
+
+    if (results.isEmpty()) {
+      searchEntriesView.showNoResults(keyword, out);
+      if (!fuzzy) {
+        searchEntriesView.showExactSearchOnly(out);
+      }
+      searchEntriesView.promptContinue(out);
+      in.nextLine();
+      return this::showSearchEntries;
+    }
+
+    // Show results
+    return (in2, out2) -> showSearchResults(results,
+        o -> listEntryView.renderFuzzySearchResults(results, keyword, maxDistance,
+            SearchIndex.LETTERS_PER_TYPO, fuzzy, o), in2, out2);
+  }
+
+  /**
+   * Reads the number of typos to tolerate per word, asking again until it is valid.
+   *
+   * @param in  Scanner for user input
+   * @param out PrintStream for output
+   * @return the maximum number of typos per word
+   */
+  private int readMaxDistance(Scanner in, PrintStream out) {
+    int maxDistance = -1;
+    while (maxDistance < 0) {
+      searchEntriesView.promptMaxDistance(SearchIndex.DEFAULT_MAX_DISTANCE,
+          SearchIndex.LETTERS_PER_TYPO, out);
+      String input = in.nextLine().trim();
+      try {
+        maxDistance = input.isBlank() ? SearchIndex.DEFAULT_MAX_DISTANCE
+            : Integer.parseInt(input);
+      } catch (NumberFormatException e) {
+        maxDistance = -1;
+      }
+      if (maxDistance < 0) {
+        searchEntriesView.showInvalidMaxDistance(out);
+      }
+    }
+    return maxDistance;
+  }
+
   /**
    * Shows search results and handles selection.
    *
@@ -295,9 +607,24 @@ public class DiaryController {
    * @param out     PrintStream for output
    * @return the next action to execute
    */
-  private Action showSearchResults(List<DiaryEntry> results, String keyword, 
+  private Action showSearchResults(List<DiaryEntrySummary> results, String keyword,
+      Scanner in, PrintStream out) {
+    return showSearchResults(results,
+        o -> listEntryView.renderSearchResults(results, keyword, o), in, out);
+  }
+
+  /**
+   * Shows search results, rendered by the given view method, and handles selection.
+   *
+   * @param results the search results
+   * @param render  renders the results screen
+   * @param in      Scanner for user input
+   * @param out     PrintStream for output
+   * @return the next action to execute
+   */
+  private Action showSearchResults(List<DiaryEntrySummary> results, Consumer<PrintStream> render,
       Scanner in, PrintStream out) {
-    listEntryView.renderSearchResults(results, keyword, out);
+    render.accept(out);
 
     while (true) {
       String choice = in.nextLine().trim().toLowerCase();
@@ -310,10 +637,10 @@ public class DiaryController {
       try {
         int index = Integer.parseInt(choice) - 1;
         if (index >= 0 && index < results.size()) {
-          DiaryEntry selected = results.get(index);
+          DiaryEntrySummary selected = results.get(index);
           // Back from detail should return to search results
-          return (in2, out2) -> showEntryDetail(selected, 
-              (in3, out3) -> showSearchResults(results, keyword, in3, out3), in2, out2);
+          return (in2, out2) -> showEntryDetail(selected.id(),
+              (in3, out3) -> showSearchResults(results, render, in3, out3), in2, out2);
         }
       } catch (NumberFormatException ignored) {
         // Fall through to error
@@ -357,7 +684,8 @@ public class DiaryController {
         continue;
       }
 
-      List<DiaryEntry> results = diaryEntryService.findByDate(date);
+      PageRequest firstPage = PageRequest.first(PAGE_SIZE);
+      Page<DiaryEntrySummary> results = diaryEntryService.findSummaryPageByDate(date, firstPage);
 
       if (results.isEmpty()) {
         searchEntriesView.showNoResultsForDate(input, out);
@@ -367,22 +695,24 @@ public class DiaryController {
       }
 
       // Show results
-      return (in2, out2) -> showDateResults(results, input, in2, out2);
+      return (in2, out2) -> showDateResults(date, input, firstPage, in2, out2);
     }
   }
 
   /**
-   * Shows date search results and handles selection.
+   * Shows one page of date search results and handles selection.
    *
-   * @param results the search results
+   * @param date    the date that was searched
    * @param dateStr the date string that was searched
+   * @param request the page to show
    * @param in      Scanner for user input
    * @param out     PrintStream for output
    * @return the next action to execute
    */
-  private Action showDateResults(List<DiaryEntry> results, String dateStr,
+  private Action showDateResults(LocalDate date, String dateStr, PageRequest request,
       Scanner in, PrintStream out) {
-    listEntryView.renderDateResults(results, dateStr, out);
+    Page<DiaryEntrySummary> page = diaryEntryService.findSummaryPageByDate(date, request);
+    listEntryView.renderDateResults(page, dateStr, out);
 
     while (true) {
       String choice = in.nextLine().trim().toLowerCase();
@@ -390,14 +720,22 @@ public class DiaryController {
       if (choice.equals("b")) {
         return this::showSearchEntries;
       }
+      if (choice.equals("n") && page.hasNext()) {
+        PageRequest next = page.nextRequest();
+        return (in2, out2) -> showDateResults(date, dateStr, next, in2, out2);
+      }
+      if (choice.equals("p") && page.hasPrevious()) {
+        PageRequest previous = page.previousRequest();
+        return (in2, out2) -> showDateResults(date, dateStr, previous, in2, out2);
+      }
 
       // Try to parse as number for entry selection
       try {
         int index = Integer.parseInt(choice) - 1;
-        if (index >= 0 && index < results.size()) {
-          DiaryEntry selected = results.get(index);
-          return (in2, out2) -> showEntryDetail(selected,
-              (in3, out3) -> showDateResults(results, dateStr, in3, out3), in2, out2);
+        if (index >= 0 && index < page.items().size()) {
+          DiaryEntrySummary selected = page.items().get(index);
+          return (in2, out2) -> showEntryDetail(selected.id(),
+              (in3, out3) -> showDateResults(date, dateStr, request, in3, out3), in2, out2);
         }
       } catch (NumberFormatException ignored) {
         // Fall through to error
@@ -463,7 +801,9 @@ public class DiaryController {
       break;
     }
 
-    List<DiaryEntry> results = diaryEntryService.findByDateRange(startDate, endDate);
+    PageRequest firstPage = PageRequest.first(PAGE_SIZE);
+    Page<DiaryEntrySummary> results =
+        diaryEntryService.findSummaryPageByDateRange(startDate, endDate, firstPage);
 
     if (results.isEmpty()) {
       searchEntriesView.showNoResultsForDateRange(startStr, endStr, out);
@@ -473,24 +813,260 @@ public class DiaryController {
     }
 
     // Capture final values for lambda
+    final LocalDate finalStartDate = startDate;
+    final LocalDate finalEndDate = endDate;
     final String finalStartStr = startStr;
     final String finalEndStr = endStr;
-    return (in2, out2) -> showDateRangeResults(results, finalStartStr, finalEndStr, in2, out2);
+    return (in2, out2) -> showDateRangeResults(finalStartDate, finalEndDate, finalStartStr,
+        finalEndStr, firstPage, in2, out2);
   }
 
   /**
-   * Shows date range search results and handles selection.
+   * Shows one page of date range search results and handles selection.
    *
-   * @param results  the search results
-   * @param startStr the start date string
-   * @param endStr   the end date string
-   * @param in       Scanner for user input
-   * @param out      PrintStream for output
+   * @param startDate the start date that was searched
+   * @param endDate   the end date that was searched
+   * @param startStr  the start date string
+   * @param endStr    the end date string
+   * @param request   the page to show
+   * @param in        Scanner for user input
+   * @param out       PrintStream for output
    * @return the next action to execute
    */
-  private Action showDateRangeResults(List<DiaryEntry> results, String startStr, String endStr,
-      Scanner in, PrintStream out) {
-    listEntryView.renderDateRangeResults(results, startStr, endStr, out);
+  private Action showDateRangeResults(LocalDate startDate, LocalDate endDate, String startStr,
+      String endStr, PageRequest request, Scanner in, PrintStream out) {
+    Page<DiaryEntrySummary> page =
+        diaryEntryService.findSummaryPageByDateRange(startDate, endDate, request);
+    listEntryView.renderDateRangeResults(page, startStr, endStr, out);
+
+    while (true) {
+      String choice = in.nextLine().trim().toLowerCase();
+
+      if (choice.equals("b")) {
+        return this::showSearchEntries;
+      }
+      if (choice.equals("n") && page.hasNext()) {
+        PageRequest next = page.nextRequest();
+        return (in2, out2) -> showDateRangeResults(startDate, endDate, startStr, endStr, next,
+            in2, out2);
+      }
+      if (choice.equals("p") && page.hasPrevious()) {
+        PageRequest previous = page.previousRequest();
+        return (in2, out2) -> showDateRangeResults(startDate, endDate, startStr, endStr,
+            previous, in2, out2);
+      }
+
+      // Try to parse as number for entry selection
+      try {
+        int index = Integer.parseInt(choice) - 1;
+        if (index >= 0 && index < page.items().size()) {
+          DiaryEntrySummary selected = page.items().get(index);
+          return (in2, out2) -> showEntryDetail(selected.id(),
+              (in3, out3) -> showDateRangeResults(startDate, endDate, startStr, endStr, request,
+                  in3, out3), in2, out2);
+        }
+      } catch (NumberFormatException ignored) {
+        // Fall through to error
+      }
+
+      listEntryView.showError("Invalid selection. Try again.", out);
+      listEntryView.prompt(out);
+    }
+  }
+
+  /**
+   * Search entries by keyword, authors and date range at once. Every filter is optional, and all
+   * of them are applied by the database in one query.
+   *
+   * @param in  Scanner for user input
+   * @param out PrintStream for output
+   * @return the next action to execute
+   */
+  private Action searchCombined(Scanner in, PrintStream out) {
+    searchEntriesView.renderCombinedSearch(out);
+    List<String> filters = new ArrayList<>();
+
+    // Get keyword
+    searchEntriesView.promptKeyword(out);
+    String keyword = in.nextLine().trim();
+    if (!keyword.isBlank()) {
+      filters.add("\"" + keyword + "\"");
+    }
+
+    // Get authors
+    List<Long> authorIds = new ArrayList<>();
+    while (true) {
+      searchEntriesView.promptAuthorEmails(out);
+      String input = in.nextLine().trim();
+      authorIds.clear();
+      String missing = null;
+      for (String email : input.split(",")) {
+        if (email.isBlank()) {
+          continue;
+        }
+        Optional<Author> author = authorService.findByEmail(email.trim());
+        if (author.isEmpty()) {
+          missing = email.trim();
+          break;
+        }
+        authorIds.add(author.get().getId());
+      }
+      if (missing == null) {
+        if (!authorIds.isEmpty()) {
+          filters.add("by " + input);
+        }
+        break;
+      }
+      searchEntriesView.showAuthorNotFound(missing, out);
+    }
+
+    // Get date range
+    LocalDate startDate = readOptionalSearchDate(in, out, true);
+    LocalDate endDate;
+    while (true) {
+      endDate = readOptionalSearchDate(in, out, false);
+      if (startDate == null || endDate == null || !endDate.isBefore(startDate)) {
+        break;
+      }
+      searchEntriesView.showEndDateBeforeStart(out);
+    }
+    if (startDate != null) {
+      filters.add("from " + startDate.format(DATE_INPUT_FORMAT));
+    }
+    if (endDate != null) {
+      filters.add("to " + endDate.format(DATE_INPUT_FORMAT));
+    }
+
+    // Get sort order
+    EntrySort sort = null;
+    while (sort == null) {
+      searchEntriesView.promptSort(out);
+      switch (in.nextLine().trim()) {
+        case "", "1" -> sort = EntrySort.NEWEST;
+        case "2" -> sort = EntrySort.OLDEST;
+        case "3" -> sort = EntrySort.TITLE;
+        default -> searchEntriesView.showError("Invalid selection. Try again.", out);
+      }
+    }
+
+    // Get limit
+    int limit = 0;
+    while (limit <= 0) {
+      searchEntriesView.promptLimit(DiaryEntryQuery.DEFAULT_LIMIT, out);
+      String input = in.nextLine().trim();
+      try {
+        limit = input.isBlank() ? DiaryEntryQuery.DEFAULT_LIMIT : Integer.parseInt(input);
+      } catch (NumberFormatException e) {
+        limit = 0;
+      }
+      if (limit <= 0) {
+        searchEntriesView.showInvalidLimit(out);
+      }
+    }
+
+    DiaryEntryQuery query = DiaryEntryQuery.all()
+        .withKeyword(keyword)
+        .withAuthors(authorIds)
+        .withDateRange(startDate, endDate)
+        .sortedBy(sort)
+        .limitedTo(limit);
+    List<DiaryEntrySummary> results = diaryEntryService.findSummaries(query);
+
+    if (results.isEmpty()) {
+      searchEntriesView.showNoResultsForFilters(out);
+      searchEntriesView.promptContinue(out);
+      in.nextLine();
+      return this::showSearchEntries;
+    }
+
+    // Show results
+    String description = filters.isEmpty() ? "no filters" : String.join(", ", filters);
+    return (in2, out2) -> showQueryResults(results, description, query.limit(), in2, out2);
+  }
+
+  /**
+   * Reads an optional date for the combined search, asking again until the input is empty or a
+   * valid date.
+   *
+   * @param in    Scanner for user input
+   * @param out   PrintStream for output
+   * @param start true to ask for the start date, false for the end date
+   * @return the date, or null if the input was empty
+   */
+  private LocalDate readOptionalSearchDate(Scanner in, PrintStream out, boolean start) {
+    while (true) {
+      if (start) {
+        searchEntriesView.promptStartDate(out);
+      } else {
+        searchEntriesView.promptEndDate(out);
+      }
+      String input = in.nextLine().trim();
+      if (input.isBlank()) {
+        return null;
+      }
+      try {
+        return LocalDate.parse(input, DATE_INPUT_FORMAT);
+      } catch (DateTimeParseException e) {
+        searchEntriesView.showInvalidDateFormat(out);
+      }
+    }
+  }
+
+  /**
+   * Finds an entry by the start of its title. Every typed text shows the first matching titles,
+   * and typing the number of a match opens it.
+   *
+   * @param in  Scanner for user input
+   * @param out PrintStream for output
+   * @return the next action to execute
+   */
+  private Action findByTitle(Scanner in, PrintStream out) {
+    searchEntriesView.renderTitleSearch(out);
+
+    List<DiaryEntrySummary> matches = List.of();
+    while (true) {
+      searchEntriesView.promptTitle(out);
+      String input = in.nextLine().trim();
+
+      if (input.isBlank()) {
+        return this::showSearchEntries;
+      }
+
+      // A number opens one of the shown matches
+      try {
+        int index = Integer.parseInt(input) - 1;
+        if (index >= 0 && index < matches.size()) {
+          DiaryEntrySummary selected = matches.get(index);
+          return (in2, out2) -> showEntryDetail(selected.id(),
+              (in3, out3) -> findByTitle(in3, out3), in2, out2);
+        }
+      } catch (NumberFormatException ignored) {
+        // Not a number, complete the text instead
+      }
+
+      List<DiaryEntrySummary> completions = diaryEntryService.completeTitles(input, PAGE_SIZE);
+      if (completions.isEmpty()) {
+        searchEntriesView.showNoTitleMatches(input, out);
+      } else {
+        matches = completions;
+        searchEntriesView.showTitleMatches(matches, out);
+      }
+    }
+  }
+
+  /**
+   * Shows the results of a combined search and handles selection.
+   *
+   * @param results     the search results
+   * @param description a description of the filters that were applied
+   * @param limit       the maximum number of results that was asked for
+   * @param in          Scanner for user input
+   * @param out         PrintStream for output
+   * @return the next action to execute
+   */
+  private Action showQueryResults(List<DiaryEntrySummary> results, String description,
+      int limit, Scanner in, PrintStream out) {
+    listEntryView.renderQueryResults(results, description, limit, out);
 
     while (true) {
       String choice = in.nextLine().trim().toLowerCase();
@@ -503,9 +1079,10 @@ public class DiaryController {
       try {
         int index = Integer.parseInt(choice) - 1;
         if (index >= 0 && index < results.size()) {
-          DiaryEntry selected = results.get(index);
-          return (in2, out2) -> showEntryDetail(selected,
-              (in3, out3) -> showDateRangeResults(results, startStr, endStr, in3, out3), in2, out2);
+          DiaryEntrySummary selected = results.get(index);
+          return (in2, out2) -> showEntryDetail(selected.id(),
+              (in3, out3) -> showQueryResults(results, description, limit, in3, out3), in2,
+              out2);
         }
       } catch (NumberFormatException ignored) {
         // Fall through to error
@@ -516,6 +1093,28 @@ public class DiaryController {
     }
   }
 
+  /**
+   * Loads a diary entry with its full content and shows its details. List screens only hold
+   * summaries, so this is where the content is read.
+   *
+   * @param entryId         the ID of the entry to display
+   * @param backDestination the action to return to when pressing back
+   * @param in              Scanner for user input
+   * @param out             PrintStream for output
+   * @return the next action to execute
+   */
+  public Action showEntryDetail(Long entryId, Action backDestination, Scanner in,
+      PrintStream out) {
+    Optional<DiaryEntry> entry = diaryEntryService.findById(entryId);
+    if (entry.isEmpty()) {
+      entryView.showError("This entry no longer exists.", out);
+      entryView.promptContinue(out);
+      in.nextLine();
+      return backDestination;
+    }
+    return showEntryDetail(entry.get(), backDestination, in, out);
+  }
+
   /**
    * Shows details for a specific diary entry.
    *
@@ -609,13 +1208,11 @@ public class DiaryController {
     if (newTitle == null && newContent == null) {
       editEntryView.showNoChanges(out);
     } else {
-      if (newTitle != null) {
-        entry.setTitle(newTitle);
-      }
-      if (newContent != null) {
-        entry.setContent(newContent);
+      try {
+        diaryEntryService.edit(entry, newTitle, newContent);
+      } catch (ConcurrentEditException e) {
+        return resolveEditConflict(entry, backDestination, in, out);
       }
-      diaryEntryService.update(entry);
       editEntryView.showUpdated(entry.getTitle(), out);
     }
 
@@ -624,6 +1221,35 @@ public class DiaryController {
     return (in2, out2) -> showEntryDetail(entry, backDestination, in2, out2);
   }
 
+  /**
+   * Offers to reload an entry that was changed or deleted by someone else while it was edited,
+   * and to edit it again.
+   *
+   * @param entry           the entry whose changes were not saved
+   * @param backDestination the action to return to
+   * @param in              Scanner for user input
+   * @param out             PrintStream for output
+   * @return the next action to execute
+   */
+  private Action resolveEditConflict(DiaryEntry entry, Action backDestination, Scanner in,
+      PrintStream out) {
+    editEntryView.showConflict(out);
+    editEntryView.promptReload(out);
+    String choice = in.nextLine().trim().toLowerCase();
+    if (choice.equals("n") || choice.equals("no")) {
+      return backDestination;
+    }
+
+    Optional<DiaryEntry> reloaded = diaryEntryService.findById(entry.getId());
+    if (reloaded.isEmpty()) {
+      editEntryView.showDeleted(out);
+      editEntryView.promptContinue(out);
+      in.nextLine();
+      return backDestination;
+    }
+    return (in2, out2) -> editEntry(reloaded.get(), backDestination, in2, out2);
+  }
+
   /**
    * Deletes a diary entry after confirmation.
    *
@@ -639,7 +1265,15 @@ public class DiaryController {
     String confirmation = in.nextLine().trim().toLowerCase();
 
     if (confirmation.equals("yes")) {
-      diaryEntryService.delete(entry);
+      try {
+        diaryEntryService.delete(entry);
+      } catch (ConcurrentEditException e) {
+        // Show the current state of the entry, or that it is gone, before deleting again
+        entryView.showDeleteConflict(out);
+        entryView.promptContinue(out);
+        in.nextLine();
+        return (in2, out2) -> showEntryDetail(entry.getId(), backDestination, in2, out2);
+      }
       entryView.showDeleted(out);
       entryView.promptContinue(out);
       in.nextLine();
@@ -1,9 +1,13 @@
 package edu.ntnu.idi.idatt.controller;
 
+import edu.ntnu.idi.idatt.repository.ActivityBucket;
+import edu.ntnu.idi.idatt.service.DiaryEntryService;
 import edu.ntnu.idi.idatt.service.StatisticsService;
 import edu.ntnu.idi.idatt.view.mainmenu.MainMenuView;
+import edu.ntnu.idi.idatt.view.statistics.ActivityView;
 import edu.ntnu.idi.idatt.view.statistics.StatisticsView;
 import java.io.PrintStream;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -13,7 +17,9 @@ public class MainMenuController {
 
   private final MainMenuView view;
   private final StatisticsService statisticsService;
+  private final DiaryEntryService diaryEntryService;
   private final StatisticsView statisticsView;
+  private final ActivityView activityView;
 
   // Navigation references (set via setters to avoid circular dependency)
   private DiaryController diaryController;
@@ -24,13 +30,18 @@ public class MainMenuController {
    *
    * @param view              the main menu view
    * @param statisticsService the statistics service
+   * @param diaryEntryService the diary entry service, for its search cache statistics
    * @param statisticsView    the statistics view
+   * @param activityView      the activity view
    */
   public MainMenuController(MainMenuView view, StatisticsService statisticsService,
-      StatisticsView statisticsView) {
+      DiaryEntryService diaryEntryService, StatisticsView statisticsView,
+      ActivityView activityView) {
     this.view = view;
     this.statisticsService = statisticsService;
+    this.diaryEntryService = diaryEntryService;
     this.statisticsView = statisticsView;
+    this.activityView = activityView;
   }
 
   /**
@@ -94,19 +105,54 @@ public class MainMenuController {
    */
   private Action showStatistics(Scanner in, PrintStream out) {
     statisticsView.render(
-        statisticsService.getTotalAuthors(),
-        statisticsService.getTotalEntries(),
-        statisticsService.getEntriesPerAuthor(),
+        statisticsService.getAuthorStatistics(),
+        statisticsService.getCacheStatistics(),
+        diaryEntryService.getSearchCacheStatistics(),
+        out
+    );
+
+    while (true) {
+      String choice = in.nextLine().trim().toLowerCase();
+      switch (choice) {
+        case "a" -> {
+          return this::showActivity;
+        }
+        case "b" -> {
+          return this::showMenu;
+        }
+        default -> {
+          statisticsView.showError("Invalid selection. Try again.", out);
+          statisticsView.prompt(out);
+        }
+      }
+    }
+  }
+
+  /**
+   * Shows entry activity over time.
+   *
+   * @param in  Scanner for user input
+   * @param out PrintStream for output
+   * @return the next action to execute
+   */
+  private Action showActivity(Scanner in, PrintStream out) {
+    activityView.render(
+        List.of(
+            statisticsService.getRecentActivity(ActivityBucket.DAY, 14),
+            statisticsService.getRecentActivity(ActivityBucket.WEEK, 8),
+            statisticsService.getRecentActivity(ActivityBucket.MONTH, 12)),
+        statisticsService.getActivityProfile(),
+        statisticsService.getLongestStreaks(),
         out
     );
 
     while (true) {
       String choice = in.nextLine().trim().toLowerCase();
       if (choice.equals("b")) {
-        return this::showMenu;
+        return this::showStatistics;
       }
-      statisticsView.showError("Invalid selection. Try again.", out);
-      statisticsView.prompt(out);
+      activityView.showError("Invalid selection. Try again.", out);
+      activityView.prompt(out);
     }
   }
 }
@@ -1,25 +1,28 @@
 package edu.ntnu.idi.idatt.model.entities;
 
-import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
 import java.util.regex.Pattern;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Represents an author entity in the database.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 @Table(name = "authors")
 public class Author {
 
@@ -40,7 +43,9 @@ public class Author {
   }
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "author_ids")
+  @TableGenerator(name = "author_ids", table = "id_generators", pkColumnName = "name",
+      valueColumnName = "next_val", pkColumnValue = "authors", allocationSize = 50)
   private Long id;
 
   @Column(name = "first_name", nullable = false)
@@ -58,8 +63,10 @@ public class Author {
   @Column(name = "updated_at", nullable = false)
   private LocalDateTime updatedAt;
 
-  @OneToMany(mappedBy = "author", cascade = CascadeType.REMOVE, orphanRemoval = true)
-  private final List<DiaryEntry> diaryEntries = new ArrayList<>();
+  // Moved on by every update; an update based on an older version is rejected
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
 
   /**
    * Default constructor required by Hibernate.
@@ -220,6 +227,28 @@ public class Author {
     return updatedAt;
   }
 
+  /**
+   * Returns the version of this author, used for optimistic locking. It starts at 0 and is
+   * incremented by every update.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Records an update that was written without loading the author, such as a bulk update: moves
+   * the version on and sets the update time, so this copy matches the database again.
+   *
+   * @param updatedAt the update time that was written
+   * @throws NullPointerException if updatedAt is null
+   */
+  public void markUpdated(LocalDateTime updatedAt) {
+    this.updatedAt = Objects.requireNonNull(updatedAt, "Updated at cannot be null");
+    this.version++;
+  }
+
   /**
    * Returns a string representation of this author for debugging/logging.
    *
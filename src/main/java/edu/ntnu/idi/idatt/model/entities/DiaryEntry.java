@@ -1,5 +1,7 @@
 package edu.ntnu.idi.idatt.model.entities;
 
+import jakarta.persistence.Basic;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -11,18 +13,33 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.Objects;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Represents a diary entry with a title, an author, and textual content.
+ *
+ * <p>The class is bytecode-enhanced at build time. The content is loaded lazily: queries for
+ * entries leave it out, and it is fetched on first access while the entry's session is still
+ * open. Updates write only the columns that changed.
  */
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "diary_entries")
 @Table(name = "diary_entries")
 public class DiaryEntry {
 
+  // Table ids are handed out in blocks, so inserts can be batched (IDENTITY cannot)
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "diary_entry_ids")
+  @TableGenerator(name = "diary_entry_ids", table = "id_generators", pkColumnName = "name",
+      valueColumnName = "next_val", pkColumnValue = "diary_entries", allocationSize = 50)
   private Long id;
 
   @Column(name = "title", nullable = false)
@@ -32,6 +49,8 @@ public class DiaryEntry {
   @JoinColumn(name = "author_id", nullable = false)
   private Author author;
 
+  // Only read when an entry is opened, so lists and searches do not load it
+  @Basic(fetch = FetchType.LAZY)
   @Column(name = "content", nullable = false, columnDefinition = "TEXT")
   private String content;
 
@@ -41,6 +60,11 @@ public class DiaryEntry {
   @Column(name = "updated_at", nullable = false)
   private LocalDateTime updatedAt;
 
+  // Moved on by every update; an update based on an older version is rejected
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
+
   /**
    * Default constructor required by Hibernate.
    */
@@ -63,12 +87,31 @@ public class DiaryEntry {
   }
 
   /**
-   * Sets timestamps before first persist.
+   * Creates a new DiaryEntry that keeps an existing creation time, e.g. when importing entries
+   * written elsewhere.
+   *
+   * @param title     the entry title (cannot be null or blank)
+   * @param author    the entry author (cannot be null)
+   * @param content   the entry content (cannot be null or blank)
+   * @param createdAt the original creation time, or null to use the time of saving
+   * @throws NullPointerException     if title, author or content is null
+   * @throws IllegalArgumentException if title or content is blank
+   */
+  public DiaryEntry(String title, Author author, String content, LocalDateTime createdAt) {
+    this(title, author, content);
+    this.createdAt = createdAt;
+  }
+
+  /**
+   * Sets timestamps before first persist. A creation time given to the constructor is kept.
    */
   @PrePersist
   protected void onCreate() {
-    this.createdAt = LocalDateTime.now();
-    this.updatedAt = LocalDateTime.now();
+    LocalDateTime now = LocalDateTime.now();
+    if (this.createdAt == null) {
+      this.createdAt = now;
+    }
+    this.updatedAt = now;
   }
 
   /**
@@ -132,9 +175,12 @@ public class DiaryEntry {
   }
 
   /**
-   * Returns the textual content of this diary entry.
+   * Returns the textual content of this diary entry. Loads the content if it has not been loaded
+   * yet, which requires the entry's session to be open.
    *
    * @return the content
+   * @throws org.hibernate.LazyInitializationException if the content was not loaded and the
+   *                                                   session is closed
    */
   public String getContent() {
     return content;
@@ -173,6 +219,28 @@ public class DiaryEntry {
     return updatedAt;
   }
 
+  /**
+   * Returns the version of this entry, used for optimistic locking. It starts at 0 and is
+   * incremented by every update.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Records an update that was written without loading the entry, such as a bulk update: moves
+   * the version on and sets the update time, so this copy matches the database again.
+   *
+   * @param updatedAt the update time that was written
+   * @throws NullPointerException if updatedAt is null
+   */
+  public void markUpdated(LocalDateTime updatedAt) {
+    this.updatedAt = Objects.requireNonNull(updatedAt, "Updated at cannot be null");
+    this.version++;
+  }
+
   /**
    * Returns a string representation of this entry for debugging/logging.
    *
@@ -193,19 +261,6 @@ public class DiaryEntry {
     return title + " by " + author.getFullName();
   }
 
-  /**
-   * Returns a short summary of the content.
-   *
-   * @param maxLength the maximum length of the summary
-   * @return truncated content with ellipsis if needed
-   */
-  public String getContentPreview(int maxLength) {
-    if (content.length() <= maxLength) {
-      return content;
-    }
-    return content.substring(0, maxLength - 3) + "...";
-  }
-
   /**
    * Compares this diary entry to another based on id.
    *
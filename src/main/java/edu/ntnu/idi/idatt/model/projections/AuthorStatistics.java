@@ -0,0 +1,11 @@
+package edu.ntnu.idi.idatt.model.projections;
+
+/**
+ * Read-only entry count of one author for the statistics screen.
+ *
+ * @param authorId   the author ID
+ * @param authorName the full name of the author
+ * @param entryCount the number of diary entries written by the author
+ */
+public record AuthorStatistics(Long authorId, String authorName, long entryCount) {
+}
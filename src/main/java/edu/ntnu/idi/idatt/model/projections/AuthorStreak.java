@@ -0,0 +1,16 @@
+package edu.ntnu.idi.idatt.model.projections;
+
+import java.time.LocalDate;
+
+/**
+ * The longest run of consecutive days on which an author wrote at least one entry.
+ *
+ * @param authorId   the author ID
+ * @param authorName the full name of the author
+ * @param days       the length of the streak in days, 0 if the author has no entries
+ * @param firstDay   the first day of the streak, or null if the author has no entries
+ * @param lastDay    the last day of the streak, or null if the author has no entries
+ */
+public record AuthorStreak(Long authorId, String authorName, int days, LocalDate firstDay,
+    LocalDate lastDay) {
+}
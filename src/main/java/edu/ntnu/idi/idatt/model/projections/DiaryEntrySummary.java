@@ -0,0 +1,26 @@
+package edu.ntnu.idi.idatt.model.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only summary of a diary entry for list screens. Holds only what a list row shows, so
+ * listing entries never loads their content or author entities.
+ *
+ * @param id         the entry ID
+ * @param title      the entry title
+ * @param authorId   the ID of the entry's author
+ * @param authorName the full name of the entry's author
+ * @param createdAt  the creation timestamp
+ */
+public record DiaryEntrySummary(Long id, String title, Long authorId, String authorName,
+    LocalDateTime createdAt) {
+
+  /**
+   * Returns a formatted string suitable for display.
+   *
+   * @return the entry title with author name
+   */
+  public String toDisplayString() {
+    return title + " by " + authorName;
+  }
+}
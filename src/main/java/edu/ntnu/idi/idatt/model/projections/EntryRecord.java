@@ -0,0 +1,21 @@
+package edu.ntnu.idi.idatt.model.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, detached copy of a diary entry and its author, as written to and read from export files.
+ * Carries the author's identity by value so a record can be moved between databases.
+ *
+ * @param id              the entry ID, or null for a record not read from this database
+ * @param title           the entry title
+ * @param content         the entry content
+ * @param authorEmail     the email of the entry's author
+ * @param authorFirstName the first name of the entry's author
+ * @param authorLastName  the last name of the entry's author
+ * @param createdAt       the creation timestamp
+ * @param updatedAt       the last update timestamp
+ */
+public record EntryRecord(Long id, String title, String content, String authorEmail,
+    String authorFirstName, String authorLastName, LocalDateTime createdAt,
+    LocalDateTime updatedAt) {
+}
@@ -0,0 +1,11 @@
+package edu.ntnu.idi.idatt.model.projections;
+
+/**
+ * The searchable text of a diary entry, read when building a search index.
+ *
+ * @param id      the entry ID
+ * @param title   the entry title
+ * @param content the entry content
+ */
+public record EntryText(long id, String title, String content) {
+}
@@ -0,0 +1,10 @@
+package edu.ntnu.idi.idatt.model.projections;
+
+/**
+ * The title of a diary entry, read when building the title completion index.
+ *
+ * @param id    the entry ID
+ * @param title the entry title
+ */
+public record EntryTitle(long id, String title) {
+}
@@ -0,0 +1,70 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The width of the time buckets an activity series is counted in. Weeks start on Monday.
+ */
+public enum ActivityBucket {
+  DAY(ChronoUnit.DAYS, "day"),
+  WEEK(ChronoUnit.WEEKS, "date(day, '-6 days', 'weekday 1')"),
+  MONTH(ChronoUnit.MONTHS, "date(day, 'start of month')");
+
+  private final ChronoUnit unit;
+  private final String sqlStart;
+
+  ActivityBucket(ChronoUnit unit, String sqlStart) {
+    this.unit = unit;
+    this.sqlStart = sqlStart;
+  }
+
+  /**
+   * Returns the first day of the bucket containing a date.
+   *
+   * @param date the date
+   * @return the start of its bucket
+   */
+  public LocalDate startOf(LocalDate date) {
+    return switch (this) {
+      case DAY -> date;
+      case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH -> date.withDayOfMonth(1);
+    };
+  }
+
+  /**
+   * Returns the position of the bucket containing a date, counted from the bucket containing
+   * another date.
+   *
+   * @param origin the date whose bucket has index 0
+   * @param date   the date to find the bucket of
+   * @return the number of whole buckets between the two bucket starts
+   */
+  public int indexOf(LocalDate origin, LocalDate date) {
+    return (int) unit.between(startOf(origin), startOf(date));
+  }
+
+  /**
+   * Returns the first day of the bucket at an index.
+   *
+   * @param origin the date whose bucket has index 0
+   * @param index  the bucket index
+   * @return the start of the bucket
+   */
+  public LocalDate startAt(LocalDate origin, int index) {
+    return startOf(origin).plus(index, unit);
+  }
+
+  /**
+   * Returns the SQLite expression for the bucket start of the {@code day} column
+   * ({@code YYYY-MM-DD} text).
+   *
+   * @return the SQL expression
+   */
+  String sqlStart() {
+    return sqlStart;
+  }
+}
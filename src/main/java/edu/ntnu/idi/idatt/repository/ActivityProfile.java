@@ -0,0 +1,78 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.time.DayOfWeek;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * When entries are written: entry counts per weekday and per hour of the day, and the number of
+ * words written. The arrays are not copied; callers must not modify them.
+ *
+ * @param entriesByWeekday the entry count per weekday, Monday first (length 7)
+ * @param entriesByHour    the entry count per hour of the day, from 0 (length 24)
+ * @param totalEntries     the number of entries
+ * @param totalWords       the number of words in the content of all entries
+ */
+public record ActivityProfile(long[] entriesByWeekday, long[] entriesByHour, long totalEntries,
+    long totalWords) {
+
+  /**
+   * Creates a new profile.
+   *
+   * @throws NullPointerException     if either array is null
+   * @throws IllegalArgumentException if an array has the wrong length
+   */
+  public ActivityProfile {
+    Objects.requireNonNull(entriesByWeekday, "Weekday counts cannot be null");
+    Objects.requireNonNull(entriesByHour, "Hour counts cannot be null");
+    if (entriesByWeekday.length != 7 || entriesByHour.length != 24) {
+      throw new IllegalArgumentException("Expected 7 weekday and 24 hour counts");
+    }
+  }
+
+  /**
+   * Returns the weekday with the most entries. Ties go to the earliest day of the week.
+   *
+   * @return the busiest weekday, or empty if there are no entries
+   */
+  public Optional<DayOfWeek> busiestWeekday() {
+    int index = indexOfMax(entriesByWeekday);
+    return index < 0 ? Optional.empty() : Optional.of(DayOfWeek.of(index + 1));
+  }
+
+  /**
+   * Returns the hour of the day with the most entries. Ties go to the earliest hour.
+   *
+   * @return the busiest hour from 0 to 23, or empty if there are no entries
+   */
+  public OptionalInt busiestHour() {
+    int index = indexOfMax(entriesByHour);
+    return index < 0 ? OptionalInt.empty() : OptionalInt.of(index);
+  }
+
+  /**
+   * Returns the average number of words per entry.
+   *
+   * @return the average, or 0 if there are no entries
+   */
+  public double averageWordsPerEntry() {
+    return totalEntries == 0 ? 0 : (double) totalWords / totalEntries;
+  }
+
+  /**
+   * Finds the first index of the largest positive count.
+   *
+   * @param counts the counts
+   * @return the index, or -1 if every count is zero
+   */
+  private static int indexOfMax(long[] counts) {
+    int best = -1;
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0 && (best < 0 || counts[i] > counts[best])) {
+        best = i;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,459 @@
+package edu.ntnu.idi.idatt.repository;
+
+import edu.ntnu.idi.idatt.model.projections.AuthorStreak;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+/**
+ * Repository for writing activity over time: entry counts per day, week or month, per weekday and
+ * hour, writing streaks and word counts.
+ *
+ * <p>The figures come from the {@code entry_activity} rollup, one row per author, local day and
+ * hour holding the number of entries and words written. SQLite triggers on {@code diary_entries}
+ * keep it current in the same transaction as every write, so no query reads the entries
+ * themselves.
+ *
+ * <p>Days before today rarely change, so their part of each result is cached. The triggers bump
+ * a revision number whenever an entry dated before today is added, removed or changed; cached
+ * parts are dropped when the revision or the date changes. Only today's and future days are
+ * queried on every call.
+ */
+public class ActivityRepository {
+
+  private static final String TABLE = "entry_activity";
+  private static final String REVISION_TABLE = "entry_activity_revision";
+  private static final int MAX_CACHED_RESULTS = 64;
+
+  // Offsets into the array a cached profile is stored as
+  private static final int PROFILE_HOURS = 7;
+  private static final int PROFILE_ENTRIES = PROFILE_HOURS + 24;
+  private static final int PROFILE_WORDS = PROFILE_ENTRIES + 1;
+
+  private static final List<String> SCHEMA = List.of(
+      "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+          + "author_id INTEGER NOT NULL, day TEXT NOT NULL, hour INTEGER NOT NULL, "
+          + "entry_count INTEGER NOT NULL, word_count INTEGER NOT NULL, "
+          + "PRIMARY KEY (author_id, day, hour)) WITHOUT ROWID",
+      "CREATE INDEX IF NOT EXISTS " + TABLE + "_day ON " + TABLE + " (day)",
+      "CREATE TABLE IF NOT EXISTS " + REVISION_TABLE + " ("
+          + "id INTEGER PRIMARY KEY CHECK (id = 1), revision INTEGER NOT NULL)",
+      "INSERT OR IGNORE INTO " + REVISION_TABLE + " (id, revision) VALUES (1, 0)",
+      "CREATE TRIGGER IF NOT EXISTS entry_activity_ai AFTER INSERT ON diary_entries BEGIN "
+          + adjust("new", 1) + " END",
+      "CREATE TRIGGER IF NOT EXISTS entry_activity_ad AFTER DELETE ON diary_entries BEGIN "
+          + adjust("old", -1) + " END",
+      "CREATE TRIGGER IF NOT EXISTS entry_activity_au "
+          + "AFTER UPDATE OF author_id, content, created_at ON diary_entries "
+          + "WHEN old.author_id IS NOT new.author_id OR old.content IS NOT new.content "
+          + "OR old.created_at IS NOT new.created_at BEGIN "
+          + adjust("old", -1) + " " + adjust("new", 1) + " END");
+
+  // The rollup computed from the entries, in the column order of the table
+  private static final String ACTUAL_ACTIVITY = "SELECT e.author_id, " + day("e") + ", "
+      + hour("e") + ", COUNT(*), SUM(" + wordCount("e.content") + ") "
+      + "FROM diary_entries e GROUP BY 1, 2, 3";
+
+  private static final String STORED_ACTIVITY =
+      "SELECT author_id, day, hour, entry_count, word_count FROM " + TABLE;
+
+  private final SessionFactory sessionFactory;
+
+  // Results for the days before cachedDay, valid while the revision is cachedRevision
+  private final Map<String, long[]> closedResults =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+          return size() > MAX_CACHED_RESULTS;
+        }
+      };
+  private long cachedRevision = -1;
+  private LocalDate cachedDay;
+
+  /**
+   * Creates a new ActivityRepository with the given SessionFactory.
+   *
+   * @param sessionFactory the Hibernate SessionFactory
+   * @throws NullPointerException if sessionFactory is null
+   */
+  public ActivityRepository(SessionFactory sessionFactory) {
+    this.sessionFactory = Objects.requireNonNull(sessionFactory, "SessionFactory cannot be null");
+  }
+
+  /**
+   * Returns the SQLite expression for the local creation day ({@code YYYY-MM-DD}) of an entry row.
+   * Timestamps are stored as epoch milliseconds.
+   *
+   * @param row the row alias, e.g. {@code new}
+   * @return the SQL expression
+   */
+  private static String day(String row) {
+    return "date(" + row + ".created_at / 1000, 'unixepoch', 'localtime')";
+  }
+
+  /**
+   * Returns the SQLite expression for the local creation hour (0 to 23) of an entry row.
+   *
+   * @param row the row alias
+   * @return the SQL expression
+   */
+  private static String hour(String row) {
+    return "CAST(strftime('%H', " + row + ".created_at / 1000, 'unixepoch', 'localtime') "
+        + "AS INTEGER)";
+  }
+
+  /**
+   * Returns the SQLite expression counting the words of a text: the runs of characters between
+   * spaces, tabs and line breaks. Runs of more than a dozen blanks count as extra words.
+   *
+   * @param text the SQL expression for the text
+   * @return the SQL expression
+   */
+  static String wordCount(String text) {
+    String blanksAsSpaces = "replace(replace(replace(" + text
+        + ", char(13), ' '), char(10), ' '), char(9), ' ')";
+    String collapsed = "replace(replace(replace(trim(" + blanksAsSpaces
+        + "), '    ', ' '), '  ', ' '), '  ', ' ')";
+    return "(CASE WHEN trim(" + blanksAsSpaces + ") = '' THEN 0 "
+        + "ELSE length(" + collapsed + ") - length(replace(" + collapsed + ", ' ', '')) + 1 END)";
+  }
+
+  /**
+   * Returns the trigger statements that add an entry row to, or remove it from, the rollup.
+   *
+   * @param row  the row alias, {@code new} or {@code old}
+   * @param sign 1 to add the row, -1 to remove it
+   * @return the statements, each terminated by a semicolon
+   */
+  private static String adjust(String row, int sign) {
+    String key = "author_id = " + row + ".author_id AND day = " + day(row)
+        + " AND hour = " + hour(row);
+    return "INSERT INTO " + TABLE + " (author_id, day, hour, entry_count, word_count) "
+        + "VALUES (" + row + ".author_id, " + day(row) + ", " + hour(row) + ", " + sign + ", "
+        + sign + " * " + wordCount(row + ".content") + ") "
+        + "ON CONFLICT (author_id, day, hour) DO UPDATE SET "
+        + "entry_count = entry_count + excluded.entry_count, "
+        + "word_count = word_count + excluded.word_count; "
+        + (sign < 0 ? "DELETE FROM " + TABLE + " WHERE " + key + " AND entry_count <= 0; "
+            : "")
+        + "UPDATE " + REVISION_TABLE + " SET revision = revision + 1 "
+        + "WHERE " + day(row) + " < date('now', 'localtime');";
+  }
+
+  /**
+   * Creates the rollup table and its triggers if they do not exist yet. A newly created rollup is
+   * populated from the existing entries. Call once at startup, after the schema has been created.
+   */
+  public void initActivity() {
+    executeInTransaction(session -> {
+      session.doWork(connection -> {
+        boolean exists;
+        try (var statement = connection.prepareStatement(
+            "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+          statement.setString(1, TABLE);
+          try (var rows = statement.executeQuery()) {
+            exists = rows.next();
+          }
+        }
+        try (Statement statement = connection.createStatement()) {
+          for (String ddl : SCHEMA) {
+            statement.execute(ddl);
+          }
+          if (!exists) {
+            statement.execute("INSERT INTO " + TABLE + " " + ACTUAL_ACTIVITY);
+          }
+        }
+      });
+      return null;
+    });
+  }
+
+  /**
+   * Compares the rollup with the entries.
+   *
+   * @return the number of rollup rows that are wrong, missing or superfluous
+   */
+  public long verifyActivity() {
+    try (Session session = sessionFactory.openSession()) {
+      Number stale = (Number) session.createNativeQuery(
+              "SELECT (SELECT COUNT(*) FROM (" + ACTUAL_ACTIVITY + " EXCEPT " + STORED_ACTIVITY
+                  + ")) + (SELECT COUNT(*) FROM (" + STORED_ACTIVITY + " EXCEPT "
+                  + ACTUAL_ACTIVITY + "))", Object.class)
+          .getSingleResult();
+      return stale.longValue();
+    }
+  }
+
+  /**
+   * Recomputes the rollup from the entries and drops every cached result. Use this on databases
+   * modified while the triggers were missing, e.g. by external tools.
+   */
+  public void rebuildActivity() {
+    executeInTransaction(session -> {
+      session.doWork(connection -> {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("DELETE FROM " + TABLE);
+          statement.execute("INSERT INTO " + TABLE + " " + ACTUAL_ACTIVITY);
+          statement.execute("UPDATE " + REVISION_TABLE + " SET revision = revision + 1");
+        }
+      });
+      return null;
+    });
+  }
+
+  /**
+   * Counts the entries created in each bucket of a date range.
+   *
+   * @param bucket   the bucket width
+   * @param from     the first day to count (inclusive)
+   * @param to       the last day to count (inclusive)
+   * @param authorId the author whose entries to count, or null for all authors
+   * @return the series, starting with the bucket containing {@code from}
+   * @throws NullPointerException     if bucket, from or to is null
+   * @throws IllegalArgumentException if to is before from
+   */
+  public ActivitySeries findSeries(ActivityBucket bucket, LocalDate from, LocalDate to,
+      Long authorId) {
+    Objects.requireNonNull(bucket, "Bucket cannot be null");
+    Objects.requireNonNull(from, "Start date cannot be null");
+    Objects.requireNonNull(to, "End date cannot be null");
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("End date cannot be before start date");
+    }
+    long[] counts = new long[bucket.indexOf(from, to) + 1];
+    LocalDate today = LocalDate.now();
+    try (Session session = sessionFactory.openSession()) {
+      long revision = readRevision(session);
+      if (from.isBefore(today)) {
+        LocalDate closedEnd = to.isBefore(today) ? to : today.minusDays(1);
+        String key = "series:" + bucket + ":" + from + ":" + closedEnd + ":" + authorId;
+        long[] closed = closedResult(key, revision, today,
+            () -> querySeries(session, bucket, from, from, closedEnd, authorId, counts.length));
+        addInto(counts, closed);
+      }
+      if (!to.isBefore(today)) {
+        LocalDate openStart = from.isAfter(today) ? from : today;
+        addInto(counts, querySeries(session, bucket, from, openStart, to, authorId,
+            counts.length));
+      }
+    }
+    return new ActivitySeries(bucket, bucket.startOf(from), counts);
+  }
+
+  /**
+   * Counts entries per weekday and hour and sums their words.
+   *
+   * @param authorId the author whose entries to count, or null for all authors
+   * @return the profile over all time
+   */
+  public ActivityProfile findProfile(Long authorId) {
+    LocalDate today = LocalDate.now();
+    long[] totals;
+    try (Session session = sessionFactory.openSession()) {
+      long revision = readRevision(session);
+      totals = closedResult("profile:" + authorId, revision, today,
+          () -> queryProfile(session, "day < :today", today, authorId)).clone();
+      addInto(totals, queryProfile(session, "day >= :today", today, authorId));
+    }
+    long[] byWeekday = new long[7];
+    long[] byHour = new long[24];
+    System.arraycopy(totals, 0, byWeekday, 0, 7);
+    System.arraycopy(totals, PROFILE_HOURS, byHour, 0, 24);
+    return new ActivityProfile(byWeekday, byHour, totals[PROFILE_ENTRIES], totals[PROFILE_WORDS]);
+  }
+
+  /**
+   * Finds the longest run of consecutive writing days of every author. Ties go to the most
+   * recent run.
+   *
+   * @return the streak of every author, longest first (never null)
+   */
+  public List<AuthorStreak> findLongestStreaks() {
+    try (Session session = sessionFactory.openSession()) {
+      List<Object[]> rows = session.createNativeQuery(
+              "WITH days AS (SELECT DISTINCT author_id, day FROM " + TABLE + "), "
+                  // Consecutive days share the same day number minus row number
+                  + "runs AS (SELECT author_id, day, julianday(day) - ROW_NUMBER() OVER "
+                  + "(PARTITION BY author_id ORDER BY day) AS run FROM days), "
+                  + "streaks AS (SELECT author_id, MIN(day) AS first_day, MAX(day) AS last_day, "
+                  + "COUNT(*) AS length FROM runs GROUP BY author_id, run), "
+                  + "ranked AS (SELECT *, ROW_NUMBER() OVER (PARTITION BY author_id "
+                  + "ORDER BY length DESC, last_day DESC) AS rank FROM streaks) "
+                  + "SELECT a.id, a.first_name || ' ' || a.last_name, COALESCE(r.length, 0), "
+                  + "r.first_day, r.last_day FROM authors a "
+                  + "LEFT JOIN ranked r ON r.author_id = a.id AND r.rank = 1 "
+                  + "ORDER BY COALESCE(r.length, 0) DESC, a.created_at DESC", Object[].class)
+          .list();
+      return rows.stream()
+          .map(row -> new AuthorStreak(((Number) row[0]).longValue(), (String) row[1],
+              ((Number) row[2]).intValue(), parseDay(row[3]), parseDay(row[4])))
+          .toList();
+    }
+  }
+
+  /**
+   * Parses a {@code day} column value.
+   *
+   * @param value the column value
+   * @return the date, or null if the value is null
+   */
+  private static LocalDate parseDay(Object value) {
+    return value == null ? null : LocalDate.parse((String) value);
+  }
+
+  /**
+   * Reads the revision number bumped by the triggers on every change to a past day.
+   *
+   * @param session the session to read in
+   * @return the current revision
+   */
+  private static long readRevision(Session session) {
+    Number revision = (Number) session.createNativeQuery(
+            "SELECT revision FROM " + REVISION_TABLE + " WHERE id = 1", Object.class)
+        .getSingleResult();
+    return revision.longValue();
+  }
+
+  /**
+   * Returns a cached result for the days before today, computing and caching it if needed.
+   * Every cached result is dropped when the revision or the date has changed since it was
+   * cached.
+   *
+   * @param key      identifies the query and its parameters
+   * @param revision the revision read before the query
+   * @param today    the current date
+   * @param query    computes the result
+   * @return the result; callers must not modify it
+   */
+  private long[] closedResult(String key, long revision, LocalDate today,
+      Supplier<long[]> query) {
+    synchronized (closedResults) {
+      if (revision != cachedRevision || !today.equals(cachedDay)) {
+        closedResults.clear();
+        cachedRevision = revision;
+        cachedDay = today;
+      }
+      long[] cached = closedResults.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    long[] result = query.get();
+    synchronized (closedResults) {
+      if (revision == cachedRevision && today.equals(cachedDay)) {
+        closedResults.put(key, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Queries the entry counts per bucket for a range of days.
+   *
+   * @param session  the session to query in
+   * @param bucket   the bucket width
+   * @param origin   the date whose bucket has index 0
+   * @param start    the first day to count
+   * @param end      the last day to count
+   * @param authorId the author to count, or null for all
+   * @param length   the number of buckets
+   * @return the counts per bucket
+   */
+  private static long[] querySeries(Session session, ActivityBucket bucket, LocalDate origin,
+      LocalDate start, LocalDate end, Long authorId, int length) {
+    var query = session.createNativeQuery(
+        "SELECT " + bucket.sqlStart() + ", SUM(entry_count) FROM " + TABLE
+            + " WHERE day BETWEEN :start AND :end"
+            + (authorId != null ? " AND author_id = :authorId" : "")
+            + " GROUP BY 1", Object[].class);
+    query.setParameter("start", start.toString());
+    query.setParameter("end", end.toString());
+    if (authorId != null) {
+      query.setParameter("authorId", authorId);
+    }
+    long[] counts = new long[length];
+    for (Object[] row : query.list()) {
+      counts[bucket.indexOf(origin, LocalDate.parse((String) row[0]))] +=
+          ((Number) row[1]).longValue();
+    }
+    return counts;
+  }
+
+  /**
+   * Queries weekday, hour and word totals for the days matching a condition.
+   *
+   * @param session   the session to query in
+   * @param condition the SQL condition on {@code day}, using the {@code :today} parameter
+   * @param today     the current date
+   * @param authorId  the author to count, or null for all
+   * @return 7 weekday counts (Monday first), 24 hour counts, the entry total and the word total
+   */
+  private static long[] queryProfile(Session session, String condition, LocalDate today,
+      Long authorId) {
+    var query = session.createNativeQuery(
+        "SELECT CAST(strftime('%w', day) AS INTEGER), hour, SUM(entry_count), "
+            + "SUM(word_count) FROM " + TABLE + " WHERE " + condition
+            + (authorId != null ? " AND author_id = :authorId" : "")
+            + " GROUP BY 1, 2", Object[].class);
+    query.setParameter("today", today.toString());
+    if (authorId != null) {
+      query.setParameter("authorId", authorId);
+    }
+    long[] totals = new long[PROFILE_WORDS + 1];
+    for (Object[] row : query.list()) {
+      // strftime('%w') counts from Sunday = 0
+      int weekday = (((Number) row[0]).intValue() + 6) % 7;
+      int hour = ((Number) row[1]).intValue();
+      long entries = ((Number) row[2]).longValue();
+      totals[weekday] += entries;
+      totals[PROFILE_HOURS + hour] += entries;
+      totals[PROFILE_ENTRIES] += entries;
+      totals[PROFILE_WORDS] += ((Number) row[3]).longValue();
+    }
+    return totals;
+  }
+
+  /**
+   * Adds one array of counts into another of the same length.
+   *
+   * @param target the counts to add to
+   * @param source the counts to add
+   */
+  private static void addInto(long[] target, long[] source) {
+    for (int i = 0; i < target.length; i++) {
+      target[i] += source[i];
+    }
+  }
+
+  /**
+   * Executes an operation within a transaction, handling commit and rollback.
+   *
+   * @param operation the operation to execute
+   * @param <T>       the return type
+   * @return the result of the operation
+   */
+  private <T> T executeInTransaction(Function<Session, T> operation) {
+    try (Session session = sessionFactory.openSession()) {
+      Transaction transaction = session.beginTransaction();
+      try {
+        T result = operation.apply(session);
+        transaction.commit();
+        return result;
+      } catch (RuntimeException e) {
+        // Roll back before the session is closed; a failed commit may have done so already
+        if (transaction.isActive()) {
+          transaction.rollback();
+        }
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Entry counts per time bucket over a date range.
+ *
+ * <p>{@code counts[i]} is the number of entries created in the bucket starting at
+ * {@link #bucketStart(int) bucketStart(i)}. The first and last buckets only count the days inside
+ * the requested range. The array is not copied; callers must not modify it.
+ *
+ * @param bucket the bucket width
+ * @param start  the first day of the first bucket
+ * @param counts the entry count of each bucket, oldest first
+ */
+public record ActivitySeries(ActivityBucket bucket, LocalDate start, long[] counts) {
+
+  /**
+   * Creates a new series.
+   *
+   * @throws NullPointerException if any argument is null
+   */
+  public ActivitySeries {
+    Objects.requireNonNull(bucket, "Bucket cannot be null");
+    Objects.requireNonNull(start, "Start cannot be null");
+    Objects.requireNonNull(counts, "Counts cannot be null");
+  }
+
+  /**
+   * Returns the first day of a bucket.
+   *
+   * @param index the bucket index
+   * @return the start of the bucket
+   */
+  public LocalDate bucketStart(int index) {
+    return bucket.startAt(start, index);
+  }
+
+  /**
+   * Returns the number of entries in the whole series.
+   *
+   * @return the sum of all buckets
+   */
+  public long total() {
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    return total;
+  }
+}
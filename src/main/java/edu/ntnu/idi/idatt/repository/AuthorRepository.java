@@ -1,19 +1,52 @@
 package edu.ntnu.idi.idatt.repository;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
+import jakarta.persistence.OptimisticLockException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import org.hibernate.CacheMode;
+import org.hibernate.JDBCException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.exception.LockAcquisitionException;
 
 /**
  * Repository class for Author entity database operations.
+ *
+ * <p>Authors are held in the second-level cache and the lookup queries are cached in the
+ * {@value #QUERY_CACHE_REGION} region. Hibernate invalidates both on every write made through
+ * this repository.
  */
 public class AuthorRepository {
 
+  static final String QUERY_CACHE_REGION = "author-queries";
+
+  /**
+   * Number of emails looked up per query by {@link #saveAllIfAbsent(Collection)} after a
+   * conflict, well below the SQLite limit on parameters per statement.
+   */
+  static final int EMAIL_LOOKUP_CHUNK_SIZE = 500;
+
+  /**
+   * Number of times {@link #saveAllIfAbsent(Collection)} inserts the authors before giving up on
+   * conflicting writers.
+   */
+  static final int MAX_SAVE_ATTEMPTS = 5;
+
+  // Well below the SQLite limit on parameters per statement
+  private static final int ID_LOOKUP_CHUNK_SIZE = 500;
+
+  // Primary SQLite result code of a failed constraint; the extended codes carry it in the low byte
+  private static final int SQLITE_CONSTRAINT = 19;
+
   private final SessionFactory sessionFactory;
 
   /**
@@ -41,6 +74,179 @@ public class AuthorRepository {
     });
   }
 
+  /**
+   * Saves many new authors in one transaction, flushed as JDBC batches. The authors are not put
+   * in the second-level cache.
+   *
+   * @param authors the authors to save
+   * @return the number of authors saved
+   * @throws NullPointerException if authors or any author is null
+   */
+  public long saveAll(Iterable<Author> authors) {
+    Objects.requireNonNull(authors, "Authors cannot be null");
+    return executeInTransaction(session -> {
+      session.setCacheMode(CacheMode.IGNORE);
+      long saved = 0;
+      for (Author author : authors) {
+        session.persist(Objects.requireNonNull(author, "Author cannot be null"));
+        saved++;
+      }
+      return saved;
+    });
+  }
+
+  /**
+   * Saves an author unless the email is already in use.
+   *
+   * @param author the author to save; it is left unsaved, a copy of it is stored
+   * @return the stored author with the author's email, and whether it was saved by this call
+   * @throws NullPointerException if author is null
+   * @see #saveAllIfAbsent(Collection)
+   */
+  public SavedAuthor saveIfAbsent(Author author) {
+    Objects.requireNonNull(author, "Author cannot be null");
+    return saveAllIfAbsent(List.of(author)).get(0);
+  }
+
+  /**
+   * Saves each of the given authors whose email is not in use yet. The authors are inserted
+   * first, in one transaction flushed as JDBC batches, without looking up their emails.
+   *
+   * <p>If one of the emails is already stored, the unique constraint on email rejects the insert
+   * and the transaction is rolled back. Only then are the emails not known to be stored looked up,
+   * with one query per {@value #EMAIL_LOOKUP_CHUNK_SIZE} emails, and the authors still absent are
+   * inserted again, up to {@value #MAX_SAVE_ATTEMPTS} attempts in all. A rejected insert whose
+   * lookup finds no new author was not caused by an email in use, and is rethrown. An attempt that
+   * runs into the write lock of another connection is retried the same way, without the lookup.
+   * Copies of the given authors are persisted, which keeps the given authors unsaved for the next
+   * attempt.
+   *
+   * @param authors the authors to save
+   * @return the stored author for each of the given authors, in the same order. An email given
+   *     more than once is saved once, by its first author.
+   * @throws NullPointerException if authors or any author is null
+   */
+  public List<SavedAuthor> saveAllIfAbsent(Collection<Author> authors) {
+    Objects.requireNonNull(authors, "Authors cannot be null");
+    authors.forEach(author -> Objects.requireNonNull(author, "Author cannot be null"));
+    Map<String, Author> stored = new HashMap<>();
+    for (int attempt = 1; ; attempt++) {
+      // The copies persisted by a failed attempt are discarded with it
+      Map<String, Author> known = new HashMap<>(stored);
+      try {
+        return executeInTransaction(session -> persistAbsent(session, authors, known));
+      } catch (RuntimeException e) {
+        if (attempt == MAX_SAVE_ATTEMPTS) {
+          throw e;
+        }
+        if (isConstraintViolation(e)) {
+          List<String> unknown = authors.stream().map(Author::getEmail).distinct()
+              .filter(email -> !stored.containsKey(email))
+              .toList();
+          Map<String, Author> found = findAllByEmail(unknown);
+          if (found.isEmpty()) {
+            throw e;
+          }
+          stored.putAll(found);
+        } else if (!isLockConflict(e)) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether a failed attempt of {@link #saveAllIfAbsent(Collection)} was rejected by a
+   * constraint, such as the unique constraint on email.
+   *
+   * @param e the failure
+   * @return true if the failure was a constraint violation
+   */
+  private static boolean isConstraintViolation(RuntimeException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      // A rejected batch is not always reported as a ConstraintViolationException
+      if (cause instanceof JDBCException jdbc
+          && (jdbc.getErrorCode() & 0xFF) == SQLITE_CONSTRAINT) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether a failed attempt of {@link #saveAllIfAbsent(Collection)} ran into the write
+   * lock of another connection, so that another attempt can succeed.
+   *
+   * @param e the failure
+   * @return true if the failure was a lock timeout
+   */
+  private static boolean isLockConflict(RuntimeException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof LockAcquisitionException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the authors with the given emails, bypassing the query cache so that authors stored
+   * by other processes are seen.
+   *
+   * @param emails the normalized emails to look up
+   * @return the authors found, by email
+   */
+  private Map<String, Author> findAllByEmail(List<String> emails) {
+    Map<String, Author> found = new HashMap<>();
+    try (Session session = sessionFactory.openSession()) {
+      for (int from = 0; from < emails.size(); from += EMAIL_LOOKUP_CHUNK_SIZE) {
+        session.createQuery("FROM Author a WHERE a.email IN :emails", Author.class)
+            .setParameterList("emails",
+                emails.subList(from, Math.min(from + EMAIL_LOOKUP_CHUNK_SIZE, emails.size())))
+            .list()
+            .forEach(author -> found.put(author.getEmail(), author));
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Persists copies of the given authors whose emails are not known to be stored. The copies are
+   * inserted when the session is flushed.
+   *
+   * @param session the session to persist the copies in
+   * @param authors the authors to save
+   * @param stored  the authors known to be stored, by email; the persisted copies are added to it
+   * @return the stored author for each of the given authors, in the same order
+   */
+  private static List<SavedAuthor> persistAbsent(Session session, Collection<Author> authors,
+      Map<String, Author> stored) {
+    List<SavedAuthor> saved = new ArrayList<>(authors.size());
+    for (Author candidate : authors) {
+      Author author = stored.get(candidate.getEmail());
+      if (author != null) {
+        saved.add(new SavedAuthor(author, false));
+        continue;
+      }
+      author = new Author(candidate.getFirstName(), candidate.getLastName(), candidate.getEmail());
+      session.persist(author);
+      stored.put(author.getEmail(), author);
+      saved.add(new SavedAuthor(author, true));
+    }
+    return saved;
+  }
+
+  /**
+   * Moves the author ID generator past the highest author ID in the database. Call once at
+   * startup, before any author is saved.
+   */
+  public void initIdGenerator() {
+    executeInTransaction(session -> {
+      IdGenerators.seed(session, "authors", "authors");
+      return null;
+    });
+  }
+
   /**
    * Finds an author by their ID.
    *
@@ -55,6 +261,40 @@ public class AuthorRepository {
     }
   }
 
+  /**
+   * Finds the authors with the given IDs, in the order of the IDs, with one query per
+   * {@value #ID_LOOKUP_CHUNK_SIZE} IDs. IDs that do not exist are skipped.
+   *
+   * @param ids the author IDs
+   * @return the matching authors (never null)
+   * @throws NullPointerException if ids is null
+   */
+  public List<Author> findByIds(Collection<Long> ids) {
+    Objects.requireNonNull(ids, "IDs cannot be null");
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    List<Long> distinct = ids.stream().distinct().toList();
+    Map<Long, Author> byId = new HashMap<>();
+    try (Session session = sessionFactory.openSession()) {
+      for (int from = 0; from < distinct.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+        session.createQuery("FROM Author a WHERE a.id IN :ids", Author.class)
+            .setParameterList("ids",
+                distinct.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, distinct.size())))
+            .list()
+            .forEach(author -> byId.put(author.getId(), author));
+      }
+    }
+    List<Author> ordered = new ArrayList<>(byId.size());
+    for (Long id : ids) {
+      Author author = byId.get(id);
+      if (author != null) {
+        ordered.add(author);
+      }
+    }
+    return ordered;
+  }
+
   /**
    * Finds an author by their email.
    *
@@ -68,6 +308,8 @@ public class AuthorRepository {
       return session
           .createQuery("FROM Author WHERE email = :email", Author.class)
           .setParameter("email", email.toLowerCase())
+          .setCacheable(true)
+          .setCacheRegion(QUERY_CACHE_REGION)
           .uniqueResultOptional();
     }
   }
@@ -79,7 +321,10 @@ public class AuthorRepository {
    */
   public List<Author> findAll() {
     try (Session session = sessionFactory.openSession()) {
-      return session.createQuery("FROM Author ORDER BY createdAt DESC", Author.class).list();
+      return session.createQuery("FROM Author ORDER BY createdAt DESC", Author.class)
+          .setCacheable(true)
+          .setCacheRegion(QUERY_CACHE_REGION)
+          .list();
     }
   }
 
@@ -88,24 +333,119 @@ public class AuthorRepository {
    *
    * @param author the author to update
    * @return the updated author
-   * @throws NullPointerException if author is null
+   * @throws NullPointerException    if author is null
+   * @throws OptimisticLockException if the author was changed or deleted since it was loaded
    */
   public Author update(Author author) {
     Objects.requireNonNull(author, "Author cannot be null");
-    return executeInTransaction(session -> session.merge(author));
+    Author merged = executeInTransaction(session -> session.merge(author));
+    if (merged.getVersion() != author.getVersion()) {
+      // Keep the caller's copy current, so it can be updated or deleted again
+      author.markUpdated(merged.getUpdatedAt());
+    }
+    return merged;
   }
 
   /**
-   * Deletes an author from the database.
+   * Updates the first and/or last name of an author with a single UPDATE statement, without
+   * loading the author first. The values are written as given, so they should be validated by
+   * the caller.
    *
-   * @param author the author to delete
-   * @throws NullPointerException if author is null
+   * <p>The update only applies if the author still has the version it was loaded with. It then
+   * moves the version on and calls {@link Author#markUpdated} on the given author.
+   *
+   * @param author    the author to update, as loaded
+   * @param firstName the new first name, or null to keep the current first name
+   * @param lastName  the new last name, or null to keep the current last name
+   * @return true if the author was updated, false if it was changed or deleted since it was loaded
+   * @throws NullPointerException     if author or its ID is null
+   * @throws IllegalArgumentException if both firstName and lastName are null
    */
-  public void delete(Author author) {
+  public boolean updateName(Author author, String firstName, String lastName) {
     Objects.requireNonNull(author, "Author cannot be null");
-    executeInTransaction(session -> {
-      session.remove(session.contains(author) ? author : session.merge(author));
-      return null;
+    Long id = Objects.requireNonNull(author.getId(), "ID cannot be null");
+    if (firstName == null && lastName == null) {
+      throw new IllegalArgumentException("First name or last name must be given");
+    }
+    StringBuilder hql = new StringBuilder("UPDATE Author a "
+        + "SET a.version = a.version + 1, a.updatedAt = :updatedAt");
+    if (firstName != null) {
+      hql.append(", a.firstName = :firstName");
+    }
+    if (lastName != null) {
+      hql.append(", a.lastName = :lastName");
+    }
+    hql.append(" WHERE a.id = :id AND a.version = :version");
+
+    LocalDateTime updatedAt = LocalDateTime.now();
+    // Hibernate evicts the cached authors and the queries on authors after the update
+    boolean updated = executeInTransaction(session -> {
+      var query = session.createMutationQuery(hql.toString())
+          .setParameter("updatedAt", updatedAt)
+          .setParameter("id", id)
+          .setParameter("version", author.getVersion());
+      if (firstName != null) {
+        query.setParameter("firstName", firstName);
+      }
+      if (lastName != null) {
+        query.setParameter("lastName", lastName);
+      }
+      return query.executeUpdate() > 0;
+    });
+    if (updated) {
+      author.markUpdated(updatedAt);
+    }
+    return updated;
+  }
+
+  /**
+   * Deletes an author and all of their diary entries from the database, unless the author was
+   * changed since it was loaded. Both statements only match the author's version when loaded,
+   * so the entries are kept when the author is not deleted.
+   *
+   * @param author the author to delete, as loaded
+   * @return true if the author was deleted, false if it was changed or deleted since it was
+   *     loaded
+   * @throws NullPointerException if author or its ID is null
+   */
+  public boolean delete(Author author) {
+    Objects.requireNonNull(author, "Author cannot be null");
+    Long id = Objects.requireNonNull(author.getId(), "ID cannot be null");
+    long version = author.getVersion();
+    // Hibernate evicts the cached authors and entries, and the queries on both, after the deletes
+    return executeInTransaction(session -> {
+      session.createMutationQuery("DELETE FROM DiaryEntry e WHERE e.author.id IN "
+              + "(SELECT a.id FROM Author a WHERE a.id = :id AND a.version = :version)")
+          .setParameter("id", id)
+          .setParameter("version", version)
+          .executeUpdate();
+      return session.createMutationQuery(
+              "DELETE FROM Author a WHERE a.id = :id AND a.version = :version")
+          .setParameter("id", id)
+          .setParameter("version", version)
+          .executeUpdate() > 0;
+    });
+  }
+
+  /**
+   * Deletes an author and all of their diary entries by the author's ID, without loading either.
+   * Both are removed in one transaction with two DELETE statements, however many entries the
+   * author has.
+   *
+   * @param id the ID of the author to delete
+   * @return true if the author was deleted, false if it did not exist
+   * @throws NullPointerException if id is null
+   */
+  public boolean deleteById(Long id) {
+    Objects.requireNonNull(id, "ID cannot be null");
+    // Hibernate evicts the cached authors and entries, and the queries on both, after the deletes
+    return executeInTransaction(session -> {
+      session.createMutationQuery("DELETE FROM DiaryEntry e WHERE e.author.id = :id")
+          .setParameter("id", id)
+          .executeUpdate();
+      return session.createMutationQuery("DELETE FROM Author a WHERE a.id = :id")
+          .setParameter("id", id)
+          .executeUpdate() > 0;
     });
   }
 
@@ -122,6 +462,8 @@ public class AuthorRepository {
       Long count = session
           .createQuery("SELECT COUNT(a) FROM Author a WHERE a.email = :email", Long.class)
           .setParameter("email", email.toLowerCase())
+          .setCacheable(true)
+          .setCacheRegion(QUERY_CACHE_REGION)
           .uniqueResult();
       return count != null && count > 0;
     }
@@ -135,17 +477,19 @@ public class AuthorRepository {
    * @return the result of the operation
    */
   private <T> T executeInTransaction(Function<Session, T> operation) {
-    Transaction transaction = null;
     try (Session session = sessionFactory.openSession()) {
-      transaction = session.beginTransaction();
-      T result = operation.apply(session);
-      transaction.commit();
-      return result;
-    } catch (Exception e) {
-      if (transaction != null) {
-        transaction.rollback();
+      Transaction transaction = session.beginTransaction();
+      try {
+        T result = operation.apply(session);
+        transaction.commit();
+        return result;
+      } catch (RuntimeException e) {
+        // Roll back before the session is closed; a failed commit may have done so already
+        if (transaction.isActive()) {
+          transaction.rollback();
+        }
+        throw e;
       }
-      throw e;
     }
   }
 }
@@ -0,0 +1,43 @@
+package edu.ntnu.idi.idatt.repository;
+
+/**
+ * Hit and miss counts of the Hibernate second-level cache since the application started.
+ *
+ * @param entityHits    entity lookups answered from the cache
+ * @param entityMisses  entity lookups that had to query the database
+ * @param queryHits     query executions answered from the query cache
+ * @param queryMisses   cacheable query executions that had to query the database
+ */
+public record CacheStatistics(long entityHits, long entityMisses, long queryHits,
+    long queryMisses) {
+
+  /**
+   * Returns the share of entity lookups answered from the cache.
+   *
+   * @return the hit ratio between 0 and 1, or 0 if there have been no lookups
+   */
+  public double entityHitRatio() {
+    return ratio(entityHits, entityMisses);
+  }
+
+  /**
+   * Returns the share of cacheable query executions answered from the query cache.
+   *
+   * @return the hit ratio between 0 and 1, or 0 if there have been no executions
+   */
+  public double queryHitRatio() {
+    return ratio(queryHits, queryMisses);
+  }
+
+  /**
+   * Computes a hit ratio.
+   *
+   * @param hits   the number of hits
+   * @param misses the number of misses
+   * @return the hit ratio, or 0 if both counts are zero
+   */
+  private static double ratio(long hits, long misses) {
+    long total = hits + misses;
+    return total == 0 ? 0 : (double) hits / total;
+  }
+}
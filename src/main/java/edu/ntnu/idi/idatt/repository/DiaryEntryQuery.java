@@ -0,0 +1,114 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A search combining several criteria, answered by a single database query. Every null or empty
+ * criterion is left unrestricted. Start from {@link #all()} and narrow it down with the
+ * {@code with} methods, e.g.
+ * {@code DiaryEntryQuery.all().withKeyword("beach").withDateRange(from, to)}.
+ *
+ * @param keyword   text the title or content must contain, ignoring case, or null for any text
+ * @param authorIds the IDs of the authors whose entries to include; empty for all authors
+ * @param startDate the first creation date to include, or null for no lower bound
+ * @param endDate   the last creation date to include, or null for no upper bound
+ * @param sort      the order of the results
+ * @param limit     the maximum number of results
+ */
+public record DiaryEntryQuery(String keyword, Set<Long> authorIds, LocalDate startDate,
+    LocalDate endDate, EntrySort sort, int limit) {
+
+  /**
+   * Default maximum number of results.
+   */
+  public static final int DEFAULT_LIMIT = 100;
+
+  /**
+   * Creates a new query. A blank keyword is treated as no keyword, and the author IDs are copied
+   * into a sorted set so equal queries give equal HQL and parameters.
+   *
+   * @throws NullPointerException     if authorIds or sort is null, or authorIds contains null
+   * @throws IllegalArgumentException if endDate is before startDate, or limit is not positive
+   */
+  public DiaryEntryQuery {
+    Objects.requireNonNull(authorIds, "Author IDs cannot be null");
+    Objects.requireNonNull(sort, "Sort cannot be null");
+    if (startDate != null && endDate != null && endDate.isBefore(startDate)) {
+      throw new IllegalArgumentException("End date cannot be before start date");
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    keyword = keyword == null || keyword.isBlank() ? null : keyword.strip();
+    authorIds = Collections.unmodifiableSortedSet(new TreeSet<>(authorIds));
+  }
+
+  /**
+   * Returns a query for the newest {@value #DEFAULT_LIMIT} entries, without restrictions.
+   *
+   * @return the unrestricted query
+   */
+  public static DiaryEntryQuery all() {
+    return new DiaryEntryQuery(null, Set.of(), null, null, EntrySort.NEWEST, DEFAULT_LIMIT);
+  }
+
+  /**
+   * Returns a copy of this query that only includes entries containing the keyword.
+   *
+   * @param keyword the text to search for, or null or blank for any text
+   * @return the new query
+   */
+  public DiaryEntryQuery withKeyword(String keyword) {
+    return new DiaryEntryQuery(keyword, authorIds, startDate, endDate, sort, limit);
+  }
+
+  /**
+   * Returns a copy of this query that only includes entries by the given authors.
+   *
+   * @param authorIds the author IDs, or empty for all authors
+   * @return the new query
+   * @throws NullPointerException if authorIds is null or contains null
+   */
+  public DiaryEntryQuery withAuthors(Collection<Long> authorIds) {
+    return new DiaryEntryQuery(keyword, Set.copyOf(authorIds), startDate, endDate, sort, limit);
+  }
+
+  /**
+   * Returns a copy of this query that only includes entries created within a date range.
+   *
+   * @param startDate the first date, or null for no lower bound
+   * @param endDate   the last date, or null for no upper bound
+   * @return the new query
+   * @throws IllegalArgumentException if endDate is before startDate
+   */
+  public DiaryEntryQuery withDateRange(LocalDate startDate, LocalDate endDate) {
+    return new DiaryEntryQuery(keyword, authorIds, startDate, endDate, sort, limit);
+  }
+
+  /**
+   * Returns a copy of this query with another order.
+   *
+   * @param sort the order of the results
+   * @return the new query
+   * @throws NullPointerException if sort is null
+   */
+  public DiaryEntryQuery sortedBy(EntrySort sort) {
+    return new DiaryEntryQuery(keyword, authorIds, startDate, endDate, sort, limit);
+  }
+
+  /**
+   * Returns a copy of this query with another maximum number of results.
+   *
+   * @param limit the maximum number of results
+   * @return the new query
+   * @throws IllegalArgumentException if limit is not positive
+   */
+  public DiaryEntryQuery limitedTo(int limit) {
+    return new DiaryEntryQuery(keyword, authorIds, startDate, endDate, sort, limit);
+  }
+}
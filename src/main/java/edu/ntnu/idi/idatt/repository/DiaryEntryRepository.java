@@ -2,20 +2,85 @@ package edu.ntnu.idi.idatt.repository;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
 import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
+import edu.ntnu.idi.idatt.model.projections.EntryRecord;
+import edu.ntnu.idi.idatt.model.projections.EntryText;
+import edu.ntnu.idi.idatt.model.projections.EntryTitle;
+import jakarta.persistence.OptimisticLockException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.hibernate.Transaction;
 
 /**
  * Repository class for DiaryEntry entity database operations.
+ *
+ * <p>Entries are held in the second-level cache. The counts and the summary pages behind the list
+ * screens are cached in the {@value #QUERY_CACHE_REGION} region; Hibernate invalidates them
+ * whenever an entry or author is written through a session.
  */
 public class DiaryEntryRepository {
 
+  /**
+   * Number of entries committed per transaction by {@link #saveAll(Iterable)}.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  static final String QUERY_CACHE_REGION = "diary-entry-queries";
+
+  private static final String FTS_TABLE = "diary_entries_fts";
+
+  private static final String SUMMARY_SELECT = "SELECT new "
+      + DiaryEntrySummary.class.getName()
+      + "(e.id, e.title, a.id, concat(a.firstName, ' ', a.lastName), e.createdAt) "
+      + "FROM DiaryEntry e JOIN e.author a";
+
+  private static final String RECORD_SELECT = "SELECT new "
+      + EntryRecord.class.getName()
+      + "(e.id, e.title, e.content, a.email, a.firstName, a.lastName, e.createdAt, e.updatedAt) "
+      + "FROM DiaryEntry e JOIN e.author a";
+
+  private static final int STREAM_FETCH_SIZE = 1000;
+
+  // Well below the SQLite limit on parameters per statement
+  private static final int ID_LOOKUP_CHUNK_SIZE = 500;
+
+  private static final List<String> FTS_SCHEMA = List.of(
+      "CREATE VIRTUAL TABLE IF NOT EXISTS " + FTS_TABLE + " USING fts5("
+          + "title, content, content='diary_entries', content_rowid='id', "
+          + "tokenize='unicode61 remove_diacritics 2')",
+      "CREATE TRIGGER IF NOT EXISTS diary_entries_fts_ai AFTER INSERT ON diary_entries BEGIN "
+          + "INSERT INTO " + FTS_TABLE + "(rowid, title, content) "
+          + "VALUES (new.id, new.title, new.content); END",
+      "CREATE TRIGGER IF NOT EXISTS diary_entries_fts_ad AFTER DELETE ON diary_entries BEGIN "
+          + "INSERT INTO " + FTS_TABLE + "(" + FTS_TABLE + ", rowid, title, content) "
+          + "VALUES ('delete', old.id, old.title, old.content); END",
+      "CREATE TRIGGER IF NOT EXISTS diary_entries_fts_au "
+          + "AFTER UPDATE OF title, content ON diary_entries BEGIN "
+          + "INSERT INTO " + FTS_TABLE + "(" + FTS_TABLE + ", rowid, title, content) "
+          + "VALUES ('delete', old.id, old.title, old.content); "
+          + "INSERT INTO " + FTS_TABLE + "(rowid, title, content) "
+          + "VALUES (new.id, new.title, new.content); END");
+
   private final SessionFactory sessionFactory;
+  private volatile boolean fullTextSearchAvailable;
 
   /**
    * Creates a new DiaryEntryRepository with the given SessionFactory.
@@ -43,7 +108,99 @@ public class DiaryEntryRepository {
   }
 
   /**
-   * Finds a diary entry by its ID.
+   * Saves many new diary entries, committing every {@value #DEFAULT_CHUNK_SIZE} entries.
+   *
+   * @param entries the entries to save
+   * @return the number of entries saved
+   * @throws NullPointerException if entries or any entry is null
+   * @see #saveAll(Iterable, int)
+   */
+  public long saveAll(Iterable<DiaryEntry> entries) {
+    return saveAll(entries, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Saves many new diary entries in one session, committing a transaction every
+   * {@code chunkSize} entries. Each chunk is persisted, flushed as JDBC batches of
+   * {@code hibernate.jdbc.batch_size} inserts, committed and then cleared from the session, so
+   * memory use depends on the chunk size rather than on the number of entries. The entries may be
+   * produced lazily by the iterable.
+   *
+   * <p>Entries are persisted before the chunk is flushed, so the table generator reserves their
+   * IDs while this transaction holds no write lock. If a chunk fails it is rolled back; chunks
+   * committed before it stay saved. The entries are not put in the second-level cache, so a large
+   * import does not evict the entries that are actually being read.
+   *
+   * @param entries   the entries to save
+   * @param chunkSize the number of entries per transaction
+   * @return the number of entries saved
+   * @throws NullPointerException     if entries or any entry is null
+   * @throws IllegalArgumentException if chunkSize is not positive
+   */
+  public long saveAll(Iterable<DiaryEntry> entries, int chunkSize) {
+    Objects.requireNonNull(entries, "Entries cannot be null");
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    long saved = 0;
+    try (Session session = sessionFactory.openSession()) {
+      session.setCacheMode(CacheMode.IGNORE);
+      Transaction transaction = null;
+      try {
+        int pending = 0;
+        for (DiaryEntry entry : entries) {
+          Objects.requireNonNull(entry, "DiaryEntry cannot be null");
+          if (transaction == null) {
+            transaction = session.beginTransaction();
+          }
+          session.persist(entry);
+          if (++pending == chunkSize) {
+            commitChunk(session, transaction);
+            transaction = null;
+            saved += pending;
+            pending = 0;
+          }
+        }
+        if (transaction != null) {
+          commitChunk(session, transaction);
+          saved += pending;
+        }
+      } catch (RuntimeException e) {
+        if (transaction != null && transaction.isActive()) {
+          transaction.rollback();
+        }
+        throw e;
+      }
+    }
+    return saved;
+  }
+
+  /**
+   * Writes the entities pending in the session, commits and detaches them.
+   *
+   * @param session     the session holding the chunk
+   * @param transaction the transaction of the chunk
+   */
+  private static void commitChunk(Session session, Transaction transaction) {
+    session.flush();
+    transaction.commit();
+    session.clear();
+  }
+
+  /**
+   * Moves the diary entry ID generator past the highest entry ID in the database. Call once at
+   * startup, before any entry is saved.
+   */
+  public void initIdGenerator() {
+    executeInTransaction(session -> {
+      IdGenerators.seed(session, "diary_entries", "diary_entries");
+      return null;
+    });
+  }
+
+  /**
+   * Finds a diary entry by its ID. Unlike the list queries, the entry is returned with its
+   * content loaded.
    *
    * @param id the entry ID
    * @return an Optional containing the entry, or empty if not found
@@ -52,7 +209,12 @@ public class DiaryEntryRepository {
   public Optional<DiaryEntry> findById(Long id) {
     Objects.requireNonNull(id, "ID cannot be null");
     try (Session session = sessionFactory.openSession()) {
-      return Optional.ofNullable(session.get(DiaryEntry.class, id));
+      DiaryEntry entry = session.get(DiaryEntry.class, id);
+      if (entry != null) {
+        // Load the lazy content while the session is open
+        entry.getContent();
+      }
+      return Optional.ofNullable(entry);
     }
   }
 
@@ -127,78 +289,693 @@ public class DiaryEntryRepository {
   }
 
   /**
-   * Finds all diary entries created on a specific date.
+   * Searches for summaries of diary entries containing the given text in title or content.
+   * Results are sorted by creation date (newest first).
    *
-   * @param date the date to search for
-   * @return a list of entries created on that date (never null)
-   * @throws NullPointerException if date is null
+   * @param searchText the text to search for (case-insensitive)
+   * @return a list of matching entry summaries (never null)
+   * @throws NullPointerException if searchText is null
    */
-  public List<DiaryEntry> findByDate(java.time.LocalDate date) {
-    Objects.requireNonNull(date, "Date cannot be null");
+  public List<DiaryEntrySummary> searchSummariesByTitleOrContent(String searchText) {
+    Objects.requireNonNull(searchText, "Search text cannot be null");
     try (Session session = sessionFactory.openSession()) {
-      java.time.LocalDateTime startOfDay = date.atStartOfDay();
-      java.time.LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
+      String pattern = "%" + searchText.toLowerCase() + "%";
       return session
-          .createQuery(
-              "FROM DiaryEntry WHERE createdAt >= :start AND createdAt < :end "
-                  + "ORDER BY createdAt DESC",
+          .createQuery(SUMMARY_SELECT
+                  + " WHERE LOWER(e.title) LIKE :pattern OR LOWER(e.content) LIKE :pattern "
+                  + "ORDER BY e.createdAt DESC",
+              DiaryEntrySummary.class)
+          .setParameter("pattern", pattern)
+          .list();
+    }
+  }
+
+  /**
+   * Finds summaries of the diary entries with the given IDs, in the order of the IDs. IDs that do
+   * not exist are skipped.
+   *
+   * @param ids the entry IDs
+   * @return the matching entry summaries (never null)
+   * @throws NullPointerException if ids is null
+   */
+  public List<DiaryEntrySummary> findSummariesByIds(Collection<Long> ids) {
+    return findInIdOrder(ids, SUMMARY_SELECT + " WHERE e.id IN :ids", DiaryEntrySummary.class,
+        DiaryEntrySummary::id);
+  }
+
+  /**
+   * Finds the diary entries with the given IDs, in the order of the IDs. IDs that do not exist
+   * are skipped. The content of the entries is not loaded.
+   *
+   * @param ids the entry IDs
+   * @return the matching entries (never null)
+   * @throws NullPointerException if ids is null
+   */
+  public List<DiaryEntry> findByIds(Collection<Long> ids) {
+    return findInIdOrder(ids, "FROM DiaryEntry e WHERE e.id IN :ids", DiaryEntry.class,
+        DiaryEntry::getId);
+  }
+
+  /**
+   * Runs a query restricted to the given IDs, with the IDs bound {@value #ID_LOOKUP_CHUNK_SIZE}
+   * at a time, and returns the results in the order of the IDs.
+   *
+   * @param ids        the IDs, bound to the {@code ids} parameter of the query
+   * @param hql        the query
+   * @param resultType the result type
+   * @param idOf       returns the ID of a result
+   * @param <T>        the result type
+   * @return the results for the IDs that exist, in the order of the IDs
+   */
+  private <T> List<T> findInIdOrder(Collection<Long> ids, String hql, Class<T> resultType,
+      Function<T, Long> idOf) {
+    Objects.requireNonNull(ids, "IDs cannot be null");
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    List<Long> distinct = ids.stream().distinct().toList();
+    Map<Long, T> byId = new HashMap<>();
+    try (Session session = sessionFactory.openSession()) {
+      for (int from = 0; from < distinct.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+        for (T result : session.createQuery(hql, resultType)
+            .setParameterList("ids",
+                distinct.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, distinct.size())))
+            .list()) {
+          byId.put(idOf.apply(result), result);
+        }
+      }
+    }
+    List<T> ordered = new ArrayList<>(byId.size());
+    for (Long id : ids) {
+      T result = byId.get(id);
+      if (result != null) {
+        ordered.add(result);
+      }
+    }
+    return ordered;
+  }
+
+  /**
+   * Creates the FTS5 full-text index and its sync triggers if they do not exist yet. A newly
+   * created index is populated from the existing entries. If the SQLite build lacks FTS5, the
+   * repository keeps using {@link #searchByTitleOrContent(String)} for searches.
+   *
+   * @return true if full-text search is available
+   */
+  public boolean initFullTextSearch() {
+    try {
+      executeInTransaction(session -> {
+        session.doWork(connection -> {
+          boolean exists;
+          try (var statement = connection.prepareStatement(
+              "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            statement.setString(1, FTS_TABLE);
+            try (var rows = statement.executeQuery()) {
+              exists = rows.next();
+            }
+          }
+          try (Statement statement = connection.createStatement()) {
+            for (String ddl : FTS_SCHEMA) {
+              statement.execute(ddl);
+            }
+            if (!exists) {
+              statement.execute(rebuildStatement());
+            }
+          }
+        });
+        return null;
+      });
+      fullTextSearchAvailable = true;
+    } catch (Exception e) {
+      // FTS5 not compiled into this SQLite build; fall back to LIKE search
+      fullTextSearchAvailable = false;
+    }
+    return fullTextSearchAvailable;
+  }
+
+  /**
+   * Returns whether the FTS5 full-text index has been initialized.
+   *
+   * @return true if {@link #searchFullText(String)} can be used
+   */
+  public boolean isFullTextSearchAvailable() {
+    return fullTextSearchAvailable;
+  }
+
+  /**
+   * Rebuilds the full-text index from the contents of the diary entries table. Use this on
+   * databases where entries were written while the index or its triggers were missing.
+   *
+   * @throws IllegalStateException if full-text search is not available
+   */
+  public void rebuildFullTextIndex() {
+    if (!fullTextSearchAvailable) {
+      throw new IllegalStateException("Full-text search is not available");
+    }
+    executeInTransaction(session -> {
+      session.doWork(connection -> {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute(rebuildStatement());
+        }
+      });
+      return null;
+    });
+  }
+
+  /**
+   * Searches diary entries through the FTS5 index. Every word in the search text must match the
+   * start of a word in the title or content. Results are ranked by BM25 relevance with title
+   * matches weighted higher, then by creation date (newest first).
+   *
+   * @param searchText the text to search for (case-insensitive)
+   * @return a list of matching entries, best match first (never null)
+   * @throws NullPointerException  if searchText is null
+   * @throws IllegalStateException if full-text search is not available
+   */
+  public List<DiaryEntry> searchFullText(String searchText) {
+    Objects.requireNonNull(searchText, "Search text cannot be null");
+    if (!fullTextSearchAvailable) {
+      throw new IllegalStateException("Full-text search is not available");
+    }
+    String matchExpression = toMatchExpression(searchText);
+    if (matchExpression.isEmpty()) {
+      return searchByTitleOrContent(searchText);
+    }
+    try (Session session = sessionFactory.openSession()) {
+      return session
+          .createNativeQuery(
+              "SELECT e.* FROM diary_entries e "
+                  + "JOIN " + FTS_TABLE + " f ON f.rowid = e.id "
+                  + "WHERE " + FTS_TABLE + " MATCH :query "
+                  + "ORDER BY bm25(" + FTS_TABLE + ", 10.0, 1.0), e.created_at DESC",
               DiaryEntry.class)
-          .setParameter("start", startOfDay)
-          .setParameter("end", endOfDay)
+          .setParameter("query", matchExpression)
           .list();
     }
   }
 
   /**
-   * Finds all diary entries created within a date range (inclusive).
+   * Searches summaries of diary entries through the FTS5 index, ranked like
+   * {@link #searchFullText(String)}. Only entry IDs are read from the index; the summaries are
+   * then loaded without the entry content.
+   *
+   * @param searchText the text to search for (case-insensitive)
+   * @return a list of matching entry summaries, best match first (never null)
+   * @throws NullPointerException  if searchText is null
+   * @throws IllegalStateException if full-text search is not available
+   */
+  public List<DiaryEntrySummary> searchSummariesFullText(String searchText) {
+    Objects.requireNonNull(searchText, "Search text cannot be null");
+    if (!fullTextSearchAvailable) {
+      throw new IllegalStateException("Full-text search is not available");
+    }
+    String matchExpression = toMatchExpression(searchText);
+    if (matchExpression.isEmpty()) {
+      return searchSummariesByTitleOrContent(searchText);
+    }
+    List<Long> ids;
+    try (Session session = sessionFactory.openSession()) {
+      ids = session
+          .createNativeQuery(
+              "SELECT f.rowid FROM " + FTS_TABLE + " f "
+                  + "WHERE " + FTS_TABLE + " MATCH :query "
+                  + "ORDER BY bm25(" + FTS_TABLE + ", 10.0, 1.0), f.rowid DESC",
+              Long.class)
+          .setParameter("query", matchExpression)
+          .list();
+    }
+    return findSummariesByIds(ids);
+  }
+
+  /**
+   * Converts free text into an FTS5 MATCH expression of quoted prefix terms, so user input can
+   * never be interpreted as FTS5 query syntax.
+   *
+   * @param searchText the raw search text
+   * @return the match expression, or an empty string if the text has no searchable words
+   */
+  static String toMatchExpression(String searchText) {
+    List<String> terms = new ArrayList<>();
+    for (String word : searchText.split("[^\\p{L}\\p{N}]+")) {
+      if (!word.isEmpty()) {
+        terms.add("\"" + word + "\"*");
+      }
+    }
+    return String.join(" ", terms);
+  }
+
+  /**
+   * Returns the FTS5 command that repopulates the index from the content table.
+   *
+   * @return the rebuild statement
+   */
+  private static String rebuildStatement() {
+    return "INSERT INTO " + FTS_TABLE + "(" + FTS_TABLE + ") VALUES ('rebuild')";
+  }
+
+  /**
+   * Finds the IDs of the diary entries created within a date range (inclusive), in listing order
+   * (newest first).
    *
    * @param startDate the start date (inclusive)
    * @param endDate   the end date (inclusive)
-   * @return a list of entries within the date range (never null)
+   * @return the IDs of the entries within the date range (never null)
    * @throws NullPointerException if either date is null
    */
-  public List<DiaryEntry> findByDateRange(java.time.LocalDate startDate,
-      java.time.LocalDate endDate) {
+  public List<Long> findIdsByDateRange(LocalDate startDate, LocalDate endDate) {
     Objects.requireNonNull(startDate, "Start date cannot be null");
     Objects.requireNonNull(endDate, "End date cannot be null");
     try (Session session = sessionFactory.openSession()) {
-      java.time.LocalDateTime start = startDate.atStartOfDay();
-      java.time.LocalDateTime end = endDate.plusDays(1).atStartOfDay();
       return session
           .createQuery(
-              "FROM DiaryEntry WHERE createdAt >= :start AND createdAt < :end "
-                  + "ORDER BY createdAt DESC",
-              DiaryEntry.class)
-          .setParameter("start", start)
-          .setParameter("end", end)
+              "SELECT e.id FROM DiaryEntry e WHERE e.createdAt >= :start AND e.createdAt < :end "
+                  + "ORDER BY e.createdAt DESC, e.id DESC",
+              Long.class)
+          .setParameter("start", startDate.atStartOfDay())
+          .setParameter("end", endDate.plusDays(1).atStartOfDay())
           .list();
     }
   }
 
+  /**
+   * Retrieves one page of summaries of all diary entries, sorted by creation date (newest first).
+   *
+   * @param request the page to fetch
+   * @return the requested page (never null)
+   * @throws NullPointerException if request is null
+   */
+  public Page<DiaryEntrySummary> findSummaryPage(PageRequest request) {
+    return findSummaryPage(null, Map.of(), request);
+  }
+
+  /**
+   * Retrieves one page of summaries of diary entries by author ID, sorted by creation date
+   * (newest first).
+   *
+   * @param authorId the author ID to search for
+   * @param request  the page to fetch
+   * @return the requested page (never null)
+   * @throws NullPointerException if authorId or request is null
+   */
+  public Page<DiaryEntrySummary> findSummaryPageByAuthorId(Long authorId, PageRequest request) {
+    Objects.requireNonNull(authorId, "Author ID cannot be null");
+    return findSummaryPage("a.id = :authorId", Map.of("authorId", authorId), request);
+  }
+
+  /**
+   * Retrieves one page of summaries of diary entries created on a specific date, sorted by
+   * creation date (newest first).
+   *
+   * @param date    the date to search for
+   * @param request the page to fetch
+   * @return the requested page (never null)
+   * @throws NullPointerException if date or request is null
+   */
+  public Page<DiaryEntrySummary> findSummaryPageByDate(LocalDate date, PageRequest request) {
+    Objects.requireNonNull(date, "Date cannot be null");
+    return findSummaryPageByDateRange(date, date, request);
+  }
+
+  /**
+   * Retrieves one page of summaries of diary entries created within a date range (inclusive),
+   * sorted by creation date (newest first).
+   *
+   * @param startDate the start date (inclusive)
+   * @param endDate   the end date (inclusive)
+   * @param request   the page to fetch
+   * @return the requested page (never null)
+   * @throws NullPointerException if either date or request is null
+   */
+  public Page<DiaryEntrySummary> findSummaryPageByDateRange(LocalDate startDate,
+      LocalDate endDate, PageRequest request) {
+    Objects.requireNonNull(startDate, "Start date cannot be null");
+    Objects.requireNonNull(endDate, "End date cannot be null");
+    return findSummaryPage("e.createdAt >= :start AND e.createdAt < :end",
+        Map.of("start", startDate.atStartOfDay(), "end", endDate.plusDays(1).atStartOfDay()),
+        request);
+  }
+
+  /**
+   * Fetches a page by seeking past the request cursor on {@code (createdAt, id)}. One extra row
+   * is fetched to find out whether the listing continues, so no COUNT or OFFSET is needed and the
+   * cost of a page does not depend on how deep into the listing it is.
+   *
+   * @param filter     the HQL condition on aliases {@code e} (entry) and {@code a} (author), or
+   *                   null for all entries
+   * @param parameters the parameters used by the filter
+   * @param request    the page to fetch
+   * @return the requested page
+   */
+  private Page<DiaryEntrySummary> findSummaryPage(String filter, Map<String, Object> parameters,
+      PageRequest request) {
+    Objects.requireNonNull(request, "Page request cannot be null");
+    EntryCursor cursor = request.cursor();
+    boolean backwards = request.backwards();
+
+    List<String> conditions = new ArrayList<>();
+    if (filter != null) {
+      conditions.add(filter);
+    }
+    if (cursor != null) {
+      String comparison = backwards ? ">" : "<";
+      // The plain bound lets SQLite start the index range at the cursor instead of filtering
+      conditions.add("e.createdAt " + comparison + "= :cursorCreatedAt");
+      conditions.add("(e.createdAt " + comparison + " :cursorCreatedAt OR "
+          + "(e.createdAt = :cursorCreatedAt AND e.id " + comparison + " :cursorId))");
+    }
+    String order = backwards ? "ASC" : "DESC";
+    String hql = SUMMARY_SELECT
+        + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+        + " ORDER BY e.createdAt " + order + ", e.id " + order;
+
+    Map<String, Object> allParameters = new LinkedHashMap<>(parameters);
+    if (cursor != null) {
+      allParameters.put("cursorCreatedAt", cursor.createdAt());
+      allParameters.put("cursorId", cursor.id());
+    }
+
+    List<DiaryEntrySummary> rows;
+    try (Session session = sessionFactory.openSession()) {
+      var query = session.createQuery(hql, DiaryEntrySummary.class);
+      allParameters.forEach(query::setParameter);
+      rows = new ArrayList<>(query
+          .setMaxResults(request.size() + 1)
+          .setCacheable(true)
+          .setCacheRegion(QUERY_CACHE_REGION)
+          .list());
+    }
+
+    boolean more = rows.size() > request.size();
+    if (more) {
+      rows.remove(rows.size() - 1);
+    }
+    if (backwards) {
+      Collections.reverse(rows);
+    }
+    boolean hasPrevious = backwards ? more : cursor != null;
+    boolean hasNext = backwards || more;
+    return new Page<>(rows,
+        rows.isEmpty() ? null : cursorOf(rows.get(0)),
+        rows.isEmpty() ? null : cursorOf(rows.get(rows.size() - 1)),
+        hasPrevious, hasNext, request.size());
+  }
+
+  /**
+   * Returns the keyset cursor of an entry summary.
+   *
+   * @param summary the entry summary
+   * @return the cursor pointing at the entry
+   */
+  private static EntryCursor cursorOf(DiaryEntrySummary summary) {
+    return new EntryCursor(summary.createdAt(), summary.id());
+  }
+
+  /**
+   * Finds summaries of the diary entries matching every criterion of a combined search, in a
+   * single query. Only the criteria that are set become conditions, always in the same order, so
+   * each combination has one HQL string whose parsed plan Hibernate reuses; the values are bound
+   * as parameters. Results are kept in the query cache like the paged listings.
+   *
+   * @param query the search criteria, order and limit
+   * @return the matching entry summaries, at most {@code query.limit()} (never null)
+   * @throws NullPointerException if query is null
+   */
+  public List<DiaryEntrySummary> findSummaries(DiaryEntryQuery query) {
+    Objects.requireNonNull(query, "Query cannot be null");
+
+    List<String> conditions = new ArrayList<>();
+    Map<String, Object> parameters = new LinkedHashMap<>();
+    if (query.authorIds().size() == 1) {
+      // An equality lets SQLite read the author index in creation order without sorting
+      conditions.add("a.id = :authorId");
+      parameters.put("authorId", query.authorIds().iterator().next());
+    } else if (!query.authorIds().isEmpty()) {
+      conditions.add("a.id IN :authorIds");
+      parameters.put("authorIds", query.authorIds());
+    }
+    if (query.startDate() != null) {
+      conditions.add("e.createdAt >= :start");
+      parameters.put("start", query.startDate().atStartOfDay());
+    }
+    if (query.endDate() != null) {
+      conditions.add("e.createdAt < :end");
+      parameters.put("end", query.endDate().plusDays(1).atStartOfDay());
+    }
+    if (query.keyword() != null) {
+      // Last, so SQLite narrows by author and date through the indexes before reading content
+      conditions.add("(LOWER(e.title) LIKE :pattern OR LOWER(e.content) LIKE :pattern)");
+      parameters.put("pattern", "%" + query.keyword().toLowerCase() + "%");
+    }
+    String hql = SUMMARY_SELECT
+        + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+        + " ORDER BY " + query.sort().orderBy();
+
+    try (Session session = sessionFactory.openSession()) {
+      var select = session.createQuery(hql, DiaryEntrySummary.class);
+      parameters.forEach((name, value) -> {
+        if (value instanceof Collection<?> values) {
+          select.setParameterList(name, values);
+        } else {
+          select.setParameter(name, value);
+        }
+      });
+      return select
+          .setMaxResults(query.limit())
+          .setCacheable(true)
+          .setCacheRegion(QUERY_CACHE_REGION)
+          .list();
+    }
+  }
+
+  /**
+   * Passes every diary entry matching the filter to the action as an {@link EntryRecord}, in ID
+   * order. Rows are read through a forward-only cursor on a stateless session, so nothing is kept
+   * in a persistence context and memory use does not grow with the number of entries.
+   *
+   * @param filter the entries to include
+   * @param action the action to run for each record
+   * @return the number of records passed to the action
+   * @throws NullPointerException if filter or action is null
+   */
+  public long streamRecords(EntryFilter filter, Consumer<EntryRecord> action) {
+    Objects.requireNonNull(filter, "Filter cannot be null");
+    Objects.requireNonNull(action, "Action cannot be null");
+
+    List<String> conditions = new ArrayList<>();
+    Map<String, Object> parameters = new LinkedHashMap<>();
+    if (filter.authorId() != null) {
+      conditions.add("a.id = :authorId");
+      parameters.put("authorId", filter.authorId());
+    }
+    if (filter.startDate() != null) {
+      conditions.add("e.createdAt >= :start");
+      parameters.put("start", filter.startDate().atStartOfDay());
+    }
+    if (filter.endDate() != null) {
+      conditions.add("e.createdAt < :end");
+      parameters.put("end", filter.endDate().plusDays(1).atStartOfDay());
+    }
+    String hql = RECORD_SELECT
+        + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+        + " ORDER BY e.id";
+
+    long count = 0;
+    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+      var query = session.createQuery(hql, EntryRecord.class);
+      parameters.forEach(query::setParameter);
+      try (ScrollableResults<EntryRecord> results = query
+          .setFetchSize(STREAM_FETCH_SIZE)
+          .setReadOnly(true)
+          .scroll(ScrollMode.FORWARD_ONLY)) {
+        while (results.next()) {
+          action.accept(results.get());
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Passes the ID and title of every diary entry to the action, in ID order, through a
+   * forward-only cursor on a stateless session. Entry content is not read.
+   *
+   * @param action the action to run for each entry
+   * @return the number of entries passed to the action
+   * @throws NullPointerException if action is null
+   */
+  public long streamTitles(Consumer<EntryTitle> action) {
+    Objects.requireNonNull(action, "Action cannot be null");
+    long count = 0;
+    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+      try (ScrollableResults<EntryTitle> results = session
+          .createQuery("SELECT new " + EntryTitle.class.getName() + "(e.id, e.title) "
+              + "FROM DiaryEntry e ORDER BY e.id", EntryTitle.class)
+          .setFetchSize(STREAM_FETCH_SIZE)
+          .setReadOnly(true)
+          .scroll(ScrollMode.FORWARD_ONLY)) {
+        while (results.next()) {
+          action.accept(results.get());
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Passes the title and content of every diary entry with an ID in the given range to the
+   * action, in ID order. Rows are read through a forward-only cursor on a stateless session, like
+   * {@link #streamRecords(EntryFilter, Consumer)}, so ranges can be read by several threads at
+   * once.
+   *
+   * @param fromId the lowest ID to include
+   * @param toId   the highest ID to include
+   * @param action the action to run for each entry
+   * @return the number of entries passed to the action
+   * @throws NullPointerException if action is null
+   */
+  public long streamText(long fromId, long toId, Consumer<EntryText> action) {
+    Objects.requireNonNull(action, "Action cannot be null");
+    long count = 0;
+    try (StatelessSession session = sessionFactory.openStatelessSession()) {
+      try (ScrollableResults<EntryText> results = session
+          .createQuery("SELECT new " + EntryText.class.getName() + "(e.id, e.title, e.content) "
+              + "FROM DiaryEntry e WHERE e.id BETWEEN :fromId AND :toId ORDER BY e.id",
+              EntryText.class)
+          .setParameter("fromId", fromId)
+          .setParameter("toId", toId)
+          .setFetchSize(STREAM_FETCH_SIZE)
+          .setReadOnly(true)
+          .scroll(ScrollMode.FORWARD_ONLY)) {
+        while (results.next()) {
+          action.accept(results.get());
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Reads the aggregate state of the diary entries table, bypassing the caches.
+   *
+   * @return the current state
+   */
+  public EntryTableState findTableState() {
+    try (Session session = sessionFactory.openSession()) {
+      Object[] row = session
+          .createQuery("SELECT COUNT(e), MIN(e.id), MAX(e.id), MAX(e.updatedAt) "
+              + "FROM DiaryEntry e", Object[].class)
+          .getSingleResult();
+      return new EntryTableState((Long) row[0], (Long) row[1], (Long) row[2],
+          (LocalDateTime) row[3]);
+    }
+  }
+
   /**
    * Updates an existing diary entry in the database.
    *
    * @param entry the diary entry to update
    * @return the updated entry
-   * @throws NullPointerException if entry is null
+   * @throws NullPointerException    if entry is null
+   * @throws OptimisticLockException if the entry was changed or deleted since it was loaded
    */
   public DiaryEntry update(DiaryEntry entry) {
     Objects.requireNonNull(entry, "DiaryEntry cannot be null");
-    return executeInTransaction(session -> session.merge(entry));
+    DiaryEntry merged = executeInTransaction(session -> session.merge(entry));
+    if (merged.getVersion() != entry.getVersion()) {
+      // Keep the caller's copy current, so it can be updated or deleted again
+      entry.markUpdated(merged.getUpdatedAt());
+    }
+    return merged;
   }
 
   /**
-   * Deletes a diary entry from the database.
+   * Updates the title and/or content of a diary entry with a single UPDATE statement, without
+   * loading the entry first. Unlike {@link #update(DiaryEntry)}, a title change does not rewrite
+   * the content. The values are written as given, so they should be validated by the caller.
    *
-   * @param entry the diary entry to delete
-   * @throws NullPointerException if entry is null
+   * <p>The update only applies if the entry still has the version it was loaded with. It then
+   * moves the version on and calls {@link DiaryEntry#markUpdated} on the given entry.
+   *
+   * @param entry   the entry to update, as loaded
+   * @param title   the new title, or null to keep the current title
+   * @param content the new content, or null to keep the current content
+   * @return true if the entry was updated, false if it was changed or deleted since it was loaded
+   * @throws NullPointerException     if entry or its ID is null
+   * @throws IllegalArgumentException if both title and content are null
    */
-  public void delete(DiaryEntry entry) {
+  public boolean updateTitleAndContent(DiaryEntry entry, String title, String content) {
     Objects.requireNonNull(entry, "DiaryEntry cannot be null");
-    executeInTransaction(session -> {
-      session.remove(session.contains(entry) ? entry : session.merge(entry));
-      return null;
+    Long id = Objects.requireNonNull(entry.getId(), "ID cannot be null");
+    if (title == null && content == null) {
+      throw new IllegalArgumentException("Title or content must be given");
+    }
+    StringBuilder hql = new StringBuilder("UPDATE DiaryEntry e "
+        + "SET e.version = e.version + 1, e.updatedAt = :updatedAt");
+    if (title != null) {
+      hql.append(", e.title = :title");
+    }
+    if (content != null) {
+      hql.append(", e.content = :content");
+    }
+    hql.append(" WHERE e.id = :id AND e.version = :version");
+
+    LocalDateTime updatedAt = LocalDateTime.now();
+    // Hibernate evicts the cached entries and the queries on diary_entries after the update
+    boolean updated = executeInTransaction(session -> {
+      var query = session.createMutationQuery(hql.toString())
+          .setParameter("updatedAt", updatedAt)
+          .setParameter("id", id)
+          .setParameter("version", entry.getVersion());
+      if (title != null) {
+        query.setParameter("title", title);
+      }
+      if (content != null) {
+        query.setParameter("content", content);
+      }
+      return query.executeUpdate() > 0;
     });
+    if (updated) {
+      entry.markUpdated(updatedAt);
+    }
+    return updated;
+  }
+
+  /**
+   * Deletes a diary entry from the database with a single DELETE statement, unless it was
+   * changed since it was loaded. The statement only matches the entry's version when loaded.
+   *
+   * @param entry the diary entry to delete
+   * @return true if the entry was deleted, false if it was changed or deleted since it was loaded
+   * @throws NullPointerException if entry or its ID is null
+   */
+  public boolean delete(DiaryEntry entry) {
+    Objects.requireNonNull(entry, "DiaryEntry cannot be null");
+    Long id = Objects.requireNonNull(entry.getId(), "ID cannot be null");
+    // Hibernate evicts the cached entries and the queries on entries after the delete
+    return executeInTransaction(session -> session
+        .createMutationQuery("DELETE FROM DiaryEntry e WHERE e.id = :id AND e.version = :version")
+        .setParameter("id", id)
+        .setParameter("version", entry.getVersion())
+        .executeUpdate() > 0);
+  }
+
+  /**
+   * Deletes a diary entry by its ID with a single DELETE statement, without loading it first.
+   *
+   * @param id the ID of the diary entry to delete
+   * @return true if the entry was deleted, false if it did not exist
+   * @throws NullPointerException if id is null
+   */
+  public boolean deleteById(Long id) {
+    Objects.requireNonNull(id, "ID cannot be null");
+    // Hibernate evicts the cached entries and the queries on entries after the delete
+    return executeInTransaction(session -> session
+        .createMutationQuery("DELETE FROM DiaryEntry e WHERE e.id = :id")
+        .setParameter("id", id)
+        .executeUpdate() > 0);
   }
 
   /**
@@ -210,6 +987,8 @@ public class DiaryEntryRepository {
     try (Session session = sessionFactory.openSession()) {
       Long count = session
           .createQuery("SELECT COUNT(e) FROM DiaryEntry e", Long.class)
+          .setCacheable(true)
+          .setCacheRegion(QUERY_CACHE_REGION)
           .uniqueResult();
       return count != null ? count : 0;
     }
@@ -229,6 +1008,8 @@ public class DiaryEntryRepository {
           .createQuery("SELECT COUNT(e) FROM DiaryEntry e WHERE e.author.id = :authorId",
               Long.class)
           .setParameter("authorId", authorId)
+          .setCacheable(true)
+          .setCacheRegion(QUERY_CACHE_REGION)
           .uniqueResult();
       return count != null ? count : 0;
     }
@@ -244,6 +1025,8 @@ public class DiaryEntryRepository {
       List<Object[]> results = session
           .createQuery("SELECT e.author.id, COUNT(e) FROM DiaryEntry e GROUP BY e.author.id",
               Object[].class)
+          .setCacheable(true)
+          .setCacheRegion(QUERY_CACHE_REGION)
           .list();
       java.util.Map<Long, Long> countsByAuthorId = new java.util.HashMap<>();
       for (Object[] row : results) {
@@ -263,17 +1046,19 @@ public class DiaryEntryRepository {
    * @return the result of the operation
    */
   private <T> T executeInTransaction(Function<Session, T> operation) {
-    Transaction transaction = null;
     try (Session session = sessionFactory.openSession()) {
-      transaction = session.beginTransaction();
-      T result = operation.apply(session);
-      transaction.commit();
-      return result;
-    } catch (Exception e) {
-      if (transaction != null) {
-        transaction.rollback();
+      Transaction transaction = session.beginTransaction();
+      try {
+        T result = operation.apply(session);
+        transaction.commit();
+        return result;
+      } catch (RuntimeException e) {
+        // Roll back before the session is closed; a failed commit may have done so already
+        if (transaction.isActive()) {
+          transaction.rollback();
+        }
+        throw e;
       }
-      throw e;
     }
   }
 }
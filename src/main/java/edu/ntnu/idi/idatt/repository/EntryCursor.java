@@ -0,0 +1,24 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Position of a diary entry in the {@code createdAt DESC, id DESC} listing order. Used as the
+ * seek key for keyset pagination, so a page is found through the index instead of skipping rows.
+ *
+ * @param createdAt the creation timestamp of the entry
+ * @param id        the entry ID, breaking ties between entries created at the same time
+ */
+public record EntryCursor(LocalDateTime createdAt, Long id) {
+
+  /**
+   * Creates a new cursor.
+   *
+   * @throws NullPointerException if any argument is null
+   */
+  public EntryCursor {
+    Objects.requireNonNull(createdAt, "Created at cannot be null");
+    Objects.requireNonNull(id, "ID cannot be null");
+  }
+}
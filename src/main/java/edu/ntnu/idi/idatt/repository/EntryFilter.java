@@ -0,0 +1,34 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Optional restrictions on which diary entries a bulk operation covers. Every null component is
+ * left unrestricted.
+ *
+ * @param authorId  the ID of the author whose entries to include, or null for all authors
+ * @param startDate the first creation date to include, or null for no lower bound
+ * @param endDate   the last creation date to include, or null for no upper bound
+ */
+public record EntryFilter(Long authorId, LocalDate startDate, LocalDate endDate) {
+
+  /**
+   * Creates a new filter.
+   *
+   * @throws IllegalArgumentException if endDate is before startDate
+   */
+  public EntryFilter {
+    if (startDate != null && endDate != null && endDate.isBefore(startDate)) {
+      throw new IllegalArgumentException("End date cannot be before start date");
+    }
+  }
+
+  /**
+   * Returns a filter that includes every entry.
+   *
+   * @return the unrestricted filter
+   */
+  public static EntryFilter all() {
+    return new EntryFilter(null, null, null);
+  }
+}
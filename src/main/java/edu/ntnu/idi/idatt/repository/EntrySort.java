@@ -0,0 +1,38 @@
+package edu.ntnu.idi.idatt.repository;
+
+/**
+ * Orders of the results of a {@link DiaryEntryQuery}. Every order ends on the entry ID, so results
+ * with equal sort values always come in the same order.
+ */
+public enum EntrySort {
+
+  /**
+   * Newest first, read in order from the creation date indexes.
+   */
+  NEWEST("e.createdAt DESC, e.id DESC"),
+
+  /**
+   * Oldest first.
+   */
+  OLDEST("e.createdAt ASC, e.id ASC"),
+
+  /**
+   * By title, ignoring case.
+   */
+  TITLE("LOWER(e.title) ASC, e.id ASC");
+
+  private final String orderBy;
+
+  EntrySort(String orderBy) {
+    this.orderBy = orderBy;
+  }
+
+  /**
+   * Returns the HQL ORDER BY list on alias {@code e} (entry).
+   *
+   * @return the sort expressions
+   */
+  String orderBy() {
+    return orderBy;
+  }
+}
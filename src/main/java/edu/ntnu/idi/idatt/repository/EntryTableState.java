@@ -0,0 +1,84 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Aggregate state of the diary entries table. Any insert, update or delete of an entry changes
+ * at least one component, so a copy of the state taken when data derived from the entries was
+ * saved tells whether that data is still current.
+ *
+ * <p>The {@code after} methods work out the state after a write from the state before it, so a
+ * process can follow its own writes without reading the table again. Any write by another process
+ * then still shows up as a difference from the table.
+ *
+ * @param count         the number of entries
+ * @param minId         the lowest entry ID, or null if there are no entries
+ * @param maxId         the highest entry ID, or null if there are no entries
+ * @param lastUpdatedAt the latest update time of any entry, or null if there are no entries
+ */
+public record EntryTableState(long count, Long minId, Long maxId, LocalDateTime lastUpdatedAt) {
+
+  /**
+   * Returns the state after an entry was inserted.
+   *
+   * @param id        the ID of the new entry
+   * @param updatedAt the update time written for the new entry
+   * @return the new state
+   */
+  public EntryTableState afterInsert(long id, LocalDateTime updatedAt) {
+    return new EntryTableState(count + 1,
+        minId == null ? id : Math.min(minId, id),
+        maxId == null ? id : Math.max(maxId, id),
+        latest(stored(updatedAt)));
+  }
+
+  /**
+   * Returns the state after an entry was updated.
+   *
+   * @param updatedAt the update time written for the entry
+   * @return the new state
+   */
+  public EntryTableState afterUpdate(LocalDateTime updatedAt) {
+    return new EntryTableState(count, minId, maxId, latest(stored(updatedAt)));
+  }
+
+  /**
+   * Returns the state after an entry was deleted, if it follows from this state. It does not when
+   * the entry had the lowest or highest ID or the latest update time, as the next one is unknown.
+   *
+   * @param id        the ID of the deleted entry
+   * @param updatedAt the update time the deleted entry had, or null if unknown
+   * @return the new state, or null if it cannot be told without reading the table
+   */
+  public EntryTableState afterDelete(long id, LocalDateTime updatedAt) {
+    if (count == 1 && minId != null && minId == id) {
+      return new EntryTableState(0, null, null, null);
+    }
+    if (updatedAt == null || minId == null || minId == id || maxId == id
+        || !stored(updatedAt).isBefore(lastUpdatedAt)) {
+      return null;
+    }
+    return new EntryTableState(count - 1, minId, maxId, lastUpdatedAt);
+  }
+
+  /**
+   * Returns the later of an update time and the latest update time.
+   *
+   * @param updatedAt the update time, as stored
+   * @return the later of the two
+   */
+  private LocalDateTime latest(LocalDateTime updatedAt) {
+    return lastUpdatedAt == null || updatedAt.isAfter(lastUpdatedAt) ? updatedAt : lastUpdatedAt;
+  }
+
+  /**
+   * Returns an update time as the table stores it, to the millisecond.
+   *
+   * @param updatedAt the update time
+   * @return the stored update time
+   */
+  private static LocalDateTime stored(LocalDateTime updatedAt) {
+    return updatedAt.truncatedTo(ChronoUnit.MILLIS);
+  }
+}
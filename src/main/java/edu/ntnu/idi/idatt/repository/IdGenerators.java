@@ -0,0 +1,37 @@
+package edu.ntnu.idi.idatt.repository;
+
+import org.hibernate.Session;
+
+/**
+ * Maintenance of the {@code id_generators} table that backs the entity
+ * {@link jakarta.persistence.TableGenerator table generators}.
+ *
+ * <p>Each row holds the lowest ID of the next block to hand out. Hibernate creates a missing row
+ * starting at 1, which would collide with rows written while the entities still used IDENTITY
+ * keys, so the rows are seeded from the existing data first.
+ */
+final class IdGenerators {
+
+  private static final String TABLE = "id_generators";
+
+  private IdGenerators() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Moves the generator row for a table past the highest ID in use, creating the row if needed.
+   * A row that is already ahead is left alone.
+   *
+   * @param session       the session to run in, with an active transaction
+   * @param generatorName the {@code pkColumnValue} of the table generator
+   * @param table         the table whose {@code id} column the generator fills
+   */
+  static void seed(Session session, String generatorName, String table) {
+    session.createNativeMutationQuery(
+            "INSERT INTO " + TABLE + " (name, next_val) "
+                + "SELECT :name, COALESCE(MAX(id), 0) + 1 FROM " + table + " WHERE true "
+                + "ON CONFLICT (name) DO UPDATE SET next_val = MAX(next_val, excluded.next_val)")
+        .setParameter("name", generatorName)
+        .executeUpdate();
+  }
+}
@@ -0,0 +1,63 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param items       the items on this page, in listing order
+ * @param first       the cursor of the first item, or null if the page is empty
+ * @param last        the cursor of the last item, or null if the page is empty
+ * @param hasPrevious true if there are items before this page
+ * @param hasNext     true if there are items after this page
+ * @param size        the requested page size
+ * @param <T>         the item type
+ */
+public record Page<T>(List<T> items, EntryCursor first, EntryCursor last,
+    boolean hasPrevious, boolean hasNext, int size) {
+
+  /**
+   * Creates a new page.
+   *
+   * @throws NullPointerException if items is null
+   */
+  public Page {
+    items = List.copyOf(Objects.requireNonNull(items, "Items cannot be null"));
+  }
+
+  /**
+   * Returns whether this page has no items.
+   *
+   * @return true if the page is empty
+   */
+  public boolean isEmpty() {
+    return items.isEmpty();
+  }
+
+  /**
+   * Returns the request for the page after this one.
+   *
+   * @return the next page request
+   * @throws IllegalStateException if there is no next page
+   */
+  public PageRequest nextRequest() {
+    if (!hasNext) {
+      throw new IllegalStateException("There is no next page");
+    }
+    return PageRequest.after(last, size);
+  }
+
+  /**
+   * Returns the request for the page before this one.
+   *
+   * @return the previous page request
+   * @throws IllegalStateException if there is no previous page
+   */
+  public PageRequest previousRequest() {
+    if (!hasPrevious) {
+      throw new IllegalStateException("There is no previous page");
+    }
+    return PageRequest.before(first, size);
+  }
+}
@@ -0,0 +1,62 @@
+package edu.ntnu.idi.idatt.repository;
+
+import java.util.Objects;
+
+/**
+ * Describes which page of a keyset-paginated listing to fetch.
+ *
+ * @param size      the maximum number of items on the page
+ * @param cursor    the cursor to seek from, or null for the first page
+ * @param backwards true to fetch the items before the cursor, false for the items after it
+ */
+public record PageRequest(int size, EntryCursor cursor, boolean backwards) {
+
+  /**
+   * Creates a new page request.
+   *
+   * @throws IllegalArgumentException if size is not positive, or backwards is set without a
+   *                                  cursor
+   */
+  public PageRequest {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Page size must be positive");
+    }
+    if (backwards && cursor == null) {
+      throw new IllegalArgumentException("Backwards paging requires a cursor");
+    }
+  }
+
+  /**
+   * Requests the first page.
+   *
+   * @param size the page size
+   * @return the page request
+   */
+  public static PageRequest first(int size) {
+    return new PageRequest(size, null, false);
+  }
+
+  /**
+   * Requests the page following the given cursor.
+   *
+   * @param cursor the cursor of the last item already shown
+   * @param size   the page size
+   * @return the page request
+   * @throws NullPointerException if cursor is null
+   */
+  public static PageRequest after(EntryCursor cursor, int size) {
+    return new PageRequest(size, Objects.requireNonNull(cursor, "Cursor cannot be null"), false);
+  }
+
+  /**
+   * Requests the page preceding the given cursor.
+   *
+   * @param cursor the cursor of the first item already shown
+   * @param size   the page size
+   * @return the page request
+   * @throws NullPointerException if cursor is null
+   */
+  public static PageRequest before(EntryCursor cursor, int size) {
+    return new PageRequest(size, Objects.requireNonNull(cursor, "Cursor cannot be null"), true);
+  }
+}
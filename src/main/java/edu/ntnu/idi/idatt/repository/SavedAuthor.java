@@ -0,0 +1,22 @@
+package edu.ntnu.idi.idatt.repository;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import java.util.Objects;
+
+/**
+ * The stored author for an email, as returned by {@link AuthorRepository#saveIfAbsent(Author)}.
+ *
+ * @param author  the stored author
+ * @param created true if the author was saved by the call, false if the email was already in use
+ */
+public record SavedAuthor(Author author, boolean created) {
+
+  /**
+   * Creates a new result.
+   *
+   * @throws NullPointerException if author is null
+   */
+  public SavedAuthor {
+    Objects.requireNonNull(author, "Author cannot be null");
+  }
+}
@@ -0,0 +1,215 @@
+package edu.ntnu.idi.idatt.repository;
+
+import edu.ntnu.idi.idatt.model.projections.AuthorStatistics;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Repository for application statistics: entry counts per author and runtime statistics collected
+ * by Hibernate.
+ *
+ * <p>Entry counts are kept in the {@code author_statistics} table, one row per author. SQLite
+ * triggers on {@code authors} and {@code diary_entries} update the row in the same transaction as
+ * every insert, delete or reassignment, so the counts can be read without scanning the entries.
+ */
+public class StatisticsRepository {
+
+  private static final String TABLE = "author_statistics";
+
+  private static final List<String> SCHEMA = List.of(
+      "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+          + "author_id INTEGER PRIMARY KEY, entry_count INTEGER NOT NULL)",
+      "CREATE TRIGGER IF NOT EXISTS author_statistics_author_ai AFTER INSERT ON authors BEGIN "
+          + "INSERT OR IGNORE INTO " + TABLE + " (author_id, entry_count) VALUES (new.id, 0); END",
+      "CREATE TRIGGER IF NOT EXISTS author_statistics_author_ad AFTER DELETE ON authors BEGIN "
+          + "DELETE FROM " + TABLE + " WHERE author_id = old.id; END",
+      "CREATE TRIGGER IF NOT EXISTS author_statistics_entry_ai AFTER INSERT ON diary_entries "
+          + "BEGIN " + increment("new.author_id") + " END",
+      "CREATE TRIGGER IF NOT EXISTS author_statistics_entry_ad AFTER DELETE ON diary_entries "
+          + "BEGIN " + decrement("old.author_id") + " END",
+      "CREATE TRIGGER IF NOT EXISTS author_statistics_entry_au "
+          + "AFTER UPDATE OF author_id ON diary_entries "
+          + "WHEN old.author_id IS NOT new.author_id BEGIN "
+          + decrement("old.author_id") + " " + increment("new.author_id") + " END");
+
+  // Entry counts computed from the real tables, with one scan of the entries
+  private static final String ACTUAL_COUNTS = "SELECT a.id AS author_id, "
+      + "COALESCE(c.entry_count, 0) AS entry_count FROM authors a LEFT JOIN ("
+      + "SELECT author_id, COUNT(*) AS entry_count FROM diary_entries GROUP BY author_id"
+      + ") c ON c.author_id = a.id";
+
+  private final SessionFactory sessionFactory;
+
+  /**
+   * Creates a new StatisticsRepository with the given SessionFactory.
+   *
+   * @param sessionFactory the Hibernate SessionFactory
+   * @throws NullPointerException if sessionFactory is null
+   */
+  public StatisticsRepository(SessionFactory sessionFactory) {
+    this.sessionFactory = Objects.requireNonNull(sessionFactory, "SessionFactory cannot be null");
+  }
+
+  /**
+   * Returns the trigger statement that adds one entry to an author's count.
+   *
+   * @param authorId the SQL expression for the author ID
+   * @return the statement, terminated by a semicolon
+   */
+  private static String increment(String authorId) {
+    return "INSERT INTO " + TABLE + " (author_id, entry_count) VALUES (" + authorId + ", 1) "
+        + "ON CONFLICT (author_id) DO UPDATE SET entry_count = entry_count + 1;";
+  }
+
+  /**
+   * Returns the trigger statement that removes one entry from an author's count.
+   *
+   * @param authorId the SQL expression for the author ID
+   * @return the statement, terminated by a semicolon
+   */
+  private static String decrement(String authorId) {
+    return "UPDATE " + TABLE + " SET entry_count = entry_count - 1 "
+        + "WHERE author_id = " + authorId + ";";
+  }
+
+  /**
+   * Creates the author statistics table and its triggers if they do not exist yet. A newly
+   * created table is populated from the existing authors and entries. Call once at startup,
+   * after the schema has been created.
+   */
+  public void initAuthorStatistics() {
+    executeInTransaction(session -> {
+      session.doWork(connection -> {
+        boolean exists;
+        try (var statement = connection.prepareStatement(
+            "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+          statement.setString(1, TABLE);
+          try (var rows = statement.executeQuery()) {
+            exists = rows.next();
+          }
+        }
+        try (Statement statement = connection.createStatement()) {
+          for (String ddl : SCHEMA) {
+            statement.execute(ddl);
+          }
+          if (!exists) {
+            statement.execute(rebuildStatement());
+          }
+        }
+      });
+      return null;
+    });
+  }
+
+  /**
+   * Retrieves the entry count of every author, sorted by author creation date (newest first).
+   * Reads one row per author and does not touch the entries table.
+   *
+   * @return the statistics of every author (never null)
+   */
+  public List<AuthorStatistics> findAuthorStatistics() {
+    try (Session session = sessionFactory.openSession()) {
+      List<Object[]> rows = session.createNativeQuery(
+              "SELECT a.id, a.first_name || ' ' || a.last_name, COALESCE(s.entry_count, 0) "
+                  + "FROM authors a LEFT JOIN " + TABLE + " s ON s.author_id = a.id "
+                  + "ORDER BY a.created_at DESC", Object[].class)
+          .list();
+      return rows.stream()
+          .map(row -> new AuthorStatistics(((Number) row[0]).longValue(), (String) row[1],
+              ((Number) row[2]).longValue()))
+          .toList();
+    }
+  }
+
+  /**
+   * Compares the stored entry counts with the authors and entries tables.
+   *
+   * @return the number of authors whose stored count is wrong or missing, plus the number of
+   *         stored rows whose author no longer exists
+   */
+  public long verifyAuthorStatistics() {
+    try (Session session = sessionFactory.openSession()) {
+      Number stale = (Number) session.createNativeQuery(
+              "SELECT (SELECT COUNT(*) FROM (" + ACTUAL_COUNTS + ") actual "
+                  + "LEFT JOIN " + TABLE + " s ON s.author_id = actual.author_id "
+                  + "WHERE s.entry_count IS NOT actual.entry_count) "
+                  + "+ (SELECT COUNT(*) FROM " + TABLE + " "
+                  + "WHERE author_id NOT IN (SELECT id FROM authors))", Object.class)
+          .getSingleResult();
+      return stale.longValue();
+    }
+  }
+
+  /**
+   * Recomputes every stored entry count from the authors and entries tables. Use this on
+   * databases modified while the triggers were missing, e.g. by external tools.
+   */
+  public void rebuildAuthorStatistics() {
+    executeInTransaction(session -> {
+      session.doWork(connection -> {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("DELETE FROM " + TABLE);
+          statement.execute(rebuildStatement());
+        }
+      });
+      return null;
+    });
+  }
+
+  /**
+   * Returns the statement that fills the statistics table from the real tables.
+   *
+   * @return the insert statement
+   */
+  private static String rebuildStatement() {
+    return "INSERT INTO " + TABLE + " (author_id, entry_count) " + ACTUAL_COUNTS;
+  }
+
+  /**
+   * Returns the second-level cache hit and miss counts.
+   *
+   * @return the counts, or empty if {@code hibernate.generate_statistics} is disabled
+   */
+  public Optional<CacheStatistics> getCacheStatistics() {
+    Statistics statistics = sessionFactory.getStatistics();
+    if (!statistics.isStatisticsEnabled()) {
+      return Optional.empty();
+    }
+    return Optional.of(new CacheStatistics(
+        statistics.getSecondLevelCacheHitCount(),
+        statistics.getSecondLevelCacheMissCount(),
+        statistics.getQueryCacheHitCount(),
+        statistics.getQueryCacheMissCount()));
+  }
+
+  /**
+   * Executes an operation within a transaction, handling commit and rollback.
+   *
+   * @param operation the operation to execute
+   * @param <T>       the return type
+   * @return the result of the operation
+   */
+  private <T> T executeInTransaction(Function<Session, T> operation) {
+    try (Session session = sessionFactory.openSession()) {
+      Transaction transaction = session.beginTransaction();
+      try {
+        T result = operation.apply(session);
+        transaction.commit();
+        return result;
+      } catch (RuntimeException e) {
+        // Roll back before the session is closed; a failed commit may have done so already
+        if (transaction.isActive()) {
+          transaction.rollback();
+        }
+        throw e;
+      }
+    }
+  }
+}
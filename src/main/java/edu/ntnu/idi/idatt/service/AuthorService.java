@@ -2,9 +2,14 @@ package edu.ntnu.idi.idatt.service;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
 import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.SavedAuthor;
+import jakarta.persistence.OptimisticLockException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import org.hibernate.StaleStateException;
 
 /**
  * Service class for Author business logic.
@@ -12,6 +17,7 @@ import java.util.Optional;
 public class AuthorService {
 
   private final AuthorRepository authorRepository;
+  private final PrefixIndex nameIndex = new PrefixIndex();
 
   /**
    * Creates a new AuthorService with the given repository.
@@ -25,7 +31,8 @@ public class AuthorService {
   }
 
   /**
-   * Creates a new author if the email is not already in use.
+   * Creates a new author if the email is not already in use. The email is checked and the author
+   * saved in one transaction.
    *
    * @param firstName the author's first name
    * @param lastName  the author's last name
@@ -35,16 +42,17 @@ public class AuthorService {
    * @throws IllegalArgumentException if any argument is blank or email is invalid
    */
   public Optional<Author> createAuthor(String firstName, String lastName, String email) {
-    if (authorRepository.existsByEmail(email)) {
+    SavedAuthor saved = authorRepository.saveIfAbsent(new Author(firstName, lastName, email));
+    if (!saved.created()) {
       return Optional.empty();
     }
-
-    Author author = new Author(firstName, lastName, email);
-    return Optional.of(authorRepository.save(author));
+    updateNameIndex(saved.author(), List.of());
+    return Optional.of(saved.author());
   }
 
   /**
-   * Creates a new author, throwing an exception if email is already in use.
+   * Creates a new author, throwing an exception if email is already in use. The email is checked
+   * and the author saved in one transaction.
    *
    * @param firstName the author's first name
    * @param lastName  the author's last name
@@ -55,12 +63,32 @@ public class AuthorService {
    *                                  already in use
    */
   public Author createAuthorOrThrow(String firstName, String lastName, String email) {
-    if (authorRepository.existsByEmail(email)) {
-      throw new IllegalArgumentException("An author with email '" + email + "' already exists");
+    Author author = new Author(firstName, lastName, email);
+    SavedAuthor saved = authorRepository.saveIfAbsent(author);
+    if (!saved.created()) {
+      throw new IllegalArgumentException(
+          "An author with email '" + author.getEmail() + "' already exists");
     }
+    updateNameIndex(saved.author(), List.of());
+    return saved.author();
+  }
 
-    Author author = new Author(firstName, lastName, email);
-    return authorRepository.save(author);
+  /**
+   * Creates the given authors whose emails are not in use yet, in one transaction.
+   *
+   * @param authors the unsaved authors to create
+   * @return the stored author for each of the given authors, in the same order, marked as created
+   *     or as already existing
+   * @throws NullPointerException if authors or any author is null
+   */
+  public List<SavedAuthor> createAuthors(Collection<Author> authors) {
+    List<SavedAuthor> saved = authorRepository.saveAllIfAbsent(authors);
+    for (SavedAuthor author : saved) {
+      if (author.created()) {
+        updateNameIndex(author.author(), List.of());
+      }
+    }
+    return saved;
   }
 
   /**
@@ -94,25 +122,142 @@ public class AuthorService {
     return authorRepository.findAll();
   }
 
+  /**
+   * Drops the in-memory name index after authors were created without this service, such as by
+   * an import, so it is loaded again on next use.
+   */
+  public void refreshAfterBulkChanges() {
+    nameIndex.unload();
+  }
+
+  /**
+   * Completes a typed prefix of an author's full name, last name or email. The names and emails
+   * are kept in an in-memory prefix index, loaded on first use, so this does not scan the
+   * authors table.
+   *
+   * @param prefix the typed prefix, ignoring case; empty matches every author
+   * @param limit  the maximum number of authors
+   * @return the matching authors, in order of the matching name or email
+   * @throws NullPointerException     if prefix is null
+   * @throws IllegalArgumentException if limit is negative
+   */
+  public List<Author> complete(String prefix, int limit) {
+    Objects.requireNonNull(prefix, "Prefix cannot be null");
+    nameIndex.ensureLoaded(keys -> {
+      for (Author author : authorRepository.findAll()) {
+        keysOf(author).forEach(key -> keys.accept(key, author.getId()));
+      }
+    });
+    return nameIndex.complete(prefix, limit, authorRepository::findByIds, Author::getId,
+        AuthorService::keysOf);
+  }
+
+  /**
+   * Passes the current name and email of a saved author to the completion index.
+   *
+   * @param author  the saved author
+   * @param oldKeys the keys the author had before, to remove
+   */
+  private void updateNameIndex(Author author, List<String> oldKeys) {
+    if (author.getId() != null) {
+      nameIndex.replace(author.getId(), oldKeys, keysOf(author));
+    }
+  }
+
+  /**
+   * Returns the keys an author can be completed by.
+   *
+   * @param author the author
+   * @return the full name, last name and email
+   */
+  private static List<String> keysOf(Author author) {
+    return Arrays.asList(author.getFullName(), author.getLastName(), author.getEmail());
+  }
+
   /**
    * Updates an existing author.
    *
    * @param author the author to update
    * @return the updated author
-   * @throws NullPointerException if author is null
+   * @throws NullPointerException    if author is null
+   * @throws ConcurrentEditException if the author was changed or deleted since it was loaded
    */
   public Author update(Author author) {
-    return authorRepository.update(author);
+    try {
+      Author updated = authorRepository.update(author);
+      if (updated.getId() != null) {
+        // The merged author no longer knows its old name, so every key of it is replaced
+        nameIndex.replaceAll(updated.getId(), keysOf(updated));
+      }
+      return updated;
+    } catch (OptimisticLockException | StaleStateException e) {
+      throw concurrentEdit(author, e);
+    }
+  }
+
+  /**
+   * Changes the first and/or last name of an author with a single update that writes only the
+   * changed fields, instead of merging the whole author.
+   *
+   * @param author       the author to update; its fields are changed once the update succeeds
+   * @param newFirstName the new first name, or null to keep the current first name
+   * @param newLastName  the new last name, or null to keep the current last name
+   * @return the updated author
+   * @throws NullPointerException     if author is null
+   * @throws IllegalArgumentException if both names are null, or either is blank
+   * @throws ConcurrentEditException  if the author was changed or deleted since it was loaded
+   */
+  public Author rename(Author author, String newFirstName, String newLastName) {
+    Objects.requireNonNull(author, "Author cannot be null");
+    String firstName = trimmed(newFirstName, "First name");
+    String lastName = trimmed(newLastName, "Last name");
+    List<String> oldKeys = keysOf(author);
+    if (!authorRepository.updateName(author, firstName, lastName)) {
+      throw concurrentEdit(author, null);
+    }
+    // The author only takes the names once they are written
+    if (firstName != null) {
+      author.setFirstName(firstName);
+    }
+    if (lastName != null) {
+      author.setLastName(lastName);
+    }
+    updateNameIndex(author, oldKeys);
+    return author;
+  }
+
+  /**
+   * Checks a new name and trims it the way the author setters do.
+   *
+   * @param value the new name, or null if it is kept
+   * @param field the name of the field, for the error message
+   * @return the trimmed name, or null if value is null
+   * @throws IllegalArgumentException if value is blank
+   */
+  private static String trimmed(String value, String field) {
+    if (value == null) {
+      return null;
+    }
+    if (value.isBlank()) {
+      throw new IllegalArgumentException(field + " cannot be blank");
+    }
+    return value.trim();
   }
 
   /**
-   * Deletes an author.
+   * Deletes an author and all of their diary entries.
    *
-   * @param author the author to delete
-   * @throws NullPointerException if author is null
+   * @param author the author to delete, as loaded
+   * @throws NullPointerException    if author or its ID is null
+   * @throws ConcurrentEditException if the author was changed or deleted since it was loaded
    */
   public void delete(Author author) {
-    authorRepository.delete(author);
+    if (!authorRepository.delete(author)) {
+      throw concurrentEdit(author, null);
+    }
+    if (author.getId() != null) {
+      nameIndex.replace(author.getId(), keysOf(author), List.of());
+    }
   }
 
   /**
@@ -125,4 +270,16 @@ public class AuthorService {
   public boolean emailExists(String email) {
     return authorRepository.existsByEmail(email);
   }
+
+  /**
+   * Creates the exception reported when an author was changed or deleted by someone else.
+   *
+   * @param author the author that could not be saved
+   * @param cause  the optimistic locking failure, or null
+   * @return the exception to throw
+   */
+  private static ConcurrentEditException concurrentEdit(Author author, Throwable cause) {
+    return new ConcurrentEditException("Author " + author.getId()
+        + " was changed or deleted by someone else since it was loaded", cause);
+  }
 }
@@ -0,0 +1,28 @@
+package edu.ntnu.idi.idatt.service;
+
+/**
+ * Thrown when an author or diary entry could not be saved because it was changed or deleted by
+ * someone else, for example another instance of the application using the same database, after
+ * it was loaded. Reload it and apply the change again.
+ */
+public class ConcurrentEditException extends RuntimeException {
+
+  /**
+   * Creates a new ConcurrentEditException.
+   *
+   * @param message the detail message
+   */
+  public ConcurrentEditException(String message) {
+    super(message);
+  }
+
+  /**
+   * Creates a new ConcurrentEditException.
+   *
+   * @param message the detail message
+   * @param cause   the optimistic locking failure reported by Hibernate
+   */
+  public ConcurrentEditException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
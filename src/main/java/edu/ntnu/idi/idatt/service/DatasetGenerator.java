@@ -0,0 +1,179 @@
+package edu.ntnu.idi.idatt.service;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Service class for filling a database with synthetic authors and diary entries for load and
+ * scale testing.
+ *
+ * <p>The data follows the shape of real diaries:
+ * <ul>
+ *   <li>entries per author follow a Zipf distribution, so a few authors write most entries,</li>
+ *   <li>content lengths follow a log-normal distribution around a median,</li>
+ *   <li>word frequencies follow Zipf's law over the vocabulary, and</li>
+ *   <li>creation times are spread over the whole period in increasing order, as if the entries
+ *       had been written one after another.</li>
+ * </ul>
+ * Entries are produced lazily and saved through
+ * {@link DiaryEntryRepository#saveAll(Iterable)}, so memory use does not depend on the number of
+ * entries. Everything is drawn from one random generator seeded from the spec, so a spec always
+ * produces the same data.
+ */
+public class DatasetGenerator {
+
+  /**
+   * Longest content generated, in words. Caps the tail of the log-normal distribution.
+   */
+  public static final int MAX_WORDS = 5_000;
+
+  private static final int MIN_TITLE_WORDS = 2;
+  private static final int MAX_TITLE_WORDS = 6;
+  private static final double WORD_SKEW = 1.0;
+  private static final String[] FIRST_NAMES = {
+      "Emma", "Noah", "Olivia", "Liam", "Nora", "Jakob", "Sofie", "Emil", "Ingrid", "Filip",
+      "Sara", "Lukas", "Maja", "Oskar", "Ella", "Henrik", "Astrid", "Magnus", "Ida", "Sander"
+  };
+  private static final String[] LAST_NAMES = {
+      "Hansen", "Johansen", "Olsen", "Larsen", "Andersen", "Pedersen", "Nilsen", "Kristiansen",
+      "Jensen", "Karlsen", "Johnsen", "Pettersen", "Eriksen", "Berg", "Haugen", "Hagen"
+  };
+
+  private final AuthorRepository authorRepository;
+  private final DiaryEntryRepository diaryEntryRepository;
+
+  /**
+   * Creates a new DatasetGenerator.
+   *
+   * @param authorRepository     the repository the authors are saved through
+   * @param diaryEntryRepository the repository the entries are saved through
+   * @throws NullPointerException if any repository is null
+   */
+  public DatasetGenerator(AuthorRepository authorRepository,
+      DiaryEntryRepository diaryEntryRepository) {
+    this.authorRepository =
+        Objects.requireNonNull(authorRepository, "AuthorRepository cannot be null");
+    this.diaryEntryRepository =
+        Objects.requireNonNull(diaryEntryRepository, "DiaryEntryRepository cannot be null");
+  }
+
+  /**
+   * Returns the email address of a generated author. Addresses include the seed, so datasets
+   * with different seeds can be generated into the same database.
+   *
+   * @param seed  the seed of the dataset
+   * @param index the author index, from 0; lower indexes write more entries
+   * @return the email address
+   */
+  public static String emailOf(long seed, int index) {
+    return "author" + index + ".s" + Long.toUnsignedString(seed) + "@example.com";
+  }
+
+  /**
+   * Creates the authors and entries described by a spec.
+   *
+   * @param spec the dataset to create
+   * @return the numbers of authors, entries and words created
+   * @throws NullPointerException if spec is null
+   */
+  public DatasetReport generate(DatasetSpec spec) {
+    Objects.requireNonNull(spec, "Spec cannot be null");
+    long start = System.nanoTime();
+    SplittableRandom random = new SplittableRandom(spec.seed());
+
+    List<Author> authors = new ArrayList<>(spec.authors());
+    for (int i = 0; i < spec.authors(); i++) {
+      authors.add(new Author(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+          LAST_NAMES[random.nextInt(LAST_NAMES.length)], emailOf(spec.seed(), i)));
+    }
+    authorRepository.saveAll(authors);
+
+    EntrySource source = new EntrySource(spec, authors, random);
+    long saved = diaryEntryRepository.saveAll(() -> source);
+    return new DatasetReport(authors.size(), saved, source.words,
+        Duration.ofNanos(System.nanoTime() - start));
+  }
+
+  /**
+   * Produces the entries of a dataset one at a time.
+   */
+  private static final class EntrySource implements Iterator<DiaryEntry> {
+
+    private final DatasetSpec spec;
+    private final List<Author> authors;
+    private final SplittableRandom random;
+    private final ZipfDistribution authorRanks;
+    private final ZipfDistribution wordRanks;
+    private final LocalDateTime start;
+    private final double secondsPerEntry;
+    private final double logMedian;
+    private long next;
+    private long words;
+
+    EntrySource(DatasetSpec spec, List<Author> authors, SplittableRandom random) {
+      this.spec = spec;
+      this.authors = authors;
+      this.random = random;
+      this.authorRanks = new ZipfDistribution(authors.size(), spec.authorSkew());
+      this.wordRanks = new ZipfDistribution(spec.vocabulary().size(), WORD_SKEW);
+      this.start = spec.from().atStartOfDay();
+      long periodSeconds = ChronoUnit.SECONDS.between(start, spec.to().atStartOfDay());
+      this.secondsPerEntry = spec.entries() == 0 ? 0 : (double) periodSeconds / spec.entries();
+      this.logMedian = Math.log(spec.medianWords());
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < spec.entries();
+    }
+
+    @Override
+    public DiaryEntry next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      // Each entry gets a random moment within its own slot, keeping creation times in order
+      long second = (long) ((next + random.nextDouble()) * secondsPerEntry);
+      next++;
+      Author author = authors.get(authorRanks.sample(random));
+      String title = text(random.nextInt(MIN_TITLE_WORDS, MAX_TITLE_WORDS + 1), false);
+      long length = Math.round(Math.exp(logMedian + spec.wordsSigma() * random.nextGaussian()));
+      length = Math.max(1, Math.min(MAX_WORDS, length));
+      words += length;
+      return new DiaryEntry(title, author, text((int) length, true), start.plusSeconds(second));
+    }
+
+    /**
+     * Builds a capitalized run of vocabulary words.
+     *
+     * @param count  the number of words
+     * @param period whether to end the text with a full stop
+     * @return the text
+     */
+    private String text(int count, boolean period) {
+      StringBuilder text = new StringBuilder(count * 8);
+      for (int i = 0; i < count; i++) {
+        if (i > 0) {
+          text.append(' ');
+        }
+        text.append(spec.vocabulary().get(wordRanks.sample(random)));
+      }
+      text.setCharAt(0, Character.toUpperCase(text.charAt(0)));
+      if (period) {
+        text.append('.');
+      }
+      return text.toString();
+    }
+  }
+}
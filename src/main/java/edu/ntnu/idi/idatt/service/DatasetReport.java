@@ -0,0 +1,24 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.time.Duration;
+
+/**
+ * Outcome of generating a synthetic dataset.
+ *
+ * @param authors the number of authors created
+ * @param entries the number of entries created
+ * @param words   the total number of words in the entry contents
+ * @param elapsed the time spent generating and saving
+ */
+public record DatasetReport(int authors, long entries, long words, Duration elapsed) {
+
+  /**
+   * Returns the average throughput.
+   *
+   * @return entries saved per second, or 0 if no time has elapsed
+   */
+  public double rowsPerSecond() {
+    long nanos = elapsed.toNanos();
+    return nanos == 0 ? 0 : entries * 1e9 / nanos;
+  }
+}
@@ -0,0 +1,183 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parameters of a synthetic dataset created by {@link DatasetGenerator}. The same spec always
+ * produces the same authors and entries.
+ *
+ * @param authors      the number of authors to create
+ * @param entries      the number of diary entries to create
+ * @param seed         the random seed
+ * @param authorSkew   the Zipf exponent of entries per author; 0 spreads the entries evenly, 1 and
+ *                     above give a few very active authors and a long tail of occasional ones
+ * @param medianWords  the median content length in words
+ * @param wordsSigma   the standard deviation of the logarithm of the content length; 0 gives every
+ *                     entry the median length
+ * @param from         the first day entries are created on
+ * @param to           the day after the last entry
+ * @param vocabulary   the words titles and contents are made of, most frequent first; word
+ *                     frequencies follow Zipf's law, so the rank of a search term sets its
+ *                     selectivity
+ */
+public record DatasetSpec(int authors, long entries, long seed, double authorSkew,
+    int medianWords, double wordsSigma, LocalDate from, LocalDate to, List<String> vocabulary) {
+
+  /**
+   * Default Zipf exponent of entries per author.
+   */
+  public static final double DEFAULT_AUTHOR_SKEW = 1.1;
+
+  /**
+   * Default median content length in words.
+   */
+  public static final int DEFAULT_MEDIAN_WORDS = 80;
+
+  /**
+   * Default spread of the content length.
+   */
+  public static final double DEFAULT_WORDS_SIGMA = 0.8;
+
+  /**
+   * Default number of words in the vocabulary.
+   */
+  public static final int DEFAULT_VOCABULARY_SIZE = 5_000;
+
+  private static final String[] SYLLABLES = {
+      "ba", "ke", "li", "mo", "nu", "ra", "se", "ti", "vo", "da", "fe", "gi", "ho", "ju", "la",
+      "me", "ni", "po", "ru", "sa", "te", "vi", "zo", "an", "er", "in", "or", "ul", "en", "is"
+  };
+
+  /**
+   * Creates a new spec.
+   *
+   * @throws NullPointerException     if from, to or vocabulary is null
+   * @throws IllegalArgumentException if a count or length is out of range, to is not after from,
+   *                                  or the vocabulary is empty or contains a blank word
+   */
+  public DatasetSpec {
+    Objects.requireNonNull(from, "Start date cannot be null");
+    Objects.requireNonNull(to, "End date cannot be null");
+    Objects.requireNonNull(vocabulary, "Vocabulary cannot be null");
+    if (authors <= 0) {
+      throw new IllegalArgumentException("Number of authors must be positive");
+    }
+    if (entries < 0) {
+      throw new IllegalArgumentException("Number of entries cannot be negative");
+    }
+    if (authorSkew < 0) {
+      throw new IllegalArgumentException("Author skew cannot be negative");
+    }
+    if (medianWords <= 0) {
+      throw new IllegalArgumentException("Median words must be positive");
+    }
+    if (wordsSigma < 0) {
+      throw new IllegalArgumentException("Words sigma cannot be negative");
+    }
+    if (!to.isAfter(from)) {
+      throw new IllegalArgumentException("End date must be after start date");
+    }
+    vocabulary = List.copyOf(vocabulary);
+    if (vocabulary.isEmpty()) {
+      throw new IllegalArgumentException("Vocabulary cannot be empty");
+    }
+    if (vocabulary.stream().anyMatch(String::isBlank)) {
+      throw new IllegalArgumentException("Vocabulary cannot contain blank words");
+    }
+  }
+
+  /**
+   * Creates a spec with the default distributions, entries spread over the five years before
+   * 2025 and a synthetic vocabulary.
+   *
+   * @param authors the number of authors
+   * @param entries the number of entries
+   * @param seed    the random seed
+   * @return the spec
+   */
+  public static DatasetSpec of(int authors, long entries, long seed) {
+    return new DatasetSpec(authors, entries, seed, DEFAULT_AUTHOR_SKEW, DEFAULT_MEDIAN_WORDS,
+        DEFAULT_WORDS_SIGMA, LocalDate.of(2020, 1, 1), LocalDate.of(2025, 1, 1),
+        syntheticVocabulary(DEFAULT_VOCABULARY_SIZE));
+  }
+
+  /**
+   * Returns distinct pronounceable made-up words of equal length, e.g. {@code bakeli}. Since no
+   * word contains another, a substring search for a word matches exactly the entries containing
+   * that word.
+   *
+   * @param size the number of words
+   * @return the words
+   * @throws IllegalArgumentException if size is not positive
+   */
+  public static List<String> syntheticVocabulary(int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Vocabulary size must be positive");
+    }
+    int syllables = 2;
+    for (long combinations = (long) SYLLABLES.length * SYLLABLES.length; combinations < size;
+        combinations *= SYLLABLES.length) {
+      syllables++;
+    }
+    List<String> words = new ArrayList<>(size);
+    for (int rank = 0; rank < size; rank++) {
+      StringBuilder word = new StringBuilder();
+      int n = rank;
+      for (int i = 0; i < syllables; i++) {
+        word.insert(0, SYLLABLES[n % SYLLABLES.length]);
+        n /= SYLLABLES.length;
+      }
+      words.add(word.toString());
+    }
+    return words;
+  }
+
+  /**
+   * Returns a copy of this spec with other entry counts per author.
+   *
+   * @param authorSkew the Zipf exponent of entries per author
+   * @return the new spec
+   */
+  public DatasetSpec withAuthorSkew(double authorSkew) {
+    return new DatasetSpec(authors, entries, seed, authorSkew, medianWords, wordsSigma, from, to,
+        vocabulary);
+  }
+
+  /**
+   * Returns a copy of this spec with another content length distribution.
+   *
+   * @param medianWords the median content length in words
+   * @param wordsSigma  the spread of the content length
+   * @return the new spec
+   */
+  public DatasetSpec withContentLength(int medianWords, double wordsSigma) {
+    return new DatasetSpec(authors, entries, seed, authorSkew, medianWords, wordsSigma, from, to,
+        vocabulary);
+  }
+
+  /**
+   * Returns a copy of this spec with entries created in another period.
+   *
+   * @param from the first day entries are created on
+   * @param to   the day after the last entry
+   * @return the new spec
+   */
+  public DatasetSpec withPeriod(LocalDate from, LocalDate to) {
+    return new DatasetSpec(authors, entries, seed, authorSkew, medianWords, wordsSigma, from, to,
+        vocabulary);
+  }
+
+  /**
+   * Returns a copy of this spec with another vocabulary.
+   *
+   * @param vocabulary the words, most frequent first
+   * @return the new spec
+   */
+  public DatasetSpec withVocabulary(List<String> vocabulary) {
+    return new DatasetSpec(authors, entries, seed, authorSkew, medianWords, wordsSigma, from, to,
+        vocabulary);
+  }
+}
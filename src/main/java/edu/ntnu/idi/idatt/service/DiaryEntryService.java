@@ -2,10 +2,30 @@ package edu.ntnu.idi.idatt.service;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
 import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
+import edu.ntnu.idi.idatt.repository.DiaryEntryQuery;
 import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.EntryCursor;
+import edu.ntnu.idi.idatt.repository.EntryTableState;
+import edu.ntnu.idi.idatt.repository.Page;
+import edu.ntnu.idi.idatt.repository.PageRequest;
+import edu.ntnu.idi.idatt.service.SearchResultCache.DateRangeKey;
+import edu.ntnu.idi.idatt.service.SearchResultCache.KeywordKey;
+import edu.ntnu.idi.idatt.service.SearchResultCache.SearchRoute;
+import jakarta.persistence.OptimisticLockException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.hibernate.Hibernate;
+import org.hibernate.StaleStateException;
 
 /**
  * Service class for DiaryEntry business logic.
@@ -13,16 +33,48 @@ import java.util.Optional;
 public class DiaryEntryService {
 
   private final DiaryEntryRepository entryRepository;
+  private final SearchIndex searchIndex;
+  private final SearchResultCache resultCache;
+  private final PrefixIndex titleIndex = new PrefixIndex();
 
   /**
-   * Creates a new DiaryEntryService with the given repository.
+   * Creates a new DiaryEntryService with the given repository and an in-memory search index that
+   * stays unused until it is built.
    *
    * @param entryRepository the diary entry repository
    * @throws NullPointerException if entryRepository is null
    */
   public DiaryEntryService(DiaryEntryRepository entryRepository) {
+    this(entryRepository, new SearchIndex());
+  }
+
+  /**
+   * Creates a new DiaryEntryService with the given repository and search index. Once the index
+   * is ready, searches go through it and every change made through this service updates it.
+   *
+   * @param entryRepository the diary entry repository
+   * @param searchIndex     the in-memory search index
+   * @throws NullPointerException if any argument is null
+   */
+  public DiaryEntryService(DiaryEntryRepository entryRepository, SearchIndex searchIndex) {
+    this(entryRepository, searchIndex, new SearchResultCache());
+  }
+
+  /**
+   * Creates a new DiaryEntryService with the given repository, search index and cache of search
+   * results. Every change made through this service invalidates the cached results it affects.
+   *
+   * @param entryRepository the diary entry repository
+   * @param searchIndex     the in-memory search index
+   * @param resultCache     the cache of keyword and date search results
+   * @throws NullPointerException if any argument is null
+   */
+  public DiaryEntryService(DiaryEntryRepository entryRepository, SearchIndex searchIndex,
+      SearchResultCache resultCache) {
     this.entryRepository = Objects.requireNonNull(entryRepository,
         "DiaryEntryRepository cannot be null");
+    this.searchIndex = Objects.requireNonNull(searchIndex, "SearchIndex cannot be null");
+    this.resultCache = Objects.requireNonNull(resultCache, "SearchResultCache cannot be null");
   }
 
   /**
@@ -37,7 +89,42 @@ public class DiaryEntryService {
    */
   public DiaryEntry createEntry(String title, Author author, String content) {
     DiaryEntry entry = new DiaryEntry(title, author, content);
-    return entryRepository.save(entry);
+    DiaryEntry saved = entryRepository.save(entry);
+    invalidateResults(saved, true, saved.getTitle(), saved.getContent());
+    updateSearchIndex(saved, state -> state.afterInsert(saved.getId(), saved.getUpdatedAt()));
+    updateTitleIndex(saved, null);
+    return saved;
+  }
+
+  /**
+   * Saves many new diary entries in bulk, committing in chunks of
+   * {@value DiaryEntryRepository#DEFAULT_CHUNK_SIZE}. Intended for imports, where saving entries
+   * one transaction at a time is too slow. The search index, if in use, is rebuilt afterwards.
+   *
+   * @param entries the entries to save
+   * @return the number of entries saved
+   * @throws NullPointerException if entries or any entry is null
+   */
+  public long createEntries(Iterable<DiaryEntry> entries) {
+    long saved = entryRepository.saveAll(entries);
+    refreshAfterBulkChanges();
+    return saved;
+  }
+
+  /**
+   * Saves many new diary entries in bulk, committing every {@code chunkSize} entries. The search
+   * index, if in use, is rebuilt afterwards.
+   *
+   * @param entries   the entries to save
+   * @param chunkSize the number of entries per transaction
+   * @return the number of entries saved
+   * @throws NullPointerException     if entries or any entry is null
+   * @throws IllegalArgumentException if chunkSize is not positive
+   */
+  public long createEntries(Iterable<DiaryEntry> entries, int chunkSize) {
+    long saved = entryRepository.saveAll(entries, chunkSize);
+    refreshAfterBulkChanges();
+    return saved;
   }
 
   /**
@@ -83,7 +170,9 @@ public class DiaryEntryService {
   }
 
   /**
-   * Searches for diary entries containing the given text in title or content.
+   * Searches for diary entries containing the given text in title or content. Uses the ranked
+   * full-text index when it is available, otherwise falls back to a substring search. Repeated
+   * searches are answered from the result cache.
    *
    * @param searchText the text to search for (null or blank returns empty list)
    * @return a list of matching entries
@@ -92,59 +181,463 @@ public class DiaryEntryService {
     if (searchText == null || searchText.isBlank()) {
       return List.of();
     }
-    return entryRepository.searchByTitleOrContent(searchText);
+    SearchRoute route = routeOf(searchText);
+    return cached(KeywordKey.of(route, searchText), () -> switch (route) {
+      case INDEX -> searchIndexed(searchIndex.search(searchText), entryRepository::findByIds,
+          DiaryEntry::getId);
+      case FULL_TEXT -> entryRepository.searchFullText(searchText);
+      case SUBSTRING -> entryRepository.searchByTitleOrContent(searchText);
+    }, entryRepository::findByIds, DiaryEntry::getId);
   }
 
   /**
-   * Finds all diary entries created on a specific date.
+   * Searches for summaries of diary entries containing the given text in title or content, for
+   * list screens. Routes like {@link #search(String)} but never loads entry content.
    *
-   * @param date the date to search for
-   * @return a list of entries created on that date
-   * @throws NullPointerException if date is null
+   * @param searchText the text to search for (null or blank returns empty list)
+   * @return a list of matching entry summaries
    */
-  public List<DiaryEntry> findByDate(java.time.LocalDate date) {
-    return entryRepository.findByDate(date);
+  public List<DiaryEntrySummary> searchSummaries(String searchText) {
+    if (searchText == null || searchText.isBlank()) {
+      return List.of();
+    }
+    SearchRoute route = routeOf(searchText);
+    return cached(KeywordKey.of(route, searchText), () -> switch (route) {
+      case INDEX -> searchIndexed(searchIndex.search(searchText),
+          entryRepository::findSummariesByIds, DiaryEntrySummary::id);
+      case FULL_TEXT -> entryRepository.searchSummariesFullText(searchText);
+      case SUBSTRING -> entryRepository.searchSummariesByTitleOrContent(searchText);
+    }, entryRepository::findSummariesByIds, DiaryEntrySummary::id);
   }
 
   /**
-   * Finds all diary entries created within a date range (inclusive).
+   * Searches for summaries of diary entries like {@link #searchSummaries(String)}, tolerating
+   * typos: a word also matches the words in titles and content that are a few letters off. Ranked
+   * by how well the entries match. Needs the in-memory index, which the first fuzzy search builds
+   * through {@link #prepareFuzzySearch()} if it is not in use yet. While a build started
+   * elsewhere is still running, this falls back to the exact search. Fuzzy results are not
+   * cached, since a change to any similar word could affect them.
+   *
+   * @param searchText  the text to search for (null or blank returns empty list)
+   * @param maxDistance the maximum number of typos per word
+   * @return a list of matching entry summaries, best match first
+   * @throws IllegalArgumentException if maxDistance is negative
+   */
+  public List<DiaryEntrySummary> searchSummariesFuzzy(String searchText, int maxDistance) {
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("Max distance cannot be negative");
+    }
+    if (searchText == null || searchText.isBlank()) {
+      return List.of();
+    }
+    if (!prepareFuzzySearch() || routeOf(searchText) != SearchRoute.INDEX) {
+      return searchSummaries(searchText);
+    }
+    return searchIndexed(searchIndex.searchFuzzy(searchText, maxDistance),
+        entryRepository::findSummariesByIds, DiaryEntrySummary::id);
+  }
+
+  /**
+   * Returns whether fuzzy searches can use the in-memory index right away, without building it.
+   *
+   * @return true if the index is ready
+   */
+  public boolean isFuzzySearchReady() {
+    return searchIndex.isReady();
+  }
+
+  /**
+   * Builds the in-memory index fuzzy search needs unless it is in use already. The index is then
+   * kept current and answers keyword searches too, as when it is built at startup.
+   *
+   * @return true if the index is ready, false while a build started elsewhere is still running
+   */
+  public boolean prepareFuzzySearch() {
+    if (!searchIndex.isAcceptingChanges()) {
+      try {
+        searchIndex.build(entryRepository);
+      } catch (IllegalStateException e) {
+        // A build that started in the meantime fills the index instead
+      }
+    }
+    return searchIndex.isReady();
+  }
+
+  /**
+   * Decides how a keyword search is answered: through the in-memory index once it is ready, else
+   * through the full-text index if available, else by substring matching. The full-text search
+   * also matches substrings when the text has no words.
+   *
+   * @param searchText the search text
+   * @return the route
+   */
+  private SearchRoute routeOf(String searchText) {
+    if (searchIndex.isReady() && SearchIndex.hasTerms(searchText)) {
+      return SearchRoute.INDEX;
+    }
+    if (entryRepository.isFullTextSearchAvailable() && !SearchIndex.terms(searchText).isEmpty()) {
+      return SearchRoute.FULL_TEXT;
+    }
+    return SearchRoute.SUBSTRING;
+  }
+
+  /**
+   * Answers a search from the result cache, or runs it and caches the IDs of the results.
+   *
+   * @param key    the cache key of the search
+   * @param search runs the search
+   * @param loader loads the results for cached IDs, in the order of the IDs
+   * @param idOf   returns the ID of a result
+   * @param <T>    the result type
+   * @return the results
+   */
+  private <T> List<T> cached(SearchResultCache.Key key, Supplier<List<T>> search,
+      Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+    Optional<List<Long>> cachedIds = resultCache.get(key);
+    if (cachedIds.isPresent()) {
+      return loader.apply(cachedIds.get());
+    }
+    long version = resultCache.version();
+    List<T> results = search.get();
+    List<Long> ids = results.stream().map(idOf).toList();
+    if (!ids.contains(null)) {
+      // Results without an ID could not be loaded again
+      resultCache.put(key, ids, version);
+    }
+    return results;
+  }
+
+  /**
+   * Returns the hit, miss, eviction and invalidation counts of the search result cache.
+   *
+   * @return the current statistics
+   */
+  public SearchCacheStatistics getSearchCacheStatistics() {
+    return resultCache.getStatistics();
+  }
+
+  /**
+   * Brings caches and the in-memory search index up to date after bulk changes that bypass this
+   * service's single-entry methods, such as imports.
+   */
+  public void refreshAfterBulkChanges() {
+    resultCache.clear();
+    titleIndex.unload();
+    rebuildSearchIndex();
+  }
+
+  /**
+   * Completes a typed prefix of an entry title. The titles are kept in an in-memory prefix index,
+   * loaded on first use without reading entry content, so this does not scan the entries table.
+   *
+   * @param prefix the typed prefix, ignoring case; empty matches every entry
+   * @param limit  the maximum number of entries
+   * @return summaries of the matching entries, in title order
+   * @throws NullPointerException     if prefix is null
+   * @throws IllegalArgumentException if limit is negative
+   */
+  public List<DiaryEntrySummary> completeTitles(String prefix, int limit) {
+    Objects.requireNonNull(prefix, "Prefix cannot be null");
+    titleIndex.ensureLoaded(
+        keys -> entryRepository.streamTitles(title -> keys.accept(title.title(), title.id())));
+    return titleIndex.complete(prefix, limit, entryRepository::findSummariesByIds,
+        DiaryEntrySummary::id, summary -> List.of(summary.title()));
+  }
+
+  /**
+   * Loads the matches of an in-memory index search in ranked order. Entries that no longer
+   * exist, such as those deleted together with their author, are dropped from the index.
+   *
+   * @param ids        the IDs found by the index, best match first
+   * @param loader     loads the results for IDs, in the order of the IDs
+   * @param idOf       returns the ID of a result
+   * @param <T>        the result type
+   * @return the matching results, best match first
+   */
+  private <T> List<T> searchIndexed(List<Long> ids, Function<List<Long>, List<T>> loader,
+      Function<T, Long> idOf) {
+    List<T> results = loader.apply(ids);
+    if (results.size() < ids.size()) {
+      Set<Long> missing = new HashSet<>(ids);
+      results.forEach(result -> missing.remove(idOf.apply(result)));
+      missing.forEach(searchIndex::remove);
+    }
+    return results;
+  }
+
+  /**
+   * Rebuilds the in-memory search index from the database if it is in use. Needed after bulk
+   * changes that bypass this service's single-entry methods, such as imports.
+   *
+   * @return true if the index was rebuilt, false if it is not in use or already being built
+   */
+  public boolean rebuildSearchIndex() {
+    if (!searchIndex.isReady()) {
+      return false;
+    }
+    try {
+      searchIndex.build(entryRepository);
+      return true;
+    } catch (IllegalStateException e) {
+      // A build that started after this one was requested picks up the same changes
+      return false;
+    }
+  }
+
+  /**
+   * Drops the cached search results a write to an entry may have changed.
+   *
+   * @param entry            the written entry
+   * @param createdOrDeleted whether the entry was created or deleted, which changes the date
+   *                         searches covering its creation date
+   * @param texts            the new title and/or content; null values are skipped
+   */
+  private void invalidateResults(DiaryEntry entry, boolean createdOrDeleted, String... texts) {
+    if (entry.getId() == null) {
+      // Never saved, so in no results
+      return;
+    }
+    LocalDate date = createdOrDeleted && entry.getCreatedAt() != null
+        ? entry.getCreatedAt().toLocalDate()
+        : null;
+    resultCache.invalidate(entry.getId(), date,
+        Arrays.stream(texts).filter(Objects::nonNull).toList());
+  }
+
+  /**
+   * Passes the current title of a saved entry to the title completion index.
+   *
+   * @param entry    the saved entry
+   * @param oldTitle the title the entry had before, or null
+   */
+  private void updateTitleIndex(DiaryEntry entry, String oldTitle) {
+    if (entry.getId() != null) {
+      titleIndex.replace(entry.getId(), Collections.singletonList(oldTitle),
+          Collections.singletonList(entry.getTitle()));
+    }
+  }
+
+  /**
+   * Passes the current title and content of an entry to the search index, if the index takes
+   * changes. The content is loaded lazily, so it is only read when it is actually needed.
+   *
+   * @param entry the saved entry
+   * @param write how saving the entry moved the state of the entries table on
+   */
+  private void updateSearchIndex(DiaryEntry entry, UnaryOperator<EntryTableState> write) {
+    if (!searchIndex.isAcceptingChanges()) {
+      return;
+    }
+    DiaryEntry current = entry;
+    if (!Hibernate.isPropertyInitialized(entry, "content")) {
+      current = entryRepository.findById(entry.getId()).orElse(null);
+      if (current == null) {
+        searchIndex.remove(entry.getId());
+        return;
+      }
+    }
+    searchIndex.index(current.getId(), current.getTitle(), current.getContent(), write);
+  }
+
+  /**
+   * Retrieves one page of summaries of all diary entries, newest first.
+   *
+   * @param request the page to fetch
+   * @return the requested page
+   * @throws NullPointerException if request is null
+   */
+  public Page<DiaryEntrySummary> findSummaryPage(PageRequest request) {
+    return entryRepository.findSummaryPage(request);
+  }
+
+  /**
+   * Retrieves one page of summaries of diary entries by author ID, newest first.
+   *
+   * @param authorId the author ID
+   * @param request  the page to fetch
+   * @return the requested page
+   * @throws NullPointerException if authorId or request is null
+   */
+  public Page<DiaryEntrySummary> findSummaryPageByAuthorId(Long authorId, PageRequest request) {
+    return entryRepository.findSummaryPageByAuthorId(authorId, request);
+  }
+
+  /**
+   * Retrieves one page of summaries of diary entries created on a specific date, newest first.
+   * The IDs found are kept in the result cache, so paging through a date search only loads the
+   * summaries on each page.
+   *
+   * @param date    the date to search for
+   * @param request the page to fetch
+   * @return the requested page
+   * @throws NullPointerException if date or request is null
+   */
+  public Page<DiaryEntrySummary> findSummaryPageByDate(LocalDate date, PageRequest request) {
+    Objects.requireNonNull(date, "Date cannot be null");
+    return findSummaryPageByDateRange(date, date, request);
+  }
+
+  /**
+   * Retrieves one page of summaries of diary entries created within a date range (inclusive),
+   * newest first. The IDs found are kept in the result cache, so paging through a date search
+   * only loads the summaries on each page.
    *
    * @param startDate the start date (inclusive)
    * @param endDate   the end date (inclusive)
-   * @return a list of entries within the date range
-   * @throws NullPointerException if either date is null
+   * @param request   the page to fetch
+   * @return the requested page
+   * @throws NullPointerException if either date or request is null
+   */
+  public Page<DiaryEntrySummary> findSummaryPageByDateRange(LocalDate startDate,
+      LocalDate endDate, PageRequest request) {
+    Objects.requireNonNull(startDate, "Start date cannot be null");
+    Objects.requireNonNull(endDate, "End date cannot be null");
+    Objects.requireNonNull(request, "Page request cannot be null");
+    DateRangeKey key = new DateRangeKey(startDate, endDate);
+    Optional<List<Long>> cachedIds = resultCache.get(key);
+    List<Long> ids;
+    if (cachedIds.isPresent()) {
+      ids = cachedIds.get();
+    } else {
+      long version = resultCache.version();
+      ids = entryRepository.findIdsByDateRange(startDate, endDate);
+      resultCache.put(key, ids, version);
+    }
+    return pageOf(ids, request)
+        .orElseGet(() -> entryRepository.findSummaryPageByDateRange(startDate, endDate, request));
+  }
+
+  /**
+   * Cuts a page out of the IDs of a search in listing order and loads the summaries on it.
+   *
+   * @param ids     the IDs of all results, newest first
+   * @param request the page to fetch
+   * @return the requested page, or empty if the IDs do not match the table any more: the cursor
+   *         entry is not among them, or an entry on the page is gone
    */
-  public List<DiaryEntry> findByDateRange(java.time.LocalDate startDate,
-      java.time.LocalDate endDate) {
-    return entryRepository.findByDateRange(startDate, endDate);
+  private Optional<Page<DiaryEntrySummary>> pageOf(List<Long> ids, PageRequest request) {
+    int from = 0;
+    int to = Math.min(request.size(), ids.size());
+    if (request.cursor() != null) {
+      int position = ids.indexOf(request.cursor().id());
+      if (position < 0) {
+        return Optional.empty();
+      }
+      from = request.backwards() ? Math.max(0, position - request.size()) : position + 1;
+      to = request.backwards() ? position : Math.min(from + request.size(), ids.size());
+    }
+    List<Long> pageIds = ids.subList(from, to);
+    List<DiaryEntrySummary> items = entryRepository.findSummariesByIds(pageIds);
+    if (items.size() != pageIds.size()) {
+      return Optional.empty();
+    }
+    return Optional.of(new Page<>(items,
+        items.isEmpty() ? null : cursorOf(items.get(0)),
+        items.isEmpty() ? null : cursorOf(items.get(items.size() - 1)),
+        from > 0, to < ids.size(), request.size()));
   }
 
   /**
-   * Updates a diary entry's title.
+   * Returns the keyset cursor of an entry summary.
+   *
+   * @param summary the entry summary
+   * @return the cursor pointing at the entry
+   */
+  private static EntryCursor cursorOf(DiaryEntrySummary summary) {
+    return new EntryCursor(summary.createdAt(), summary.id());
+  }
+
+  /**
+   * Finds summaries of the diary entries matching a combined search by keyword, authors and date
+   * range. All criteria are applied by the database in one query.
+   *
+   * @param query the search criteria, order and limit
+   * @return the matching entry summaries
+   * @throws NullPointerException if query is null
+   */
+  public List<DiaryEntrySummary> findSummaries(DiaryEntryQuery query) {
+    return entryRepository.findSummaries(query);
+  }
+
+  /**
+   * Updates a diary entry's title. Only the title and the update time are written.
    *
    * @param entry    the entry to update
    * @param newTitle the new title
    * @return the updated entry
    * @throws NullPointerException     if entry or newTitle is null
    * @throws IllegalArgumentException if newTitle is blank
+   * @throws ConcurrentEditException  if the entry was changed or deleted since it was loaded
    */
   public DiaryEntry updateTitle(DiaryEntry entry, String newTitle) {
-    entry.setTitle(newTitle);
-    return entryRepository.update(entry);
+    return edit(entry, Objects.requireNonNull(newTitle, "Title cannot be null"), null);
   }
 
   /**
-   * Updates a diary entry's content.
+   * Updates a diary entry's content. Only the content and the update time are written.
    *
    * @param entry      the entry to update
    * @param newContent the new content
    * @return the updated entry
    * @throws NullPointerException     if entry or newContent is null
    * @throws IllegalArgumentException if newContent is blank
+   * @throws ConcurrentEditException  if the entry was changed or deleted since it was loaded
    */
   public DiaryEntry updateContent(DiaryEntry entry, String newContent) {
-    entry.setContent(newContent);
-    return entryRepository.update(entry);
+    return edit(entry, null, Objects.requireNonNull(newContent, "Content cannot be null"));
+  }
+
+  /**
+   * Changes the title and/or content of a diary entry with a single update that writes only the
+   * changed fields, instead of merging the whole entry.
+   *
+   * @param entry      the entry to update; its fields are changed once the update succeeds
+   * @param newTitle   the new title, or null to keep the current title
+   * @param newContent the new content, or null to keep the current content
+   * @return the updated entry
+   * @throws NullPointerException     if entry is null
+   * @throws IllegalArgumentException if both newTitle and newContent are null, or either is blank
+   * @throws ConcurrentEditException  if the entry was changed or deleted since it was loaded
+   */
+  public DiaryEntry edit(DiaryEntry entry, String newTitle, String newContent) {
+    Objects.requireNonNull(entry, "DiaryEntry cannot be null");
+    String title = trimmed(newTitle, "Title");
+    String content = trimmed(newContent, "Content");
+    String oldTitle = entry.getTitle();
+    if (!entryRepository.updateTitleAndContent(entry, title, content)) {
+      throw concurrentEdit(entry, null);
+    }
+    // The entry only takes the values once they are written
+    if (title != null) {
+      entry.setTitle(title);
+    }
+    if (content != null) {
+      entry.setContent(content);
+    }
+    invalidateResults(entry, false, title, content);
+    updateSearchIndex(entry, state -> state.afterUpdate(entry.getUpdatedAt()));
+    if (title != null) {
+      updateTitleIndex(entry, oldTitle);
+    }
+    return entry;
+  }
+
+  /**
+   * Checks a new title or content and trims it the way the entry setters do.
+   *
+   * @param value the new value, or null if it is kept
+   * @param field the name of the field, for the error message
+   * @return the trimmed value, or null if value is null
+   * @throws IllegalArgumentException if value is blank
+   */
+  private static String trimmed(String value, String field) {
+    if (value == null) {
+      return null;
+    }
+    if (value.isBlank()) {
+      throw new IllegalArgumentException(field + " cannot be blank");
+    }
+    return value.trim();
   }
 
   /**
@@ -152,20 +645,56 @@ public class DiaryEntryService {
    *
    * @param entry the entry to update
    * @return the updated entry
-   * @throws NullPointerException if entry is null
+   * @throws NullPointerException    if entry is null
+   * @throws ConcurrentEditException if the entry was changed or deleted since it was loaded
    */
   public DiaryEntry update(DiaryEntry entry) {
-    return entryRepository.update(entry);
+    DiaryEntry updated;
+    try {
+      updated = entryRepository.update(entry);
+    } catch (OptimisticLockException | StaleStateException e) {
+      throw concurrentEdit(entry, e);
+    }
+    // Content that was never loaded cannot have changed
+    invalidateResults(updated, false, updated.getTitle(),
+        Hibernate.isPropertyInitialized(updated, "content") ? updated.getContent() : null);
+    updateSearchIndex(updated, state -> state.afterUpdate(updated.getUpdatedAt()));
+    if (updated.getId() != null) {
+      // The merged entry no longer knows its old title, so every title of the entry is replaced
+      titleIndex.replaceAll(updated.getId(), Collections.singletonList(updated.getTitle()));
+    }
+    return updated;
+  }
+
+  /**
+   * Creates the exception reported when an entry was changed or deleted by someone else.
+   *
+   * @param entry the entry that could not be saved
+   * @param cause the optimistic locking failure, or null
+   * @return the exception to throw
+   */
+  private static ConcurrentEditException concurrentEdit(DiaryEntry entry, Throwable cause) {
+    return new ConcurrentEditException("Diary entry " + entry.getId()
+        + " was changed or deleted by someone else since it was loaded", cause);
   }
 
   /**
-   * Deletes a diary entry.
+   * Deletes a diary entry, unless it was changed since it was loaded.
    *
    * @param entry the entry to delete
-   * @throws NullPointerException if entry is null
+   * @throws NullPointerException    if entry is null
+   * @throws ConcurrentEditException if the entry was changed or deleted since it was loaded
    */
   public void delete(DiaryEntry entry) {
-    entryRepository.delete(entry);
+    if (!entryRepository.delete(entry)) {
+      throw concurrentEdit(entry, null);
+    }
+    if (entry.getId() != null) {
+      invalidateResults(entry, true);
+      searchIndex.remove(entry.getId(),
+          state -> state.afterDelete(entry.getId(), entry.getUpdatedAt()));
+      titleIndex.remove(entry.getId(), entry.getTitle());
+    }
   }
 
   /**
@@ -176,12 +705,14 @@ public class DiaryEntryService {
    * @throws NullPointerException if id is null
    */
   public boolean deleteById(Long id) {
-    Optional<DiaryEntry> entry = entryRepository.findById(id);
-    if (entry.isPresent()) {
-      entryRepository.delete(entry.get());
-      return true;
+    boolean deleted = entryRepository.deleteById(id);
+    if (deleted) {
+      // Dropping the results that contained the entry covers every result a delete can change
+      resultCache.invalidate(id, null, List.of());
+      searchIndex.remove(id, state -> state.afterDelete(id, null));
+      titleIndex.removeAll(id);
     }
-    return false;
+    return deleted;
   }
 
   /**
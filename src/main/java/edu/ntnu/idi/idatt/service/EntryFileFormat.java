@@ -0,0 +1,494 @@
+package edu.ntnu.idi.idatt.service;
+
+import edu.ntnu.idi.idatt.model.projections.EntryRecord;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * File formats for diary entry export and import. Every format holds one entry per record, with
+ * the author identified by email and timestamps in ISO-8601 local date-time form.
+ *
+ * <p>When reading, field names are matched without regard to case or underscores, so
+ * {@code author_email} and {@code authorEmail} name the same field. Unknown fields are ignored.
+ */
+public enum EntryFileFormat {
+
+  /**
+   * Newline-delimited JSON: one flat JSON object per line, no enclosing array.
+   */
+  NDJSON("ndjson") {
+    @Override
+    void writeHeader(Appendable out) {
+      // NDJSON has no header
+    }
+
+    @Override
+    void write(EntryRecord record, Appendable out) throws IOException {
+      out.append("{\"id\":").append(String.valueOf(record.id()));
+      jsonField("title", record.title(), out);
+      jsonField("content", record.content(), out);
+      jsonField("authorEmail", record.authorEmail(), out);
+      jsonField("authorFirstName", record.authorFirstName(), out);
+      jsonField("authorLastName", record.authorLastName(), out);
+      jsonField("createdAt", timestamp(record.createdAt()), out);
+      jsonField("updatedAt", timestamp(record.updatedAt()), out);
+      out.append("}\n");
+    }
+
+    @Override
+    boolean hasHeader() {
+      return false;
+    }
+
+    @Override
+    boolean isComplete(CharSequence line, boolean continued) {
+      return true;
+    }
+
+    @Override
+    Map<String, String> parseFields(String record, List<String> header) {
+      return new JsonObjectParser(record).parse();
+    }
+  },
+
+  /**
+   * Comma-separated values as described in RFC 4180, with a header row. Fields containing commas,
+   * quotes or line breaks are quoted, so content may span several lines.
+   */
+  CSV("csv") {
+    @Override
+    void writeHeader(Appendable out) throws IOException {
+      out.append(String.join(",", CSV_COLUMNS)).append("\r\n");
+    }
+
+    @Override
+    void write(EntryRecord record, Appendable out) throws IOException {
+      out.append(String.valueOf(record.id()));
+      csvField(record.title(), out);
+      csvField(record.content(), out);
+      csvField(record.authorEmail(), out);
+      csvField(record.authorFirstName(), out);
+      csvField(record.authorLastName(), out);
+      csvField(timestamp(record.createdAt()), out);
+      csvField(timestamp(record.updatedAt()), out);
+      out.append("\r\n");
+    }
+
+    @Override
+    boolean hasHeader() {
+      return true;
+    }
+
+    @Override
+    boolean isComplete(CharSequence line, boolean continued) {
+      // A record ends outside quotes, i.e. after an even number of quote characters. A continued
+      // record is inside quotes, so this line has to hold an odd number to close them.
+      boolean oddQuotes = false;
+      for (int i = 0; i < line.length(); i++) {
+        if (line.charAt(i) == '"') {
+          oddQuotes = !oddQuotes;
+        }
+      }
+      return oddQuotes == continued;
+    }
+
+    @Override
+    Map<String, String> parseFields(String record, List<String> header) {
+      List<String> values = splitCsv(record);
+      if (values.size() != header.size()) {
+        throw new IllegalArgumentException(
+            "Expected " + header.size() + " fields but found " + values.size());
+      }
+      Map<String, String> fields = new HashMap<>();
+      for (int i = 0; i < values.size(); i++) {
+        fields.put(header.get(i), values.get(i).isEmpty() ? null : values.get(i));
+      }
+      return fields;
+    }
+  };
+
+  /**
+   * Column names of the CSV header row, in field order.
+   */
+  static final String[] CSV_COLUMNS = {"id", "title", "content", "author_email",
+      "author_first_name", "author_last_name", "created_at", "updated_at"};
+
+  private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+  private final String extension;
+
+  EntryFileFormat(String extension) {
+    this.extension = extension;
+  }
+
+  /**
+   * Returns the usual file name extension for this format, without the dot.
+   *
+   * @return the file extension
+   */
+  public String extension() {
+    return extension;
+  }
+
+  /**
+   * Writes whatever precedes the first record.
+   *
+   * @param out the destination
+   * @throws IOException if writing fails
+   */
+  abstract void writeHeader(Appendable out) throws IOException;
+
+  /**
+   * Writes one record, including its line terminator.
+   *
+   * @param record the record to write
+   * @param out    the destination
+   * @throws IOException if writing fails
+   */
+  abstract void write(EntryRecord record, Appendable out) throws IOException;
+
+  /**
+   * Returns whether the first record of a file names the fields of the records that follow.
+   *
+   * @return true if files in this format start with a header record
+   */
+  abstract boolean hasHeader();
+
+  /**
+   * Returns whether the current record is whole after the given line. Lets a reader collect
+   * records that span several lines without parsing them, looking at each line only once.
+   *
+   * @param line      the line just read
+   * @param continued false if the line starts a record, true if it continues a record that an
+   *                  earlier call found incomplete
+   * @return true if the record is complete
+   */
+  abstract boolean isComplete(CharSequence line, boolean continued);
+
+  /**
+   * Parses one record into its fields, keyed by {@link #fieldKey(String) field key}. Empty and
+   * null values are both returned as null.
+   *
+   * @param record the record text, without its final line terminator
+   * @param header the field keys from the header record, if the format has one
+   * @return the field values by key
+   * @throws IllegalArgumentException if the record is malformed
+   */
+  abstract Map<String, String> parseFields(String record, List<String> header);
+
+  /**
+   * Parses a header record into field keys.
+   *
+   * @param record the header record text
+   * @return the field keys, in column order
+   * @throws IllegalArgumentException if the header is malformed
+   */
+  List<String> parseHeader(String record) {
+    List<String> keys = new ArrayList<>();
+    for (String name : splitCsv(record)) {
+      keys.add(fieldKey(name));
+    }
+    return keys;
+  }
+
+  /**
+   * Parses one record into an {@link EntryRecord}. The ID is not read, since it only has meaning
+   * in the database the record came from.
+   *
+   * @param record the record text, without its final line terminator
+   * @param header the field keys from the header record, if the format has one
+   * @return the parsed record, with null for missing fields
+   * @throws IllegalArgumentException if the record is malformed or a timestamp is invalid
+   */
+  EntryRecord parse(String record, List<String> header) {
+    Map<String, String> fields = parseFields(record, header);
+    return new EntryRecord(null,
+        fields.get("title"),
+        fields.get("content"),
+        fields.get("authoremail"),
+        fields.get("authorfirstname"),
+        fields.get("authorlastname"),
+        parseTimestamp(fields.get("createdat")),
+        parseTimestamp(fields.get("updatedat")));
+  }
+
+  /**
+   * Normalizes a field name for lookup: lower case without underscores.
+   *
+   * @param name the field name as written in the file
+   * @return the field key
+   */
+  static String fieldKey(String name) {
+    return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Formats a timestamp, keeping null as null.
+   *
+   * @param value the timestamp
+   * @return the ISO-8601 text, or null
+   */
+  private static String timestamp(LocalDateTime value) {
+    return value == null ? null : TIMESTAMP_FORMAT.format(value);
+  }
+
+  /**
+   * Parses an ISO-8601 local date-time, keeping null as null.
+   *
+   * @param value the timestamp text
+   * @return the timestamp, or null
+   * @throws IllegalArgumentException if the text is not a valid timestamp
+   */
+  private static LocalDateTime parseTimestamp(String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return LocalDateTime.parse(value.trim(), TIMESTAMP_FORMAT);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid timestamp: " + value);
+    }
+  }
+
+  /**
+   * Appends {@code ,"name":value} with the value as a JSON string or {@code null}.
+   *
+   * @param name  the field name
+   * @param value the field value
+   * @param out   the destination
+   * @throws IOException if writing fails
+   */
+  private static void jsonField(String name, String value, Appendable out) throws IOException {
+    out.append(",\"").append(name).append("\":");
+    if (value == null) {
+      out.append("null");
+      return;
+    }
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> out.append("\\\"");
+        case '\\' -> out.append("\\\\");
+        case '\n' -> out.append("\\n");
+        case '\r' -> out.append("\\r");
+        case '\t' -> out.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+        }
+      }
+    }
+    out.append('"');
+  }
+
+  /**
+   * Appends a comma and the value, quoted if it contains a delimiter, quote or line break.
+   *
+   * @param value the field value, null is written as an empty field
+   * @param out   the destination
+   * @throws IOException if writing fails
+   */
+  private static void csvField(String value, Appendable out) throws IOException {
+    out.append(',');
+    if (value == null) {
+      return;
+    }
+    boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+        || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+    if (!quote) {
+      out.append(value);
+      return;
+    }
+    out.append('"').append(value.replace("\"", "\"\"")).append('"');
+  }
+
+  /**
+   * Splits one CSV record into its field values, removing quotes.
+   *
+   * @param record the record text
+   * @return the field values
+   * @throws IllegalArgumentException if a quoted field is not closed or is followed by text
+   */
+  private static List<String> splitCsv(String record) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    int i = 0;
+    while (true) {
+      if (i < record.length() && record.charAt(i) == '"') {
+        i++;
+        while (true) {
+          if (i >= record.length()) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+          }
+          char c = record.charAt(i++);
+          if (c == '"') {
+            if (i < record.length() && record.charAt(i) == '"') {
+              value.append('"');
+              i++;
+            } else {
+              break;
+            }
+          } else {
+            value.append(c);
+          }
+        }
+        if (i < record.length() && record.charAt(i) != ',') {
+          throw new IllegalArgumentException("Unexpected text after quoted field");
+        }
+      } else {
+        while (i < record.length() && record.charAt(i) != ',') {
+          value.append(record.charAt(i++));
+        }
+      }
+      values.add(value.toString());
+      value.setLength(0);
+      if (i >= record.length()) {
+        return values;
+      }
+      i++; // skip the comma
+    }
+  }
+
+  /**
+   * Parser for a single flat JSON object whose values are strings, numbers, booleans or null.
+   * Nested objects and arrays are rejected, since no entry field holds one.
+   */
+  private static final class JsonObjectParser {
+
+    private final String text;
+    private int pos;
+
+    JsonObjectParser(String text) {
+      this.text = text;
+    }
+
+    /**
+     * Parses the whole text as one object.
+     *
+     * @return the values by field key, with JSON null as null
+     * @throws IllegalArgumentException if the text is not a flat JSON object
+     */
+    Map<String, String> parse() {
+      Map<String, String> fields = new HashMap<>();
+      expect('{');
+      if (peek() == '}') {
+        pos++;
+      } else {
+        while (true) {
+          String name = readString();
+          expect(':');
+          fields.put(fieldKey(name), readValue());
+          char next = next();
+          if (next == '}') {
+            break;
+          }
+          if (next != ',') {
+            throw error("Expected ',' or '}'");
+          }
+        }
+      }
+      if (peek() != 0) {
+        throw error("Unexpected text after object");
+      }
+      return fields;
+    }
+
+    private String readValue() {
+      char c = peek();
+      if (c == '"') {
+        return readString();
+      }
+      if (c == '{' || c == '[') {
+        throw error("Nested values are not supported");
+      }
+      int start = pos;
+      while (pos < text.length() && ",}".indexOf(text.charAt(pos)) < 0) {
+        pos++;
+      }
+      String literal = text.substring(start, pos).trim();
+      if (literal.isEmpty()) {
+        throw error("Missing value");
+      }
+      return literal.equals("null") ? null : literal;
+    }
+
+    private String readString() {
+      expect('"');
+      StringBuilder value = new StringBuilder();
+      while (true) {
+        if (pos >= text.length()) {
+          throw error("Unterminated string");
+        }
+        char c = text.charAt(pos++);
+        if (c == '"') {
+          return value.toString();
+        }
+        if (c != '\\') {
+          value.append(c);
+          continue;
+        }
+        if (pos >= text.length()) {
+          throw error("Unterminated string");
+        }
+        char escaped = text.charAt(pos++);
+        switch (escaped) {
+          case '"', '\\', '/' -> value.append(escaped);
+          case 'b' -> value.append('\b');
+          case 'f' -> value.append('\f');
+          case 'n' -> value.append('\n');
+          case 'r' -> value.append('\r');
+          case 't' -> value.append('\t');
+          case 'u' -> {
+            if (pos + 4 > text.length()) {
+              throw error("Invalid unicode escape");
+            }
+            try {
+              value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+            } catch (NumberFormatException e) {
+              throw error("Invalid unicode escape");
+            }
+            pos += 4;
+          }
+          default -> throw error("Invalid escape '\\" + escaped + "'");
+        }
+      }
+    }
+
+    private void expect(char expected) {
+      if (next() != expected) {
+        throw error("Expected '" + expected + "'");
+      }
+    }
+
+    private char next() {
+      char c = peek();
+      if (c == 0) {
+        throw error("Unexpected end of record");
+      }
+      pos++;
+      return c;
+    }
+
+    private char peek() {
+      while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+        pos++;
+      }
+      return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    private IllegalArgumentException error(String message) {
+      return new IllegalArgumentException("Invalid JSON at column " + (pos + 1) + ": " + message);
+    }
+  }
+}
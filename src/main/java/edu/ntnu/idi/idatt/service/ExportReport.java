@@ -0,0 +1,22 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.time.Duration;
+
+/**
+ * Progress or outcome of an export.
+ *
+ * @param rows    the number of entries written so far
+ * @param elapsed the time spent since the export started
+ */
+public record ExportReport(long rows, Duration elapsed) {
+
+  /**
+   * Returns the average throughput.
+   *
+   * @return entries written per second, or 0 if no time has elapsed
+   */
+  public double rowsPerSecond() {
+    long nanos = elapsed.toNanos();
+    return nanos == 0 ? 0 : rows * 1e9 / nanos;
+  }
+}
@@ -0,0 +1,125 @@
+package edu.ntnu.idi.idatt.service;
+
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.EntryFilter;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service class for exporting diary entries to files.
+ *
+ * <p>Entries are streamed from the database straight into the file, so an export needs the same
+ * small amount of memory whether it covers ten entries or ten million.
+ */
+public class ExportService {
+
+  /**
+   * Number of entries between two progress reports.
+   */
+  public static final int PROGRESS_INTERVAL = 10_000;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final DiaryEntryRepository entryRepository;
+
+  /**
+   * Creates a new ExportService with the given repository.
+   *
+   * @param entryRepository the diary entry repository
+   * @throws NullPointerException if entryRepository is null
+   */
+  public ExportService(DiaryEntryRepository entryRepository) {
+    this.entryRepository = Objects.requireNonNull(entryRepository,
+        "DiaryEntryRepository cannot be null");
+  }
+
+  /**
+   * Exports the entries matching the filter to a file, replacing any existing file.
+   *
+   * @param target the file to write
+   * @param format the file format
+   * @param gzip   true to gzip-compress the file
+   * @param filter the entries to export
+   * @return the number of entries written and the time it took
+   * @throws NullPointerException if any argument is null
+   * @throws IOException          if the file cannot be written
+   */
+  public ExportReport export(Path target, EntryFileFormat format, boolean gzip, EntryFilter filter)
+      throws IOException {
+    return export(target, format, gzip, filter, report -> { });
+  }
+
+  /**
+   * Exports the entries matching the filter to a file, replacing any existing file, and reports
+   * progress every {@value #PROGRESS_INTERVAL} entries.
+   *
+   * @param target   the file to write
+   * @param format   the file format
+   * @param gzip     true to gzip-compress the file
+   * @param filter   the entries to export
+   * @param progress receives intermediate reports while the export runs
+   * @return the number of entries written and the time it took
+   * @throws NullPointerException if any argument is null
+   * @throws IOException          if the file cannot be written
+   */
+  public ExportReport export(Path target, EntryFileFormat format, boolean gzip, EntryFilter filter,
+      Consumer<ExportReport> progress) throws IOException {
+    Objects.requireNonNull(target, "Target cannot be null");
+    Objects.requireNonNull(format, "Format cannot be null");
+    Objects.requireNonNull(filter, "Filter cannot be null");
+    Objects.requireNonNull(progress, "Progress cannot be null");
+
+    long start = System.nanoTime();
+    long rows;
+    try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        Writer writer = openWriter(channel, gzip)) {
+      format.writeHeader(writer);
+      long[] written = {0};
+      rows = entryRepository.streamRecords(filter, record -> {
+        try {
+          format.write(record, writer);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        if (++written[0] % PROGRESS_INTERVAL == 0) {
+          Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+          progress.accept(new ExportReport(written[0], elapsed));
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return new ExportReport(rows, Duration.ofNanos(System.nanoTime() - start));
+  }
+
+  /**
+   * Opens a buffered UTF-8 writer on the channel, compressing if requested.
+   *
+   * @param channel the file channel to write to
+   * @param gzip    true to gzip-compress the output
+   * @return the writer
+   * @throws IOException if the gzip header cannot be written
+   */
+  private static Writer openWriter(FileChannel channel, boolean gzip) throws IOException {
+    OutputStream stream = Channels.newOutputStream(channel);
+    stream = gzip
+        ? new GZIPOutputStream(stream, BUFFER_SIZE)
+        : new BufferedOutputStream(stream, BUFFER_SIZE);
+    return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+  }
+}
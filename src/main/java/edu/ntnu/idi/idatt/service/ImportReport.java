@@ -0,0 +1,34 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Progress or outcome of an import.
+ *
+ * @param imported       the number of entries saved so far
+ * @param rejected       the number of records skipped because they were malformed or invalid
+ * @param authorsCreated the number of authors created for unknown emails
+ * @param errors         descriptions of the first rejected records, with their line numbers
+ * @param elapsed        the time spent since the import started
+ */
+public record ImportReport(long imported, long rejected, long authorsCreated, List<String> errors,
+    Duration elapsed) {
+
+  /**
+   * Creates a new report.
+   */
+  public ImportReport {
+    errors = List.copyOf(errors);
+  }
+
+  /**
+   * Returns the average throughput.
+   *
+   * @return entries saved per second, or 0 if no time has elapsed
+   */
+  public double rowsPerSecond() {
+    long nanos = elapsed.toNanos();
+    return nanos == 0 ? 0 : imported * 1e9 / nanos;
+  }
+}
@@ -0,0 +1,480 @@
+package edu.ntnu.idi.idatt.service;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.EntryRecord;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.SavedAuthor;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Service class for importing diary entries from files written by {@link ExportService} or by
+ * other systems using the same {@link EntryFileFormat formats}.
+ *
+ * <p>An import runs as a pipeline of three stages connected by bounded queues:
+ * <ol>
+ *   <li>a reader thread that splits the file into records and hands them on in batches,</li>
+ *   <li>parser threads that turn records into {@link DiaryEntry} objects, applying the entity
+ *       validation rules, and</li>
+ *   <li>the calling thread, which resolves authors and saves the entries in chunks through
+ *       {@link DiaryEntryRepository#saveAll(Iterable, int)}.</li>
+ * </ol>
+ * When the writer falls behind, the queues fill up and the reader and parsers block, so memory
+ * use stays bounded however large the file is.
+ *
+ * <p>Authors are matched by email against a map loaded once at the start. The unknown emails of
+ * each parsed batch are created from the records' names with one
+ * {@link AuthorRepository#saveAllIfAbsent(java.util.Collection)} call, which also picks up
+ * authors created by someone else since the map was loaded.
+ */
+public class ImportService {
+
+  /**
+   * Number of saved entries between two progress reports.
+   */
+  public static final int PROGRESS_INTERVAL = 10_000;
+
+  /**
+   * Maximum number of rejected records described in a report.
+   */
+  public static final int MAX_REPORTED_ERRORS = 20;
+
+  private static final int BATCH_SIZE = 500;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final List<SourceRecord> END_OF_RECORDS = Collections.emptyList();
+  private static final ParsedBatch END_OF_ENTRIES = new ParsedBatch(List.of(), List.of());
+
+  private final AuthorRepository authorRepository;
+  private final DiaryEntryRepository entryRepository;
+  private final int parserThreads;
+
+  /**
+   * Creates a new ImportService that parses on all but one of the available processors.
+   *
+   * @param authorRepository the author repository
+   * @param entryRepository  the diary entry repository
+   * @throws NullPointerException if any argument is null
+   */
+  public ImportService(AuthorRepository authorRepository, DiaryEntryRepository entryRepository) {
+    this(authorRepository, entryRepository,
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+  }
+
+  /**
+   * Creates a new ImportService with a fixed number of parser threads.
+   *
+   * @param authorRepository the author repository
+   * @param entryRepository  the diary entry repository
+   * @param parserThreads    the number of threads parsing records
+   * @throws NullPointerException     if any repository is null
+   * @throws IllegalArgumentException if parserThreads is not positive
+   */
+  public ImportService(AuthorRepository authorRepository, DiaryEntryRepository entryRepository,
+      int parserThreads) {
+    this.authorRepository = Objects.requireNonNull(authorRepository,
+        "AuthorRepository cannot be null");
+    this.entryRepository = Objects.requireNonNull(entryRepository,
+        "DiaryEntryRepository cannot be null");
+    if (parserThreads <= 0) {
+      throw new IllegalArgumentException("Parser threads must be positive");
+    }
+    this.parserThreads = parserThreads;
+  }
+
+  /**
+   * Imports all entries in a file. Gzip-compressed files are detected and decompressed.
+   *
+   * @param source the file to read
+   * @param format the file format
+   * @return the counts of imported and rejected records and the time it took
+   * @throws NullPointerException if any argument is null
+   * @throws IOException          if the file cannot be read
+   */
+  public ImportReport importEntries(Path source, EntryFileFormat format) throws IOException {
+    return importEntries(source, format, report -> { });
+  }
+
+  /**
+   * Imports all entries in a file and reports progress every {@value #PROGRESS_INTERVAL} saved
+   * entries. Gzip-compressed files are detected and decompressed.
+   *
+   * <p>Invalid records are skipped and counted. Entries are committed in chunks, so if saving
+   * fails part way, the chunks committed before the failure stay saved.
+   *
+   * @param source   the file to read
+   * @param format   the file format
+   * @param progress receives intermediate reports while the import runs
+   * @return the counts of imported and rejected records and the time it took
+   * @throws NullPointerException if any argument is null
+   * @throws IOException          if the file cannot be read
+   */
+  public ImportReport importEntries(Path source, EntryFileFormat format,
+      Consumer<ImportReport> progress) throws IOException {
+    Objects.requireNonNull(source, "Source cannot be null");
+    Objects.requireNonNull(format, "Format cannot be null");
+    Objects.requireNonNull(progress, "Progress cannot be null");
+
+    long start = System.nanoTime();
+    BlockingQueue<List<SourceRecord>> records = new ArrayBlockingQueue<>(parserThreads * 2);
+    BlockingQueue<ParsedBatch> parsed = new ArrayBlockingQueue<>(parserThreads * 2);
+    List<String> header = format.hasHeader() ? readHeader(source, format) : List.of();
+
+    ExecutorService executor = Executors.newFixedThreadPool(parserThreads + 1);
+    try {
+      Future<?> reader = executor.submit(() -> {
+        readRecords(source, format, records);
+        return null;
+      });
+      for (int i = 0; i < parserThreads; i++) {
+        executor.submit(() -> parseRecords(format, header, records, parsed));
+      }
+
+      EntryWriter writer = new EntryWriter(parsed, start, progress);
+      entryRepository.saveAll(writer, DiaryEntryRepository.DEFAULT_CHUNK_SIZE);
+      awaitReader(reader);
+      return writer.report();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads the header record of a file.
+   *
+   * @param source the file to read
+   * @param format the file format
+   * @return the field keys named by the header, or an empty list for an empty file
+   * @throws IOException if the file cannot be read
+   */
+  private static List<String> readHeader(Path source, EntryFileFormat format) throws IOException {
+    try (BufferedReader reader = openReader(source)) {
+      String line = reader.readLine();
+      return line == null ? List.of() : format.parseHeader(line);
+    }
+  }
+
+  /**
+   * Reader stage: splits the file into records and queues them in batches. Queues one end
+   * marker per parser when done, also if reading fails, so the pipeline drains. A cancelled
+   * import queues nothing more, since nobody is left to take from the queue.
+   *
+   * @param source  the file to read
+   * @param format  the file format
+   * @param records the queue to the parsers
+   * @throws IOException          if the file cannot be read
+   * @throws InterruptedException if the import is cancelled
+   */
+  private void readRecords(Path source, EntryFileFormat format,
+      BlockingQueue<List<SourceRecord>> records) throws IOException, InterruptedException {
+    boolean cancelled = false;
+    try (BufferedReader reader = openReader(source)) {
+      long lineNumber = 0;
+      if (format.hasHeader() && reader.readLine() != null) {
+        lineNumber++;
+      }
+      List<SourceRecord> batch = new ArrayList<>(BATCH_SIZE);
+      StringBuilder record = new StringBuilder();
+      long recordLine = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        boolean continued = !record.isEmpty();
+        if (continued) {
+          record.append('\n');
+        } else {
+          if (line.isBlank()) {
+            continue;
+          }
+          recordLine = lineNumber;
+        }
+        record.append(line);
+        if (!format.isComplete(line, continued)) {
+          continue;
+        }
+        batch.add(new SourceRecord(recordLine, record.toString()));
+        record.setLength(0);
+        if (batch.size() == BATCH_SIZE) {
+          records.put(batch);
+          batch = new ArrayList<>(BATCH_SIZE);
+        }
+      }
+      if (!record.isEmpty()) {
+        // Unbalanced quotes at the end of the file; let the parser reject it
+        batch.add(new SourceRecord(recordLine, record.toString()));
+      }
+      if (!batch.isEmpty()) {
+        records.put(batch);
+      }
+    } catch (InterruptedException e) {
+      cancelled = true;
+      throw e;
+    } finally {
+      if (!cancelled) {
+        for (int i = 0; i < parserThreads; i++) {
+          records.put(END_OF_RECORDS);
+        }
+      }
+    }
+  }
+
+  /**
+   * Parser stage: turns queued records into validated, unsaved entries until an end marker
+   * arrives. Each entry gets a new, unsaved author built from the record, which the writer
+   * replaces with the stored author.
+   *
+   * @param format  the file format
+   * @param header  the field keys from the header record
+   * @param records the queue from the reader
+   * @param parsed  the queue to the writer
+   */
+  private static void parseRecords(EntryFileFormat format, List<String> header,
+      BlockingQueue<List<SourceRecord>> records, BlockingQueue<ParsedBatch> parsed) {
+    try {
+      while (true) {
+        List<SourceRecord> batch = records.take();
+        if (batch == END_OF_RECORDS) {
+          break;
+        }
+        List<DiaryEntry> entries = new ArrayList<>(batch.size());
+        List<String> errors = new ArrayList<>();
+        for (SourceRecord source : batch) {
+          try {
+            entries.add(toEntry(format.parse(source.text(), header)));
+          } catch (RuntimeException e) {
+            errors.add("Line " + source.line() + ": " + e.getMessage());
+          }
+        }
+        parsed.put(new ParsedBatch(entries, errors));
+      }
+      parsed.put(END_OF_ENTRIES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Builds an unsaved entry from a parsed record through the entity constructors, so imported
+   * data passes the same validation as entries created in the application.
+   *
+   * @param record the parsed record
+   * @return the entry, with a new author built from the record
+   * @throws NullPointerException     if a required field is missing
+   * @throws IllegalArgumentException if a field is invalid
+   */
+  private static DiaryEntry toEntry(EntryRecord record) {
+    Author author = new Author(record.authorFirstName(), record.authorLastName(),
+        record.authorEmail());
+    return new DiaryEntry(record.title(), author, record.content(), record.createdAt());
+  }
+
+  /**
+   * Waits for the reader stage and rethrows its failure, if any.
+   *
+   * @param reader the reader task
+   * @throws IOException if the file could not be read
+   */
+  private static void awaitReader(Future<?> reader) throws IOException {
+    try {
+      reader.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Import was interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw io;
+      }
+      throw new IllegalStateException("Reading the import file failed", e.getCause());
+    }
+  }
+
+  /**
+   * Opens a buffered UTF-8 reader on a file channel, decompressing if the file starts with the
+   * gzip magic number.
+   *
+   * @param source the file to read
+   * @return the reader
+   * @throws IOException if the file cannot be opened
+   */
+  private static BufferedReader openReader(Path source) throws IOException {
+    FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+    InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+    try {
+      stream.mark(2);
+      boolean gzip = stream.read() == 0x1f && stream.read() == 0x8b;
+      stream.reset();
+      if (gzip) {
+        stream = new GZIPInputStream(stream, BUFFER_SIZE);
+      }
+    } catch (IOException e) {
+      stream.close();
+      throw e;
+    }
+    return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+  }
+
+  /**
+   * A record as read from the file.
+   *
+   * @param line the line number the record starts on
+   * @param text the record text
+   */
+  private record SourceRecord(long line, String text) {
+  }
+
+  /**
+   * The outcome of parsing one batch of records.
+   *
+   * @param entries the valid entries
+   * @param errors  descriptions of the rejected records
+   */
+  private record ParsedBatch(List<DiaryEntry> entries, List<String> errors) {
+  }
+
+  /**
+   * Writer stage: presents the parsed entries as one lazy sequence for
+   * {@link DiaryEntryRepository#saveAll(Iterable, int)}, attaching each entry to its stored
+   * author on the way and counting progress.
+   */
+  private final class EntryWriter implements Iterable<DiaryEntry>, Iterator<DiaryEntry> {
+
+    private final BlockingQueue<ParsedBatch> parsed;
+    private final long start;
+    private final Consumer<ImportReport> progress;
+    private final Map<String, Author> authorsByEmail = new HashMap<>();
+    private final List<String> errors = new ArrayList<>();
+    private Iterator<DiaryEntry> current = Collections.emptyIterator();
+    private int finishedParsers;
+    private long imported;
+    private long rejected;
+    private long authorsCreated;
+
+    EntryWriter(BlockingQueue<ParsedBatch> parsed, long start, Consumer<ImportReport> progress) {
+      this.parsed = parsed;
+      this.start = start;
+      this.progress = progress;
+      for (Author author : authorRepository.findAll()) {
+        authorsByEmail.put(author.getEmail(), author);
+      }
+    }
+
+    @Override
+    public Iterator<DiaryEntry> iterator() {
+      return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!current.hasNext()) {
+        if (finishedParsers == parserThreads) {
+          return false;
+        }
+        ParsedBatch batch;
+        try {
+          batch = parsed.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Import was interrupted", e);
+        }
+        if (batch == END_OF_ENTRIES) {
+          finishedParsers++;
+          continue;
+        }
+        rejected += batch.errors().size();
+        for (String error : batch.errors()) {
+          if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+          }
+        }
+        saveUnknownAuthors(batch.entries());
+        current = batch.entries().iterator();
+      }
+      return true;
+    }
+
+    @Override
+    public DiaryEntry next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      DiaryEntry entry = current.next();
+      entry.setAuthor(resolve(entry.getAuthor()));
+      if (++imported % PROGRESS_INTERVAL == 0) {
+        progress.accept(report());
+      }
+      return entry;
+    }
+
+    /**
+     * Saves the authors of a batch whose emails are not known yet, in one transaction, and adds
+     * them to the known authors.
+     *
+     * @param entries the parsed entries, each with a new, unsaved author built from its record
+     */
+    private void saveUnknownAuthors(List<DiaryEntry> entries) {
+      Map<String, Author> unknown = new LinkedHashMap<>();
+      for (DiaryEntry entry : entries) {
+        Author candidate = entry.getAuthor();
+        if (!authorsByEmail.containsKey(candidate.getEmail())) {
+          unknown.putIfAbsent(candidate.getEmail(), candidate);
+        }
+      }
+      if (unknown.isEmpty()) {
+        return;
+      }
+      for (SavedAuthor saved : authorRepository.saveAllIfAbsent(unknown.values())) {
+        authorsByEmail.put(saved.author().getEmail(), saved.author());
+        if (saved.created()) {
+          authorsCreated++;
+        }
+      }
+    }
+
+    /**
+     * Returns the stored author with the candidate's email.
+     *
+     * @param candidate the unsaved author built from a record
+     * @return the stored author
+     */
+    private Author resolve(Author candidate) {
+      return authorsByEmail.get(candidate.getEmail());
+    }
+
+    /**
+     * Returns the counts so far.
+     *
+     * @return the current report
+     */
+    ImportReport report() {
+      return new ImportReport(imported, rejected, authorsCreated, errors,
+          Duration.ofNanos(System.nanoTime() - start));
+    }
+  }
+}
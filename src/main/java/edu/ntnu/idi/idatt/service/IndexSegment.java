@@ -0,0 +1,618 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The data of a {@link SearchIndex}: a posting list per term over dense document numbers, and the
+ * entry ID of each document. Not thread-safe.
+ *
+ * <p>Documents are numbered in the order they are added, so every posting list stays sorted by
+ * appending. Terms are kept sorted, so a query word can match every term it is a prefix of, like
+ * the full-text index does, and indexed by their trigrams, so a misspelled query word can match
+ * the terms a few typos away. Removing an entry only marks its document as removed;
+ * {@link #compact()} drops the removed documents from the posting lists once enough have piled up.
+ */
+final class IndexSegment {
+
+  private long[] ids;
+  private int size;
+  private final BitSet removed = new BitSet();
+  private int removedCount;
+  private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+  private final TrigramIndex grams = new TrigramIndex();
+  private final LongIntHashMap docsById;
+
+  /**
+   * Creates an empty segment.
+   */
+  IndexSegment() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty segment with room for the given number of documents.
+   *
+   * @param documents the number of documents expected
+   */
+  private IndexSegment(int documents) {
+    ids = new long[Math.max(1, documents)];
+    docsById = new LongIntHashMap(documents);
+  }
+
+  /**
+   * Returns the number of entries in the segment.
+   *
+   * @return the number of documents that are not removed
+   */
+  int liveCount() {
+    return size - removedCount;
+  }
+
+  /**
+   * Returns the number of removed documents still held in the posting lists.
+   *
+   * @return the number of removed documents
+   */
+  int removedCount() {
+    return removedCount;
+  }
+
+  /**
+   * Returns whether the removed documents make up a quarter of the segment or more.
+   *
+   * @param minimum the number of removed documents below which compaction is never worth it
+   * @return true if the segment should be compacted
+   */
+  boolean needsCompaction(int minimum) {
+    return removedCount >= minimum && removedCount * 4 >= size;
+  }
+
+  /**
+   * Adds an entry as a new document, replacing the entry's current document if it has one.
+   *
+   * @param id      the entry ID
+   * @param title   the entry title
+   * @param content the entry content
+   */
+  void add(long id, String title, String content) {
+    remove(id);
+    Map<String, Integer> freqs = new HashMap<>();
+    for (String term : SearchIndex.terms(title)) {
+      freqs.merge(term, SearchIndex.TITLE_WEIGHT, Integer::sum);
+    }
+    for (String term : SearchIndex.terms(content)) {
+      freqs.merge(term, 1, Integer::sum);
+    }
+    int doc = size;
+    if (doc == ids.length) {
+      ids = Arrays.copyOf(ids, doc + (doc >> 1) + 1);
+    }
+    ids[doc] = id;
+    size++;
+    docsById.put(id, doc);
+    freqs.forEach((term, freq) -> postingsOf(term, 4).add(doc, freq));
+  }
+
+  /**
+   * Returns the posting list of a term, adding an empty one for a new term.
+   *
+   * @param term     the term
+   * @param capacity the initial capacity of a new list
+   * @return the posting list
+   */
+  private PostingList postingsOf(String term, int capacity) {
+    PostingList list = postings.get(term);
+    if (list == null) {
+      list = new PostingList(capacity);
+      postings.put(term, list);
+      grams.add(term);
+    }
+    return list;
+  }
+
+  /**
+   * Marks the document of an entry as removed.
+   *
+   * @param id the entry ID
+   * @return true if the entry was in the segment
+   */
+  boolean remove(long id) {
+    int doc = docsById.remove(id);
+    if (doc < 0) {
+      return false;
+    }
+    removed.set(doc);
+    removedCount++;
+    return true;
+  }
+
+  /**
+   * Appends the documents of another segment, numbered after the documents of this one. The two
+   * segments must not hold the same entry.
+   *
+   * @param other the segment to append
+   */
+  void append(IndexSegment other) {
+    int offset = size;
+    if (offset + other.size > ids.length) {
+      ids = Arrays.copyOf(ids, offset + other.size);
+    }
+    System.arraycopy(other.ids, 0, ids, offset, other.size);
+    for (int doc = 0; doc < other.size; doc++) {
+      if (other.removed.get(doc)) {
+        removed.set(offset + doc);
+      } else {
+        docsById.put(other.ids[doc], offset + doc);
+      }
+    }
+    removedCount += other.removedCount;
+    size += other.size;
+    other.postings.forEach((term, list) -> postingsOf(term, list.size()).append(list, offset));
+  }
+
+  /**
+   * Returns a copy of this segment without the removed documents, with the documents numbered
+   * again from zero and no unused capacity.
+   *
+   * @return the compacted segment
+   */
+  IndexSegment compact() {
+    IndexSegment compacted = new IndexSegment(liveCount());
+    int[] renumbered = new int[size];
+    for (int doc = 0; doc < size; doc++) {
+      if (removed.get(doc)) {
+        renumbered[doc] = -1;
+      } else {
+        renumbered[doc] = compacted.size;
+        compacted.ids[compacted.size] = ids[doc];
+        compacted.docsById.put(ids[doc], compacted.size);
+        compacted.size++;
+      }
+    }
+    postings.forEach((term, list) -> {
+      PostingList kept = null;
+      for (int i = 0; i < list.size(); i++) {
+        int doc = renumbered[list.doc(i)];
+        if (doc >= 0) {
+          if (kept == null) {
+            kept = new PostingList(list.size());
+          }
+          kept.add(doc, list.freq(i));
+        }
+      }
+      if (kept != null) {
+        kept.trim();
+        compacted.postings.put(term, kept);
+        compacted.grams.add(term);
+      }
+    });
+    return compacted;
+  }
+
+  /**
+   * Releases the unused capacity of the segment.
+   */
+  void trim() {
+    ids = Arrays.copyOf(ids, size);
+    postings.values().forEach(PostingList::trim);
+  }
+
+  /**
+   * Finds the entries matching any of the groups of words, where an entry matches a group if
+   * every word of the group is a prefix of one of its terms. Entries are scored by TF-IDF,
+   * summed over the matched groups, with {@code 1 + ln(tf)} as term weight and
+   * {@code ln(1 + N / df)} as inverse document frequency.
+   *
+   * @param groups the groups of words, as returned by {@link SearchIndex#parseQuery(String)}
+   * @return the IDs of the matching entries, highest score first; entries with equal scores are
+   *     ordered by when they were last indexed, latest first
+   */
+  List<Long> search(List<List<String>> groups) {
+    Matches matches = new Matches(size);
+    for (List<String> group : groups) {
+      matchAll(group, matches);
+    }
+    return rank(matches);
+  }
+
+  /**
+   * Finds the entries matching any of the groups of words like {@link #search(List)}, except that
+   * a word matches the terms within a number of edits of it rather than the terms it starts. A
+   * word of {@code n} letters is allowed at most {@code n / 3} edits, so short words stay exact.
+   * A document scores for a word by its best matching term, with the TF-IDF weight scaled by how
+   * similar the term is to the word, so entries spelled as searched rank first.
+   *
+   * @param groups      the groups of words, as returned by {@link SearchIndex#parseQuery(String)}
+   * @param maxDistance the maximum number of edits between a word and a term
+   * @return the IDs of the matching entries, highest score first
+   */
+  List<Long> searchFuzzy(List<List<String>> groups, int maxDistance) {
+    Matches matches = new Matches(size);
+    for (List<String> group : groups) {
+      matchAllFuzzy(group, maxDistance, matches);
+    }
+    return rank(matches);
+  }
+
+  /**
+   * Orders the matched documents by score.
+   *
+   * @param matches the scores of a search
+   * @return the entry IDs, highest score first; entries with equal scores are ordered by when
+   *     they were last indexed, latest first
+   */
+  private List<Long> rank(Matches matches) {
+    long[] ranked = new long[matches.count];
+    for (int i = 0; i < matches.count; i++) {
+      int doc = matches.docs[i];
+      // Positive floats order like their bits, so one sort ranks by score and then document
+      ranked[i] = ((long) Float.floatToIntBits(matches.scores[doc]) << 32) | doc;
+    }
+    Arrays.sort(ranked);
+    List<Long> result = new ArrayList<>(ranked.length);
+    for (int i = ranked.length - 1; i >= 0; i--) {
+      result.add(ids[(int) ranked[i]]);
+    }
+    return result;
+  }
+
+  /**
+   * Adds the scores of the documents matching every word of a group, intersecting the posting
+   * lists from the shortest to the longest.
+   *
+   * @param words   the words of the group
+   * @param matches the scores collected so far
+   */
+  private void matchAll(List<String> words, Matches matches) {
+    PostingList[] lists = new PostingList[words.size()];
+    for (int k = 0; k < lists.length; k++) {
+      lists[k] = postingsWithPrefix(words.get(k));
+      if (lists[k] == null) {
+        return;
+      }
+    }
+    Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+    float[] idfs = new float[lists.length];
+    for (int k = 0; k < lists.length; k++) {
+      idfs[k] = (float) Math.log(1.0 + (double) liveCount() / lists[k].size());
+    }
+
+    int[] positions = new int[lists.length];
+    PostingList shortest = lists[0];
+    candidates:
+    for (int i = 0; i < shortest.size(); i++) {
+      int doc = shortest.doc(i);
+      if (removed.get(doc)) {
+        continue;
+      }
+      float score = weight(shortest.freq(i)) * idfs[0];
+      for (int k = 1; k < lists.length; k++) {
+        int position = lists[k].seek(positions[k], doc);
+        positions[k] = position;
+        if (position == lists[k].size()) {
+          break candidates;
+        }
+        if (lists[k].doc(position) != doc) {
+          continue candidates;
+        }
+        score += weight(lists[k].freq(position)) * idfs[k];
+      }
+      matches.add(doc, score);
+    }
+  }
+
+  /**
+   * Adds the scores of the documents matching every word of a group within the allowed edits,
+   * intersecting the merged postings of the similar terms from the shortest to the longest.
+   *
+   * @param words       the words of the group
+   * @param maxDistance the maximum number of edits between a word and a term
+   * @param matches     the scores collected so far
+   */
+  private void matchAllFuzzy(List<String> words, int maxDistance, Matches matches) {
+    ScoredPostings[] lists = new ScoredPostings[words.size()];
+    for (int k = 0; k < lists.length; k++) {
+      lists[k] = postingsSimilarTo(words.get(k), maxDistance);
+      if (lists[k] == null) {
+        return;
+      }
+    }
+    Arrays.sort(lists, (a, b) -> Integer.compare(a.docs().size(), b.docs().size()));
+
+    int[] positions = new int[lists.length];
+    PostingList shortest = lists[0].docs();
+    candidates:
+    for (int i = 0; i < shortest.size(); i++) {
+      int doc = shortest.doc(i);
+      if (removed.get(doc)) {
+        continue;
+      }
+      float score = lists[0].scores()[i];
+      for (int k = 1; k < lists.length; k++) {
+        PostingList list = lists[k].docs();
+        int position = list.seek(positions[k], doc);
+        positions[k] = position;
+        if (position == list.size()) {
+          break candidates;
+        }
+        if (list.doc(position) != doc) {
+          continue candidates;
+        }
+        score += lists[k].scores()[position];
+      }
+      matches.add(doc, score);
+    }
+  }
+
+  /**
+   * Returns the postings of every term within the allowed edits of a word, merged into one list
+   * scored per document by the best of those terms.
+   *
+   * @param word        the word
+   * @param maxDistance the maximum number of edits, lowered by
+   *                    {@link SearchIndex#allowedDistance(String, int)} for short words
+   * @return the merged postings, or null if no term is similar enough
+   */
+  private ScoredPostings postingsSimilarTo(String word, int maxDistance) {
+    List<TrigramIndex.Match> similar = grams.similar(word,
+        SearchIndex.allowedDistance(word, maxDistance));
+    if (similar.isEmpty()) {
+      return null;
+    }
+    int total = 0;
+    for (TrigramIndex.Match match : similar) {
+      total += postings.get(match.term()).size();
+    }
+    // Document in the high half, score in the low half; positive floats order like their bits,
+    // so sorting groups each document with its best score last
+    long[] entries = new long[total];
+    int n = 0;
+    for (TrigramIndex.Match match : similar) {
+      PostingList list = postings.get(match.term());
+      float idf = (float) Math.log(1.0 + (double) liveCount() / list.size());
+      float similarity = match.similarity(word);
+      for (int i = 0; i < list.size(); i++) {
+        float score = weight(list.freq(i)) * idf * similarity;
+        entries[n++] = ((long) list.doc(i) << 32) | Float.floatToIntBits(score);
+      }
+    }
+    Arrays.sort(entries);
+    PostingList docs = new PostingList(total);
+    float[] scores = new float[total];
+    for (int i = 0; i < total; i++) {
+      int doc = (int) (entries[i] >>> 32);
+      if (i + 1 < total && (int) (entries[i + 1] >>> 32) == doc) {
+        continue;
+      }
+      scores[docs.size()] = Float.intBitsToFloat((int) entries[i]);
+      docs.add(doc, 1);
+    }
+    return new ScoredPostings(docs, scores);
+  }
+
+  /**
+   * Documents with a precomputed score each.
+   *
+   * @param docs   the documents, in ascending order
+   * @param scores the score of the document at each position of {@code docs}
+   */
+  private record ScoredPostings(PostingList docs, float[] scores) {
+  }
+
+  /**
+   * Returns the postings of every term starting with a word, merged into one list. The
+   * frequencies of terms in the same document are summed.
+   *
+   * @param word the word
+   * @return the merged postings, or null if no term starts with the word
+   */
+  private PostingList postingsWithPrefix(String word) {
+    Map<String, PostingList> matching = postings.subMap(word, true, word + Character.MAX_VALUE,
+        false);
+    if (matching.size() <= 1) {
+      return matching.isEmpty() ? null : matching.values().iterator().next();
+    }
+    int total = 0;
+    for (PostingList list : matching.values()) {
+      total += list.size();
+    }
+    // Document in the high half, frequency in the low half, so sorting groups each document
+    long[] entries = new long[total];
+    int n = 0;
+    for (PostingList list : matching.values()) {
+      for (int i = 0; i < list.size(); i++) {
+        entries[n++] = ((long) list.doc(i) << 32) | list.freq(i);
+      }
+    }
+    Arrays.sort(entries);
+    PostingList merged = new PostingList(total);
+    for (int i = 0; i < total; ) {
+      int doc = (int) (entries[i] >>> 32);
+      int freq = 0;
+      for (; i < total && (int) (entries[i] >>> 32) == doc; i++) {
+        freq += (int) entries[i];
+      }
+      merged.add(doc, freq);
+    }
+    return merged;
+  }
+
+  /**
+   * Returns the weight of a term that occurs the given number of times in a document.
+   *
+   * @param freq the weighted term frequency, at least 1
+   * @return the term weight
+   */
+  private static float weight(int freq) {
+    return 1 + (float) Math.log(freq);
+  }
+
+  /**
+   * Writes the segment in the snapshot format: entry IDs and document numbers as variable-length
+   * deltas, so the file is a fraction of the size of the arrays in memory.
+   *
+   * @param out the output to write to
+   * @throws IOException           if writing fails
+   * @throws IllegalStateException if the segment has removed documents
+   */
+  void write(DataOutput out) throws IOException {
+    if (removedCount > 0) {
+      throw new IllegalStateException("Only a compacted segment can be written");
+    }
+    writeVarLong(out, size);
+    long previousId = 0;
+    for (int doc = 0; doc < size; doc++) {
+      long delta = ids[doc] - previousId;
+      // Zigzag encoding keeps small negative deltas short as well
+      writeVarLong(out, (delta << 1) ^ (delta >> 63));
+      previousId = ids[doc];
+    }
+    writeVarLong(out, postings.size());
+    for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+      PostingList list = entry.getValue();
+      out.writeUTF(entry.getKey());
+      writeVarLong(out, list.size());
+      int previousDoc = 0;
+      for (int i = 0; i < list.size(); i++) {
+        writeVarLong(out, list.doc(i) - previousDoc);
+        writeVarLong(out, list.freq(i));
+        previousDoc = list.doc(i);
+      }
+    }
+  }
+
+  /**
+   * Reads a segment written by {@link #write(DataOutput)}.
+   *
+   * @param in the input to read from
+   * @return the segment
+   * @throws IOException if reading fails or the data is malformed
+   */
+  static IndexSegment read(DataInput in) throws IOException {
+    int documents = readCount(in);
+    long[] ids = new long[documents];
+    long previousId = 0;
+    for (int doc = 0; doc < documents; doc++) {
+      long zigzag = readVarLong(in);
+      previousId += (zigzag >>> 1) ^ -(zigzag & 1);
+      ids[doc] = previousId;
+    }
+    int terms = readCount(in);
+    IndexSegment segment = new IndexSegment(documents);
+    System.arraycopy(ids, 0, segment.ids, 0, documents);
+    segment.size = documents;
+    for (int doc = 0; doc < documents; doc++) {
+      segment.docsById.put(ids[doc], doc);
+    }
+    for (int t = 0; t < terms; t++) {
+      String term = in.readUTF();
+      int length = readCount(in);
+      PostingList list = new PostingList(length);
+      int doc = 0;
+      for (int i = 0; i < length; i++) {
+        doc += (int) readVarLong(in);
+        if (doc >= documents) {
+          throw new IOException("Posting of term '" + term + "' is out of range");
+        }
+        list.add(doc, (int) readVarLong(in));
+      }
+      segment.postings.put(term, list);
+      segment.grams.add(term);
+    }
+    return segment;
+  }
+
+  /**
+   * Writes a non-negative number in seven-bit groups, low group first.
+   *
+   * @param out   the output to write to
+   * @param value the number
+   * @throws IOException if writing fails
+   */
+  private static void writeVarLong(DataOutput out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  /**
+   * Reads a number written by {@link #writeVarLong(DataOutput, long)}.
+   *
+   * @param in the input to read from
+   * @return the number
+   * @throws IOException if reading fails or the number is too long
+   */
+  private static long readVarLong(DataInput in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable-length number");
+  }
+
+  /**
+   * Reads a count that must fit in an array.
+   *
+   * @param in the input to read from
+   * @return the count
+   * @throws IOException if reading fails or the count is out of range
+   */
+  private static int readCount(DataInput in) throws IOException {
+    long count = readVarLong(in);
+    if (count > Integer.MAX_VALUE - 8) {
+      throw new IOException("Count out of range: " + count);
+    }
+    return (int) count;
+  }
+
+  /**
+   * The score of each document for one search, and the documents that have one.
+   */
+  private static final class Matches {
+
+    private final float[] scores;
+    private int[] docs = new int[16];
+    private int count;
+
+    /**
+     * Creates empty matches.
+     *
+     * @param documents the number of documents in the segment
+     */
+    Matches(int documents) {
+      scores = new float[documents];
+    }
+
+    /**
+     * Adds to the score of a document.
+     *
+     * @param doc   the document number
+     * @param score the score to add, above zero
+     */
+    void add(int doc, float score) {
+      if (scores[doc] == 0) {
+        if (count == docs.length) {
+          docs = Arrays.copyOf(docs, count * 2);
+        }
+        docs[count++] = doc;
+      }
+      scores[doc] += score;
+    }
+  }
+}
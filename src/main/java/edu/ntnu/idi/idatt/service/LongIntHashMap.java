@@ -0,0 +1,146 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to non-negative int values, without boxing. Used by
+ * {@link SearchIndex} to find the document number of an entry ID. Not thread-safe.
+ */
+final class LongIntHashMap {
+
+  private static final int FREE = -1;
+
+  private long[] keys;
+  private int[] values;
+  private int size;
+
+  /**
+   * Creates an empty map.
+   */
+  LongIntHashMap() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty map with room for the given number of keys.
+   *
+   * @param expected the number of keys expected
+   */
+  LongIntHashMap(int expected) {
+    int capacity = Integer.highestOneBit(Math.max(8, expected * 2 - 1)) << 1;
+    keys = new long[capacity];
+    values = new int[capacity];
+    Arrays.fill(values, FREE);
+  }
+
+  /**
+   * Returns the value of a key.
+   *
+   * @param key the key
+   * @return the value, or -1 if the key is absent
+   */
+  int get(long key) {
+    int mask = keys.length - 1;
+    for (int slot = slot(key, mask); values[slot] != FREE; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+    }
+    return FREE;
+  }
+
+  /**
+   * Sets the value of a key.
+   *
+   * @param key   the key
+   * @param value the value, not negative
+   */
+  void put(long key, int value) {
+    if ((size + 1) * 4 > keys.length * 3) {
+      resize(keys.length * 2);
+    }
+    int mask = keys.length - 1;
+    int slot = slot(key, mask);
+    while (values[slot] != FREE) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+  }
+
+  /**
+   * Removes a key.
+   *
+   * @param key the key
+   * @return the value the key had, or -1 if it was absent
+   */
+  int remove(long key) {
+    int mask = keys.length - 1;
+    int slot = slot(key, mask);
+    while (values[slot] != FREE && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    int removed = values[slot];
+    if (removed == FREE) {
+      return FREE;
+    }
+    // Shift later keys of the same probe run back, so lookups never stop at the emptied slot
+    int gap = slot;
+    for (int next = (gap + 1) & mask; values[next] != FREE; next = (next + 1) & mask) {
+      int home = slot(keys[next], mask);
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+    }
+    values[gap] = FREE;
+    size--;
+    return removed;
+  }
+
+  /**
+   * Returns the number of keys.
+   *
+   * @return the size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Moves the keys into tables of a new capacity.
+   *
+   * @param capacity the new capacity, a power of two
+   */
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    keys = new long[capacity];
+    values = new int[capacity];
+    Arrays.fill(values, FREE);
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldValues[i] != FREE) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns the home slot of a key.
+   *
+   * @param key  the key
+   * @param mask the table capacity minus one
+   * @return the slot
+   */
+  private static int slot(long key, int mask) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+}
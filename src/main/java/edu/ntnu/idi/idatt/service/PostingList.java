@@ -0,0 +1,137 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.util.Arrays;
+
+/**
+ * The documents containing one term of a {@link SearchIndex}, as two parallel primitive arrays
+ * of ascending document numbers and weighted term frequencies. Not thread-safe.
+ */
+final class PostingList {
+
+  private int[] docs;
+  private int[] freqs;
+  private int size;
+
+  /**
+   * Creates an empty posting list.
+   */
+  PostingList() {
+    this(4);
+  }
+
+  /**
+   * Creates an empty posting list with room for the given number of documents.
+   *
+   * @param capacity the initial capacity
+   */
+  PostingList(int capacity) {
+    docs = new int[Math.max(1, capacity)];
+    freqs = new int[docs.length];
+  }
+
+  /**
+   * Appends a document. Documents must be appended in ascending order.
+   *
+   * @param doc  the document number
+   * @param freq the weighted frequency of the term in the document
+   */
+  void add(int doc, int freq) {
+    if (size == docs.length) {
+      int capacity = size + (size >> 1) + 1;
+      docs = Arrays.copyOf(docs, capacity);
+      freqs = Arrays.copyOf(freqs, capacity);
+    }
+    docs[size] = doc;
+    freqs[size] = freq;
+    size++;
+  }
+
+  /**
+   * Appends the documents of another list with their numbers shifted by an offset. The shifted
+   * numbers must all be above the last document of this list.
+   *
+   * @param other  the list to append
+   * @param offset the amount added to each document number of the other list
+   */
+  void append(PostingList other, int offset) {
+    int needed = size + other.size;
+    if (needed > docs.length) {
+      docs = Arrays.copyOf(docs, needed);
+      freqs = Arrays.copyOf(freqs, needed);
+    }
+    for (int i = 0; i < other.size; i++) {
+      docs[size + i] = other.docs[i] + offset;
+    }
+    System.arraycopy(other.freqs, 0, freqs, size, other.size);
+    size = needed;
+  }
+
+  /**
+   * Releases the unused capacity.
+   */
+  void trim() {
+    if (docs.length > size) {
+      docs = Arrays.copyOf(docs, size);
+      freqs = Arrays.copyOf(freqs, size);
+    }
+  }
+
+  /**
+   * Returns the number of documents in the list.
+   *
+   * @return the document frequency of the term
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the document at a position.
+   *
+   * @param index the position, below {@link #size()}
+   * @return the document number
+   */
+  int doc(int index) {
+    return docs[index];
+  }
+
+  /**
+   * Returns the weighted term frequency at a position.
+   *
+   * @param index the position, below {@link #size()}
+   * @return the weighted frequency of the term in the document
+   */
+  int freq(int index) {
+    return freqs[index];
+  }
+
+  /**
+   * Finds the first position at or after {@code from} whose document is at least {@code doc}.
+   * Gallops ahead in doubling steps and then binary searches, so intersecting a short list with
+   * a long one costs time in proportion to the short list.
+   *
+   * @param from the position to start at
+   * @param doc  the document number to seek
+   * @return the position found, or {@link #size()} if every remaining document is lower
+   */
+  int seek(int from, int doc) {
+    int step = 1;
+    int low = from;
+    int high = from;
+    while (high < size && docs[high] < doc) {
+      low = high + 1;
+      high += step;
+      step <<= 1;
+    }
+    high = Math.min(high, size);
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (docs[mid] < doc) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,329 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Completes typed prefixes to the IDs of the entities with a matching key, such as an author name
+ * or an entry title. Thread-safe.
+ *
+ * <p>Keys are kept lower-cased in one sorted array with a parallel array of IDs, so every key
+ * starting with a prefix lies in one run that a binary search finds; the first completions are
+ * read from there without looking at the rest. Adding or removing a key moves the tail of the
+ * arrays, which is cheap enough for single edits; bulk changes reload the index instead.
+ *
+ * <p>The index is loaded on first use. Completions are checked against the entities loaded from
+ * the database and keys that turn out to be stale are dropped, so changes the index was not told
+ * about, such as those made by another instance of the application, only cost a lookup.
+ */
+final class PrefixIndex {
+
+  private static final Comparator<Key> ORDER =
+      Comparator.comparing(Key::key).thenComparingLong(Key::id);
+
+  private String[] keys = new String[0];
+  private long[] ids = new long[0];
+  private int size;
+  private boolean loaded;
+
+  /**
+   * A key of an entity.
+   *
+   * @param key the normalized key
+   * @param id  the entity ID
+   */
+  private record Key(String key, long id) {
+  }
+
+  /**
+   * Normalizes a key or prefix so matching ignores case and surrounding whitespace.
+   *
+   * @param text the text
+   * @return the normalized text
+   */
+  static String normalize(String text) {
+    return text.strip().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Loads the index if it is not loaded yet. Changes made while it is not loaded are ignored,
+   * since the loader reads them from the database.
+   *
+   * @param loader passes every key and entity ID to the given consumer
+   */
+  synchronized void ensureLoaded(Consumer<ObjLongConsumer<String>> loader) {
+    if (loaded) {
+      return;
+    }
+    List<Key> all = new ArrayList<>();
+    loader.accept((key, id) -> {
+      if (key != null && !key.isBlank()) {
+        all.add(new Key(normalize(key), id));
+      }
+    });
+    all.sort(ORDER);
+    keys = new String[Math.max(16, all.size())];
+    ids = new long[keys.length];
+    size = 0;
+    for (Key key : all) {
+      // Skip duplicates, which the sort put next to each other
+      if (size == 0 || !keys[size - 1].equals(key.key()) || ids[size - 1] != key.id()) {
+        keys[size] = key.key();
+        ids[size] = key.id();
+        size++;
+      }
+    }
+    loaded = true;
+  }
+
+  /**
+   * Returns whether the index has been loaded.
+   *
+   * @return true once {@link #ensureLoaded(Consumer)} has run
+   */
+  synchronized boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * Drops the index, so it is loaded again on next use. Used after bulk changes.
+   */
+  synchronized void unload() {
+    keys = new String[0];
+    ids = new long[0];
+    size = 0;
+    loaded = false;
+  }
+
+  /**
+   * Returns the number of keys.
+   *
+   * @return the number of key and ID pairs
+   */
+  synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Adds keys of an entity. Keys it already has are left alone.
+   *
+   * @param id      the entity ID
+   * @param entries the keys; null and blank keys are skipped
+   */
+  synchronized void add(long id, Collection<String> entries) {
+    if (!loaded) {
+      return;
+    }
+    for (String entry : entries) {
+      if (entry == null || entry.isBlank()) {
+        continue;
+      }
+      String key = normalize(entry);
+      int position = find(key, id);
+      if (position >= 0) {
+        continue;
+      }
+      position = -position - 1;
+      if (size == keys.length) {
+        int capacity = Math.max(16, size + (size >> 1));
+        keys = Arrays.copyOf(keys, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+      }
+      System.arraycopy(keys, position, keys, position + 1, size - position);
+      System.arraycopy(ids, position, ids, position + 1, size - position);
+      keys[position] = key;
+      ids[position] = id;
+      size++;
+    }
+  }
+
+  /**
+   * Removes a key of an entity, if the index has it.
+   *
+   * @param id    the entity ID
+   * @param entry the key; null is ignored
+   */
+  synchronized void remove(long id, String entry) {
+    if (!loaded || entry == null) {
+      return;
+    }
+    int position = find(normalize(entry), id);
+    if (position < 0) {
+      return;
+    }
+    System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+    System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+    size--;
+    keys[size] = null;
+  }
+
+  /**
+   * Removes every key of an entity, for when its keys are not known, such as after a delete by
+   * ID. Looks at every key, unlike {@link #remove(long, String)}.
+   *
+   * @param id the entity ID
+   */
+  synchronized void removeAll(long id) {
+    if (!loaded) {
+      return;
+    }
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      if (ids[i] != id) {
+        keys[kept] = keys[i];
+        ids[kept] = ids[i];
+        kept++;
+      }
+    }
+    Arrays.fill(keys, kept, size, null);
+    size = kept;
+  }
+
+  /**
+   * Replaces every key of an entity by new keys, for when its old keys are not known.
+   *
+   * @param id         the entity ID
+   * @param newEntries the keys to add
+   */
+  synchronized void replaceAll(long id, Collection<String> newEntries) {
+    removeAll(id);
+    add(id, newEntries);
+  }
+
+  /**
+   * Replaces keys of an entity, such as its old name by its new name.
+   *
+   * @param id         the entity ID
+   * @param oldEntries the keys to remove
+   * @param newEntries the keys to add
+   */
+  synchronized void replace(long id, Collection<String> oldEntries,
+      Collection<String> newEntries) {
+    for (String entry : oldEntries) {
+      remove(id, entry);
+    }
+    add(id, newEntries);
+  }
+
+  /**
+   * Returns the IDs of the entities with a key starting with the prefix, in key order. An entity
+   * matching with several keys is returned once.
+   *
+   * @param prefix the typed prefix; empty matches every key
+   * @param limit  the maximum number of IDs
+   * @return the matching IDs, at most {@code limit}
+   * @throws IllegalArgumentException if limit is negative
+   */
+  synchronized List<Long> complete(String prefix, int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("Limit cannot be negative");
+    }
+    String normalized = normalize(prefix);
+    Set<Long> matches = new LinkedHashSet<>();
+    // Every key starting with the prefix sorts at or after the prefix itself
+    int position = find(normalized, Long.MIN_VALUE);
+    for (int i = position < 0 ? -position - 1 : position;
+        i < size && matches.size() < limit && keys[i].startsWith(normalized); i++) {
+      matches.add(ids[i]);
+    }
+    return List.copyOf(matches);
+  }
+
+  /**
+   * Returns the entities with a key starting with the prefix, in key order. The entities are
+   * loaded by ID and checked against their current keys; keys of entities that no longer exist
+   * or no longer match are removed, and the completion is retried without them.
+   *
+   * @param prefix the typed prefix; empty matches every key
+   * @param limit  the maximum number of entities
+   * @param loader loads the entities with the given IDs, skipping IDs that do not exist
+   * @param idOf   returns the ID of an entity
+   * @param keysOf returns the current keys of an entity
+   * @param <T>    the entity type
+   * @return the matching entities, at most {@code limit}
+   * @throws IllegalArgumentException if limit is negative
+   */
+  <T> List<T> complete(String prefix, int limit, Function<List<Long>, List<T>> loader,
+      Function<T, Long> idOf, Function<T, Collection<String>> keysOf) {
+    String normalized = normalize(prefix);
+    while (true) {
+      List<Long> matches = complete(prefix, limit);
+      Map<Long, T> byId = new HashMap<>();
+      for (T entity : loader.apply(matches)) {
+        byId.put(idOf.apply(entity), entity);
+      }
+      List<T> results = new ArrayList<>(matches.size());
+      boolean stale = false;
+      for (Long id : matches) {
+        T entity = byId.get(id);
+        if (entity != null && keysOf.apply(entity).stream()
+            .anyMatch(key -> key != null && normalize(key).startsWith(normalized))) {
+          results.add(entity);
+        } else {
+          removeStale(id, normalized);
+          stale = true;
+        }
+      }
+      if (!stale) {
+        return results;
+      }
+    }
+  }
+
+  /**
+   * Removes the keys of an entity that start with a prefix, after a completion found that none of
+   * them is current.
+   *
+   * @param id     the entity ID
+   * @param prefix the normalized prefix
+   */
+  private synchronized void removeStale(long id, String prefix) {
+    int position = find(prefix, Long.MIN_VALUE);
+    int i = position < 0 ? -position - 1 : position;
+    while (i < size && keys[i].startsWith(prefix)) {
+      if (ids[i] == id) {
+        remove(id, keys[i]);
+      } else {
+        i++;
+      }
+    }
+  }
+
+  /**
+   * Finds a key and ID pair by binary search.
+   *
+   * @param key the normalized key
+   * @param id  the entity ID
+   * @return the position of the pair, or {@code -(insertion point) - 1} if absent
+   */
+  private int find(String key, long id) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = keys[middle].compareTo(key);
+      if (comparison == 0) {
+        comparison = Long.compare(ids[middle], id);
+      }
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -low - 1;
+  }
+}
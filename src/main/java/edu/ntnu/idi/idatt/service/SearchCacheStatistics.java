@@ -0,0 +1,24 @@
+package edu.ntnu.idi.idatt.service;
+
+/**
+ * Counters of the search result cache since the application started.
+ *
+ * @param hits          searches answered from the cache
+ * @param misses        searches that had to query the database
+ * @param evictions     results dropped to make room or because they were too old
+ * @param invalidations results dropped because a write changed them
+ * @param size          the number of results currently cached
+ */
+public record SearchCacheStatistics(long hits, long misses, long evictions, long invalidations,
+    int size) {
+
+  /**
+   * Returns the share of searches answered from the cache.
+   *
+   * @return the hit ratio between 0 and 1, or 0 if there have been no searches
+   */
+  public double hitRatio() {
+    long total = hits + misses;
+    return total == 0 ? 0 : (double) hits / total;
+  }
+}
@@ -0,0 +1,753 @@
+package edu.ntnu.idi.idatt.service;
+
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.EntryTableState;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory inverted index over the title and content of every diary entry, for ranked search
+ * without the SQLite full-text index.
+ *
+ * <p>The index starts out empty and is filled by {@link #build(DiaryEntryRepository)} or
+ * {@link #loadOrBuild(DiaryEntryRepository, Path)}; until then {@link #isReady()} is false and
+ * changes are ignored. Once built, the index is kept current through {@link #index} and
+ * {@link #remove(long)}. Changes made while a build is running are recorded and applied to the
+ * new index when the build finishes, so none are lost. Thread-safe: searches share a read lock
+ * and changes take the write lock.
+ *
+ * <p>The index records the state of the entries table it was built or loaded from, and follows
+ * the writes of this process that are passed along with their changes. A snapshot is only saved
+ * while that state still matches the table, so the changes of another process sharing the
+ * database are never missing from a snapshot that loads as current.
+ */
+public class SearchIndex {
+
+  /**
+   * The number of times each occurrence of a term in the title counts, relative to the content.
+   */
+  static final int TITLE_WEIGHT = 5;
+
+  /**
+   * The default maximum number of typos per word of a {@linkplain #searchFuzzy fuzzy search}.
+   */
+  public static final int DEFAULT_MAX_DISTANCE = 2;
+
+  /**
+   * The number of letters a word needs for each typo a {@linkplain #searchFuzzy fuzzy search}
+   * allows in it, whatever maximum is asked for. Words under three letters only match exactly and
+   * a word needs six letters for two typos, so short words do not match most other short words.
+   */
+  public static final int LETTERS_PER_TYPO = 3;
+
+  /**
+   * Terms longer than this are cut off, so pasted data cannot bloat the index.
+   */
+  static final int MAX_TERM_LENGTH = 64;
+
+  /**
+   * The number of IDs read by one task of a build.
+   */
+  static final int BUILD_RANGE_SIZE = 65_536;
+
+  // One connection of the pool of four is left for the rest of the application
+  private static final int MAX_BUILD_THREADS = 3;
+
+  private static final int COMPACTION_MINIMUM = 1024;
+
+  private static final int SNAPSHOT_MAGIC = 0x44534958;
+  private static final int SNAPSHOT_VERSION = 1;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private IndexSegment segment;
+  private EntryTableState state;
+  private List<Change> pending;
+  private boolean modified;
+
+  /**
+   * A change to the index, kept while a build is running.
+   *
+   * @param id      the entry ID
+   * @param title   the new title, or null if the entry was removed
+   * @param content the new content, or null if the entry was removed
+   * @param write   how the write of this process behind the change moved the table state on, or
+   *                null if the change was not written by this process, which leaves the state
+   *                unknown
+   */
+  private record Change(long id, String title, String content,
+      UnaryOperator<EntryTableState> write) {
+
+    /**
+     * Moves a table state on by the write behind the change.
+     *
+     * @param before the state before the change, or null if unknown
+     * @return the state after the change, or null if unknown
+     */
+    EntryTableState advance(EntryTableState before) {
+      return write == null || before == null ? null : write.apply(before);
+    }
+
+    /**
+     * Applies the change to a segment.
+     *
+     * @param target the segment
+     */
+    void applyTo(IndexSegment target) {
+      if (title == null) {
+        target.remove(id);
+      } else {
+        target.add(id, title, content);
+      }
+    }
+  }
+
+  /**
+   * Returns whether the index has been built or loaded and can answer searches.
+   *
+   * @return true if the index is ready
+   */
+  public boolean isReady() {
+    lock.readLock().lock();
+    try {
+      return segment != null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns whether the index takes changes, which is the case once it is ready or while it is
+   * being built. Callers can check this to avoid loading entry content the index would ignore.
+   *
+   * @return true if changes are recorded
+   */
+  public boolean isAcceptingChanges() {
+    lock.readLock().lock();
+    try {
+      return segment != null || pending != null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns whether the index changed since it was built, loaded or saved.
+   *
+   * @return true if the index has unsaved changes
+   */
+  public boolean isModified() {
+    lock.readLock().lock();
+    try {
+      return modified;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of entries in the index.
+   *
+   * @return the number of indexed entries, or 0 if the index is not ready
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return segment == null ? 0 : segment.liveCount();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Searches the index. Every word of the search text must be the start of a word in the title
+   * or content; the word {@code OR} in capitals separates alternatives, so
+   * {@code "summer trip OR holiday"} finds entries with both "summer" and "trip", or with
+   * "holiday". Entries are ranked by TF-IDF with title words weighted higher.
+   *
+   * @param searchText the text to search for (case-insensitive)
+   * @return the IDs of the matching entries, best match first; empty if the index is not ready
+   * @throws NullPointerException if searchText is null
+   */
+  public List<Long> search(String searchText) {
+    List<List<String>> groups = parseQuery(searchText);
+    lock.readLock().lock();
+    try {
+      if (segment == null || groups.isEmpty()) {
+        return List.of();
+      }
+      return segment.search(groups);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Searches the index, tolerating typos. Words and {@code OR} work like in
+   * {@link #search(String)}, but a word matches every term that is at most
+   * {@link #allowedDistance allowedDistance(word, maxDistance)} inserted, deleted or replaced
+   * letters away from it, so {@code "beech"} finds "beach" while short words stay exact. Entries
+   * are ranked by TF-IDF scaled by how close the matching terms are to the words. Only the terms
+   * sharing trigrams with a word are compared to it, not the whole vocabulary.
+   *
+   * @param searchText  the text to search for (case-insensitive)
+   * @param maxDistance the maximum number of edits per word, before the
+   *                    {@value #LETTERS_PER_TYPO}-letters-per-typo limit
+   * @return the IDs of the matching entries, best match first; empty if the index is not ready
+   * @throws NullPointerException     if searchText is null
+   * @throws IllegalArgumentException if maxDistance is negative
+   */
+  public List<Long> searchFuzzy(String searchText, int maxDistance) {
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("Max distance cannot be negative");
+    }
+    List<List<String>> groups = parseQuery(searchText);
+    lock.readLock().lock();
+    try {
+      if (segment == null || groups.isEmpty()) {
+        return List.of();
+      }
+      return segment.searchFuzzy(groups, maxDistance);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of typos a fuzzy search allows in a word: the maximum asked for, but no
+   * more than one per {@value #LETTERS_PER_TYPO} letters of the word.
+   *
+   * @param word        the word, as returned by {@link #terms(String)}
+   * @param maxDistance the maximum number of typos per word asked for
+   * @return the number of typos allowed in the word
+   */
+  public static int allowedDistance(String word, int maxDistance) {
+    return Math.min(maxDistance, word.length() / LETTERS_PER_TYPO);
+  }
+
+  /**
+   * Adds an entry to the index, or replaces it if it is already indexed, to match a change made
+   * by another process. Ignored unless the index {@linkplain #isAcceptingChanges() accepts
+   * changes}. The index then no longer follows a known table state, so it is not saved again.
+   *
+   * @param id      the entry ID
+   * @param title   the entry title
+   * @param content the entry content
+   * @throws NullPointerException if title or content is null
+   */
+  public void index(long id, String title, String content) {
+    apply(new Change(id, Objects.requireNonNull(title, "Title cannot be null"),
+        Objects.requireNonNull(content, "Content cannot be null"), null));
+  }
+
+  /**
+   * Adds an entry to the index, or replaces it if it is already indexed, after this process
+   * wrote it. Ignored unless the index {@linkplain #isAcceptingChanges() accepts changes}.
+   *
+   * @param id      the entry ID
+   * @param title   the entry title
+   * @param content the entry content
+   * @param write   how the write moved the table state on, e.g.
+   *                {@code state -> state.afterUpdate(entry.getUpdatedAt())}; it may return null
+   *                if the new state is unknown
+   * @throws NullPointerException if title, content or write is null
+   */
+  public void index(long id, String title, String content, UnaryOperator<EntryTableState> write) {
+    apply(new Change(id, Objects.requireNonNull(title, "Title cannot be null"),
+        Objects.requireNonNull(content, "Content cannot be null"),
+        Objects.requireNonNull(write, "Write cannot be null")));
+  }
+
+  /**
+   * Removes an entry from the index to match a change made by another process. Ignored if the
+   * entry is not indexed. The index then no longer follows a known table state, so it is not
+   * saved again.
+   *
+   * @param id the entry ID
+   */
+  public void remove(long id) {
+    apply(new Change(id, null, null, null));
+  }
+
+  /**
+   * Removes an entry from the index after this process deleted it. Ignored if the entry is not
+   * indexed.
+   *
+   * @param id    the entry ID
+   * @param write how the delete moved the table state on, e.g.
+   *              {@code state -> state.afterDelete(id, entry.getUpdatedAt())}; it may return null
+   *              if the new state is unknown
+   * @throws NullPointerException if write is null
+   */
+  public void remove(long id, UnaryOperator<EntryTableState> write) {
+    apply(new Change(id, null, null, Objects.requireNonNull(write, "Write cannot be null")));
+  }
+
+  /**
+   * Applies a change to the current index and records it for a running build.
+   *
+   * @param change the change
+   */
+  private void apply(Change change) {
+    lock.writeLock().lock();
+    try {
+      if (pending != null) {
+        pending.add(change);
+      }
+      if (segment != null) {
+        change.applyTo(segment);
+        state = change.advance(state);
+        if (segment.needsCompaction(COMPACTION_MINIMUM)) {
+          segment = segment.compact();
+        }
+      }
+      modified |= segment != null || pending != null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Builds the index from the entries in the database, replacing the current index when done.
+   * The current index keeps answering searches during the build. Entries are read in ranges of
+   * {@value #BUILD_RANGE_SIZE} IDs by a fork/join pool of up to {@value #MAX_BUILD_THREADS}
+   * threads.
+   *
+   * @param repository the diary entry repository
+   * @throws NullPointerException  if repository is null
+   * @throws IllegalStateException if a build is already running
+   */
+  public void build(DiaryEntryRepository repository) {
+    build(repository, BUILD_RANGE_SIZE);
+  }
+
+  /**
+   * Builds the index, reading entries in ranges of the given number of IDs.
+   *
+   * @param repository the diary entry repository
+   * @param rangeSize  the number of IDs read by one task
+   */
+  void build(DiaryEntryRepository repository, int rangeSize) {
+    Objects.requireNonNull(repository, "DiaryEntryRepository cannot be null");
+    begin();
+    EntryTableState builtState;
+    IndexSegment built;
+    try {
+      builtState = repository.findTableState();
+      built = buildSegment(repository, builtState, rangeSize);
+    } catch (RuntimeException e) {
+      abort();
+      throw e;
+    }
+    finish(built, builtState, true);
+  }
+
+  /**
+   * Loads the index from a snapshot file, or builds it and saves a new snapshot if the file is
+   * missing, unreadable or out of date. A snapshot is out of date when the entries table has
+   * changed since it was saved. Failing to save the new snapshot is not an error; the index is
+   * then built again on the next start.
+   *
+   * @param repository the diary entry repository
+   * @param snapshot   the snapshot file
+   * @return true if the index was loaded from the snapshot, false if it was built
+   * @throws NullPointerException  if repository or snapshot is null
+   * @throws IllegalStateException if a build is already running
+   */
+  public boolean loadOrBuild(DiaryEntryRepository repository, Path snapshot) {
+    Objects.requireNonNull(repository, "DiaryEntryRepository cannot be null");
+    Objects.requireNonNull(snapshot, "Snapshot path cannot be null");
+    begin();
+    EntryTableState tableState;
+    IndexSegment loaded;
+    IndexSegment built = null;
+    try {
+      tableState = repository.findTableState();
+      loaded = load(snapshot, tableState);
+      if (loaded == null) {
+        built = buildSegment(repository, tableState, BUILD_RANGE_SIZE);
+      }
+    } catch (RuntimeException e) {
+      abort();
+      throw e;
+    }
+    if (loaded != null) {
+      finish(loaded, tableState, false);
+      return true;
+    }
+    finish(built, tableState, true);
+    try {
+      // A write by another process during the build makes the snapshot out of date, not wrong
+      write(snapshot, null);
+    } catch (IOException e) {
+      // The index works without a snapshot
+    }
+    return false;
+  }
+
+  /**
+   * Saves the index to a snapshot file, for {@link #loadOrBuild(DiaryEntryRepository, Path)} on
+   * the next start. The file is written next to the target and then moved into place, so an
+   * interrupted save never leaves a damaged snapshot.
+   *
+   * <p>The snapshot is only written if the entries table is in the state the index was built or
+   * loaded from, moved on by the writes of this process. Otherwise another process changed the
+   * table, or a write of this process had an unknown effect on it, so the index may lack changes;
+   * any existing snapshot is then deleted instead, and the next start builds the index again.
+   *
+   * @param repository the diary entry repository, to read the state of the entries table
+   * @param snapshot   the snapshot file
+   * @return true if the snapshot was written, false if it was deleted
+   * @throws IOException           if the file cannot be written or deleted
+   * @throws NullPointerException  if repository or snapshot is null
+   * @throws IllegalStateException if the index is not ready
+   */
+  public boolean save(DiaryEntryRepository repository, Path snapshot) throws IOException {
+    Objects.requireNonNull(repository, "DiaryEntryRepository cannot be null");
+    Objects.requireNonNull(snapshot, "Snapshot path cannot be null");
+    return write(snapshot, repository.findTableState());
+  }
+
+  /**
+   * Starts a build, recording changes from now on.
+   *
+   * @throws IllegalStateException if a build is already running
+   */
+  private void begin() {
+    lock.writeLock().lock();
+    try {
+      if (pending != null) {
+        throw new IllegalStateException("The search index is already being built");
+      }
+      pending = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Installs the result of a build after applying the changes recorded during it. Applying a
+   * change the build already read is harmless, as the entry is replaced or removed either way.
+   * A write the table state already included is counted twice, which leaves the recorded state
+   * out of date and the snapshot unsaved, never wrong.
+   *
+   * @param built      the new segment
+   * @param builtState the state of the entries table the segment was built or loaded from
+   * @param modified   whether the new segment differs from any saved snapshot
+   */
+  private void finish(IndexSegment built, EntryTableState builtState, boolean modified) {
+    lock.writeLock().lock();
+    try {
+      EntryTableState current = builtState;
+      for (Change change : pending) {
+        change.applyTo(built);
+        current = change.advance(current);
+      }
+      built.trim();
+      segment = built.removedCount() > 0 ? built.compact() : built;
+      state = current;
+      this.modified = modified || !pending.isEmpty();
+      pending = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Ends a failed build, keeping the current index.
+   */
+  private void abort() {
+    lock.writeLock().lock();
+    try {
+      pending = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Reads every entry in the table into a new segment.
+   *
+   * @param repository the diary entry repository
+   * @param state      the state of the entries table, giving the range of IDs to read
+   * @param rangeSize  the number of IDs read by one task
+   * @return the new segment
+   */
+  private static IndexSegment buildSegment(DiaryEntryRepository repository,
+      EntryTableState state, int rangeSize) {
+    if (state.minId() == null) {
+      return new IndexSegment();
+    }
+    int parallelism = Math.min(MAX_BUILD_THREADS, Runtime.getRuntime().availableProcessors());
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return pool.invoke(new BuildTask(repository, state.minId(), state.maxId(), rangeSize));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Indexes a range of IDs, splitting it in halves until each part holds at most one range of
+   * the build. The halves are merged in ID order, so document numbers ascend with entry IDs.
+   */
+  private static final class BuildTask extends RecursiveTask<IndexSegment> {
+
+    private final transient DiaryEntryRepository repository;
+    private final long fromId;
+    private final long toId;
+    private final int rangeSize;
+
+    /**
+     * Creates a task for a range of IDs.
+     *
+     * @param repository the diary entry repository
+     * @param fromId     the lowest ID to index
+     * @param toId       the highest ID to index
+     * @param rangeSize  the number of IDs read by one task
+     */
+    BuildTask(DiaryEntryRepository repository, long fromId, long toId, int rangeSize) {
+      this.repository = repository;
+      this.fromId = fromId;
+      this.toId = toId;
+      this.rangeSize = rangeSize;
+    }
+
+    /**
+     * Indexes the range.
+     *
+     * @return a segment with the entries of the range
+     */
+    @Override
+    protected IndexSegment compute() {
+      if (toId - fromId < rangeSize) {
+        IndexSegment part = new IndexSegment();
+        repository.streamText(fromId, toId, text -> part.add(text.id(), text.title(),
+            text.content()));
+        return part;
+      }
+      long middle = fromId + (toId - fromId) / 2;
+      BuildTask low = new BuildTask(repository, fromId, middle, rangeSize);
+      low.fork();
+      IndexSegment high = new BuildTask(repository, middle + 1, toId, rangeSize).compute();
+      IndexSegment merged = low.join();
+      merged.append(high);
+      return merged;
+    }
+  }
+
+  /**
+   * Reads a snapshot file.
+   *
+   * @param snapshot the snapshot file
+   * @param state    the current state of the entries table
+   * @return the segment, or null if the file is missing, unreadable or for another state
+   */
+  private static IndexSegment load(Path snapshot, EntryTableState state) {
+    if (!Files.isRegularFile(snapshot)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(snapshot)))) {
+      if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+        return null;
+      }
+      long count = in.readLong();
+      Long minId = in.readBoolean() ? in.readLong() : null;
+      Long maxId = in.readBoolean() ? in.readLong() : null;
+      LocalDateTime lastUpdatedAt = in.readBoolean()
+          ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC)
+          : null;
+      if (!state.equals(new EntryTableState(count, minId, maxId, lastUpdatedAt))) {
+        return null;
+      }
+      return IndexSegment.read(in);
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes the current index to a snapshot file, recording the state of the entries table the
+   * index follows. The snapshot is deleted instead if that state is unknown or differs from the
+   * current one.
+   *
+   * @param snapshot the snapshot file
+   * @param current  the current state of the entries table, or null to skip the comparison
+   * @return true if the snapshot was written, false if it was deleted
+   * @throws IOException           if the file cannot be written or deleted
+   * @throws IllegalStateException if the index is not ready
+   */
+  private boolean write(Path snapshot, EntryTableState current) throws IOException {
+    Path partial = snapshot.resolveSibling(snapshot.getFileName() + ".partial");
+    lock.writeLock().lock();
+    try {
+      if (segment == null) {
+        throw new IllegalStateException("The search index is not ready");
+      }
+      if (state == null || (current != null && !current.equals(state))) {
+        Files.deleteIfExists(snapshot);
+        return false;
+      }
+      if (segment.removedCount() > 0) {
+        segment = segment.compact();
+      }
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(partial)))) {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(state.count());
+        writeNullableLong(out, state.minId());
+        writeNullableLong(out, state.maxId());
+        out.writeBoolean(state.lastUpdatedAt() != null);
+        if (state.lastUpdatedAt() != null) {
+          out.writeLong(state.lastUpdatedAt().toEpochSecond(ZoneOffset.UTC));
+          out.writeInt(state.lastUpdatedAt().getNano());
+        }
+        segment.write(out);
+      }
+      Files.move(partial, snapshot, StandardCopyOption.REPLACE_EXISTING);
+      modified = false;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Writes a presence flag, followed by the value if it is not null.
+   *
+   * @param out   the output to write to
+   * @param value the value, or null
+   * @throws IOException if writing fails
+   */
+  private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeLong(value);
+    }
+  }
+
+  /**
+   * Returns whether a search text contains anything the index can search for.
+   *
+   * @param searchText the search text, may be null
+   * @return true if the text has at least one word
+   */
+  public static boolean hasTerms(String searchText) {
+    return searchText != null && !parseQuery(searchText).isEmpty();
+  }
+
+  /**
+   * Splits a search text into groups of words. The word {@code OR} in capitals starts a new
+   * group; every other word is normalized like the indexed text by {@link #terms(String)}.
+   * Groups without words are dropped.
+   *
+   * @param searchText the search text
+   * @return the groups of words (never null)
+   * @throws NullPointerException if searchText is null
+   */
+  static List<List<String>> parseQuery(String searchText) {
+    Objects.requireNonNull(searchText, "Search text cannot be null");
+    List<List<String>> groups = new ArrayList<>();
+    List<String> group = new ArrayList<>();
+    for (String token : searchText.trim().split("\\s+")) {
+      if (token.equals("OR")) {
+        if (!group.isEmpty()) {
+          groups.add(group);
+          group = new ArrayList<>();
+        }
+      } else {
+        group.addAll(terms(token));
+      }
+    }
+    if (!group.isEmpty()) {
+      groups.add(group);
+    }
+    return groups;
+  }
+
+  /**
+   * Splits text into terms: runs of letters and digits, lower-cased, with diacritics removed
+   * and cut off at {@value #MAX_TERM_LENGTH} characters.
+   *
+   * @param text the text, may be null
+   * @return the terms in order of occurrence, with repeats (never null)
+   */
+  static List<String> terms(String text) {
+    List<String> terms = new ArrayList<>();
+    if (text == null) {
+      return terms;
+    }
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      while (i < length && !isWordCharacter(text.codePointAt(i))) {
+        i += Character.charCount(text.codePointAt(i));
+      }
+      int start = i;
+      boolean ascii = true;
+      while (i < length && isWordCharacter(text.codePointAt(i))) {
+        ascii &= text.charAt(i) < 0x80;
+        i += Character.charCount(text.codePointAt(i));
+      }
+      if (i > start) {
+        String term = normalize(text.substring(start, i), ascii);
+        if (!term.isEmpty()) {
+          terms.add(term);
+        }
+      }
+    }
+    return terms;
+  }
+
+  /**
+   * Returns whether a character is part of a word. Combining marks are, so decomposed accented
+   * letters do not split words.
+   *
+   * @param codePoint the character
+   * @return true for letters, digits and non-spacing marks
+   */
+  private static boolean isWordCharacter(int codePoint) {
+    return Character.isLetterOrDigit(codePoint)
+        || Character.getType(codePoint) == Character.NON_SPACING_MARK;
+  }
+
+  /**
+   * Normalizes one word of text.
+   *
+   * @param word  the word
+   * @param ascii whether the word is plain ASCII, which skips the Unicode decomposition
+   * @return the term
+   */
+  private static String normalize(String word, boolean ascii) {
+    String term = word.toLowerCase(Locale.ROOT);
+    if (!ascii) {
+      StringBuilder stripped = new StringBuilder(term.length());
+      for (char c : Normalizer.normalize(term, Normalizer.Form.NFD).toCharArray()) {
+        if (Character.getType(c) != Character.NON_SPACING_MARK) {
+          stripped.append(c);
+        }
+      }
+      term = stripped.toString();
+    }
+    return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+  }
+}
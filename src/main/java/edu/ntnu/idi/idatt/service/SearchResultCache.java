@@ -0,0 +1,301 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bounded least-recently-used cache of search results, kept as lists of entry IDs so cached
+ * results never hold stale entries and cost little memory. Used by {@link DiaryEntryService} for
+ * keyword and date searches.
+ *
+ * <p>Writes invalidate precisely: a changed entry only drops the results that contained it, the
+ * keyword searches whose words occur in its new text and, when it is created or deleted, the date
+ * searches covering its creation date. Changes made by other programs are not seen, so results
+ * also expire after a maximum age. Thread-safe.
+ */
+public class SearchResultCache {
+
+  /**
+   * The default number of cached results.
+   */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  /**
+   * The default time after which a result is queried again, to pick up changes made by other
+   * instances of the application.
+   */
+  public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(5);
+
+  private final int capacity;
+  private final long maxAgeNanos;
+  private final Map<Key, Cached> results;
+  private long version;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long invalidations;
+
+  /**
+   * A query with cacheable results.
+   */
+  sealed interface Key permits KeywordKey, DateRangeKey {
+
+    /**
+     * Returns whether a write could change the results of this query, apart from writes to the
+     * entries already in the results.
+     *
+     * @param date  the creation date of an entry that was created or deleted, or null
+     * @param texts the new title and/or content of the entry
+     * @return true if the results must be dropped
+     */
+    boolean isTouchedBy(LocalDate date, Collection<String> texts);
+  }
+
+  /**
+   * How a keyword search is answered; the same text can give different results per route.
+   */
+  enum SearchRoute {
+    /**
+     * The in-memory {@link SearchIndex}.
+     */
+    INDEX,
+    /**
+     * The SQLite full-text index.
+     */
+    FULL_TEXT,
+    /**
+     * A case-insensitive substring match in SQL.
+     */
+    SUBSTRING
+  }
+
+  /**
+   * A keyword search.
+   *
+   * @param route the route the search takes
+   * @param query the normalized search text
+   * @param words the words whose occurrence in an entry may add it to the results
+   */
+  record KeywordKey(SearchRoute route, String query, List<String> words) implements Key {
+
+    /**
+     * Creates the key of a keyword search. Texts that can only give the same results get the
+     * same key: the index and full-text routes ignore case, diacritics and punctuation.
+     *
+     * @param route      the route the search takes
+     * @param searchText the search text
+     * @return the key
+     */
+    static KeywordKey of(SearchRoute route, String searchText) {
+      return switch (route) {
+        case INDEX -> {
+          List<List<String>> groups = SearchIndex.parseQuery(searchText);
+          yield new KeywordKey(route, String.join(" OR ", groups.stream()
+              .map(group -> String.join(" ", group)).toList()),
+              groups.stream().flatMap(List::stream).distinct().toList());
+        }
+        case FULL_TEXT -> {
+          List<String> words = SearchIndex.terms(searchText);
+          yield new KeywordKey(route, String.join(" ", words), words.stream().distinct().toList());
+        }
+        // Lower-cased like the SQL pattern
+        case SUBSTRING -> new KeywordKey(route, searchText.toLowerCase(),
+            List.of(searchText.toLowerCase()));
+      };
+    }
+
+    /**
+     * Returns whether any search word occurs in the texts. This matches a superset of the
+     * entries the search finds, so no write that changes the results is missed.
+     *
+     * @param date  ignored; keyword results do not depend on dates
+     * @param texts the new title and/or content of the entry
+     * @return true if the results must be dropped
+     */
+    @Override
+    public boolean isTouchedBy(LocalDate date, Collection<String> texts) {
+      if (route == SearchRoute.SUBSTRING && (query.contains("%") || query.contains("_"))) {
+        // LIKE wildcards match more than the plain text
+        return !texts.isEmpty();
+      }
+      for (String text : texts) {
+        String normalized = route == SearchRoute.SUBSTRING
+            ? text.toLowerCase()
+            : String.join(" ", SearchIndex.terms(text));
+        for (String word : words) {
+          if (normalized.contains(word)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * A search for the entries created within a date range, inclusive.
+   *
+   * @param start the first date
+   * @param end   the last date
+   */
+  record DateRangeKey(LocalDate start, LocalDate end) implements Key {
+
+    /**
+     * Returns whether an entry created on the date belongs in the range.
+     *
+     * @param date  the creation date of an entry that was created or deleted, or null
+     * @param texts ignored; date results do not depend on the text
+     * @return true if the results must be dropped
+     */
+    @Override
+    public boolean isTouchedBy(LocalDate date, Collection<String> texts) {
+      return date != null && !date.isBefore(start) && !date.isAfter(end);
+    }
+  }
+
+  /**
+   * Cached results.
+   *
+   * @param ids       the IDs of the results, in result order
+   * @param sortedIds the same IDs sorted, to find an entry quickly
+   * @param storedAt  the {@link System#nanoTime()} when the results were stored
+   */
+  private record Cached(List<Long> ids, long[] sortedIds, long storedAt) {
+
+    /**
+     * Returns whether an entry is among the results.
+     *
+     * @param id the entry ID
+     * @return true if the results contain the entry
+     */
+    boolean contains(long id) {
+      return Arrays.binarySearch(sortedIds, id) >= 0;
+    }
+  }
+
+  /**
+   * Creates a cache with the default capacity and maximum age.
+   */
+  public SearchResultCache() {
+    this(DEFAULT_CAPACITY, DEFAULT_MAX_AGE);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param capacity the maximum number of cached results; 0 disables caching
+   * @param maxAge   the time after which results are queried again
+   * @throws IllegalArgumentException if capacity is negative or maxAge is not positive
+   * @throws NullPointerException     if maxAge is null
+   */
+  public SearchResultCache(int capacity, Duration maxAge) {
+    Objects.requireNonNull(maxAge, "Max age cannot be null");
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity cannot be negative");
+    }
+    if (maxAge.isNegative() || maxAge.isZero()) {
+      throw new IllegalArgumentException("Max age must be positive");
+    }
+    this.capacity = capacity;
+    this.maxAgeNanos = maxAge.toNanos();
+    this.results = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Returns the cached results of a query, counting a hit or a miss.
+   *
+   * @param key the query
+   * @return the IDs of the results, or empty if they are not cached
+   */
+  synchronized Optional<List<Long>> get(Key key) {
+    Cached cached = results.get(key);
+    if (cached != null && System.nanoTime() - cached.storedAt() > maxAgeNanos) {
+      results.remove(key);
+      evictions++;
+      cached = null;
+    }
+    if (cached == null) {
+      misses++;
+      return Optional.empty();
+    }
+    hits++;
+    return Optional.of(cached.ids());
+  }
+
+  /**
+   * Returns the current version, to be passed to {@link #put(Key, List, long)} after querying.
+   *
+   * @return a number that changes with every invalidation
+   */
+  synchronized long version() {
+    return version;
+  }
+
+  /**
+   * Stores the results of a query, unless something was invalidated since the query started: the
+   * results could then predate a write they should reflect.
+   *
+   * @param key     the query
+   * @param ids     the IDs of the results, in result order
+   * @param version the {@link #version()} read before the query
+   */
+  synchronized void put(Key key, List<Long> ids, long version) {
+    if (version != this.version || capacity == 0) {
+      return;
+    }
+    long[] sortedIds = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    results.put(key, new Cached(List.copyOf(ids), sortedIds, System.nanoTime()));
+    Iterator<Cached> eldest = results.values().iterator();
+    while (results.size() > capacity) {
+      eldest.next();
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  /**
+   * Drops the results a write to an entry may have changed.
+   *
+   * @param id    the entry ID
+   * @param date  the creation date of the entry if it was created or deleted, or null if only its
+   *              text changed
+   * @param texts the new title and/or content of the entry; empty if it was deleted
+   */
+  synchronized void invalidate(long id, LocalDate date, Collection<String> texts) {
+    version++;
+    Iterator<Map.Entry<Key, Cached>> entries = results.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<Key, Cached> entry = entries.next();
+      if (entry.getValue().contains(id) || entry.getKey().isTouchedBy(date, texts)) {
+        entries.remove();
+        invalidations++;
+      }
+    }
+  }
+
+  /**
+   * Drops every cached result, for bulk changes such as imports.
+   */
+  public synchronized void clear() {
+    version++;
+    invalidations += results.size();
+    results.clear();
+  }
+
+  /**
+   * Returns the hit, miss, eviction and invalidation counts.
+   *
+   * @return the current statistics
+   */
+  public synchronized SearchCacheStatistics getStatistics() {
+    return new SearchCacheStatistics(hits, misses, evictions, invalidations, results.size());
+  }
+}
@@ -1,52 +1,135 @@
 package edu.ntnu.idi.idatt.service;
 
-import edu.ntnu.idi.idatt.model.entities.Author;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import edu.ntnu.idi.idatt.model.projections.AuthorStatistics;
+import edu.ntnu.idi.idatt.model.projections.AuthorStreak;
+import edu.ntnu.idi.idatt.repository.ActivityBucket;
+import edu.ntnu.idi.idatt.repository.ActivityProfile;
+import edu.ntnu.idi.idatt.repository.ActivityRepository;
+import edu.ntnu.idi.idatt.repository.ActivitySeries;
+import edu.ntnu.idi.idatt.repository.CacheStatistics;
+import edu.ntnu.idi.idatt.repository.StatisticsRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
- * Service for computing statistics about diary entries and authors.
+ * Service for statistics about diary entries and authors.
  */
 public class StatisticsService {
 
-  private final AuthorService authorService;
-  private final DiaryEntryService diaryEntryService;
+  private final StatisticsRepository statisticsRepository;
+  private final ActivityRepository activityRepository;
 
   /**
    * Creates a new StatisticsService.
    *
-   * @param authorService      the author service
-   * @param diaryEntryService  the diary entry service
+   * @param statisticsRepository the statistics repository
+   * @param activityRepository   the activity repository
+   * @throws NullPointerException if either repository is null
    */
-  public StatisticsService(AuthorService authorService, DiaryEntryService diaryEntryService) {
-    this.authorService = authorService;
-    this.diaryEntryService = diaryEntryService;
+  public StatisticsService(StatisticsRepository statisticsRepository,
+      ActivityRepository activityRepository) {
+    this.statisticsRepository = Objects.requireNonNull(statisticsRepository,
+        "StatisticsRepository cannot be null");
+    this.activityRepository = Objects.requireNonNull(activityRepository,
+        "ActivityRepository cannot be null");
   }
 
-  public long getTotalAuthors() {
-    return authorService.findAll().size();
+  /**
+   * Returns the entry count of every author, newest author first. The counts are maintained as
+   * entries are written, so this costs one row per author rather than a scan of all entries.
+   *
+   * @return the statistics of every author (never null)
+   */
+  public List<AuthorStatistics> getAuthorStatistics() {
+    return statisticsRepository.findAuthorStatistics();
   }
 
-  public long getTotalEntries() {
-    return diaryEntryService.count();
+  /**
+   * Checks the maintained entry counts against the entries and, if any are wrong, recomputes
+   * them.
+   *
+   * @return the number of authors whose counts were wrong
+   */
+  public long reconcileAuthorStatistics() {
+    long stale = statisticsRepository.verifyAuthorStatistics();
+    if (stale > 0) {
+      statisticsRepository.rebuildAuthorStatistics();
+    }
+    return stale;
   }
 
   /**
-   * Returns a map of authors to their entry count.
-   * Uses a single query to avoid N+1 performance problem.
+   * Checks the activity rollup against the entries and, if it differs, recomputes it.
    *
-   * @return map with author as key and entry count as value
+   * @return the number of rollup rows that were wrong
    */
-  public Map<Author, Long> getEntriesPerAuthor() {
-    // Single query to get all counts grouped by author
-    Map<Long, Long> countsByAuthorId = diaryEntryService.countEntriesGroupedByAuthor();
-    
-    // Build result map with Author objects
-    Map<Author, Long> entriesPerAuthor = new LinkedHashMap<>();
-    for (Author author : authorService.findAll()) {
-      long count = countsByAuthorId.getOrDefault(author.getId(), 0L);
-      entriesPerAuthor.put(author, count);
+  public long reconcileActivity() {
+    long stale = activityRepository.verifyActivity();
+    if (stale > 0) {
+      activityRepository.rebuildActivity();
     }
-    return entriesPerAuthor;
+    return stale;
+  }
+
+  /**
+   * Counts the entries of all authors in each bucket of a date range.
+   *
+   * @param bucket the bucket width
+   * @param from   the first day to count (inclusive)
+   * @param to     the last day to count (inclusive)
+   * @return the series, starting with the bucket containing {@code from}
+   * @throws NullPointerException     if any argument is null
+   * @throws IllegalArgumentException if to is before from
+   */
+  public ActivitySeries getActivitySeries(ActivityBucket bucket, LocalDate from, LocalDate to) {
+    return activityRepository.findSeries(bucket, from, to, null);
+  }
+
+  /**
+   * Counts the entries of all authors in the most recent buckets, up to and including the one
+   * containing today.
+   *
+   * @param bucket  the bucket width
+   * @param buckets the number of buckets
+   * @return the series, oldest bucket first
+   * @throws NullPointerException     if bucket is null
+   * @throws IllegalArgumentException if buckets is not positive
+   */
+  public ActivitySeries getRecentActivity(ActivityBucket bucket, int buckets) {
+    Objects.requireNonNull(bucket, "Bucket cannot be null");
+    if (buckets <= 0) {
+      throw new IllegalArgumentException("Number of buckets must be positive");
+    }
+    LocalDate today = LocalDate.now();
+    return activityRepository.findSeries(bucket, bucket.startAt(today, 1 - buckets), today, null);
+  }
+
+  /**
+   * Returns entry counts per weekday and hour and the word total of all entries.
+   *
+   * @return the activity profile
+   */
+  public ActivityProfile getActivityProfile() {
+    return activityRepository.findProfile(null);
+  }
+
+  /**
+   * Returns the longest run of consecutive writing days of every author.
+   *
+   * @return the streak of every author, longest first (never null)
+   */
+  public List<AuthorStreak> getLongestStreaks() {
+    return activityRepository.findLongestStreaks();
+  }
+
+  /**
+   * Returns the second-level cache hit and miss counts.
+   *
+   * @return the counts, or empty if statistics collection is disabled
+   */
+  public Optional<CacheStatistics> getCacheStatistics() {
+    return statisticsRepository.getCacheStatistics();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The terms of a {@link SearchIndex} by their trigrams, the runs of three characters in a term
+ * padded with two blanks on each side, to find the terms within a few typos of a word. Not
+ * thread-safe.
+ *
+ * <p>One edit changes at most three trigrams, so a term within {@code k} edits of a word has all
+ * but {@code 3k} of the word's trigrams. Only the terms sharing that many trigrams with the word
+ * are compared to it letter by letter, so a lookup reads the term lists of the word's trigrams
+ * instead of the whole vocabulary. Terms are only ever added; a term whose documents are all
+ * removed is dropped when its segment is compacted into a new one.
+ */
+final class TrigramIndex {
+
+  private static final char PAD = '\0';
+
+  private String[] terms = new String[16];
+  private int termCount;
+  private final LongIntHashMap slotsByGram = new LongIntHashMap();
+  private int[][] lists = new int[16][];
+  private int[] listSizes = new int[16];
+  private int listCount;
+
+  /**
+   * A term similar to a searched word.
+   *
+   * @param term     the term
+   * @param distance the number of edits between the word and the term
+   */
+  record Match(String term, int distance) {
+
+    /**
+     * Returns how alike the word and the term are, from 1 for equal down towards 0.
+     *
+     * @param word the searched word
+     * @return one minus the distance relative to the longer of the two
+     */
+    float similarity(String word) {
+      return 1 - (float) distance / Math.max(word.length(), term.length());
+    }
+  }
+
+  /**
+   * Returns the number of terms.
+   *
+   * @return the number of terms added
+   */
+  int size() {
+    return termCount;
+  }
+
+  /**
+   * Adds a term. The caller adds each term once.
+   *
+   * @param term the term, as returned by {@link SearchIndex#terms(String)}
+   */
+  void add(String term) {
+    if (termCount == terms.length) {
+      terms = Arrays.copyOf(terms, termCount * 2);
+    }
+    int number = termCount++;
+    terms[number] = term;
+    for (long gram : grams(term)) {
+      int slot = slotsByGram.get(gram);
+      if (slot < 0) {
+        slot = newList();
+        slotsByGram.put(gram, slot);
+      }
+      if (listSizes[slot] == lists[slot].length) {
+        lists[slot] = Arrays.copyOf(lists[slot], listSizes[slot] * 2);
+      }
+      lists[slot][listSizes[slot]++] = number;
+    }
+  }
+
+  /**
+   * Finds the terms within a number of edits of a word. An edit inserts, deletes or replaces one
+   * character. A term must share at least one trigram with the word, so a very short word
+   * allowed as many edits as it has letters does not match every other short term.
+   *
+   * @param word        the word, as returned by {@link SearchIndex#terms(String)}
+   * @param maxDistance the maximum number of edits
+   * @return the matching terms, in the order they were added
+   */
+  List<Match> similar(String word, int maxDistance) {
+    long[] grams = grams(word);
+    int needed = Math.max(1, grams.length - 3 * maxDistance);
+    LongIntHashMap shared = new LongIntHashMap();
+    int[] candidates = new int[16];
+    int candidateCount = 0;
+    for (long gram : grams) {
+      int slot = slotsByGram.get(gram);
+      if (slot < 0) {
+        continue;
+      }
+      for (int i = 0; i < listSizes[slot]; i++) {
+        int number = lists[slot][i];
+        int count = shared.get(number) + 1;
+        if (count == 0) {
+          count = 1;
+          if (candidateCount == candidates.length) {
+            candidates = Arrays.copyOf(candidates, candidateCount * 2);
+          }
+          candidates[candidateCount++] = number;
+        }
+        shared.put(number, count);
+      }
+    }
+
+    Arrays.sort(candidates, 0, candidateCount);
+    List<Match> matches = new ArrayList<>();
+    for (int i = 0; i < candidateCount; i++) {
+      String term = terms[candidates[i]];
+      if (shared.get(candidates[i]) < needed
+          || Math.abs(term.length() - word.length()) > maxDistance) {
+        continue;
+      }
+      int distance = distance(word, term, maxDistance);
+      if (distance <= maxDistance) {
+        matches.add(new Match(term, distance));
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Returns a new, empty term list.
+   *
+   * @return the slot of the list
+   */
+  private int newList() {
+    if (listCount == lists.length) {
+      lists = Arrays.copyOf(lists, listCount * 2);
+      listSizes = Arrays.copyOf(listSizes, listCount * 2);
+    }
+    lists[listCount] = new int[2];
+    return listCount++;
+  }
+
+  /**
+   * Returns the distinct trigrams of a term, each packed into a long.
+   *
+   * @param term the term
+   * @return the trigrams
+   */
+  static long[] grams(String term) {
+    String padded = "" + PAD + PAD + term + PAD + PAD;
+    long[] grams = new long[padded.length() - 2];
+    for (int i = 0; i < grams.length; i++) {
+      grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16)
+          | padded.charAt(i + 2);
+    }
+    // A repeated trigram counts once for the word, as it does in the term lists
+    return Arrays.stream(grams).distinct().toArray();
+  }
+
+  /**
+   * Returns the number of edits between two strings, stopping early once it exceeds a bound.
+   *
+   * @param a     the first string
+   * @param b     the second string
+   * @param bound the largest distance of interest
+   * @return the distance, or {@code bound + 1} if it is larger than the bound
+   */
+  static int distance(String a, String b, int bound) {
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      int rowMinimum = i;
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+        rowMinimum = Math.min(rowMinimum, current[j]);
+      }
+      if (rowMinimum > bound) {
+        return bound + 1;
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return Math.min(previous[b.length()], bound + 1);
+  }
+}
@@ -0,0 +1,60 @@
+package edu.ntnu.idi.idatt.service;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks from 0 to n - 1 with probability proportional to {@code 1 / (rank + 1)^s}.
+ * Sampling is a binary search in the precomputed cumulative distribution.
+ */
+final class ZipfDistribution {
+
+  private final double[] cumulative;
+
+  /**
+   * Creates the distribution.
+   *
+   * @param n        the number of ranks
+   * @param exponent the exponent s; 0 gives a uniform distribution
+   * @throws IllegalArgumentException if n is not positive or exponent is negative
+   */
+  ZipfDistribution(int n, double exponent) {
+    if (n <= 0) {
+      throw new IllegalArgumentException("Number of ranks must be positive");
+    }
+    if (exponent < 0) {
+      throw new IllegalArgumentException("Exponent cannot be negative");
+    }
+    cumulative = new double[n];
+    double sum = 0;
+    for (int rank = 0; rank < n; rank++) {
+      sum += 1 / Math.pow(rank + 1, exponent);
+      cumulative[rank] = sum;
+    }
+    for (int rank = 0; rank < n; rank++) {
+      cumulative[rank] /= sum;
+    }
+  }
+
+  /**
+   * Returns the probability of a rank.
+   *
+   * @param rank the rank
+   * @return the probability
+   */
+  double probability(int rank) {
+    return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+  }
+
+  /**
+   * Draws a rank.
+   *
+   * @param random the source of randomness
+   * @return a rank from 0 to n - 1
+   */
+  int sample(RandomGenerator random) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    int rank = index >= 0 ? index : -index - 1;
+    return Math.min(rank, cumulative.length - 1);
+  }
+}
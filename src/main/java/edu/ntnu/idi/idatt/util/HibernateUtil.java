@@ -1,26 +1,42 @@
 package edu.ntnu.idi.idatt.util;
 
 import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.logging.LogManager;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
 
 /**
  * Utility class for Hibernate SessionFactory management.
+ *
+ * <p>Settings are read from {@code hibernate.cfg.xml}. Any {@code hibernate.*} system property
+ * overrides the value from the file, so pool size and SQLite pragmas can be tuned at launch, e.g.
+ * {@code -Dhibernate.hikari.dataSource.synchronous=FULL}.
+ *
+ * <p>The schema is not generated by Hibernate. Every new SessionFactory is first brought up to
+ * date by {@link SchemaMigrator}.
+ *
+ * <p>Building the SessionFactory takes a few seconds. The application starts it in the background
+ * with {@link #startBootstrap(Consumer)} and wires its repositories with
+ * {@link #getDeferredSessionFactory()}, so the menus render right away and only the first query
+ * waits for the database.
  */
 public final class HibernateUtil {
 
-  private static final SessionFactory SESSION_FACTORY;
+  private static final String PROPERTY_PREFIX = "hibernate.";
+
+  private static CompletableFuture<SessionFactory> bootstrap;
 
   static {
     silenceLogging();
-
-    try {
-      SESSION_FACTORY = new Configuration().configure().buildSessionFactory();
-    } catch (Exception e) {
-      System.err.println("SessionFactory creation failed: " + e.getMessage());
-      throw new ExceptionInInitializerError(e);
-    }
   }
 
   private HibernateUtil() {
@@ -44,20 +60,186 @@ public final class HibernateUtil {
   }
 
   /**
-   * Returns the singleton SessionFactory instance.
+   * Reads {@code hibernate.cfg.xml} and applies every {@code hibernate.*} entry of the given
+   * properties on top of it.
+   *
+   * @param overrides the properties to apply, typically the system properties
+   * @return the configuration, ready to build a SessionFactory from
+   */
+  static Configuration createConfiguration(Properties overrides) {
+    Configuration configuration = new Configuration().configure();
+    for (String name : overrides.stringPropertyNames()) {
+      if (name.startsWith(PROPERTY_PREFIX)) {
+        configuration.setProperty(name, overrides.getProperty(name));
+      }
+    }
+    return configuration;
+  }
+
+  /**
+   * Builds a SessionFactory from {@link #createConfiguration(Properties)} and migrates its
+   * database to the latest schema version. The duration of each step is recorded in the
+   * {@link StartupReport}.
+   *
+   * @param overrides the properties to apply, typically the system properties
+   * @return the SessionFactory, with an up-to-date schema
+   */
+  static SessionFactory buildSessionFactory(Properties overrides) {
+    long start = StartupReport.now();
+    Configuration configuration = createConfiguration(overrides);
+    StartupReport.record("Configuration", start);
+
+    start = StartupReport.now();
+    SessionFactory factory = configuration.buildSessionFactory();
+    StartupReport.record("Metadata build", start);
+
+    start = StartupReport.now();
+    try {
+      new SchemaMigrator(factory).migrate();
+    } catch (RuntimeException e) {
+      factory.close();
+      throw e;
+    }
+    StartupReport.record("Schema check", start);
+    return factory;
+  }
+
+  /**
+   * Starts building the SessionFactory on a background virtual thread and returns immediately.
+   * The initializer runs on the same thread once the schema is up to date, and the factory is
+   * only handed out after it has finished. Does nothing if the SessionFactory is already built
+   * or being built.
+   *
+   * @param initializer the setup to run on the new SessionFactory before it is used, e.g.
+   *                    creating feature tables
+   * @throws NullPointerException if initializer is null
+   */
+  public static synchronized void startBootstrap(Consumer<SessionFactory> initializer) {
+    Objects.requireNonNull(initializer, "Initializer cannot be null");
+    if (bootstrap != null) {
+      return;
+    }
+    CompletableFuture<SessionFactory> future = new CompletableFuture<>();
+    Thread.ofVirtual().name("hibernate-bootstrap").start(() -> {
+      try {
+        SessionFactory factory = buildSessionFactory(System.getProperties());
+        try {
+          initializer.accept(factory);
+        } catch (RuntimeException e) {
+          factory.close();
+          throw e;
+        }
+        future.complete(factory);
+      } catch (Throwable e) {
+        future.completeExceptionally(e);
+      }
+    });
+    bootstrap = future;
+  }
+
+  /**
+   * Returns the singleton SessionFactory instance. Waits for a bootstrap started with
+   * {@link #startBootstrap(Consumer)}, or builds the SessionFactory on the calling thread if none
+   * was started.
    *
    * @return the SessionFactory
+   * @throws IllegalStateException if the SessionFactory cannot be created
    */
   public static SessionFactory getSessionFactory() {
-    return SESSION_FACTORY;
+    CompletableFuture<SessionFactory> future;
+    synchronized (HibernateUtil.class) {
+      if (bootstrap == null) {
+        try {
+          bootstrap = CompletableFuture.completedFuture(
+              buildSessionFactory(System.getProperties()));
+        } catch (Exception e) {
+          System.err.println("SessionFactory creation failed: " + e.getMessage());
+          throw new IllegalStateException("SessionFactory creation failed", e);
+        }
+      }
+      future = bootstrap;
+    }
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      System.err.println("SessionFactory creation failed: " + e.getCause().getMessage());
+      throw new IllegalStateException("SessionFactory creation failed", e.getCause());
+    }
+  }
+
+  /**
+   * Returns a SessionFactory that resolves the real one on first use. Objects can be wired with it
+   * while a bootstrap is still running; the first call on it waits for
+   * {@link #getSessionFactory()}, and later calls go straight to the real SessionFactory.
+   *
+   * @return the deferred SessionFactory
+   */
+  public static SessionFactory getDeferredSessionFactory() {
+    return (SessionFactory) Proxy.newProxyInstance(HibernateUtil.class.getClassLoader(),
+        new Class<?>[] {SessionFactory.class}, new DeferredSessionFactory());
+  }
+
+  /**
+   * Forwards calls to the singleton SessionFactory, resolving it on the first call.
+   */
+  private static final class DeferredSessionFactory implements InvocationHandler {
+
+    private volatile SessionFactory target;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == Object.class) {
+        return switch (method.getName()) {
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> "DeferredSessionFactory";
+        };
+      }
+      try {
+        return method.invoke(resolve(), args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+
+    /**
+     * Returns the real SessionFactory, waiting for it on the first call.
+     *
+     * @return the SessionFactory
+     */
+    private SessionFactory resolve() {
+      SessionFactory factory = target;
+      if (factory == null) {
+        synchronized (this) {
+          factory = target;
+          if (factory == null) {
+            long start = StartupReport.now();
+            factory = getSessionFactory();
+            StartupReport.record("First query wait", start);
+            target = factory;
+          }
+        }
+      }
+      return factory;
+    }
   }
 
   /**
-   * Closes the SessionFactory and releases all resources. Safe to call multiple times.
+   * Closes the SessionFactory and releases all resources, waiting for a running bootstrap to
+   * finish first. Safe to call multiple times.
    */
   public static synchronized void shutdown() {
-    if (SESSION_FACTORY != null && !SESSION_FACTORY.isClosed()) {
-      SESSION_FACTORY.close();
+    if (bootstrap == null) {
+      return;
+    }
+    SessionFactory sessionFactory;
+    try {
+      sessionFactory = bootstrap.join();
+    } catch (CompletionException e) {
+      return;
+    }
+    if (!sessionFactory.isClosed()) {
+      sessionFactory.close();
     }
   }
 }
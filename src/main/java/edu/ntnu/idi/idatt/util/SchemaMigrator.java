@@ -0,0 +1,274 @@
+package edu.ntnu.idi.idatt.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+/**
+ * Brings the database schema up to date by applying versioned SQL scripts, replacing Hibernate's
+ * schema update.
+ *
+ * <p>Scripts live in {@value #LOCATION} and are named {@code V<version>__<description>.sql}. Each
+ * one runs in its own transaction and is then recorded in the {@value #VERSION_TABLE} table with a
+ * checksum, so it is applied exactly once per database. A script that was changed after it was
+ * applied, or a database migrated by a newer version of the application, is reported as an error
+ * rather than silently ignored.
+ *
+ * <p>Statements in a script end with a semicolon at the end of a line. Lines starting with
+ * {@code --} are comments.
+ */
+public final class SchemaMigrator {
+
+  static final String LOCATION = "db/migration/";
+  static final String VERSION_TABLE = "schema_version";
+
+  /**
+   * The scripts to apply, in version order. Add new scripts at the end.
+   */
+  static final List<String> SCRIPTS = List.of(
+      "V1__create_tables.sql",
+      "V2__add_listing_indexes.sql",
+      "V3__add_versions.sql");
+
+  private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+  private final SessionFactory sessionFactory;
+  private final List<String> scripts;
+
+  /**
+   * Creates a new SchemaMigrator for the application's scripts.
+   *
+   * @param sessionFactory the SessionFactory of the database to migrate
+   * @throws NullPointerException if sessionFactory is null
+   */
+  public SchemaMigrator(SessionFactory sessionFactory) {
+    this(sessionFactory, SCRIPTS);
+  }
+
+  /**
+   * Creates a new SchemaMigrator for the given scripts.
+   *
+   * @param sessionFactory the SessionFactory of the database to migrate
+   * @param scripts        the script names below {@value #LOCATION}, in version order
+   * @throws NullPointerException if any argument is null
+   */
+  SchemaMigrator(SessionFactory sessionFactory, List<String> scripts) {
+    this.sessionFactory = Objects.requireNonNull(sessionFactory, "SessionFactory cannot be null");
+    this.scripts = List.copyOf(Objects.requireNonNull(scripts, "Scripts cannot be null"));
+  }
+
+  /**
+   * A migration script.
+   *
+   * @param version     the version the script migrates to
+   * @param description the description from the file name
+   * @param sql         the script text
+   */
+  record Migration(int version, String description, String sql) {
+
+    /**
+     * Returns the checksum stored with the version.
+     *
+     * @return the CRC32 of the script text
+     */
+    long checksum() {
+      CRC32 crc = new CRC32();
+      crc.update(sql.getBytes(StandardCharsets.UTF_8));
+      return crc.getValue();
+    }
+
+    /**
+     * Splits the script into statements.
+     *
+     * @return the statements, without the terminating semicolons
+     */
+    List<String> statements() {
+      List<String> statements = new ArrayList<>();
+      StringBuilder current = new StringBuilder();
+      for (String line : sql.split("\\R")) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+          continue;
+        }
+        if (trimmed.endsWith(";")) {
+          current.append(trimmed, 0, trimmed.length() - 1);
+          statements.add(current.toString());
+          current.setLength(0);
+        } else {
+          current.append(trimmed).append(' ');
+        }
+      }
+      if (!current.isEmpty()) {
+        throw new IllegalStateException("Unterminated statement in migration: " + current);
+      }
+      return statements;
+    }
+  }
+
+  /**
+   * Applies every script not yet recorded in the version table.
+   *
+   * @return the number of scripts applied
+   * @throws IllegalStateException if a script is missing or malformed, an applied script has
+   *                               changed, or the database has versions this application does
+   *                               not know
+   */
+  public int migrate() {
+    List<Migration> migrations = load();
+    Map<Integer, Long> applied = executeInTransaction(session -> {
+      session.createNativeMutationQuery("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " ("
+              + "version INTEGER PRIMARY KEY, description TEXT NOT NULL, "
+              + "checksum INTEGER NOT NULL, installed_at INTEGER NOT NULL)")
+          .executeUpdate();
+      return appliedVersions(session);
+    });
+
+    int latest = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+    for (int version : applied.keySet()) {
+      if (version > latest) {
+        throw new IllegalStateException("Database schema version " + version
+            + " is newer than this application supports (" + latest + ")");
+      }
+    }
+
+    int count = 0;
+    for (Migration migration : migrations) {
+      Long checksum = applied.get(migration.version());
+      if (checksum != null) {
+        if (checksum != migration.checksum()) {
+          throw new IllegalStateException("Migration V" + migration.version()
+              + " has changed since it was applied");
+        }
+        continue;
+      }
+      executeInTransaction(session -> {
+        session.doWork(connection -> apply(connection, migration));
+        return null;
+      });
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Reads the scripts from the classpath and checks their order.
+   *
+   * @return the migrations in version order
+   * @throws IllegalStateException if a script is missing, misnamed or out of order
+   */
+  private List<Migration> load() {
+    List<Migration> migrations = new ArrayList<>();
+    for (String name : scripts) {
+      Matcher matcher = SCRIPT_NAME.matcher(name);
+      if (!matcher.matches()) {
+        throw new IllegalStateException("Invalid migration name: " + name);
+      }
+      int version = Integer.parseInt(matcher.group(1));
+      if (!migrations.isEmpty() && migrations.get(migrations.size() - 1).version() >= version) {
+        throw new IllegalStateException("Migration " + name + " is out of order");
+      }
+      migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), read(name)));
+    }
+    return migrations;
+  }
+
+  /**
+   * Reads a script from the classpath.
+   *
+   * @param name the script name
+   * @return the script text
+   * @throws IllegalStateException if the script does not exist
+   */
+  private static String read(String name) {
+    try (InputStream stream = SchemaMigrator.class.getClassLoader()
+        .getResourceAsStream(LOCATION + name)) {
+      if (stream == null) {
+        throw new IllegalStateException("Migration not found on classpath: " + LOCATION + name);
+      }
+      return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read migration " + name, e);
+    }
+  }
+
+  /**
+   * Reads the applied versions and their checksums.
+   *
+   * @param session the session to read in
+   * @return the checksum of every applied version
+   */
+  private static Map<Integer, Long> appliedVersions(Session session) {
+    List<Object[]> rows = session.createNativeQuery(
+            "SELECT version, checksum FROM " + VERSION_TABLE, Object[].class)
+        .list();
+    Map<Integer, Long> applied = new HashMap<>();
+    for (Object[] row : rows) {
+      applied.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+    }
+    return applied;
+  }
+
+  /**
+   * Runs the statements of a script and records its version.
+   *
+   * @param connection the connection of the current transaction
+   * @param migration  the migration to apply
+   * @throws SQLException if a statement fails
+   */
+  private static void apply(Connection connection, Migration migration) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (String sql : migration.statements()) {
+        statement.execute(sql);
+      }
+    }
+    try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + VERSION_TABLE
+        + " (version, description, checksum, installed_at) VALUES (?, ?, ?, ?)")) {
+      insert.setInt(1, migration.version());
+      insert.setString(2, migration.description());
+      insert.setLong(3, migration.checksum());
+      insert.setLong(4, System.currentTimeMillis());
+      insert.executeUpdate();
+    }
+  }
+
+  /**
+   * Executes an operation within a transaction, handling commit and rollback.
+   *
+   * @param operation the operation to execute
+   * @param <T>       the return type
+   * @return the result of the operation
+   */
+  private <T> T executeInTransaction(Function<Session, T> operation) {
+    try (Session session = sessionFactory.openSession()) {
+      Transaction transaction = session.beginTransaction();
+      try {
+        T result = operation.apply(session);
+        transaction.commit();
+        return result;
+      } catch (RuntimeException e) {
+        // Roll back before the session is closed; a failed commit may have done so already
+        if (transaction.isActive()) {
+          transaction.rollback();
+        }
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package edu.ntnu.idi.idatt.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collects the duration of each startup phase, so slow startups can be broken down with
+ * {@code --startup-report}. Phases may be recorded from any thread.
+ *
+ * <p>Times are measured in milliseconds since the JVM started, which makes the time spent before
+ * {@code main} (JVM startup and class loading) visible as well.
+ */
+public final class StartupReport {
+
+  private static final List<Phase> PHASES = new ArrayList<>();
+
+  private StartupReport() {
+    // Prevent instantiation
+  }
+
+  /**
+   * A recorded startup phase.
+   *
+   * @param name     the phase name
+   * @param thread   the name of the thread the phase ran on
+   * @param start    the start, in milliseconds since the JVM started
+   * @param duration the duration in milliseconds
+   */
+  public record Phase(String name, String thread, long start, long duration) {
+  }
+
+  /**
+   * Returns the time since the JVM started.
+   *
+   * @return the JVM uptime in milliseconds
+   */
+  public static long now() {
+    return ManagementFactory.getRuntimeMXBean().getUptime();
+  }
+
+  /**
+   * Records a phase that started at the given time and ends now, on the current thread.
+   *
+   * @param name  the phase name
+   * @param start the start, as returned by {@link #now()}
+   */
+  public static void record(String name, long start) {
+    Thread thread = Thread.currentThread();
+    String threadName = thread.getName().isEmpty()
+        ? (thread.isVirtual() ? "virtual" : "unnamed") : thread.getName();
+    Phase phase = new Phase(name, threadName, start, now() - start);
+    synchronized (PHASES) {
+      PHASES.add(phase);
+    }
+  }
+
+  /**
+   * Returns the recorded phases in order of their start.
+   *
+   * @return a copy of the recorded phases
+   */
+  public static List<Phase> phases() {
+    synchronized (PHASES) {
+      return PHASES.stream().sorted(Comparator.comparingLong(Phase::start)).toList();
+    }
+  }
+
+  /**
+   * Formats the recorded phases as a table.
+   *
+   * @return the report, ending with a line break
+   */
+  public static String format() {
+    StringBuilder report = new StringBuilder("Startup report (ms since JVM start)\n");
+    report.append(String.format("  %-24s %-20s %8s %9s%n", "Phase", "Thread", "Start",
+        "Duration"));
+    for (Phase phase : phases()) {
+      report.append(String.format("  %-24s %-20s %8d %9d%n", phase.name(), phase.thread(),
+          phase.start(), phase.duration()));
+    }
+    report.append(String.format("  Classes loaded: %d%n",
+        ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount()));
+    return report.toString();
+  }
+}
@@ -22,7 +22,7 @@ public class AuthorMenuView implements BaseView {
     // Menu options
     ConsoleFormatter.menuItem("1", "List all authors", out);
     ConsoleFormatter.menuItem("2", "Create author", out);
-    ConsoleFormatter.menuItem("3", "Find by email", out);
+    ConsoleFormatter.menuItem("3", "Find by name or email", out);
 
     // Navigation
     ConsoleFormatter.dangerItem("b", "Back", out);
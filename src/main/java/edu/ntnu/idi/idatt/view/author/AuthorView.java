@@ -58,4 +58,15 @@ public class AuthorView implements BaseView {
   public void showDeleted(PrintStream out) {
     showSuccess("Author deleted.", out);
   }
-}
\ No newline at end of file
+
+  /**
+   * Shows a message when the author was changed or deleted by someone else before the delete.
+   *
+   * @param out the output stream
+   */
+  public void showDeleteConflict(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showWarning("This author was changed or deleted by someone else since it was opened.", out);
+    showWarning("It was not deleted.", out);
+  }
+}
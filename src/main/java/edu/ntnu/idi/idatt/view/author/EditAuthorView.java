@@ -67,5 +67,16 @@ public class EditAuthorView implements BaseView {
     out.print(AnsiColors.RESET);
     showInfo("No changes made.", out);
   }
-}
 
+  /**
+   * Shows a message when the author was changed or deleted by someone else while it was edited.
+   *
+   * @param out the output stream
+   */
+  public void showConflict(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showWarning("This author was changed or deleted by someone else while you were editing it.",
+        out);
+    showWarning("Your changes were not saved. The author will be reloaded.", out);
+  }
+}
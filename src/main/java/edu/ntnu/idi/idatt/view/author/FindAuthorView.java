@@ -1,12 +1,14 @@
 package edu.ntnu.idi.idatt.view.author;
 
+import edu.ntnu.idi.idatt.model.entities.Author;
 import edu.ntnu.idi.idatt.view._components.AnsiColors;
 import edu.ntnu.idi.idatt.view._components.BaseView;
 import edu.ntnu.idi.idatt.view._components.ConsoleFormatter;
 import java.io.PrintStream;
+import java.util.List;
 
 /**
- * View for finding an author by email.
+ * View for finding an author by name or email.
  */
 public class FindAuthorView implements BaseView {
 
@@ -20,28 +22,45 @@ public class FindAuthorView implements BaseView {
     ConsoleFormatter.title("Find Author", out);
 
     // Instructions
-    out.println("Enter an email to search (leave empty to cancel).");
+    out.println("Enter the start of a name or email to search (leave empty to cancel).");
+    out.println("Enter the number of a match to open it.");
     out.println();
   }
 
   /**
-   * Prompts for email input.
+   * Prompts for a name, email or match number.
    *
    * @param out the output stream
    */
-  public void promptEmail(PrintStream out) {
-    out.print(AnsiColors.RESET + "Email: " + AnsiColors.CYAN);
+  public void promptQuery(PrintStream out) {
+    out.print(AnsiColors.RESET + "Name, email or #: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Renders the authors matching the typed text.
+   *
+   * @param authors the matching authors
+   * @param out     the output stream
+   */
+  public void showMatches(List<Author> authors, PrintStream out) {
+    out.println(AnsiColors.RESET);
+
+    int index = 1;
+    for (Author author : authors) {
+      ConsoleFormatter.menuItem(String.valueOf(index++), author.toDisplayString(), out);
+    }
+    out.println();
   }
 
   /**
    * Shows a message when no author is found.
    *
-   * @param email the email that was searched
+   * @param query the text that was searched
    * @param out   the output stream
    */
-  public void showNotFound(String email, PrintStream out) {
+  public void showNotFound(String query, PrintStream out) {
     out.print(AnsiColors.RESET);
-    showWarning("No author found with email: " + email, out);
+    showWarning("No author name or email starts with: " + query, out);
   }
 }
 
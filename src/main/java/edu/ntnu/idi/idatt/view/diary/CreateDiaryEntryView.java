@@ -36,19 +36,30 @@ public class CreateDiaryEntryView implements BaseView {
   }
 
   /**
-   * Renders the author selection list.
+   * Shows how to pick an author.
    *
-   * @param authors the list of available authors
+   * @param out the output stream
+   */
+  public void showAuthorInstructions(PrintStream out) {
+    out.println(AnsiColors.RESET);
+    out.println("Type the start of an author's name or email to narrow down the list,");
+    out.println("then enter the number of the author.");
+  }
+
+  /**
+   * Renders the authors matching the typed text.
+   *
+   * @param authors the matching authors
    * @param out     the output stream
    */
   public void showAuthorSelection(List<Author> authors, PrintStream out) {
     out.println(AnsiColors.RESET);
     out.println("Select an author:");
 
-    // List available authors
+    // List matching authors
     int index = 1;
     for (Author author : authors) {
-      ConsoleFormatter.menuItem(String.valueOf(index++), author.getFullName(), out);
+      ConsoleFormatter.menuItem(String.valueOf(index++), author.toDisplayString(), out);
     }
     out.println();
   }
@@ -59,7 +70,18 @@ public class CreateDiaryEntryView implements BaseView {
    * @param out the output stream
    */
   public void promptAuthor(PrintStream out) {
-    out.print(AnsiColors.RESET + "Author #: " + AnsiColors.CYAN);
+    out.print(AnsiColors.RESET + "Author # or name: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Shows message when no author matches the typed text.
+   *
+   * @param prefix the typed text
+   * @param out    the output stream
+   */
+  public void showNoMatchingAuthors(String prefix, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showWarning("No author name or email starts with: " + prefix, out);
   }
 
   /**
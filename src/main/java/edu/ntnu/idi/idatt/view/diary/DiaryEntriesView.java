@@ -23,6 +23,8 @@ public class DiaryEntriesView implements BaseView {
     ConsoleFormatter.menuItem("1", "List All Entries", out);
     ConsoleFormatter.menuItem("2", "Create Entry", out);
     ConsoleFormatter.menuItem("3", "Search Entries [...]", out);
+    ConsoleFormatter.menuItem("4", "Export Entries", out);
+    ConsoleFormatter.menuItem("5", "Import Entries", out);
 
     // Navigation
     ConsoleFormatter.dangerItem("b", "Back", out);
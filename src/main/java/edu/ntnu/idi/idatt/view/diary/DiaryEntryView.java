@@ -106,4 +106,15 @@ public class DiaryEntryView implements BaseView {
   public void showDeleted(PrintStream out) {
     showSuccess("Entry deleted.", out);
   }
+
+  /**
+   * Shows a message when the entry was changed or deleted by someone else before the delete.
+   *
+   * @param out the output stream
+   */
+  public void showDeleteConflict(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showWarning("This entry was changed or deleted by someone else since it was opened.", out);
+    showWarning("It was not deleted.", out);
+  }
 }
\ No newline at end of file
@@ -79,4 +79,35 @@ public class EditDiaryEntryView implements BaseView {
     out.print(AnsiColors.RESET);
     showInfo("No changes made.", out);
   }
+
+  /**
+   * Shows a message when the entry was changed or deleted by someone else while it was edited.
+   *
+   * @param out the output stream
+   */
+  public void showConflict(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showWarning("This entry was changed or deleted by someone else while you were editing it.",
+        out);
+    showWarning("Your changes were not saved.", out);
+  }
+
+  /**
+   * Prompts whether to reload the entry and edit it again.
+   *
+   * @param out the output stream
+   */
+  public void promptReload(PrintStream out) {
+    out.print("Reload the entry and edit it again? (Y/n): " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Shows a message when the entry being edited no longer exists.
+   *
+   * @param out the output stream
+   */
+  public void showDeleted(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("The entry has been deleted.", out);
+  }
 }
@@ -0,0 +1,155 @@
+package edu.ntnu.idi.idatt.view.diary;
+
+import edu.ntnu.idi.idatt.service.ExportReport;
+import edu.ntnu.idi.idatt.view._components.AnsiColors;
+import edu.ntnu.idi.idatt.view._components.BaseView;
+import edu.ntnu.idi.idatt.view._components.ConsoleFormatter;
+import java.io.PrintStream;
+
+/**
+ * View for exporting diary entries to a file.
+ */
+public class ExportEntriesView implements BaseView {
+
+  /**
+   * Renders the export form header.
+   *
+   * @param out the output stream
+   */
+  public void render(PrintStream out) {
+    out.println(AnsiColors.CLEAR_SCREEN);
+    ConsoleFormatter.title("Export Entries", out);
+
+    // Instructions
+    out.println("Write entries to an NDJSON or CSV file. Files ending in .gz are compressed.");
+    out.println();
+    ConsoleFormatter.menuItem("1", "NDJSON (one JSON object per line)", out);
+    ConsoleFormatter.menuItem("2", "CSV", out);
+    out.println();
+    out.println("Leave the format or file empty to cancel.");
+    out.println();
+  }
+
+  /**
+   * Prompts for the file format.
+   *
+   * @param out the output stream
+   */
+  public void promptFormat(PrintStream out) {
+    out.print(AnsiColors.RESET + "Format #: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Prompts for the target file.
+   *
+   * @param suggestion an example file name for the chosen format
+   * @param out        the output stream
+   */
+  public void promptFile(String suggestion, PrintStream out) {
+    out.print(AnsiColors.RESET + "File (e.g. " + suggestion + "): " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Explains the optional filters.
+   *
+   * @param out the output stream
+   */
+  public void showFilterInstructions(PrintStream out) {
+    out.println(AnsiColors.RESET);
+    out.println("Optional filters, leave empty to include everything.");
+    out.println("Dates use the format DD-MM-YYYY (e.g. 05-12-2025).");
+  }
+
+  /**
+   * Prompts for the author email filter.
+   *
+   * @param out the output stream
+   */
+  public void promptAuthorEmail(PrintStream out) {
+    out.print(AnsiColors.RESET + "Author email: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Prompts for the start date filter.
+   *
+   * @param out the output stream
+   */
+  public void promptStartDate(PrintStream out) {
+    out.print(AnsiColors.RESET + "From date: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Prompts for the end date filter.
+   *
+   * @param out the output stream
+   */
+  public void promptEndDate(PrintStream out) {
+    out.print(AnsiColors.RESET + "To date: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Shows message when no author has the given email.
+   *
+   * @param email the email that was entered
+   * @param out   the output stream
+   */
+  public void showAuthorNotFound(String email, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("No author found with email: " + email, out);
+  }
+
+  /**
+   * Shows message for invalid date format.
+   *
+   * @param out the output stream
+   */
+  public void showInvalidDateFormat(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("Invalid date format. Use DD-MM-YYYY (e.g. 05-12-2025)", out);
+  }
+
+  /**
+   * Shows message when end date is before start date.
+   *
+   * @param out the output stream
+   */
+  public void showEndDateBeforeStart(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("To date cannot be before from date.", out);
+  }
+
+  /**
+   * Shows intermediate progress of a running export.
+   *
+   * @param report the progress so far
+   * @param out    the output stream
+   */
+  public void showProgress(ExportReport report, PrintStream out) {
+    out.printf("%sExported %,d entries (%,.0f entries/s)...%n", AnsiColors.RESET, report.rows(),
+        report.rowsPerSecond());
+  }
+
+  /**
+   * Shows the outcome of a finished export.
+   *
+   * @param report the final report
+   * @param file   the file that was written
+   * @param out    the output stream
+   */
+  public void showExported(ExportReport report, String file, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showSuccess(String.format("Exported %,d entries to %s in %.1f s (%,.0f entries/s).",
+        report.rows(), file, report.elapsed().toMillis() / 1000.0, report.rowsPerSecond()), out);
+  }
+
+  /**
+   * Shows message when the file could not be written.
+   *
+   * @param message the error detail
+   * @param out     the output stream
+   */
+  public void showExportFailed(String message, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("Export failed: " + message, out);
+  }
+}
@@ -0,0 +1,109 @@
+package edu.ntnu.idi.idatt.view.diary;
+
+import edu.ntnu.idi.idatt.service.ImportReport;
+import edu.ntnu.idi.idatt.view._components.AnsiColors;
+import edu.ntnu.idi.idatt.view._components.BaseView;
+import edu.ntnu.idi.idatt.view._components.ConsoleFormatter;
+import java.io.PrintStream;
+
+/**
+ * View for importing diary entries from a file.
+ */
+public class ImportEntriesView implements BaseView {
+
+  /**
+   * Renders the import form header.
+   *
+   * @param out the output stream
+   */
+  public void render(PrintStream out) {
+    out.println(AnsiColors.CLEAR_SCREEN);
+    ConsoleFormatter.title("Import Entries", out);
+
+    // Instructions
+    out.println("Read entries from an NDJSON or CSV file, such as one made by Export Entries.");
+    out.println("Gzip-compressed files are detected automatically. Authors are matched by email");
+    out.println("and created if they do not exist yet.");
+    out.println();
+    ConsoleFormatter.menuItem("1", "NDJSON (one JSON object per line)", out);
+    ConsoleFormatter.menuItem("2", "CSV", out);
+    out.println();
+    out.println("Leave the format or file empty to cancel.");
+    out.println();
+  }
+
+  /**
+   * Prompts for the file format.
+   *
+   * @param out the output stream
+   */
+  public void promptFormat(PrintStream out) {
+    out.print(AnsiColors.RESET + "Format #: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Prompts for the source file.
+   *
+   * @param out the output stream
+   */
+  public void promptFile(PrintStream out) {
+    out.print(AnsiColors.RESET + "File: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Shows message when the file does not exist.
+   *
+   * @param file the file that was entered
+   * @param out  the output stream
+   */
+  public void showFileNotFound(String file, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("File not found: " + file, out);
+  }
+
+  /**
+   * Shows intermediate progress of a running import.
+   *
+   * @param report the progress so far
+   * @param out    the output stream
+   */
+  public void showProgress(ImportReport report, PrintStream out) {
+    out.printf("%sImported %,d entries (%,.0f entries/s)...%n", AnsiColors.RESET,
+        report.imported(), report.rowsPerSecond());
+  }
+
+  /**
+   * Shows the outcome of a finished import, including the first rejected records.
+   *
+   * @param report the final report
+   * @param out    the output stream
+   */
+  public void showImported(ImportReport report, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showSuccess(String.format("Imported %,d entries in %.1f s (%,.0f entries/s).",
+        report.imported(), report.elapsed().toMillis() / 1000.0, report.rowsPerSecond()), out);
+    if (report.authorsCreated() > 0) {
+      showInfo(String.format("Created %,d new authors.", report.authorsCreated()), out);
+    }
+    if (report.rejected() > 0) {
+      showWarning(String.format("Skipped %,d invalid records:", report.rejected()), out);
+      for (String error : report.errors()) {
+        out.println("  " + error);
+      }
+      if (report.rejected() > report.errors().size()) {
+        out.println("  ...");
+      }
+    }
+  }
+
+  /**
+   * Shows message when the file could not be read.
+   *
+   * @param message the error detail
+   * @param out     the output stream
+   */
+  public void showImportFailed(String message, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("Import failed: " + message, out);
+  }
+}
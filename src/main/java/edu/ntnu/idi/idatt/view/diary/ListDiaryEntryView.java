@@ -1,6 +1,7 @@
 package edu.ntnu.idi.idatt.view.diary;
 
-import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
+import edu.ntnu.idi.idatt.repository.Page;
 import edu.ntnu.idi.idatt.view._components.AnsiColors;
 import edu.ntnu.idi.idatt.view._components.BaseView;
 import edu.ntnu.idi.idatt.view._components.ConsoleFormatter;
@@ -16,33 +17,27 @@ public class ListDiaryEntryView implements BaseView {
   private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy");
 
   /**
-   * Renders the list of diary entries.
+   * Renders one page of all diary entries.
    *
-   * @param entries the list of entries to display
-   * @param out     the output stream
+   * @param page the page of entries to display
+   * @param out  the output stream
    */
-  public void render(List<DiaryEntry> entries, PrintStream out) {
+  public void render(Page<DiaryEntrySummary> page, PrintStream out) {
     out.println(AnsiColors.CLEAR_SCREEN);
     ConsoleFormatter.title("Diary Entries", out);
 
-    out.println("Showing " + entries.size() + " entries, choose one to view details:");
+    out.println("Showing " + page.items().size() + " entries, choose one to view details:");
     out.println();
 
     // List entries or show empty message
-    if (entries.isEmpty()) {
+    if (page.isEmpty()) {
       out.println("No entries found.");
     } else {
-      int index = 1;
-      for (DiaryEntry entry : entries) {
-        String dateStr = entry.getCreatedAt().format(DATE_FORMAT);
-        String summary = entry.getTitle() + " - "
-            + ConsoleFormatter.coloredText(entry.getAuthor().getFullName(), AnsiColors.CYAN)
-            + " (" + dateStr + ")";
-        ConsoleFormatter.menuItem(String.valueOf(index++), summary, out);
-      }
+      renderEntries(page.items(), true, out);
     }
 
     // Navigation
+    renderPageNavigation(page, out);
     ConsoleFormatter.dangerItem("b", "Back", out);
     ConsoleFormatter.prompt(out);
   }
@@ -54,7 +49,8 @@ public class ListDiaryEntryView implements BaseView {
    * @param keyword the keyword that was searched
    * @param out     the output stream
    */
-  public void renderSearchResults(List<DiaryEntry> entries, String keyword, PrintStream out) {
+  public void renderSearchResults(List<DiaryEntrySummary> entries, String keyword,
+      PrintStream out) {
     out.println(AnsiColors.CLEAR_SCREEN);
     ConsoleFormatter.title("Search Results", out);
 
@@ -62,14 +58,39 @@ public class ListDiaryEntryView implements BaseView {
     out.println();
 
     // List matching entries
-    int index = 1;
-    for (DiaryEntry entry : entries) {
-      String dateStr = entry.getCreatedAt().format(DATE_FORMAT);
-      String summary = entry.getTitle() + " - "
-          + ConsoleFormatter.coloredText(entry.getAuthor().getFullName(), AnsiColors.CYAN)
-          + " (" + dateStr + ")";
-      ConsoleFormatter.menuItem(String.valueOf(index++), summary, out);
+    renderEntries(entries, true, out);
+
+    // Navigation
+    ConsoleFormatter.dangerItem("b", "Back", out);
+    ConsoleFormatter.prompt(out);
+  }
+
+  /**
+   * Renders the results of a fuzzy search.
+   *
+   * @param entries        the matching entries, best match first
+   * @param keyword        the keyword that was searched
+   * @param maxDistance    the maximum number of typos per word that was asked for
+   * @param lettersPerTypo the number of letters a word needs for each typo
+   * @param fuzzy          whether typos were matched; false while the search index is loading
+   * @param out            the output stream
+   */
+  public void renderFuzzySearchResults(List<DiaryEntrySummary> entries, String keyword,
+      int maxDistance, int lettersPerTypo, boolean fuzzy, PrintStream out) {
+    out.println(AnsiColors.CLEAR_SCREEN);
+    ConsoleFormatter.title("Search Results", out);
+
+    out.println("Found " + entries.size() + " entries matching \"" + keyword + "\":");
+    if (fuzzy) {
+      out.println("Up to " + maxDistance + " typos per word, at most one per " + lettersPerTypo
+          + " letters of the word.");
+    } else {
+      showWarning("Exact matches only while the search index loads.", out);
     }
+    out.println();
+
+    // List matching entries, best match first
+    renderEntries(entries, true, out);
 
     // Navigation
     ConsoleFormatter.dangerItem("b", "Back", out);
@@ -77,95 +98,143 @@ public class ListDiaryEntryView implements BaseView {
   }
 
   /**
-   * Renders search results for a specific date.
+   * Renders the results of a combined search.
    *
-   * @param entries the list of matching entries
+   * @param entries the matching entries
+   * @param filters a description of the filters that were applied
+   * @param limit   the maximum number of results that was asked for
+   * @param out     the output stream
+   */
+  public void renderQueryResults(List<DiaryEntrySummary> entries, String filters, int limit,
+      PrintStream out) {
+    out.println(AnsiColors.CLEAR_SCREEN);
+    ConsoleFormatter.title("Search Results", out);
+
+    out.println((entries.size() == limit ? "Showing the first " : "Found ") + entries.size()
+        + " entries matching " + filters + ":");
+    out.println();
+
+    // List matching entries
+    renderEntries(entries, true, out);
+
+    // Navigation
+    ConsoleFormatter.dangerItem("b", "Back", out);
+    ConsoleFormatter.prompt(out);
+  }
+
+  /**
+   * Renders one page of search results for a specific date.
+   *
+   * @param page    the page of matching entries
    * @param dateStr the date string that was searched
    * @param out     the output stream
    */
-  public void renderDateResults(List<DiaryEntry> entries, String dateStr, PrintStream out) {
+  public void renderDateResults(Page<DiaryEntrySummary> page, String dateStr, PrintStream out) {
     out.println(AnsiColors.CLEAR_SCREEN);
     ConsoleFormatter.title("Search Results", out);
 
-    out.println("Found " + entries.size() + " entries from " + dateStr + ":");
+    out.println("Showing " + page.items().size() + " entries from " + dateStr + ":");
     out.println();
 
     // List matching entries
-    int index = 1;
-    for (DiaryEntry entry : entries) {
-      String timeStr = entry.getCreatedAt().format(DATE_FORMAT);
-      String summary = entry.getTitle() + " - "
-          + ConsoleFormatter.coloredText(entry.getAuthor().getFullName(), AnsiColors.CYAN)
-          + " (" + timeStr + ")";
-      ConsoleFormatter.menuItem(String.valueOf(index++), summary, out);
-    }
+    renderEntries(page.items(), true, out);
 
     // Navigation
+    renderPageNavigation(page, out);
     ConsoleFormatter.dangerItem("b", "Back", out);
     ConsoleFormatter.prompt(out);
   }
 
   /**
-   * Renders search results for a date range.
+   * Renders one page of search results for a date range.
    *
-   * @param entries  the list of matching entries
+   * @param page     the page of matching entries
    * @param startStr the start date string
    * @param endStr   the end date string
    * @param out      the output stream
    */
-  public void renderDateRangeResults(List<DiaryEntry> entries, String startStr, String endStr,
-      PrintStream out) {
+  public void renderDateRangeResults(Page<DiaryEntrySummary> page, String startStr,
+      String endStr, PrintStream out) {
     out.println(AnsiColors.CLEAR_SCREEN);
     ConsoleFormatter.title("Search Results", out);
 
-    out.println(
-        "Found " + entries.size() + " entries between " + startStr + " and " + endStr + ":");
+    out.println("Showing " + page.items().size() + " entries between " + startStr + " and "
+        + endStr + ":");
     out.println();
 
     // List matching entries
-    int index = 1;
-    for (DiaryEntry entry : entries) {
-      String timeStr = entry.getCreatedAt().format(DATE_FORMAT);
-      String summary = entry.getTitle() + " - "
-          + ConsoleFormatter.coloredText(entry.getAuthor().getFullName(), AnsiColors.CYAN)
-          + " (" + timeStr + ")";
-      ConsoleFormatter.menuItem(String.valueOf(index++), summary, out);
-    }
+    renderEntries(page.items(), true, out);
 
     // Navigation
+    renderPageNavigation(page, out);
     ConsoleFormatter.dangerItem("b", "Back", out);
     ConsoleFormatter.prompt(out);
   }
 
   /**
-   * Renders entries by a specific author.
+   * Renders one page of entries by a specific author.
    *
-   * @param entries    the list of entries by the author
+   * @param page       the page of entries by the author
    * @param authorName the author's name
    * @param out        the output stream
    */
-  public void renderAuthorEntries(List<DiaryEntry> entries, String authorName, PrintStream out) {
+  public void renderAuthorEntries(Page<DiaryEntrySummary> page, String authorName,
+      PrintStream out) {
     out.println(AnsiColors.CLEAR_SCREEN);
     ConsoleFormatter.title("Entries by " + authorName, out);
 
-    out.println("Showing " + entries.size() + " entries:");
+    out.println("Showing " + page.items().size() + " entries:");
     out.println();
 
     // List entries or show empty message
-    if (entries.isEmpty()) {
+    if (page.isEmpty()) {
       out.println("No entries found for this author.");
     } else {
-      int index = 1;
-      for (DiaryEntry entry : entries) {
-        String dateStr = entry.getCreatedAt().format(DATE_FORMAT);
-        String summary = entry.getTitle() + " (" + dateStr + ")";
-        ConsoleFormatter.menuItem(String.valueOf(index++), summary, out);
-      }
+      renderEntries(page.items(), false, out);
     }
 
     // Navigation
+    renderPageNavigation(page, out);
     ConsoleFormatter.dangerItem("b", "Back", out);
     ConsoleFormatter.prompt(out);
   }
-}
 
+  /**
+   * Prints numbered entry summaries.
+   *
+   * @param entries    the entries to print
+   * @param showAuthor whether to include the author name
+   * @param out        the output stream
+   */
+  private void renderEntries(List<DiaryEntrySummary> entries, boolean showAuthor,
+      PrintStream out) {
+    int index = 1;
+    for (DiaryEntrySummary entry : entries) {
+      String dateStr = entry.createdAt().format(DATE_FORMAT);
+      String summary = entry.title()
+          + (showAuthor
+          ? " - " + ConsoleFormatter.coloredText(entry.authorName(), AnsiColors.CYAN)
+          : "")
+          + " (" + dateStr + ")";
+      ConsoleFormatter.menuItem(String.valueOf(index++), summary, out);
+    }
+  }
+
+  /**
+   * Prints the next/previous options available for a page.
+   *
+   * @param page the page being shown
+   * @param out  the output stream
+   */
+  private void renderPageNavigation(Page<?> page, PrintStream out) {
+    if (page.hasPrevious() || page.hasNext()) {
+      out.println();
+    }
+    if (page.hasPrevious()) {
+      ConsoleFormatter.menuItem("p", "Previous page", out);
+    }
+    if (page.hasNext()) {
+      ConsoleFormatter.menuItem("n", "Next page", out);
+    }
+  }
+}
@@ -1,9 +1,11 @@
 package edu.ntnu.idi.idatt.view.diary;
 
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
 import edu.ntnu.idi.idatt.view._components.AnsiColors;
 import edu.ntnu.idi.idatt.view._components.BaseView;
 import edu.ntnu.idi.idatt.view._components.ConsoleFormatter;
 import java.io.PrintStream;
+import java.util.List;
 
 /**
  * View for the search entries menu.
@@ -23,6 +25,9 @@ public class SearchEntriesView implements BaseView {
     ConsoleFormatter.menuItem("1", "Search by keyword", out);
     ConsoleFormatter.menuItem("2", "Search by date", out);
     ConsoleFormatter.menuItem("3", "Search by date range", out);
+    ConsoleFormatter.menuItem("4", "Combined search", out);
+    ConsoleFormatter.menuItem("5", "Find by title", out);
+    ConsoleFormatter.menuItem("6", "Fuzzy search", out);
 
     // Navigation
     ConsoleFormatter.dangerItem("b", "Back", out);
@@ -44,6 +49,62 @@ public class SearchEntriesView implements BaseView {
     out.println();
   }
 
+  /**
+   * Renders the fuzzy search form.
+   *
+   * @param out the output stream
+   */
+  public void renderFuzzySearch(PrintStream out) {
+    out.println(AnsiColors.CLEAR_SCREEN);
+    ConsoleFormatter.title("Fuzzy Search", out);
+
+    // Instructions
+    out.println("Enter a keyword to search in titles and content, even if misspelled.");
+    out.println("Words are matched within the given number of typos. Leave empty to cancel.");
+    out.println();
+  }
+
+  /**
+   * Prompts for the maximum number of typos per word, stating the limit by word length.
+   *
+   * @param defaultDistance the number used when the input is left empty
+   * @param lettersPerTypo  the number of letters a word needs for each typo
+   * @param out             the output stream
+   */
+  public void promptMaxDistance(int defaultDistance, int lettersPerTypo, PrintStream out) {
+    out.print(AnsiColors.RESET + "Max typos per word, at most one per " + lettersPerTypo
+        + " letters [" + defaultDistance + "]: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Shows a message while the first fuzzy search builds the search index.
+   *
+   * @param out the output stream
+   */
+  public void showPreparingFuzzySearch(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    out.println("Loading the search index for fuzzy search, this may take a moment...");
+  }
+
+  /**
+   * Shows a message when the search index is still loading, so the search was exact.
+   *
+   * @param out the output stream
+   */
+  public void showExactSearchOnly(PrintStream out) {
+    showWarning("The search index is still loading, so typos were not matched yet.", out);
+  }
+
+  /**
+   * Shows message for an invalid maximum number of typos.
+   *
+   * @param out the output stream
+   */
+  public void showInvalidMaxDistance(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("Max typos must be zero or a positive number.", out);
+  }
+
   /**
    * Prompts for keyword input.
    *
@@ -178,5 +239,130 @@ public class SearchEntriesView implements BaseView {
     out.print(AnsiColors.RESET);
     showWarning("No entries found between " + startStr + " and " + endStr, out);
   }
-}
 
+  /**
+   * Renders the combined search form.
+   *
+   * @param out the output stream
+   */
+  public void renderCombinedSearch(PrintStream out) {
+    out.println(AnsiColors.CLEAR_SCREEN);
+    ConsoleFormatter.title("Combined Search", out);
+
+    // Instructions
+    out.println("Fill in any of the filters; entries must match all of them.");
+    out.println("Leave a filter empty to skip it. Dates use the format DD-MM-YYYY.");
+    out.println("Separate several author emails with commas.");
+    out.println();
+  }
+
+  /**
+   * Prompts for author emails.
+   *
+   * @param out the output stream
+   */
+  public void promptAuthorEmails(PrintStream out) {
+    out.print(AnsiColors.RESET + "Author emails: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Shows message when no author has the given email.
+   *
+   * @param email the email that was entered
+   * @param out   the output stream
+   */
+  public void showAuthorNotFound(String email, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("No author found with email: " + email, out);
+  }
+
+  /**
+   * Prompts for the sort order, listing the options.
+   *
+   * @param out the output stream
+   */
+  public void promptSort(PrintStream out) {
+    out.print(AnsiColors.RESET + "Sort (1 newest, 2 oldest, 3 title) [1]: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Prompts for the maximum number of results.
+   *
+   * @param defaultLimit the limit used when the input is left empty
+   * @param out          the output stream
+   */
+  public void promptLimit(int defaultLimit, PrintStream out) {
+    out.print(AnsiColors.RESET + "Max results [" + defaultLimit + "]: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Shows message for an invalid maximum number of results.
+   *
+   * @param out the output stream
+   */
+  public void showInvalidLimit(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showError("Max results must be a positive number.", out);
+  }
+
+  /**
+   * Shows message when a combined search found nothing.
+   *
+   * @param out the output stream
+   */
+  public void showNoResultsForFilters(PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showWarning("No entries match all filters.", out);
+  }
+
+  /**
+   * Renders the find by title form.
+   *
+   * @param out the output stream
+   */
+  public void renderTitleSearch(PrintStream out) {
+    out.println(AnsiColors.CLEAR_SCREEN);
+    ConsoleFormatter.title("Find by Title", out);
+
+    // Instructions
+    out.println("Type the start of a title to list the matching entries.");
+    out.println("Enter the number of a match to open it. Leave empty to cancel.");
+    out.println();
+  }
+
+  /**
+   * Prompts for a title or match number.
+   *
+   * @param out the output stream
+   */
+  public void promptTitle(PrintStream out) {
+    out.print(AnsiColors.RESET + "Title or #: " + AnsiColors.CYAN);
+  }
+
+  /**
+   * Renders the entries whose title starts with the typed text.
+   *
+   * @param entries the matching entries
+   * @param out     the output stream
+   */
+  public void showTitleMatches(List<DiaryEntrySummary> entries, PrintStream out) {
+    out.println(AnsiColors.RESET);
+
+    int index = 1;
+    for (DiaryEntrySummary entry : entries) {
+      ConsoleFormatter.menuItem(String.valueOf(index++), entry.toDisplayString(), out);
+    }
+    out.println();
+  }
+
+  /**
+   * Shows message when no title starts with the typed text.
+   *
+   * @param prefix the typed text
+   * @param out    the output stream
+   */
+  public void showNoTitleMatches(String prefix, PrintStream out) {
+    out.print(AnsiColors.RESET);
+    showWarning("No entry title starts with: " + prefix, out);
+  }
+}
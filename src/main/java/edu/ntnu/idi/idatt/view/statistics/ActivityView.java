@@ -0,0 +1,152 @@
+package edu.ntnu.idi.idatt.view.statistics;
+
+import edu.ntnu.idi.idatt.model.projections.AuthorStreak;
+import edu.ntnu.idi.idatt.repository.ActivityBucket;
+import edu.ntnu.idi.idatt.repository.ActivityProfile;
+import edu.ntnu.idi.idatt.repository.ActivitySeries;
+import edu.ntnu.idi.idatt.view._components.AnsiColors;
+import edu.ntnu.idi.idatt.view._components.BaseView;
+import edu.ntnu.idi.idatt.view._components.ConsoleFormatter;
+import java.io.PrintStream;
+import java.time.DayOfWeek;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * View for displaying writing activity over time.
+ */
+public class ActivityView implements BaseView {
+
+  private static final int BAR_WIDTH = 30;
+  private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("EEE dd.MM");
+  private static final DateTimeFormatter WEEK_FORMAT = DateTimeFormatter.ofPattern("'Wk' dd.MM");
+  private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy");
+
+  /**
+   * Renders the activity view.
+   *
+   * @param series  the entry counts per day, week and month to show
+   * @param profile the entry counts per weekday and hour
+   * @param streaks the longest writing streak of every author
+   * @param out     the output stream
+   */
+  public void render(List<ActivitySeries> series, ActivityProfile profile,
+      List<AuthorStreak> streaks, PrintStream out) {
+    out.println(AnsiColors.CLEAR_SCREEN);
+    ConsoleFormatter.title("Activity", out);
+
+    // Overview
+    out.println("Busiest day:   " + ConsoleFormatter.coloredText(profile.busiestWeekday()
+        .map(day -> day.getDisplayName(TextStyle.FULL, Locale.ENGLISH))
+        .orElse("-"), AnsiColors.CYAN));
+    out.println("Busiest hour:  " + ConsoleFormatter.coloredText(profile.busiestHour().isPresent()
+        ? String.format("%02d:00", profile.busiestHour().getAsInt()) : "-", AnsiColors.CYAN));
+    out.println("Words/entry:   " + ConsoleFormatter.coloredText(
+        String.format("%.1f", profile.averageWordsPerEntry()), AnsiColors.CYAN));
+
+    for (ActivitySeries s : series) {
+      section(heading(s.bucket()), out);
+      long max = 0;
+      for (long count : s.counts()) {
+        max = Math.max(max, count);
+      }
+      for (int i = 0; i < s.counts().length; i++) {
+        out.println(String.format("%-10s", label(s, i)) + "  " + bar(s.counts()[i], max)
+            + " " + s.counts()[i]);
+      }
+    }
+
+    // Weekday breakdown
+    section("By weekday", out);
+    long[] byWeekday = profile.entriesByWeekday();
+    long maxWeekday = 0;
+    for (long count : byWeekday) {
+      maxWeekday = Math.max(maxWeekday, count);
+    }
+    for (int i = 0; i < byWeekday.length; i++) {
+      String day = DayOfWeek.of(i + 1).getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+      out.println(String.format("%-10s", day) + "  " + bar(byWeekday[i], maxWeekday) + " "
+          + byWeekday[i]);
+    }
+
+    // Streaks
+    if (!streaks.isEmpty()) {
+      section("Longest streak", out);
+      int maxLen = streaks.stream()
+          .mapToInt(s -> s.authorName().length())
+          .max().orElse(0);
+      for (AuthorStreak streak : streaks) {
+        String padding = " ".repeat(maxLen - streak.authorName().length());
+        String range = streak.days() == 0 ? ""
+            : " (" + streak.firstDay() + " - " + streak.lastDay() + ")";
+        out.println(streak.authorName() + padding + "  "
+            + ConsoleFormatter.coloredText(streak.days() + " days", AnsiColors.CYAN) + range);
+      }
+    }
+
+    out.println();
+    ConsoleFormatter.dangerItem("b", "Back", out);
+    ConsoleFormatter.prompt(out);
+  }
+
+  /**
+   * Prints a section heading.
+   *
+   * @param heading the heading text
+   * @param out     the output stream
+   */
+  private void section(String heading, PrintStream out) {
+    out.println();
+    out.println("-".repeat(30));
+    out.println(heading);
+    out.println("-".repeat(30));
+  }
+
+  /**
+   * Returns the heading of a series.
+   *
+   * @param bucket the bucket width of the series
+   * @return the heading text
+   */
+  private String heading(ActivityBucket bucket) {
+    return switch (bucket) {
+      case DAY -> "Per day";
+      case WEEK -> "Per week";
+      case MONTH -> "Per month";
+    };
+  }
+
+  /**
+   * Returns the label of a bucket.
+   *
+   * @param series the series
+   * @param index  the bucket index
+   * @return the bucket start formatted for its width
+   */
+  private String label(ActivitySeries series, int index) {
+    DateTimeFormatter format = switch (series.bucket()) {
+      case DAY -> DAY_FORMAT;
+      case WEEK -> WEEK_FORMAT;
+      case MONTH -> MONTH_FORMAT;
+    };
+    return series.bucketStart(index).format(format.withLocale(Locale.ENGLISH));
+  }
+
+  /**
+   * Returns a bar proportional to a count.
+   *
+   * @param count the count
+   * @param max   the count that fills the whole bar width
+   * @return the colored bar
+   */
+  private String bar(long count, long max) {
+    int width = max == 0 ? 0 : (int) Math.round((double) count * BAR_WIDTH / max);
+    if (width == 0 && count > 0) {
+      width = 1;
+    }
+    return ConsoleFormatter.coloredText("#".repeat(width), AnsiColors.CYAN)
+        + " ".repeat(BAR_WIDTH - width);
+  }
+}
@@ -1,11 +1,14 @@
 package edu.ntnu.idi.idatt.view.statistics;
 
-import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.projections.AuthorStatistics;
+import edu.ntnu.idi.idatt.repository.CacheStatistics;
+import edu.ntnu.idi.idatt.service.SearchCacheStatistics;
 import edu.ntnu.idi.idatt.view._components.AnsiColors;
 import edu.ntnu.idi.idatt.view._components.BaseView;
 import edu.ntnu.idi.idatt.view._components.ConsoleFormatter;
 import java.io.PrintStream;
-import java.util.Map;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * View for displaying application statistics.
@@ -15,13 +18,17 @@ public class StatisticsView implements BaseView {
   /**
    * Renders the statistics view.
    *
-   * @param totalAuthors     total number of authors
-   * @param totalEntries     total number of entries
-   * @param entriesPerAuthor map of author to entry count
+   * @param authorStatistics the entry count of every author
+   * @param cacheStatistics  second-level cache counts, or empty if not collected
+   * @param searchStatistics search result cache counts
    * @param out              the output stream
    */
-  public void render(long totalAuthors, long totalEntries,
-      Map<Author, Long> entriesPerAuthor, PrintStream out) {
+  public void render(List<AuthorStatistics> authorStatistics,
+      Optional<CacheStatistics> cacheStatistics, SearchCacheStatistics searchStatistics,
+      PrintStream out) {
+    long totalAuthors = authorStatistics.size();
+    long totalEntries = authorStatistics.stream().mapToLong(AuthorStatistics::entryCount).sum();
+
     out.println(AnsiColors.CLEAR_SCREEN);
     ConsoleFormatter.title("Statistics", out);
 
@@ -40,28 +47,56 @@ public class StatisticsView implements BaseView {
     }
 
     // Entries per author breakdown
-    if (!entriesPerAuthor.isEmpty()) {
+    if (!authorStatistics.isEmpty()) {
       out.println();
       out.println("-".repeat(30));
       out.println("Entries by Author");
       out.println("-".repeat(30));
 
       // Find longest name for alignment
-      int maxLen = entriesPerAuthor.keySet().stream()
-          .mapToInt(a -> a.getFullName().length())
+      int maxLen = authorStatistics.stream()
+          .mapToInt(a -> a.authorName().length())
           .max().orElse(0);
 
-      for (var entry : entriesPerAuthor.entrySet()) {
-        String name = entry.getKey().getFullName();
-        long count = entry.getValue();
+      for (AuthorStatistics author : authorStatistics) {
+        String name = author.authorName();
+        long count = author.entryCount();
         String padding = " ".repeat(maxLen - name.length());
         out.println(name + padding + "  "
             + ConsoleFormatter.coloredText(String.valueOf(count), AnsiColors.CYAN));
       }
     }
 
+    // Cache effectiveness
+    out.println();
+    out.println("-".repeat(30));
+    out.println("Cache");
+    out.println("-".repeat(30));
+    cacheStatistics.ifPresent(stats -> {
+      out.println("Entities: " + hitRatio(stats.entityHits(), stats.entityHitRatio()) + " ("
+          + stats.entityMisses() + " misses)");
+      out.println("Queries:  " + hitRatio(stats.queryHits(), stats.queryHitRatio()) + " ("
+          + stats.queryMisses() + " misses)");
+    });
+    out.println("Searches: " + hitRatio(searchStatistics.hits(), searchStatistics.hitRatio())
+        + " (" + searchStatistics.misses() + " misses, " + searchStatistics.evictions()
+        + " evictions, " + searchStatistics.invalidations() + " invalidations)");
+
     out.println();
+    ConsoleFormatter.menuItem("a", "Activity", out);
     ConsoleFormatter.dangerItem("b", "Back", out);
     ConsoleFormatter.prompt(out);
   }
-}
\ No newline at end of file
+
+  /**
+   * Formats a hit count with its hit ratio.
+   *
+   * @param hits  the number of hits
+   * @param ratio the hit ratio between 0 and 1
+   * @return the colored hit ratio followed by the hit count
+   */
+  private String hitRatio(long hits, double ratio) {
+    return ConsoleFormatter.coloredText(String.format("%.1f%%", ratio * 100), AnsiColors.CYAN)
+        + " hit rate, " + hits + " hits";
+  }
+}
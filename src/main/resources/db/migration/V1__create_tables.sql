@@ -0,0 +1,28 @@
+-- Tables as previously created by hbm2ddl. IF NOT EXISTS lets databases created by
+-- hbm2ddl adopt the migrations unchanged.
+CREATE TABLE IF NOT EXISTS authors (
+    id bigint not null,
+    created_at timestamp not null,
+    email varchar(255) not null unique,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    updated_at timestamp not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS diary_entries (
+    id bigint not null,
+    content TEXT not null,
+    created_at timestamp not null,
+    title varchar(255) not null,
+    updated_at timestamp not null,
+    author_id bigint not null,
+    primary key (id)
+);
+
+-- Rows hold the first ID of the next block handed out by the table generators
+CREATE TABLE IF NOT EXISTS id_generators (
+    name varchar(255) not null,
+    next_val bigint,
+    primary key (name)
+);
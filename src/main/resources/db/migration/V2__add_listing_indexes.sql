@@ -0,0 +1,11 @@
+-- Listings are ordered by creation date, newest first, with the ID as tie-breaker for
+-- keyset pagination. These indexes return them in order without sorting, and serve
+-- date range and per-author filters as index ranges.
+CREATE INDEX IF NOT EXISTS diary_entries_created_at
+    ON diary_entries (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS diary_entries_author_created_at
+    ON diary_entries (author_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS authors_created_at
+    ON authors (created_at DESC);
@@ -0,0 +1,4 @@
+-- Version counters for optimistic locking. Rows written before this migration start at 0.
+ALTER TABLE authors ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE diary_entries ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
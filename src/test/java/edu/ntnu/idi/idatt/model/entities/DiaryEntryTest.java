@@ -2,6 +2,7 @@ package edu.ntnu.idi.idatt.model.entities;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -33,6 +34,28 @@ class DiaryEntryTest {
       assertEquals("My content", entry.getContent());
     }
 
+    @Test
+    @DisplayName("should keep a given creation time through persist")
+    void shouldKeepGivenCreationTime() {
+      LocalDateTime createdAt = LocalDateTime.of(2020, 1, 2, 3, 4, 5);
+      DiaryEntry entry = new DiaryEntry("My Title", validAuthor, "My content", createdAt);
+
+      entry.onCreate();
+
+      assertEquals(createdAt, entry.getCreatedAt());
+      assertNotNull(entry.getUpdatedAt());
+    }
+
+    @Test
+    @DisplayName("should set creation time on persist when none is given")
+    void shouldSetCreationTimeWhenNoneGiven() {
+      DiaryEntry entry = new DiaryEntry("My Title", validAuthor, "My content", null);
+
+      entry.onCreate();
+
+      assertNotNull(entry.getCreatedAt());
+    }
+
     @Test
     @DisplayName("should trim whitespace from title")
     void shouldTrimWhitespaceFromTitle() {
@@ -180,50 +203,6 @@ class DiaryEntryTest {
       assertTrue(result.contains("DiaryEntry"));
       assertTrue(result.contains("My Day"));
     }
-
-    @Nested
-    @DisplayName("getContentPreview()")
-    class ContentPreviewTests {
-
-      @Test
-      @DisplayName("should return full content when shorter than maxLength")
-      void shouldReturnFullContentWhenShorter() {
-        DiaryEntry shortEntry = new DiaryEntry("Title", validAuthor, "Short");
-        
-        assertEquals("Short", shortEntry.getContentPreview(100));
-      }
-
-      @Test
-      @DisplayName("should return full content when equal to maxLength")
-      void shouldReturnFullContentWhenEqual() {
-        DiaryEntry entry = new DiaryEntry("Title", validAuthor, "12345");
-        
-        assertEquals("12345", entry.getContentPreview(5));
-      }
-
-      @Test
-      @DisplayName("should truncate with ellipsis when longer than maxLength")
-      void shouldTruncateWithEllipsisWhenLonger() {
-        DiaryEntry longEntry = new DiaryEntry("Title", validAuthor, 
-            "This is a very long content that should be truncated");
-        
-        String preview = longEntry.getContentPreview(20);
-        
-        assertEquals(20, preview.length());
-        assertTrue(preview.endsWith("..."));
-        assertEquals("This is a very lo...", preview);
-      }
-
-      @Test
-      @DisplayName("should handle minimum maxLength correctly")
-      void shouldHandleMinimumMaxLength() {
-        DiaryEntry entry = new DiaryEntry("Title", validAuthor, "Hello World");
-        
-        String preview = entry.getContentPreview(4);
-        
-        assertEquals("H...", preview);
-      }
-    }
   }
 
   // equals and hashCode tests
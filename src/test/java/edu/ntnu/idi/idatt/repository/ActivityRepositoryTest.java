@@ -0,0 +1,344 @@
+package edu.ntnu.idi.idatt.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.AuthorStreak;
+import edu.ntnu.idi.idatt.util.TestHibernateUtil;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class ActivityRepositoryTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+  private static SessionFactory sessionFactory;
+  private ActivityRepository repository;
+  private AuthorRepository authorRepository;
+  private DiaryEntryRepository entryRepository;
+  private Author author;
+
+  @BeforeAll
+  static void setUpClass() {
+    sessionFactory = TestHibernateUtil.getSessionFactory();
+  }
+
+  @AfterAll
+  static void tearDownClass() {
+    TestHibernateUtil.shutdown();
+  }
+
+  @BeforeEach
+  void setUp() {
+    repository = new ActivityRepository(sessionFactory);
+    authorRepository = new AuthorRepository(sessionFactory);
+    entryRepository = new DiaryEntryRepository(sessionFactory);
+    clearDatabase();
+    repository.initActivity();
+    author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+  }
+
+  private void clearDatabase() {
+    try (var session = sessionFactory.openSession()) {
+      var tx = session.beginTransaction();
+      session.createMutationQuery("DELETE FROM DiaryEntry").executeUpdate();
+      session.createMutationQuery("DELETE FROM Author").executeUpdate();
+      tx.commit();
+    }
+  }
+
+  private void executeSql(String sql) {
+    try (var session = sessionFactory.openSession()) {
+      var tx = session.beginTransaction();
+      session.createNativeMutationQuery(sql).executeUpdate();
+      tx.commit();
+    }
+  }
+
+  private DiaryEntry write(Author by, LocalDateTime at, String content) {
+    return entryRepository.save(new DiaryEntry("Title", by, content, at));
+  }
+
+  private long countSeries(ActivityBucket bucket, LocalDate from, LocalDate to) {
+    sessionFactory.getStatistics().clear();
+    repository.findSeries(bucket, from, to, null);
+    return sessionFactory.getStatistics().getPrepareStatementCount();
+  }
+
+  // constructor tests
+  @Nested
+  @DisplayName("Constructor")
+  class ConstructorTests {
+
+    @Test
+    @DisplayName("should throw NullPointerException for null sessionFactory")
+    void shouldThrowForNullSessionFactory() {
+      assertThrows(NullPointerException.class, () -> new ActivityRepository(null));
+    }
+  }
+
+  // findSeries tests
+  @Nested
+  @DisplayName("findSeries()")
+  class FindSeriesTests {
+
+    @Test
+    @DisplayName("should count entries per day")
+    void shouldCountPerDay() {
+      write(author, MONDAY.atTime(9, 0), "One");
+      write(author, MONDAY.atTime(21, 30), "Two");
+      write(author, MONDAY.plusDays(2).atTime(12, 0), "Three");
+
+      ActivitySeries series =
+          repository.findSeries(ActivityBucket.DAY, MONDAY, MONDAY.plusDays(3), null);
+
+      assertArrayEquals(new long[] {2, 0, 1, 0}, series.counts());
+      assertEquals(MONDAY, series.start());
+      assertEquals(3, series.total());
+    }
+
+    @Test
+    @DisplayName("should count entries per week starting on Monday")
+    void shouldCountPerWeek() {
+      write(author, MONDAY.minusDays(1).atTime(12, 0), "Sunday");
+      write(author, MONDAY.atTime(12, 0), "Monday");
+      write(author, MONDAY.plusDays(6).atTime(12, 0), "Sunday");
+      write(author, MONDAY.plusDays(7).atTime(12, 0), "Monday");
+
+      ActivitySeries series = repository.findSeries(ActivityBucket.WEEK, MONDAY.minusDays(3),
+          MONDAY.plusDays(7), null);
+
+      assertArrayEquals(new long[] {1, 2, 1}, series.counts());
+      assertEquals(MONDAY.minusDays(7), series.start());
+      assertEquals(MONDAY.plusDays(7), series.bucketStart(2));
+    }
+
+    @Test
+    @DisplayName("should count entries per month")
+    void shouldCountPerMonth() {
+      write(author, LocalDateTime.of(2025, 1, 31, 23, 0), "January");
+      write(author, LocalDateTime.of(2025, 3, 1, 0, 30), "March");
+      write(author, LocalDateTime.of(2025, 3, 31, 12, 0), "March");
+
+      ActivitySeries series = repository.findSeries(ActivityBucket.MONTH,
+          LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 31), null);
+
+      assertArrayEquals(new long[] {1, 0, 2}, series.counts());
+    }
+
+    @Test
+    @DisplayName("should only count entries of the given author")
+    void shouldFilterByAuthor() {
+      Author jane = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      write(author, MONDAY.atTime(9, 0), "John");
+      write(jane, MONDAY.atTime(10, 0), "Jane");
+
+      ActivitySeries series =
+          repository.findSeries(ActivityBucket.DAY, MONDAY, MONDAY, jane.getId());
+
+      assertArrayEquals(new long[] {1}, series.counts());
+    }
+
+    @Test
+    @DisplayName("should combine past days with today")
+    void shouldCombinePastDaysWithToday() {
+      LocalDate today = LocalDate.now();
+      write(author, today.minusDays(1).atTime(12, 0), "Yesterday");
+      entryRepository.save(new DiaryEntry("Title", author, "Today"));
+
+      ActivitySeries series =
+          repository.findSeries(ActivityBucket.DAY, today.minusDays(1), today, null);
+
+      assertArrayEquals(new long[] {1, 1}, series.counts());
+    }
+
+    @Test
+    @DisplayName("should reject an end date before the start date")
+    void shouldRejectReversedRange() {
+      assertThrows(IllegalArgumentException.class,
+          () -> repository.findSeries(ActivityBucket.DAY, MONDAY, MONDAY.minusDays(1), null));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null bucket")
+    void shouldThrowForNullBucket() {
+      assertThrows(NullPointerException.class,
+          () -> repository.findSeries(null, MONDAY, MONDAY, null));
+    }
+  }
+
+  // trigger maintenance tests
+  @Nested
+  @DisplayName("rollup maintenance")
+  class MaintenanceTests {
+
+    @Test
+    @DisplayName("should remove deleted entries")
+    void shouldRemoveDeletedEntries() {
+      DiaryEntry entry = write(author, MONDAY.atTime(9, 0), "One");
+      write(author, MONDAY.atTime(9, 15), "Two");
+
+      entryRepository.delete(entry);
+
+      assertArrayEquals(new long[] {1},
+          repository.findSeries(ActivityBucket.DAY, MONDAY, MONDAY, null).counts());
+      assertEquals(0, repository.verifyActivity());
+    }
+
+    @Test
+    @DisplayName("should follow content and author changes")
+    void shouldFollowUpdates() {
+      Author jane = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      DiaryEntry entry = write(author, MONDAY.atTime(9, 0), "One word");
+
+      entry.setContent("Now it has five words");
+      entry.setAuthor(jane);
+      entryRepository.update(entry);
+
+      assertEquals(0, repository.findProfile(author.getId()).totalEntries());
+      assertEquals(5, repository.findProfile(jane.getId()).totalWords());
+      assertEquals(0, repository.verifyActivity());
+    }
+
+    @Test
+    @DisplayName("should populate a new rollup from existing entries")
+    void shouldPopulateNewRollup() {
+      write(author, MONDAY.atTime(9, 0), "One");
+      executeSql("DROP TABLE entry_activity");
+
+      repository.initActivity();
+
+      assertEquals(1, repository.findProfile(null).totalEntries());
+      assertEquals(0, repository.verifyActivity());
+    }
+
+    @Test
+    @DisplayName("should detect and repair a stale rollup")
+    void shouldRepairStaleRollup() {
+      write(author, MONDAY.atTime(9, 0), "One");
+      write(author, MONDAY.plusDays(1).atTime(9, 0), "Two");
+      executeSql("UPDATE entry_activity SET entry_count = 3 WHERE day = '" + MONDAY + "'");
+      executeSql("INSERT INTO entry_activity VALUES (999999, '2020-01-01', 0, 1, 1)");
+
+      assertEquals(3, repository.verifyActivity());
+
+      repository.rebuildActivity();
+
+      assertEquals(0, repository.verifyActivity());
+      assertArrayEquals(new long[] {1, 1},
+          repository.findSeries(ActivityBucket.DAY, MONDAY, MONDAY.plusDays(1), null).counts());
+    }
+  }
+
+  // closed period cache tests
+  @Nested
+  @DisplayName("past day cache")
+  class CacheTests {
+
+    @Test
+    @DisplayName("should only query today on repeated calls")
+    void shouldReuseClosedResult() {
+      LocalDate today = LocalDate.now();
+      write(author, today.minusDays(3).atTime(12, 0), "Past");
+
+      long first = countSeries(ActivityBucket.DAY, today.minusDays(6), today);
+      entryRepository.save(new DiaryEntry("Title", author, "Today"));
+      long second = countSeries(ActivityBucket.DAY, today.minusDays(6), today);
+
+      assertEquals(first - 1, second);
+      assertEquals(2, repository.findSeries(ActivityBucket.DAY, today.minusDays(6), today, null)
+          .total());
+    }
+
+    @Test
+    @DisplayName("should drop cached results when a past day changes")
+    void shouldInvalidateOnPastChange() {
+      LocalDate today = LocalDate.now();
+      LocalDate from = today.minusDays(6);
+      write(author, today.minusDays(3).atTime(12, 0), "Past");
+      repository.findSeries(ActivityBucket.DAY, from, today, null);
+
+      write(author, today.minusDays(2).atTime(12, 0), "Also past");
+
+      ActivitySeries series = repository.findSeries(ActivityBucket.DAY, from, today, null);
+      assertEquals(2, series.total());
+    }
+  }
+
+  // findProfile tests
+  @Nested
+  @DisplayName("findProfile()")
+  class FindProfileTests {
+
+    @Test
+    @DisplayName("should count entries per weekday and hour and sum words")
+    void shouldCountWeekdaysHoursAndWords() {
+      write(author, MONDAY.atTime(9, 0), "Three short words");
+      write(author, MONDAY.atTime(9, 45), "  Spaced\n\nout   text\t ");
+      write(author, MONDAY.plusDays(5).atTime(22, 0), "Saturday");
+
+      ActivityProfile profile = repository.findProfile(null);
+
+      assertEquals(2, profile.entriesByWeekday()[0]);
+      assertEquals(1, profile.entriesByWeekday()[5]);
+      assertEquals(2, profile.entriesByHour()[9]);
+      assertEquals(3, profile.totalEntries());
+      assertEquals(7, profile.totalWords());
+      assertEquals(DayOfWeek.MONDAY, profile.busiestWeekday().orElseThrow());
+      assertEquals(9, profile.busiestHour().getAsInt());
+      assertEquals(7.0 / 3, profile.averageWordsPerEntry());
+    }
+
+    @Test
+    @DisplayName("should return an empty profile without entries")
+    void shouldReturnEmptyProfile() {
+      ActivityProfile profile = repository.findProfile(null);
+
+      assertEquals(0, profile.totalEntries());
+      assertTrue(profile.busiestWeekday().isEmpty());
+      assertTrue(profile.busiestHour().isEmpty());
+      assertEquals(0.0, profile.averageWordsPerEntry());
+    }
+  }
+
+  // findLongestStreaks tests
+  @Nested
+  @DisplayName("findLongestStreaks()")
+  class FindLongestStreaksTests {
+
+    @Test
+    @DisplayName("should find the longest run of consecutive days per author")
+    void shouldFindLongestRun() {
+      Author jane = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      write(author, MONDAY.atTime(9, 0), "Day 1");
+      write(author, MONDAY.atTime(20, 0), "Day 1 again");
+      write(author, MONDAY.plusDays(1).atTime(9, 0), "Day 2");
+      write(author, MONDAY.plusDays(2).atTime(9, 0), "Day 3");
+      write(author, MONDAY.plusDays(5).atTime(9, 0), "Alone");
+      write(jane, MONDAY.atTime(9, 0), "Once");
+
+      List<AuthorStreak> streaks = repository.findLongestStreaks();
+
+      assertEquals(List.of(
+          new AuthorStreak(author.getId(), "John Doe", 3, MONDAY, MONDAY.plusDays(2)),
+          new AuthorStreak(jane.getId(), "Jane Smith", 1, MONDAY, MONDAY)), streaks);
+    }
+
+    @Test
+    @DisplayName("should list authors without entries with a streak of zero")
+    void shouldListAuthorsWithoutEntries() {
+      assertEquals(List.of(new AuthorStreak(author.getId(), "John Doe", 0, null, null)),
+          repository.findLongestStreaks());
+    }
+  }
+}
@@ -4,10 +4,14 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
 import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.util.RecordingStatementInspector;
 import edu.ntnu.idi.idatt.util.TestHibernateUtil;
+import jakarta.persistence.OptimisticLockException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -90,6 +94,216 @@ class AuthorRepositoryTest {
     }
   }
 
+  // saveAll tests
+  @Nested
+  @DisplayName("saveAll()")
+  class SaveAllTests {
+
+    @Test
+    @DisplayName("should persist every author in one call")
+    void shouldPersistEveryAuthor() {
+      List<Author> authors = List.of(new Author("John", "Doe", "john@example.com"),
+          new Author("Jane", "Smith", "jane@example.com"));
+
+      assertEquals(2, repository.saveAll(authors));
+
+      assertTrue(authors.stream().allMatch(author -> author.getId() != null));
+      assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("should save nothing when one author fails")
+    void shouldRollBackOnFailure() {
+      List<Author> authors = List.of(new Author("John", "Doe", "john@example.com"),
+          new Author("Jane", "Smith", "john@example.com"));
+
+      assertThrows(Exception.class, () -> repository.saveAll(authors));
+      assertTrue(repository.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null authors")
+    void shouldThrowForNullAuthors() {
+      assertThrows(NullPointerException.class, () -> repository.saveAll(null));
+    }
+  }
+
+  // saveIfAbsent tests
+  @Nested
+  @DisplayName("saveIfAbsent()")
+  class SaveIfAbsentTests {
+
+    @Test
+    @DisplayName("should save an author with a new email")
+    void shouldSaveNewAuthor() {
+      SavedAuthor saved = repository.saveIfAbsent(new Author("John", "Doe", "john@example.com"));
+
+      assertTrue(saved.created());
+      assertNotNull(saved.author().getId());
+      assertEquals(saved.author().getId(),
+          repository.findByEmail("john@example.com").orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("should return the stored author when the email is in use")
+    void shouldReturnExistingAuthor() {
+      Author existing = repository.save(new Author("John", "Doe", "john@example.com"));
+
+      SavedAuthor saved = repository.saveIfAbsent(new Author("Jane", "Smith", "JOHN@example.com"));
+
+      assertFalse(saved.created());
+      assertEquals(existing.getId(), saved.author().getId());
+      assertEquals("John", saved.author().getFirstName());
+      assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("should insert a new email without looking it up")
+    void shouldInsertWithoutLookup() {
+      RecordingStatementInspector.clear();
+
+      repository.saveIfAbsent(new Author("John", "Doe", "john@example.com"));
+
+      List<String> statements = RecordingStatementInspector.statements();
+      assertEquals(0, statements.stream()
+          .filter(sql -> sql.startsWith("select") && sql.contains("from authors")).count());
+      assertEquals(1, statements.stream()
+          .filter(sql -> sql.startsWith("insert into authors")).count());
+    }
+
+    @Test
+    @DisplayName("should look up the email once the insert is rejected")
+    void shouldLookUpAfterConflict() {
+      repository.save(new Author("John", "Doe", "john@example.com"));
+      RecordingStatementInspector.clear();
+
+      repository.saveIfAbsent(new Author("Jane", "Smith", "john@example.com"));
+
+      List<String> statements = RecordingStatementInspector.statements();
+      assertEquals(1, statements.stream()
+          .filter(sql -> sql.startsWith("select") && sql.contains("from authors")).count());
+      assertEquals(1, statements.stream()
+          .filter(sql -> sql.startsWith("insert into authors")).count());
+    }
+
+    @Test
+    @DisplayName("should leave the given author unsaved")
+    void shouldLeaveGivenAuthorUnsaved() {
+      Author author = new Author("John", "Doe", "john@example.com");
+
+      repository.saveIfAbsent(author);
+
+      assertNull(author.getId());
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null author")
+    void shouldThrowForNullAuthor() {
+      assertThrows(NullPointerException.class, () -> repository.saveIfAbsent(null));
+    }
+  }
+
+  // saveAllIfAbsent tests
+  @Nested
+  @DisplayName("saveAllIfAbsent()")
+  class SaveAllIfAbsentTests {
+
+    @Test
+    @DisplayName("should save new emails and return stored authors in order")
+    void shouldSaveNewAndReturnExisting() {
+      Author existing = repository.save(new Author("John", "Doe", "john@example.com"));
+
+      List<SavedAuthor> saved = repository.saveAllIfAbsent(List.of(
+          new Author("Jane", "Smith", "jane@example.com"),
+          new Author("Johnny", "Doe", "john@example.com")));
+
+      assertEquals(2, saved.size());
+      assertTrue(saved.get(0).created());
+      assertEquals("jane@example.com", saved.get(0).author().getEmail());
+      assertFalse(saved.get(1).created());
+      assertEquals(existing.getId(), saved.get(1).author().getId());
+      assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("should save an email given twice once")
+    void shouldSaveDuplicateEmailOnce() {
+      List<SavedAuthor> saved = repository.saveAllIfAbsent(List.of(
+          new Author("Jane", "Smith", "jane@example.com"),
+          new Author("Janet", "Smith", "jane@example.com")));
+
+      assertTrue(saved.get(0).created());
+      assertFalse(saved.get(1).created());
+      assertSame(saved.get(0).author(), saved.get(1).author());
+      assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("should look up emails in chunks after a conflict")
+    void shouldLookUpInChunks() {
+      List<Author> authors = new ArrayList<>();
+      for (int i = 0; i < AuthorRepository.EMAIL_LOOKUP_CHUNK_SIZE + 1; i++) {
+        authors.add(new Author("Author", "Number" + i, "author" + i + "@example.com"));
+      }
+      repository.save(new Author("Author", "Number0", "author0@example.com"));
+      RecordingStatementInspector.clear();
+
+      List<SavedAuthor> saved = repository.saveAllIfAbsent(authors);
+
+      assertEquals(2, RecordingStatementInspector.statements().stream()
+          .filter(sql -> sql.startsWith("select") && sql.contains("from authors")).count());
+      assertFalse(saved.get(0).created());
+      assertTrue(saved.stream().skip(1).allMatch(SavedAuthor::created));
+      assertEquals(authors.size(), repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("should return an empty list for no authors")
+    void shouldReturnEmptyForNoAuthors() {
+      assertTrue(repository.saveAllIfAbsent(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for a null author")
+    void shouldThrowForNullAuthor() {
+      List<Author> authors = new ArrayList<>();
+      authors.add(null);
+
+      assertThrows(NullPointerException.class, () -> repository.saveAllIfAbsent(authors));
+      assertThrows(NullPointerException.class, () -> repository.saveAllIfAbsent(null));
+    }
+  }
+
+  // initIdGenerator tests
+  @Nested
+  @DisplayName("initIdGenerator()")
+  class InitIdGeneratorTests {
+
+    @Test
+    @DisplayName("should give new authors IDs above existing ones")
+    void shouldAssignIdsAboveExistingOnes() {
+      try (var session = sessionFactory.openSession()) {
+        var tx = session.beginTransaction();
+        session.createNativeMutationQuery(
+                "INSERT INTO authors (id, first_name, last_name, email, created_at, updated_at) "
+                    + "VALUES (5000000, 'Legacy', 'Author', 'legacy@example.com', "
+                    + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
+            .executeUpdate();
+        tx.commit();
+      }
+
+      repository.initIdGenerator();
+
+      try (var session = sessionFactory.openSession()) {
+        Long next = session
+            .createNativeQuery("SELECT next_val FROM id_generators WHERE name = 'authors'",
+                Long.class)
+            .uniqueResult();
+        assertEquals(5000001L, next);
+      }
+    }
+  }
+
   // findById tests
   @Nested
   @DisplayName("findById()")
@@ -121,6 +335,35 @@ class AuthorRepositoryTest {
     }
   }
 
+  // findByIds tests
+  @Nested
+  @DisplayName("findByIds()")
+  class FindByIdsTests {
+
+    @Test
+    @DisplayName("should return authors in the order of the IDs, skipping missing IDs")
+    void shouldReturnAuthorsInIdOrder() {
+      Author john = repository.save(new Author("John", "Doe", "john@example.com"));
+      Author jane = repository.save(new Author("Jane", "Smith", "jane@example.com"));
+
+      List<Author> found = repository.findByIds(List.of(jane.getId(), 999L, john.getId()));
+
+      assertEquals(List.of(jane.getId(), john.getId()), found.stream().map(Author::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should return empty list for no IDs")
+    void shouldReturnEmptyForNoIds() {
+      assertTrue(repository.findByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null IDs")
+    void shouldThrowForNullIds() {
+      assertThrows(NullPointerException.class, () -> repository.findByIds(null));
+    }
+  }
+
   // findByEmail tests
   @Nested
   @DisplayName("findByEmail()")
@@ -205,6 +448,20 @@ class AuthorRepositoryTest {
       assertEquals("Jonathan", found.get().getFirstName());
     }
 
+    @Test
+    @DisplayName("should reject an author changed since it was loaded")
+    void shouldRejectStaleAuthor() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      Author first = repository.findById(author.getId()).orElseThrow();
+      Author second = repository.findById(author.getId()).orElseThrow();
+      first.setFirstName("Jonathan");
+      repository.update(first);
+      second.setLastName("Smith");
+
+      assertThrows(OptimisticLockException.class, () -> repository.update(second));
+      assertEquals("Jonathan Doe", repository.findById(author.getId()).orElseThrow().getFullName());
+    }
+
     @Test
     @DisplayName("should throw NullPointerException for null author")
     void shouldThrowForNullAuthor() {
@@ -212,6 +469,57 @@ class AuthorRepositoryTest {
     }
   }
 
+  // updateName tests
+  @Nested
+  @DisplayName("updateName()")
+  class UpdateNameTests {
+
+    @Test
+    @DisplayName("should update only the given name with one statement")
+    void shouldUpdateOnlyGivenName() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      repository.findById(author.getId());
+      RecordingStatementInspector.clear();
+
+      assertTrue(repository.updateName(author, "Jonathan", null));
+
+      assertEquals(1, RecordingStatementInspector.statements().size());
+      Author found = repository.findById(author.getId()).orElseThrow();
+      assertEquals("Jonathan Doe", found.getFullName());
+      assertEquals("john@example.com", found.getEmail());
+      assertEquals(1, found.getVersion());
+      assertEquals(1, author.getVersion());
+    }
+
+    @Test
+    @DisplayName("should not update an author changed since it was loaded")
+    void shouldNotUpdateStaleAuthor() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      Author stale = repository.findById(author.getId()).orElseThrow();
+      repository.updateName(author, "Jonathan", null);
+
+      assertFalse(repository.updateName(stale, null, "Smith"));
+
+      assertEquals("Jonathan Doe", repository.findById(author.getId()).orElseThrow().getFullName());
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException when nothing is changed")
+    void shouldThrowWhenNothingChanged() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+
+      assertThrows(IllegalArgumentException.class, () -> repository.updateName(author, null, null));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for an unsaved author")
+    void shouldThrowForUnsavedAuthor() {
+      Author author = new Author("John", "Doe", "john@example.com");
+
+      assertThrows(NullPointerException.class, () -> repository.updateName(author, "Jo", null));
+    }
+  }
+
   // delete tests
   @Nested
   @DisplayName("delete()")
@@ -223,11 +531,26 @@ class AuthorRepositoryTest {
       Author author = repository.save(new Author("John", "Doe", "john@example.com"));
       Long id = author.getId();
 
-      repository.delete(author);
+      assertTrue(repository.delete(author));
 
       assertTrue(repository.findById(id).isEmpty());
     }
 
+    @Test
+    @DisplayName("should not delete an author changed since it was loaded")
+    void shouldNotDeleteStaleAuthor() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      DiaryEntryRepository entryRepository = new DiaryEntryRepository(sessionFactory);
+      DiaryEntry entry = entryRepository.save(new DiaryEntry("Entry", author, "Content"));
+      Author stale = repository.findById(author.getId()).orElseThrow();
+      repository.updateName(author, "Jonathan", null);
+
+      assertFalse(repository.delete(stale));
+
+      assertTrue(repository.findById(author.getId()).isPresent());
+      assertTrue(entryRepository.findById(entry.getId()).isPresent());
+    }
+
     @Test
     @DisplayName("should throw NullPointerException for null author")
     void shouldThrowForNullAuthor() {
@@ -255,6 +578,74 @@ class AuthorRepositoryTest {
     }
   }
 
+  // deleteById tests
+  @Nested
+  @DisplayName("deleteById()")
+  class DeleteByIdTests {
+
+    @Test
+    @DisplayName("should delete a prolific author with two statements")
+    void shouldDeleteWithConstantStatements() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      DiaryEntryRepository entryRepository = new DiaryEntryRepository(sessionFactory);
+      List<DiaryEntry> entries = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        entries.add(new DiaryEntry("Entry " + i, author, "Content " + i));
+      }
+      entryRepository.saveAll(entries);
+      RecordingStatementInspector.clear();
+
+      assertTrue(repository.deleteById(author.getId()));
+
+      List<String> statements = RecordingStatementInspector.statements();
+      assertEquals(2, statements.size());
+      assertTrue(statements.get(0).startsWith("delete from diary_entries"));
+      assertTrue(statements.get(1).startsWith("delete from authors"));
+      assertEquals(0, entryRepository.count());
+    }
+
+    @Test
+    @DisplayName("should leave the entries of other authors alone")
+    void shouldKeepOtherAuthorsEntries() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      Author other = repository.save(new Author("Jane", "Doe", "jane@example.com"));
+      DiaryEntryRepository entryRepository = new DiaryEntryRepository(sessionFactory);
+      entryRepository.save(new DiaryEntry("Mine", author, "Content"));
+      DiaryEntry kept = entryRepository.save(new DiaryEntry("Theirs", other, "Content"));
+
+      repository.deleteById(author.getId());
+
+      assertTrue(entryRepository.findById(kept.getId()).isPresent());
+      assertTrue(repository.findById(other.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("should not return a deleted author from the caches")
+    void shouldEvictCachedAuthor() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      repository.findById(author.getId());
+      repository.findByEmail("john@example.com");
+
+      repository.deleteById(author.getId());
+
+      assertTrue(repository.findById(author.getId()).isEmpty());
+      assertTrue(repository.findByEmail("john@example.com").isEmpty());
+      assertFalse(repository.existsByEmail("john@example.com"));
+    }
+
+    @Test
+    @DisplayName("should return false when the author does not exist")
+    void shouldReturnFalseWhenNotFound() {
+      assertFalse(repository.deleteById(999L));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null id")
+    void shouldThrowForNullId() {
+      assertThrows(NullPointerException.class, () -> repository.deleteById(null));
+    }
+  }
+
   // existsByEmail tests
   @Nested
   @DisplayName("existsByEmail()")
@@ -288,4 +679,84 @@ class AuthorRepositoryTest {
       assertThrows(NullPointerException.class, () -> repository.existsByEmail(null));
     }
   }
-}
\ No newline at end of file
+
+  // second-level cache tests
+  @Nested
+  @DisplayName("Second-level cache")
+  class CacheTests {
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+      statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    @DisplayName("should find a saved author by ID without querying the database")
+    void shouldFindByIdFromCache() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      statistics.clear();
+
+      assertTrue(repository.findById(author.getId()).isPresent());
+
+      assertEquals(0, statistics.getPrepareStatementCount());
+      assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("should answer repeated findAll() calls from the query cache")
+    void shouldCacheFindAll() {
+      repository.save(new Author("John", "Doe", "john@example.com"));
+      repository.findAll();
+      statistics.clear();
+
+      assertEquals(1, repository.findAll().size());
+
+      assertEquals(0, statistics.getPrepareStatementCount());
+      assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("should invalidate cached queries when an author is saved")
+    void shouldInvalidateOnSave() {
+      repository.save(new Author("John", "Doe", "john@example.com"));
+      repository.findAll();
+      assertFalse(repository.existsByEmail("jane@example.com"));
+
+      repository.save(new Author("Jane", "Smith", "jane@example.com"));
+
+      assertEquals(2, repository.findAll().size());
+      assertTrue(repository.existsByEmail("jane@example.com"));
+    }
+
+    @Test
+    @DisplayName("should return updated values after update()")
+    void shouldReturnUpdatedValues() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      repository.findById(author.getId());
+      repository.findByEmail("john@example.com");
+
+      author.setEmail("johnny@example.com");
+      repository.update(author);
+
+      assertEquals("johnny@example.com",
+          repository.findById(author.getId()).orElseThrow().getEmail());
+      assertTrue(repository.findByEmail("john@example.com").isEmpty());
+      assertTrue(repository.findByEmail("johnny@example.com").isPresent());
+    }
+
+    @Test
+    @DisplayName("should not return deleted authors")
+    void shouldNotReturnDeletedAuthors() {
+      Author author = repository.save(new Author("John", "Doe", "john@example.com"));
+      repository.findById(author.getId());
+      repository.findAll();
+
+      repository.delete(author);
+
+      assertTrue(repository.findById(author.getId()).isEmpty());
+      assertTrue(repository.findAll().isEmpty());
+    }
+  }
+}
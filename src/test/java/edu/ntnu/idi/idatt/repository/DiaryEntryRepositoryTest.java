@@ -4,11 +4,24 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
 import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
+import edu.ntnu.idi.idatt.model.projections.EntryRecord;
+import edu.ntnu.idi.idatt.model.projections.EntryText;
+import edu.ntnu.idi.idatt.model.projections.EntryTitle;
+import edu.ntnu.idi.idatt.util.RecordingStatementInspector;
 import edu.ntnu.idi.idatt.util.TestHibernateUtil;
+import jakarta.persistence.OptimisticLockException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
 import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -86,6 +99,486 @@ class DiaryEntryRepositoryTest {
     }
   }
 
+  // saveAll tests
+  @Nested
+  @DisplayName("saveAll()")
+  class SaveAllTests {
+
+    private List<DiaryEntry> entries(int count) {
+      List<DiaryEntry> entries = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        entries.add(new DiaryEntry("Entry " + i, testAuthor, "Content " + i));
+      }
+      return entries;
+    }
+
+    @Test
+    @DisplayName("should persist all entries and assign distinct IDs")
+    void shouldPersistAllEntries() {
+      List<DiaryEntry> entries = entries(7);
+
+      long saved = repository.saveAll(entries, 3);
+
+      assertEquals(7, saved);
+      assertEquals(7, repository.count());
+      assertEquals(7, entries.stream().map(DiaryEntry::getId).distinct().count());
+    }
+
+    @Test
+    @DisplayName("should return zero for no entries")
+    void shouldReturnZeroForNoEntries() {
+      assertEquals(0, repository.saveAll(List.of()));
+      assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("should keep committed chunks when a later chunk fails")
+    void shouldKeepCommittedChunksOnFailure() {
+      List<DiaryEntry> entries = entries(5);
+      entries.add(null);
+
+      assertThrows(NullPointerException.class, () -> repository.saveAll(entries, 2));
+      assertEquals(4, repository.count());
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for non-positive chunk size")
+    void shouldThrowForInvalidChunkSize() {
+      assertThrows(IllegalArgumentException.class, () -> repository.saveAll(entries(1), 0));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null entries")
+    void shouldThrowForNullEntries() {
+      assertThrows(NullPointerException.class, () -> repository.saveAll(null));
+    }
+  }
+
+  // streamRecords tests
+  @Nested
+  @DisplayName("streamRecords()")
+  class StreamRecordsTests {
+
+    private List<EntryRecord> stream(EntryFilter filter) {
+      List<EntryRecord> records = new ArrayList<>();
+      long count = repository.streamRecords(filter, records::add);
+      assertEquals(records.size(), count);
+      return records;
+    }
+
+    @Test
+    @DisplayName("should stream all entries in ID order with their author")
+    void shouldStreamAllEntries() {
+      DiaryEntry first = repository.save(new DiaryEntry("First", testAuthor, "One"));
+      DiaryEntry second = repository.save(new DiaryEntry("Second", testAuthor, "Two"));
+
+      List<EntryRecord> records = stream(EntryFilter.all());
+
+      assertEquals(List.of(first.getId(), second.getId()),
+          records.stream().map(EntryRecord::id).toList());
+      EntryRecord record = records.get(0);
+      assertEquals("First", record.title());
+      assertEquals("One", record.content());
+      assertEquals("john@example.com", record.authorEmail());
+      assertEquals("John", record.authorFirstName());
+      assertEquals("Doe", record.authorLastName());
+      assertNotNull(record.createdAt());
+      assertNotNull(record.updatedAt());
+    }
+
+    @Test
+    @DisplayName("should only stream entries by the filtered author")
+    void shouldFilterByAuthor() {
+      Author other = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      repository.save(new DiaryEntry("Mine", testAuthor, "Content"));
+      repository.save(new DiaryEntry("Theirs", other, "Content"));
+
+      List<EntryRecord> records = stream(new EntryFilter(other.getId(), null, null));
+
+      assertEquals(1, records.size());
+      assertEquals("Theirs", records.get(0).title());
+    }
+
+    @Test
+    @DisplayName("should only stream entries inside the date range")
+    void shouldFilterByDateRange() {
+      repository.save(new DiaryEntry("Today", testAuthor, "Content"));
+      LocalDate today = LocalDate.now();
+
+      assertEquals(1, stream(new EntryFilter(null, today, today)).size());
+      assertEquals(1, stream(new EntryFilter(null, today, null)).size());
+      assertEquals(0, stream(new EntryFilter(null, today.plusDays(1), null)).size());
+      assertEquals(0, stream(new EntryFilter(null, null, today.minusDays(1))).size());
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null filter")
+    void shouldThrowForNullFilter() {
+      assertThrows(NullPointerException.class, () -> repository.streamRecords(null, r -> { }));
+    }
+  }
+
+  // findSummaries tests
+  @Nested
+  @DisplayName("findSummaries()")
+  class FindSummariesTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 5, 10);
+
+    private DiaryEntry saveOn(String title, Author author, String content, LocalDate date) {
+      return repository.save(new DiaryEntry(title, author, content, date.atTime(12, 0)));
+    }
+
+    private List<String> titles(DiaryEntryQuery query) {
+      return repository.findSummaries(query).stream().map(DiaryEntrySummary::title).toList();
+    }
+
+    @Test
+    @DisplayName("should return the newest entries without filters")
+    void shouldReturnNewestWithoutFilters() {
+      saveOn("Old", testAuthor, "Content", DAY.minusDays(1));
+      saveOn("New", testAuthor, "Content", DAY);
+
+      assertEquals(List.of("New", "Old"), titles(DiaryEntryQuery.all()));
+    }
+
+    @Test
+    @DisplayName("should apply keyword, authors and date range together")
+    void shouldCombineFilters() {
+      Author other = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      Author third = authorRepository.save(new Author("Max", "Power", "max@example.com"));
+      saveOn("Beach day", testAuthor, "Sun", DAY);
+      saveOn("Hike", other, "Walked to the beach", DAY.plusDays(1));
+      saveOn("Beach again", third, "Sun", DAY);
+      saveOn("Beach last year", testAuthor, "Sun", DAY.minusYears(1));
+      saveOn("Mountain", testAuthor, "Snow", DAY);
+
+      DiaryEntryQuery query = DiaryEntryQuery.all()
+          .withKeyword("BEACH")
+          .withAuthors(List.of(testAuthor.getId(), other.getId()))
+          .withDateRange(DAY, DAY.plusDays(1));
+
+      assertEquals(List.of("Hike", "Beach day"), titles(query));
+    }
+
+    @Test
+    @DisplayName("should filter by a single author")
+    void shouldFilterBySingleAuthor() {
+      Author other = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      saveOn("Mine", testAuthor, "Content", DAY);
+      saveOn("Theirs", other, "Content", DAY);
+
+      assertEquals(List.of("Theirs"),
+          titles(DiaryEntryQuery.all().withAuthors(List.of(other.getId()))));
+    }
+
+    @Test
+    @DisplayName("should include both ends of the date range")
+    void shouldIncludeRangeEnds() {
+      saveOn("Before", testAuthor, "Content", DAY.minusDays(1));
+      saveOn("Start", testAuthor, "Content", DAY);
+      saveOn("End", testAuthor, "Content", DAY.plusDays(2));
+      saveOn("After", testAuthor, "Content", DAY.plusDays(3));
+
+      assertEquals(List.of("End", "Start"),
+          titles(DiaryEntryQuery.all().withDateRange(DAY, DAY.plusDays(2))));
+      assertEquals(List.of("After", "End", "Start"),
+          titles(DiaryEntryQuery.all().withDateRange(DAY, null)));
+    }
+
+    @Test
+    @DisplayName("should sort oldest first or by title")
+    void shouldSort() {
+      saveOn("b", testAuthor, "Content", DAY);
+      saveOn("C", testAuthor, "Content", DAY.minusDays(1));
+      saveOn("A", testAuthor, "Content", DAY.plusDays(1));
+
+      assertEquals(List.of("C", "b", "A"),
+          titles(DiaryEntryQuery.all().sortedBy(EntrySort.OLDEST)));
+      assertEquals(List.of("A", "b", "C"),
+          titles(DiaryEntryQuery.all().sortedBy(EntrySort.TITLE)));
+    }
+
+    @Test
+    @DisplayName("should return at most the limit")
+    void shouldApplyLimit() {
+      for (int i = 0; i < 5; i++) {
+        saveOn("Entry " + i, testAuthor, "Content", DAY.plusDays(i));
+      }
+
+      assertEquals(List.of("Entry 4", "Entry 3"), titles(DiaryEntryQuery.all().limitedTo(2)));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null query")
+    void shouldThrowForNullQuery() {
+      assertThrows(NullPointerException.class, () -> repository.findSummaries(null));
+    }
+  }
+
+  // DiaryEntryQuery tests
+  @Nested
+  @DisplayName("DiaryEntryQuery")
+  class DiaryEntryQueryTests {
+
+    @Test
+    @DisplayName("should treat a blank keyword as no keyword")
+    void shouldIgnoreBlankKeyword() {
+      assertNull(DiaryEntryQuery.all().withKeyword("  ").keyword());
+      assertEquals("beach", DiaryEntryQuery.all().withKeyword(" beach ").keyword());
+    }
+
+    @Test
+    @DisplayName("should be equal for the same authors in any order")
+    void shouldIgnoreAuthorOrder() {
+      assertEquals(DiaryEntryQuery.all().withAuthors(List.of(2L, 1L)),
+          DiaryEntryQuery.all().withAuthors(List.of(1L, 2L)));
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for end date before start date")
+    void shouldThrowForReversedRange() {
+      assertThrows(IllegalArgumentException.class,
+          () -> DiaryEntryQuery.all().withDateRange(LocalDate.now(), LocalDate.now().minusDays(1)));
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for non-positive limit")
+    void shouldThrowForNonPositiveLimit() {
+      assertThrows(IllegalArgumentException.class, () -> DiaryEntryQuery.all().limitedTo(0));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null sort")
+    void shouldThrowForNullSort() {
+      assertThrows(NullPointerException.class, () -> DiaryEntryQuery.all().sortedBy(null));
+    }
+  }
+
+  // streamText tests
+  @Nested
+  @DisplayName("streamText()")
+  class StreamTextTests {
+
+    @Test
+    @DisplayName("should stream the entries of an ID range in ID order")
+    void shouldStreamRangeInIdOrder() {
+      List<Long> ids = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        ids.add(repository.save(new DiaryEntry("Title " + i, testAuthor, "Content " + i)).getId());
+      }
+      List<EntryText> texts = new ArrayList<>();
+
+      long count = repository.streamText(ids.get(1), ids.get(3), texts::add);
+
+      assertEquals(3, count);
+      assertEquals(ids.subList(1, 4), texts.stream().map(EntryText::id).toList());
+      assertEquals("Title 1", texts.get(0).title());
+      assertEquals("Content 1", texts.get(0).content());
+    }
+
+    @Test
+    @DisplayName("should stream nothing for an empty range")
+    void shouldStreamNothingForEmptyRange() {
+      Long id = repository.save(new DiaryEntry("Title", testAuthor, "Content")).getId();
+
+      assertEquals(0, repository.streamText(id + 1, id + 100, text -> fail()));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null action")
+    void shouldThrowForNullAction() {
+      assertThrows(NullPointerException.class, () -> repository.streamText(1, 2, null));
+    }
+  }
+
+  // streamTitles tests
+  @Nested
+  @DisplayName("streamTitles()")
+  class StreamTitlesTests {
+
+    @Test
+    @DisplayName("should stream every title in ID order")
+    void shouldStreamTitlesInIdOrder() {
+      Long first = repository.save(new DiaryEntry("Beach", testAuthor, "Content")).getId();
+      Long second = repository.save(new DiaryEntry("Berlin", testAuthor, "Content")).getId();
+      List<EntryTitle> titles = new ArrayList<>();
+
+      long count = repository.streamTitles(titles::add);
+
+      assertEquals(2, count);
+      assertEquals(List.of(new EntryTitle(first, "Beach"), new EntryTitle(second, "Berlin")),
+          titles);
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null action")
+    void shouldThrowForNullAction() {
+      assertThrows(NullPointerException.class, () -> repository.streamTitles(null));
+    }
+  }
+
+  // findTableState tests
+  @Nested
+  @DisplayName("findTableState()")
+  class FindTableStateTests {
+
+    @Test
+    @DisplayName("should describe an empty table")
+    void shouldDescribeEmptyTable() {
+      assertEquals(new EntryTableState(0, null, null, null), repository.findTableState());
+    }
+
+    @Test
+    @DisplayName("should change on insert, update and delete")
+    void shouldChangeOnEveryWrite() {
+      DiaryEntry first = repository.save(new DiaryEntry("First", testAuthor, "Content"));
+      DiaryEntry second = repository.save(new DiaryEntry("Second", testAuthor, "Content"));
+      EntryTableState inserted = repository.findTableState();
+      assertEquals(2, inserted.count());
+      assertEquals(first.getId(), inserted.minId());
+      assertEquals(second.getId(), inserted.maxId());
+      assertNotNull(inserted.lastUpdatedAt());
+
+      try (var session = sessionFactory.openSession()) {
+        var tx = session.beginTransaction();
+        session.createMutationQuery("UPDATE DiaryEntry e SET e.updatedAt = :updatedAt "
+                + "WHERE e.id = :id")
+            .setParameter("updatedAt", inserted.lastUpdatedAt().plusSeconds(1))
+            .setParameter("id", first.getId())
+            .executeUpdate();
+        tx.commit();
+      }
+      EntryTableState updated = repository.findTableState();
+      assertNotEquals(inserted, updated);
+
+      repository.deleteById(first.getId());
+      assertNotEquals(updated, repository.findTableState());
+    }
+
+    @Test
+    @DisplayName("should match the state worked out from the writes")
+    void shouldMatchStateAfterWrites() {
+      EntryTableState state = repository.findTableState();
+      DiaryEntry first = repository.save(new DiaryEntry("First", testAuthor, "Content"));
+      state = state.afterInsert(first.getId(), first.getUpdatedAt());
+      DiaryEntry middle = repository.save(new DiaryEntry("Middle", testAuthor, "Content"));
+      state = state.afterInsert(middle.getId(), middle.getUpdatedAt());
+      DiaryEntry last = repository.save(new DiaryEntry("Last", testAuthor, "Content"));
+      state = state.afterInsert(last.getId(), last.getUpdatedAt());
+      assertEquals(repository.findTableState(), state);
+
+      assertTrue(repository.updateTitleAndContent(last, "Changed", null));
+      state = state.afterUpdate(last.getUpdatedAt());
+      assertEquals(repository.findTableState(), state);
+
+      assertTrue(repository.delete(middle));
+      state = state.afterDelete(middle.getId(), middle.getUpdatedAt());
+      assertEquals(repository.findTableState(), state);
+    }
+
+    @Test
+    @DisplayName("should not work out the state after deleting an end of the table")
+    void shouldNotWorkOutStateAfterDeletingEnd() {
+      EntryTableState state = new EntryTableState(3, 1L, 9L, LocalDateTime.of(2025, 1, 2, 0, 0));
+      LocalDateTime earlier = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+      assertNull(state.afterDelete(1, earlier));
+      assertNull(state.afterDelete(9, earlier));
+      assertNull(state.afterDelete(5, state.lastUpdatedAt()));
+      assertNull(state.afterDelete(5, null));
+      assertEquals(new EntryTableState(2, 1L, 9L, state.lastUpdatedAt()),
+          state.afterDelete(5, earlier));
+      assertEquals(new EntryTableState(0, null, null, null),
+          new EntryTableState(1, 4L, 4L, earlier).afterDelete(4, earlier));
+    }
+  }
+
+  // findByIds tests
+  @Nested
+  @DisplayName("findByIds()")
+  class FindByIdsTests {
+
+    @Test
+    @DisplayName("should return entries in the order of the given IDs")
+    void shouldReturnEntriesInIdOrder() {
+      Long first = repository.save(new DiaryEntry("First", testAuthor, "Content")).getId();
+      Long second = repository.save(new DiaryEntry("Second", testAuthor, "Content")).getId();
+
+      List<DiaryEntry> results = repository.findByIds(List.of(second, 999L, first, second));
+
+      assertEquals(List.of(second, first, second),
+          results.stream().map(DiaryEntry::getId).toList());
+      assertTrue(repository.findByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should look up more IDs than fit in one statement")
+    void shouldLookUpManyIds() {
+      List<DiaryEntry> entries = new ArrayList<>();
+      for (int i = 0; i < 1200; i++) {
+        entries.add(new DiaryEntry("Title " + i, testAuthor, "Content"));
+      }
+      repository.saveAll(entries);
+      List<Long> ids = new ArrayList<>(repository.findAll().stream().map(DiaryEntry::getId)
+          .toList());
+      Collections.reverse(ids);
+
+      assertEquals(ids, repository.findByIds(ids).stream().map(DiaryEntry::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null IDs")
+    void shouldThrowForNullIds() {
+      assertThrows(NullPointerException.class, () -> repository.findByIds(null));
+    }
+  }
+
+  // initIdGenerator tests
+  @Nested
+  @DisplayName("initIdGenerator()")
+  class InitIdGeneratorTests {
+
+    private long nextValue() {
+      try (var session = sessionFactory.openSession()) {
+        return session
+            .createNativeQuery(
+                "SELECT next_val FROM id_generators WHERE name = 'diary_entries'", Long.class)
+            .uniqueResult();
+      }
+    }
+
+    @Test
+    @DisplayName("should move the generator past existing IDs")
+    void shouldMoveGeneratorPastExistingIds() {
+      try (var session = sessionFactory.openSession()) {
+        var tx = session.beginTransaction();
+        session.createNativeMutationQuery(
+                "INSERT INTO diary_entries (id, title, content, author_id, created_at, updated_at) "
+                    + "VALUES (1000000, 'Legacy', 'Content', :authorId, "
+                    + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
+            .setParameter("authorId", testAuthor.getId())
+            .executeUpdate();
+        tx.commit();
+      }
+
+      repository.initIdGenerator();
+
+      assertEquals(1000001, nextValue());
+    }
+
+    @Test
+    @DisplayName("should not move the generator backwards")
+    void shouldNotMoveGeneratorBackwards() {
+      repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+      long before = nextValue();
+
+      repository.initIdGenerator();
+
+      assertEquals(before, nextValue());
+    }
+  }
+
   // findById tests
   @Nested
   @DisplayName("findById()")
@@ -261,54 +754,125 @@ class DiaryEntryRepositoryTest {
     }
   }
 
-  // findByDate tests
+  // searchFullText tests
   @Nested
-  @DisplayName("findByDate()")
-  class FindByDateTests {
+  @DisplayName("searchFullText()")
+  class SearchFullTextTests {
+
+    @BeforeEach
+    void setUp() {
+      assertTrue(repository.initFullTextSearch());
+    }
 
     @Test
-    @DisplayName("should find entries created today")
-    void shouldFindEntriesCreatedToday() {
-      repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+    @DisplayName("should find entries by word prefix in title or content")
+    void shouldFindEntriesByWordPrefix() {
+      repository.save(new DiaryEntry("My Vacation", testAuthor, "Content"));
+      repository.save(new DiaryEntry("Work Day", testAuthor, "Went to the beach"));
+      repository.save(new DiaryEntry("Other", testAuthor, "Nothing here"));
+
+      assertEquals(1, repository.searchFullText("vaca").size());
+      assertEquals(1, repository.searchFullText("BEACH").size());
+    }
+
+    @Test
+    @DisplayName("should rank title matches above content matches")
+    void shouldRankTitleMatchesFirst() {
+      repository.save(new DiaryEntry("Notes", testAuthor, "A long day, the garden needed work"));
+      repository.save(new DiaryEntry("Garden", testAuthor, "Planted tomatoes"));
+
+      List<DiaryEntry> results = repository.searchFullText("garden");
+
+      assertEquals(2, results.size());
+      assertEquals("Garden", results.get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("should require every search word to match")
+    void shouldRequireEveryWord() {
+      repository.save(new DiaryEntry("Beach trip", testAuthor, "Sunny weather"));
+      repository.save(new DiaryEntry("Beach cleanup", testAuthor, "Rainy weather"));
 
-      List<DiaryEntry> results = repository.findByDate(LocalDate.now());
+      List<DiaryEntry> results = repository.searchFullText("beach sunny");
 
       assertEquals(1, results.size());
+      assertEquals("Beach trip", results.get(0).getTitle());
     }
 
     @Test
-    @DisplayName("should return empty list for date with no entries")
-    void shouldReturnEmptyListForDateWithNoEntries() {
+    @DisplayName("should stay in sync with updates and deletes")
+    void shouldStayInSyncWithUpdatesAndDeletes() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+      entry.setTitle("Renamed");
+      repository.update(entry);
+
+      assertTrue(repository.searchFullText("original").isEmpty());
+      assertEquals(1, repository.searchFullText("renamed").size());
+
+      repository.delete(entry);
+
+      assertTrue(repository.searchFullText("renamed").isEmpty());
+    }
+
+    @Test
+    @DisplayName("should treat query syntax as plain text")
+    void shouldTreatQuerySyntaxAsPlainText() {
       repository.save(new DiaryEntry("Title", testAuthor, "Content"));
 
-      List<DiaryEntry> results = repository.findByDate(LocalDate.now().minusDays(10));
+      assertDoesNotThrow(() -> repository.searchFullText("\"title\" OR NEAR("));
+    }
 
-      assertTrue(results.isEmpty());
+    @Test
+    @DisplayName("should return same results after rebuild")
+    void shouldReturnSameResultsAfterRebuild() {
+      repository.save(new DiaryEntry("Mountain hike", testAuthor, "Content"));
+
+      repository.rebuildFullTextIndex();
+
+      assertEquals(1, repository.searchFullText("mountain").size());
     }
 
     @Test
-    @DisplayName("should throw NullPointerException for null date")
-    void shouldThrowForNullDate() {
-      assertThrows(NullPointerException.class, () -> repository.findByDate(null));
+    @DisplayName("should build quoted prefix terms from free text")
+    void shouldBuildQuotedPrefixTerms() {
+      assertEquals("\"beach\"* \"day\"*", DiaryEntryRepository.toMatchExpression("beach, day!"));
+      assertEquals("", DiaryEntryRepository.toMatchExpression("  !? "));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null search text")
+    void shouldThrowForNullSearchText() {
+      assertThrows(NullPointerException.class, () -> repository.searchFullText(null));
     }
   }
 
-  // findByDateRange tests
+  // findIdsByDateRange tests
   @Nested
-  @DisplayName("findByDateRange()")
-  class FindByDateRangeTests {
+  @DisplayName("findIdsByDateRange()")
+  class FindIdsByDateRangeTests {
 
     @Test
-    @DisplayName("should find entries within date range")
-    void shouldFindEntriesWithinDateRange() {
-      repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+    @DisplayName("should find IDs of entries within date range, newest first")
+    void shouldFindIdsWithinDateRange() {
+      DiaryEntry first = repository.save(new DiaryEntry("First", testAuthor, "Content"));
+      DiaryEntry second = repository.save(new DiaryEntry("Second", testAuthor, "Content"));
 
-      List<DiaryEntry> results = repository.findByDateRange(
+      List<Long> results = repository.findIdsByDateRange(
           LocalDate.now().minusDays(1),
           LocalDate.now().plusDays(1)
       );
 
-      assertEquals(1, results.size());
+      assertEquals(List.of(second.getId(), first.getId()), results);
+    }
+
+    @Test
+    @DisplayName("should find IDs of entries created on a single day")
+    void shouldFindIdsForSingleDay() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+
+      List<Long> results = repository.findIdsByDateRange(LocalDate.now(), LocalDate.now());
+
+      assertEquals(List.of(entry.getId()), results);
     }
 
     @Test
@@ -316,7 +880,7 @@ class DiaryEntryRepositoryTest {
     void shouldReturnEmptyListWhenNoEntriesInRange() {
       repository.save(new DiaryEntry("Title", testAuthor, "Content"));
 
-      List<DiaryEntry> results = repository.findByDateRange(
+      List<Long> results = repository.findIdsByDateRange(
           LocalDate.now().minusDays(10),
           LocalDate.now().minusDays(5)
       );
@@ -328,14 +892,178 @@ class DiaryEntryRepositoryTest {
     @DisplayName("should throw NullPointerException for null start date")
     void shouldThrowForNullStartDate() {
       assertThrows(NullPointerException.class,
-          () -> repository.findByDateRange(null, LocalDate.now()));
+          () -> repository.findIdsByDateRange(null, LocalDate.now()));
     }
 
     @Test
     @DisplayName("should throw NullPointerException for null end date")
     void shouldThrowForNullEndDate() {
       assertThrows(NullPointerException.class,
-          () -> repository.findByDateRange(LocalDate.now(), null));
+          () -> repository.findIdsByDateRange(LocalDate.now(), null));
+    }
+  }
+
+  // keyset pagination tests
+  @Nested
+  @DisplayName("findSummaryPage()")
+  class FindPageTests {
+
+    private List<Long> saveEntries(int count, Author author) {
+      List<Long> ids = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        ids.add(repository.save(new DiaryEntry("Title " + i, author, "Content")).getId());
+      }
+      return ids;
+    }
+
+    private List<Long> idsOf(Page<DiaryEntrySummary> page) {
+      return page.items().stream().map(DiaryEntrySummary::id).toList();
+    }
+
+    @Test
+    @DisplayName("should return empty first page when no entries")
+    void shouldReturnEmptyFirstPage() {
+      Page<DiaryEntrySummary> page = repository.findSummaryPage(PageRequest.first(10));
+
+      assertTrue(page.isEmpty());
+      assertFalse(page.hasNext());
+      assertFalse(page.hasPrevious());
+    }
+
+    @Test
+    @DisplayName("should walk forward through all entries newest first without overlap")
+    void shouldWalkForwardThroughAllEntries() {
+      List<Long> ids = saveEntries(25, testAuthor);
+
+      Page<DiaryEntrySummary> first = repository.findSummaryPage(PageRequest.first(10));
+      Page<DiaryEntrySummary> second = repository.findSummaryPage(first.nextRequest());
+      Page<DiaryEntrySummary> third = repository.findSummaryPage(second.nextRequest());
+
+      List<Long> seen = new ArrayList<>(idsOf(first));
+      seen.addAll(idsOf(second));
+      seen.addAll(idsOf(third));
+      assertEquals(ids.reversed(), seen);
+      assertFalse(first.hasPrevious());
+      assertTrue(first.hasNext());
+      assertTrue(second.hasPrevious());
+      assertEquals(5, third.items().size());
+      assertFalse(third.hasNext());
+    }
+
+    @Test
+    @DisplayName("should walk backward to the same pages")
+    void shouldWalkBackwardToSamePages() {
+      saveEntries(25, testAuthor);
+      Page<DiaryEntrySummary> first = repository.findSummaryPage(PageRequest.first(10));
+      Page<DiaryEntrySummary> second = repository.findSummaryPage(first.nextRequest());
+      Page<DiaryEntrySummary> third = repository.findSummaryPage(second.nextRequest());
+
+      Page<DiaryEntrySummary> backToSecond = repository.findSummaryPage(third.previousRequest());
+      Page<DiaryEntrySummary> backToFirst =
+          repository.findSummaryPage(backToSecond.previousRequest());
+
+      assertEquals(idsOf(second), idsOf(backToSecond));
+      assertEquals(idsOf(first), idsOf(backToFirst));
+      assertTrue(backToSecond.hasNext());
+      assertFalse(backToFirst.hasPrevious());
+    }
+
+    @Test
+    @DisplayName("should only page through entries of the given author")
+    void shouldPageByAuthor() {
+      Author otherAuthor = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      saveEntries(3, otherAuthor);
+      List<Long> ids = saveEntries(4, testAuthor);
+
+      Page<DiaryEntrySummary> first = repository.findSummaryPageByAuthorId(
+          testAuthor.getId(), PageRequest.first(3));
+      Page<DiaryEntrySummary> second = repository.findSummaryPageByAuthorId(testAuthor.getId(),
+          first.nextRequest());
+
+      assertEquals(ids.subList(1, 4).reversed(), idsOf(first));
+      assertEquals(List.of(ids.get(0)), idsOf(second));
+      assertFalse(second.hasNext());
+    }
+
+    @Test
+    @DisplayName("should page through entries in a date range")
+    void shouldPageByDateRange() {
+      saveEntries(3, testAuthor);
+
+      Page<DiaryEntrySummary> today = repository.findSummaryPageByDate(LocalDate.now(),
+          PageRequest.first(2));
+      Page<DiaryEntrySummary> past = repository.findSummaryPageByDateRange(
+          LocalDate.now().minusDays(10), LocalDate.now().minusDays(5), PageRequest.first(2));
+
+      assertEquals(2, today.items().size());
+      assertTrue(today.hasNext());
+      assertTrue(past.isEmpty());
+    }
+
+    @Test
+    @DisplayName("should reject invalid page requests")
+    void shouldRejectInvalidPageRequests() {
+      assertThrows(IllegalArgumentException.class, () -> PageRequest.first(0));
+      assertThrows(NullPointerException.class, () -> PageRequest.before(null, 10));
+      assertThrows(NullPointerException.class, () -> repository.findSummaryPage(null));
+    }
+
+    @Test
+    @DisplayName("should fill summaries with title, author and creation date")
+    void shouldFillSummaryFields() {
+      DiaryEntry entry = repository.save(new DiaryEntry("My Day", testAuthor, "Content"));
+
+      DiaryEntrySummary summary = repository.findSummaryPage(PageRequest.first(10)).items().get(0);
+
+      assertEquals(entry.getId(), summary.id());
+      assertEquals("My Day", summary.title());
+      assertEquals(testAuthor.getId(), summary.authorId());
+      assertEquals("John Doe", summary.authorName());
+      // SQLite stores timestamps with millisecond precision
+      assertEquals(entry.getCreatedAt().truncatedTo(ChronoUnit.MILLIS), summary.createdAt());
+    }
+  }
+
+  // summary search tests
+  @Nested
+  @DisplayName("summary searches")
+  class SummarySearchTests {
+
+    @Test
+    @DisplayName("should find summaries matching title or content")
+    void shouldFindSummariesMatchingTitleOrContent() {
+      repository.save(new DiaryEntry("My Vacation", testAuthor, "Content"));
+      repository.save(new DiaryEntry("Work Day", testAuthor, "Went to the beach"));
+
+      assertEquals(1, repository.searchSummariesByTitleOrContent("VACATION").size());
+      assertEquals(1, repository.searchSummariesByTitleOrContent("beach").size());
+      assertTrue(repository.searchSummariesByTitleOrContent("xyz123").isEmpty());
+    }
+
+    @Test
+    @DisplayName("should find ranked summaries through the full-text index")
+    void shouldFindRankedSummariesThroughFullTextIndex() {
+      assertTrue(repository.initFullTextSearch());
+      repository.save(new DiaryEntry("Notes", testAuthor, "A long day, the garden needed work"));
+      repository.save(new DiaryEntry("Garden", testAuthor, "Planted tomatoes"));
+
+      List<DiaryEntrySummary> results = repository.searchSummariesFullText("garden");
+
+      assertEquals(List.of("Garden", "Notes"),
+          results.stream().map(DiaryEntrySummary::title).toList());
+    }
+
+    @Test
+    @DisplayName("should return summaries in the order of the given IDs")
+    void shouldReturnSummariesInIdOrder() {
+      Long first = repository.save(new DiaryEntry("First", testAuthor, "Content")).getId();
+      Long second = repository.save(new DiaryEntry("Second", testAuthor, "Content")).getId();
+
+      List<DiaryEntrySummary> results = repository.findSummariesByIds(
+          List.of(second, 999L, first));
+
+      assertEquals(List.of(second, first), results.stream().map(DiaryEntrySummary::id).toList());
+      assertTrue(repository.findSummariesByIds(List.of()).isEmpty());
     }
   }
 
@@ -357,6 +1085,32 @@ class DiaryEntryRepositoryTest {
       assertEquals("Updated Title", found.get().getTitle());
     }
 
+    @Test
+    @DisplayName("should move the version on")
+    void shouldMoveVersionOn() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+      assertEquals(0, entry.getVersion());
+      entry.setTitle("Updated Title");
+
+      DiaryEntry updated = repository.update(entry);
+
+      assertEquals(1, updated.getVersion());
+    }
+
+    @Test
+    @DisplayName("should reject an entry changed since it was loaded")
+    void shouldRejectStaleEntry() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+      DiaryEntry first = repository.findById(entry.getId()).orElseThrow();
+      DiaryEntry second = repository.findById(entry.getId()).orElseThrow();
+      first.setTitle("First");
+      repository.update(first);
+      second.setTitle("Second");
+
+      assertThrows(OptimisticLockException.class, () -> repository.update(second));
+      assertEquals("First", repository.findById(entry.getId()).orElseThrow().getTitle());
+    }
+
     @Test
     @DisplayName("should throw NullPointerException for null entry")
     void shouldThrowForNullEntry() {
@@ -364,6 +1118,117 @@ class DiaryEntryRepositoryTest {
     }
   }
 
+  // updateTitleAndContent tests
+  @Nested
+  @DisplayName("updateTitleAndContent()")
+  class UpdateTitleAndContentTests {
+
+    @Test
+    @DisplayName("should update the title with one statement that leaves the content alone")
+    void shouldUpdateTitleWithOneStatement() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+      RecordingStatementInspector.clear();
+
+      assertTrue(repository.updateTitleAndContent(entry, "Updated", null));
+
+      List<String> statements = RecordingStatementInspector.statements();
+      assertEquals(1, statements.size());
+      assertTrue(statements.get(0).startsWith("update diary_entries"));
+      assertFalse(statements.get(0).contains("content"));
+      DiaryEntry found = repository.findById(entry.getId()).orElseThrow();
+      assertEquals("Updated", found.getTitle());
+      assertEquals("Content", found.getContent());
+      assertEquals(entry.getUpdatedAt().truncatedTo(ChronoUnit.MILLIS),
+          found.getUpdatedAt().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Test
+    @DisplayName("should update title and content together")
+    void shouldUpdateTitleAndContent() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+
+      repository.updateTitleAndContent(entry, "Updated", "New content");
+
+      DiaryEntry found = repository.findById(entry.getId()).orElseThrow();
+      assertEquals("Updated", found.getTitle());
+      assertEquals("New content", found.getContent());
+    }
+
+    @Test
+    @DisplayName("should move the version on in the database and in the given entry")
+    void shouldMoveVersionOn() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+
+      repository.updateTitleAndContent(entry, "Updated", null);
+      repository.updateTitleAndContent(entry, "Updated again", null);
+
+      assertEquals(2, entry.getVersion());
+      assertEquals(2, repository.findById(entry.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("should not update an entry changed since it was loaded")
+    void shouldNotUpdateStaleEntry() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+      DiaryEntry stale = repository.findById(entry.getId()).orElseThrow();
+      repository.updateTitleAndContent(entry, "First", null);
+
+      assertFalse(repository.updateTitleAndContent(stale, "Second", null));
+
+      assertEquals(0, stale.getVersion());
+      assertEquals("First", repository.findById(entry.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("should not return a stale cached entry")
+    void shouldEvictCachedEntry() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+      repository.findById(entry.getId());
+
+      repository.updateTitleAndContent(entry, null, "New content");
+
+      assertEquals("New content", repository.findById(entry.getId()).orElseThrow().getContent());
+    }
+
+    @Test
+    @DisplayName("should keep the search index up to date")
+    void shouldUpdateSearchIndex() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+
+      repository.updateTitleAndContent(entry, "Espresso", null);
+
+      assertEquals(1, repository.searchByTitleOrContent("espresso").size());
+      assertTrue(repository.searchByTitleOrContent("original").isEmpty());
+    }
+
+    @Test
+    @DisplayName("should return false for a deleted entry")
+    void shouldReturnFalseForDeletedEntry() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+      repository.delete(entry);
+
+      assertFalse(repository.updateTitleAndContent(entry, "Title", null));
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException when nothing is changed")
+    void shouldThrowWhenNothingChanged() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+
+      assertThrows(IllegalArgumentException.class,
+          () -> repository.updateTitleAndContent(entry, null, null));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for an unsaved entry")
+    void shouldThrowForUnsavedEntry() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+
+      assertThrows(NullPointerException.class,
+          () -> repository.updateTitleAndContent(entry, "Title", null));
+    }
+  }
+
   // delete tests
   @Nested
   @DisplayName("delete()")
@@ -375,16 +1240,91 @@ class DiaryEntryRepositoryTest {
       DiaryEntry entry = repository.save(new DiaryEntry("Title", testAuthor, "Content"));
       Long id = entry.getId();
 
-      repository.delete(entry);
+      assertTrue(repository.delete(entry));
 
       assertTrue(repository.findById(id).isEmpty());
     }
 
+    @Test
+    @DisplayName("should keep an entry changed since it was loaded")
+    void shouldKeepChangedEntry() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+      DiaryEntry stale = repository.findById(entry.getId()).orElseThrow();
+      assertTrue(repository.updateTitleAndContent(entry, "Changed", null));
+
+      assertFalse(repository.delete(stale));
+
+      assertEquals("Changed", repository.findById(entry.getId()).orElseThrow().getTitle());
+    }
+
     @Test
     @DisplayName("should throw NullPointerException for null entry")
     void shouldThrowForNullEntry() {
       assertThrows(NullPointerException.class, () -> repository.delete(null));
     }
+
+    @Test
+    @DisplayName("should throw NullPointerException for an unsaved entry")
+    void shouldThrowForUnsavedEntry() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+
+      assertThrows(NullPointerException.class, () -> repository.delete(entry));
+    }
+  }
+
+  // deleteById tests
+  @Nested
+  @DisplayName("deleteById()")
+  class DeleteByIdTests {
+
+    @Test
+    @DisplayName("should delete the entry with a single statement")
+    void shouldDeleteWithSingleStatement() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+      RecordingStatementInspector.clear();
+
+      assertTrue(repository.deleteById(entry.getId()));
+
+      List<String> statements = RecordingStatementInspector.statements();
+      assertEquals(1, statements.size());
+      assertTrue(statements.get(0).startsWith("delete from diary_entries"));
+      assertTrue(repository.findById(entry.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should return false when the entry does not exist")
+    void shouldReturnFalseWhenNotFound() {
+      assertFalse(repository.deleteById(999L));
+    }
+
+    @Test
+    @DisplayName("should not return a deleted entry from the caches")
+    void shouldEvictCachedEntry() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+      repository.findById(entry.getId());
+      repository.countByAuthorId(testAuthor.getId());
+
+      repository.deleteById(entry.getId());
+
+      assertTrue(repository.findById(entry.getId()).isEmpty());
+      assertEquals(0, repository.countByAuthorId(testAuthor.getId()));
+    }
+
+    @Test
+    @DisplayName("should remove the entry from the search index")
+    void shouldUpdateSearchIndex() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Espresso", testAuthor, "Content"));
+
+      repository.deleteById(entry.getId());
+
+      assertTrue(repository.searchByTitleOrContent("espresso").isEmpty());
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null id")
+    void shouldThrowForNullId() {
+      assertThrows(NullPointerException.class, () -> repository.deleteById(null));
+    }
   }
 
   // count tests
@@ -439,5 +1379,157 @@ class DiaryEntryRepositoryTest {
       assertThrows(NullPointerException.class, () -> repository.countByAuthorId(null));
     }
   }
-}
 
+  // lazy content tests
+  @Nested
+  @DisplayName("Lazy content")
+  class LazyContentTests {
+
+    private DiaryEntry entry;
+
+    @BeforeEach
+    void setUp() {
+      entry = repository.save(new DiaryEntry("Title", testAuthor, "Long content"));
+      // Start from the database, not from entries cached by save()
+      sessionFactory.getCache().evictAllRegions();
+      RecordingStatementInspector.clear();
+    }
+
+    private List<String> statements(String prefix) {
+      return RecordingStatementInspector.statements().stream()
+          .filter(sql -> sql.stripLeading().toLowerCase().startsWith(prefix))
+          .toList();
+    }
+
+    @Test
+    @DisplayName("findAll should not select the content column")
+    void findAllShouldNotSelectContent() {
+      List<DiaryEntry> entries = repository.findAll();
+
+      assertEquals(1, entries.size());
+      assertFalse(Hibernate.isPropertyInitialized(entries.get(0), "content"));
+      assertTrue(statements("select").stream().noneMatch(sql -> sql.contains("content")));
+    }
+
+    @Test
+    @DisplayName("should fetch the content on first access while the session is open")
+    void shouldFetchContentOnFirstAccess() {
+      try (var session = sessionFactory.openSession()) {
+        DiaryEntry found = session.createQuery("FROM DiaryEntry", DiaryEntry.class)
+            .getSingleResult();
+        assertFalse(Hibernate.isPropertyInitialized(found, "content"));
+        RecordingStatementInspector.clear();
+
+        assertEquals("Long content", found.getContent());
+
+        assertEquals(1, statements("select").size());
+        assertTrue(statements("select").get(0).contains("content"));
+      }
+    }
+
+    @Test
+    @DisplayName("should not fetch the content of entries listed after the session is closed")
+    void shouldNotFetchContentAfterSessionIsClosed() {
+      DiaryEntry found = repository.findAll().get(0);
+
+      assertThrows(LazyInitializationException.class, found::getContent);
+    }
+
+    @Test
+    @DisplayName("findById should return the entry with its content loaded")
+    void findByIdShouldLoadContent() {
+      DiaryEntry found = repository.findById(entry.getId()).orElseThrow();
+
+      assertTrue(Hibernate.isPropertyInitialized(found, "content"));
+      assertEquals("Long content", found.getContent());
+    }
+
+    @Test
+    @DisplayName("update should write only the changed columns")
+    void updateShouldWriteOnlyChangedColumns() {
+      DiaryEntry found = repository.findById(entry.getId()).orElseThrow();
+      found.setTitle("New title");
+      RecordingStatementInspector.clear();
+
+      repository.update(found);
+
+      List<String> updates = statements("update diary_entries");
+      assertEquals(1, updates.size());
+      assertTrue(updates.get(0).contains("title"));
+      assertFalse(updates.get(0).contains("content"));
+      assertFalse(updates.get(0).contains("author_id"));
+      assertEquals("Long content", repository.findById(entry.getId()).orElseThrow().getContent());
+    }
+  }
+
+  // query cache tests
+  @Nested
+  @DisplayName("Query cache")
+  class QueryCacheTests {
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+      statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    @DisplayName("should answer repeated counts from the query cache")
+    void shouldCacheCounts() {
+      repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+      repository.count();
+      repository.countEntriesGroupedByAuthor();
+      statistics.clear();
+
+      assertEquals(1, repository.count());
+      assertEquals(1L, repository.countEntriesGroupedByAuthor().get(testAuthor.getId()));
+
+      assertEquals(0, statistics.getPrepareStatementCount());
+      assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("should invalidate cached counts when entries are saved or deleted")
+    void shouldInvalidateCounts() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+      assertEquals(1, repository.count());
+      assertEquals(1, repository.countByAuthorId(testAuthor.getId()));
+
+      repository.saveAll(List.of(new DiaryEntry("Bulk 1", testAuthor, "Content"),
+          new DiaryEntry("Bulk 2", testAuthor, "Content")));
+      assertEquals(3, repository.count());
+      assertEquals(3, repository.countByAuthorId(testAuthor.getId()));
+
+      repository.delete(entry);
+      assertEquals(2, repository.count());
+      assertEquals(2, repository.countByAuthorId(testAuthor.getId()));
+    }
+
+    @Test
+    @DisplayName("should show updated titles in cached summary pages")
+    void shouldInvalidateSummaryPages() {
+      DiaryEntry entry = repository.save(new DiaryEntry("Original", testAuthor, "Content"));
+      repository.findSummaryPage(PageRequest.first(10));
+
+      entry.setTitle("Updated");
+      repository.update(entry);
+
+      assertEquals("Updated",
+          repository.findSummaryPage(PageRequest.first(10)).items().get(0).title());
+    }
+
+    @Test
+    @DisplayName("should show updated author names in cached summary pages")
+    void shouldInvalidateSummaryPagesOnAuthorUpdate() {
+      repository.save(new DiaryEntry("Title", testAuthor, "Content"));
+      repository.findSummaryPage(PageRequest.first(10));
+
+      testAuthor.setFirstName("Johnny");
+      authorRepository.update(testAuthor);
+
+      assertEquals("Johnny Doe",
+          repository.findSummaryPage(PageRequest.first(10)).items().get(0).authorName());
+    }
+  }
+}
@@ -0,0 +1,313 @@
+package edu.ntnu.idi.idatt.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.util.RecordingStatementInspector;
+import edu.ntnu.idi.idatt.util.TestHibernateUtil;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks with {@code EXPLAIN QUERY PLAN} that the repository queries are answered from the
+ * indexes created by the migrations, without full table scans or temporary sort trees.
+ */
+class QueryPlanTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+  private static final String CREATED_AT = "USING INDEX diary_entries_created_at";
+  private static final String AUTHOR_CREATED_AT = "USING INDEX diary_entries_author_created_at";
+
+  private static SessionFactory sessionFactory;
+  private DiaryEntryRepository entryRepository;
+  private AuthorRepository authorRepository;
+  private Author author;
+
+  @BeforeAll
+  static void setUpClass() {
+    sessionFactory = TestHibernateUtil.getSessionFactory();
+  }
+
+  @AfterAll
+  static void tearDownClass() {
+    TestHibernateUtil.shutdown();
+  }
+
+  @BeforeEach
+  void setUp() {
+    entryRepository = new DiaryEntryRepository(sessionFactory);
+    authorRepository = new AuthorRepository(sessionFactory);
+    clearDatabase();
+    author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+  }
+
+  private void clearDatabase() {
+    try (var session = sessionFactory.openSession()) {
+      var tx = session.beginTransaction();
+      session.createMutationQuery("DELETE FROM DiaryEntry").executeUpdate();
+      session.createMutationQuery("DELETE FROM Author").executeUpdate();
+      tx.commit();
+    }
+  }
+
+  /**
+   * Runs a repository call and explains the last query it executed. Caches are emptied first, so
+   * the call always reaches the database.
+   */
+  private String planOf(Runnable call) {
+    sessionFactory.getCache().evictAllRegions();
+    RecordingStatementInspector.clear();
+    call.run();
+    List<String> queries = RecordingStatementInspector.statements().stream()
+        .filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+        .toList();
+    assertFalse(queries.isEmpty(), "No query was executed");
+    return explain(queries.get(queries.size() - 1));
+  }
+
+  private String explain(String sql) {
+    List<String> details = new ArrayList<>();
+    try (var session = sessionFactory.openSession()) {
+      session.doWork(connection -> {
+        // Unbound parameters are NULL, which does not change the plan
+        try (PreparedStatement statement = connection.prepareStatement(
+            "EXPLAIN QUERY PLAN " + sql);
+            ResultSet rows = statement.executeQuery()) {
+          while (rows.next()) {
+            details.add(rows.getString("detail"));
+          }
+        }
+      });
+    }
+    return String.join("\n", details);
+  }
+
+  private static void assertUses(String plan, String index) {
+    assertTrue(plan.contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+  }
+
+  private static void assertNoFullScan(String plan) {
+    for (String line : plan.split("\n")) {
+      assertFalse(line.startsWith("SCAN") && !line.contains(" USING "),
+          () -> "Unexpected full table scan in plan:\n" + plan);
+    }
+  }
+
+  private static void assertNoSort(String plan) {
+    assertFalse(plan.contains("USE TEMP B-TREE"), () -> "Unexpected sort in plan:\n" + plan);
+  }
+
+  // diary entry listing tests
+  @Nested
+  @DisplayName("Entry listings")
+  class EntryListingTests {
+
+    @Test
+    @DisplayName("findAll should read the creation date index in order")
+    void findAllShouldUseCreatedAtIndex() {
+      String plan = planOf(() -> entryRepository.findAll());
+
+      assertUses(plan, CREATED_AT);
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("findByAuthor should seek the author index in order")
+    void findByAuthorShouldUseAuthorIndex() {
+      String plan = planOf(() -> entryRepository.findByAuthor(author));
+
+      assertUses(plan, AUTHOR_CREATED_AT);
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("findByAuthorId should seek the author index in order")
+    void findByAuthorIdShouldUseAuthorIndex() {
+      String plan = planOf(() -> entryRepository.findByAuthorId(author.getId()));
+
+      assertUses(plan, AUTHOR_CREATED_AT);
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("findSummaries should seek the author index for one author and a date range")
+    void findSummariesShouldUseAuthorIndex() {
+      String plan = planOf(() -> entryRepository.findSummaries(DiaryEntryQuery.all()
+          .withKeyword("beach")
+          .withAuthors(List.of(author.getId()))
+          .withDateRange(DAY, DAY.plusDays(7))));
+
+      assertUses(plan, AUTHOR_CREATED_AT);
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("findSummaries should seek the creation date index for a date range")
+    void findSummariesShouldUseCreatedAtIndex() {
+      String plan = planOf(() -> entryRepository.findSummaries(DiaryEntryQuery.all()
+          .withDateRange(DAY, DAY.plusDays(7))));
+
+      assertUses(plan, CREATED_AT);
+      assertNoFullScan(plan);
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("findIdsByDateRange should read only the creation date index")
+    void findIdsByDateRangeShouldUseCreatedAtRange() {
+      String plan = planOf(() -> entryRepository.findIdsByDateRange(DAY, DAY.plusDays(6)));
+
+      assertUses(plan,
+          "COVERING INDEX diary_entries_created_at (created_at>? AND created_at<?)");
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("searchByTitleOrContent should return matches in index order")
+    void searchByTitleOrContentShouldUseCreatedAtIndex() {
+      String plan = planOf(() -> entryRepository.searchByTitleOrContent("coffee"));
+
+      assertUses(plan, CREATED_AT);
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("findSummariesByIds should look up the primary key")
+    void findSummariesByIdsShouldUsePrimaryKey() {
+      String plan = planOf(() -> entryRepository.findSummariesByIds(List.of(1L, 2L, 3L)));
+
+      assertUses(plan, "(id=?)");
+      assertNoFullScan(plan);
+    }
+  }
+
+  // summary page tests
+  @Nested
+  @DisplayName("Summary pages")
+  class SummaryPageTests {
+
+    private final EntryCursor cursor = new EntryCursor(DAY.atTime(12, 0), 100L);
+
+    @Test
+    @DisplayName("first page should read the creation date index in order")
+    void firstPageShouldUseCreatedAtIndex() {
+      String plan = planOf(() -> entryRepository.findSummaryPage(PageRequest.first(20)));
+
+      assertUses(plan, CREATED_AT);
+      assertNoSort(plan);
+      assertNoFullScan(plan);
+    }
+
+    @Test
+    @DisplayName("next page should start the index range at the cursor")
+    void nextPageShouldSeekToCursor() {
+      String plan = planOf(() -> entryRepository.findSummaryPage(PageRequest.after(cursor, 20)));
+
+      assertUses(plan, CREATED_AT + " (created_at<?)");
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("previous page should start the index range at the cursor")
+    void previousPageShouldSeekToCursor() {
+      String plan = planOf(() -> entryRepository.findSummaryPage(PageRequest.before(cursor, 20)));
+
+      assertUses(plan, CREATED_AT + " (created_at>?)");
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("author page should seek the author index in order")
+    void authorPageShouldUseAuthorIndex() {
+      String plan = planOf(() -> entryRepository.findSummaryPageByAuthorId(author.getId(),
+          PageRequest.after(cursor, 20)));
+
+      assertUses(plan, AUTHOR_CREATED_AT + " (author_id=? AND created_at<?)");
+      assertNoSort(plan);
+    }
+
+    @Test
+    @DisplayName("date range page should seek a creation date range")
+    void dateRangePageShouldUseCreatedAtRange() {
+      String plan = planOf(() -> entryRepository.findSummaryPageByDateRange(DAY,
+          DAY.plusDays(6), PageRequest.first(20)));
+
+      assertUses(plan, CREATED_AT + " (created_at>? AND created_at<?)");
+      assertNoSort(plan);
+    }
+  }
+
+  // count tests
+  @Nested
+  @DisplayName("Counts")
+  class CountTests {
+
+    @Test
+    @DisplayName("count should scan a covering index")
+    void countShouldUseCoveringIndex() {
+      String plan = planOf(() -> entryRepository.count());
+
+      assertUses(plan, "COVERING INDEX");
+    }
+
+    @Test
+    @DisplayName("countByAuthorId should seek the author index")
+    void countByAuthorIdShouldUseAuthorIndex() {
+      String plan = planOf(() -> entryRepository.countByAuthorId(author.getId()));
+
+      assertUses(plan, "COVERING INDEX diary_entries_author_created_at (author_id=?)");
+    }
+
+    @Test
+    @DisplayName("countEntriesGroupedByAuthor should group in author index order")
+    void countEntriesGroupedByAuthorShouldUseAuthorIndex() {
+      String plan = planOf(() -> entryRepository.countEntriesGroupedByAuthor());
+
+      assertUses(plan, "COVERING INDEX diary_entries_author_created_at");
+      assertNoSort(plan);
+    }
+  }
+
+  // author query tests
+  @Nested
+  @DisplayName("Author queries")
+  class AuthorQueryTests {
+
+    @Test
+    @DisplayName("findByEmail should seek the unique email index")
+    void findByEmailShouldUseEmailIndex() {
+      String plan = planOf(() -> authorRepository.findByEmail("john@example.com"));
+
+      assertUses(plan, "(email=?)");
+      assertNoFullScan(plan);
+    }
+
+    @Test
+    @DisplayName("existsByEmail should seek the unique email index")
+    void existsByEmailShouldUseEmailIndex() {
+      String plan = planOf(() -> authorRepository.existsByEmail("john@example.com"));
+
+      assertUses(plan, "(email=?)");
+      assertNoFullScan(plan);
+    }
+
+    @Test
+    @DisplayName("findAll should read the author creation date index in order")
+    void findAllShouldUseAuthorCreatedAtIndex() {
+      String plan = planOf(() -> authorRepository.findAll());
+
+      assertUses(plan, "USING INDEX authors_created_at");
+      assertNoSort(plan);
+    }
+  }
+}
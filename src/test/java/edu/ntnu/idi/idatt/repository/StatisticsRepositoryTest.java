@@ -0,0 +1,272 @@
+package edu.ntnu.idi.idatt.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.AuthorStatistics;
+import edu.ntnu.idi.idatt.util.TestHibernateUtil;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class StatisticsRepositoryTest {
+
+  private static SessionFactory sessionFactory;
+  private StatisticsRepository repository;
+  private AuthorRepository authorRepository;
+  private DiaryEntryRepository entryRepository;
+
+  @BeforeAll
+  static void setUpClass() {
+    sessionFactory = TestHibernateUtil.getSessionFactory();
+  }
+
+  @AfterAll
+  static void tearDownClass() {
+    TestHibernateUtil.shutdown();
+  }
+
+  @BeforeEach
+  void setUp() {
+    repository = new StatisticsRepository(sessionFactory);
+    authorRepository = new AuthorRepository(sessionFactory);
+    entryRepository = new DiaryEntryRepository(sessionFactory);
+    clearDatabase();
+    repository.initAuthorStatistics();
+    sessionFactory.getStatistics().clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.getStatistics().setStatisticsEnabled(true);
+  }
+
+  private void clearDatabase() {
+    try (var session = sessionFactory.openSession()) {
+      var tx = session.beginTransaction();
+      session.createMutationQuery("DELETE FROM DiaryEntry").executeUpdate();
+      session.createMutationQuery("DELETE FROM Author").executeUpdate();
+      tx.commit();
+    }
+  }
+
+  private void executeSql(String sql) {
+    try (var session = sessionFactory.openSession()) {
+      var tx = session.beginTransaction();
+      session.createNativeMutationQuery(sql).executeUpdate();
+      tx.commit();
+    }
+  }
+
+  private long entryCountOf(Author author) {
+    return repository.findAuthorStatistics().stream()
+        .filter(stats -> stats.authorId().equals(author.getId()))
+        .findFirst()
+        .orElseThrow()
+        .entryCount();
+  }
+
+  // constructor tests
+  @Nested
+  @DisplayName("Constructor")
+  class ConstructorTests {
+
+    @Test
+    @DisplayName("should throw NullPointerException for null sessionFactory")
+    void shouldThrowForNullSessionFactory() {
+      assertThrows(NullPointerException.class, () -> new StatisticsRepository(null));
+    }
+  }
+
+  // author statistics tests
+  @Nested
+  @DisplayName("findAuthorStatistics()")
+  class FindAuthorStatisticsTests {
+
+    @Test
+    @DisplayName("should list authors without entries with a count of zero")
+    void shouldListAuthorsWithoutEntries() {
+      Author author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+
+      List<AuthorStatistics> stats = repository.findAuthorStatistics();
+
+      assertEquals(List.of(new AuthorStatistics(author.getId(), "John Doe", 0)), stats);
+    }
+
+    @Test
+    @DisplayName("should count saved entries per author")
+    void shouldCountSavedEntries() {
+      Author john = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      Author jane = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      entryRepository.save(new DiaryEntry("Title 1", john, "Content"));
+      entryRepository.saveAll(List.of(new DiaryEntry("Title 2", john, "Content"),
+          new DiaryEntry("Title 3", jane, "Content")));
+
+      assertEquals(2, entryCountOf(john));
+      assertEquals(1, entryCountOf(jane));
+    }
+
+    @Test
+    @DisplayName("should decrement the count when an entry is deleted")
+    void shouldDecrementOnDelete() {
+      Author author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      DiaryEntry entry = entryRepository.save(new DiaryEntry("Title", author, "Content"));
+      entryRepository.save(new DiaryEntry("Other", author, "Content"));
+
+      entryRepository.delete(entry);
+
+      assertEquals(1, entryCountOf(author));
+    }
+
+    @Test
+    @DisplayName("should move the count when an entry changes author")
+    void shouldMoveCountOnReassignment() {
+      Author john = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      Author jane = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      DiaryEntry entry = entryRepository.save(new DiaryEntry("Title", john, "Content"));
+
+      entry.setAuthor(jane);
+      entryRepository.update(entry);
+      entry.setTitle("Renamed");
+      entryRepository.update(entry);
+
+      assertEquals(0, entryCountOf(john));
+      assertEquals(1, entryCountOf(jane));
+    }
+
+    @Test
+    @DisplayName("should drop the author when the author is deleted")
+    void shouldDropDeletedAuthor() {
+      Author author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      entryRepository.save(new DiaryEntry("Title", author, "Content"));
+
+      authorRepository.delete(author);
+
+      assertTrue(repository.findAuthorStatistics().isEmpty());
+      assertEquals(0, repository.verifyAuthorStatistics());
+    }
+  }
+
+  // initAuthorStatistics tests
+  @Nested
+  @DisplayName("initAuthorStatistics()")
+  class InitAuthorStatisticsTests {
+
+    @Test
+    @DisplayName("should populate a new table from existing entries")
+    void shouldPopulateNewTable() {
+      Author author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      entryRepository.save(new DiaryEntry("Title", author, "Content"));
+      executeSql("DROP TABLE author_statistics");
+
+      repository.initAuthorStatistics();
+
+      assertEquals(1, entryCountOf(author));
+      assertEquals(0, repository.verifyAuthorStatistics());
+    }
+
+    @Test
+    @DisplayName("should keep existing counts when the table exists")
+    void shouldKeepExistingCounts() {
+      Author author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      entryRepository.save(new DiaryEntry("Title", author, "Content"));
+
+      repository.initAuthorStatistics();
+      entryRepository.save(new DiaryEntry("Other", author, "Content"));
+
+      assertEquals(2, entryCountOf(author));
+    }
+  }
+
+  // verify and rebuild tests
+  @Nested
+  @DisplayName("verifyAuthorStatistics() and rebuildAuthorStatistics()")
+  class VerifyAndRebuildTests {
+
+    @Test
+    @DisplayName("should find no differences when counts were maintained")
+    void shouldFindNoDifferences() {
+      Author author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      entryRepository.save(new DiaryEntry("Title", author, "Content"));
+
+      assertEquals(0, repository.verifyAuthorStatistics());
+    }
+
+    @Test
+    @DisplayName("should detect and repair wrong, missing and orphaned counts")
+    void shouldRepairDifferences() {
+      Author john = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      Author jane = authorRepository.save(new Author("Jane", "Smith", "jane@example.com"));
+      entryRepository.save(new DiaryEntry("Title", john, "Content"));
+      executeSql("UPDATE author_statistics SET entry_count = 7 WHERE author_id = " + john.getId());
+      executeSql("DELETE FROM author_statistics WHERE author_id = " + jane.getId());
+      executeSql("INSERT INTO author_statistics VALUES (999999, 4)");
+
+      assertEquals(3, repository.verifyAuthorStatistics());
+
+      repository.rebuildAuthorStatistics();
+
+      assertEquals(0, repository.verifyAuthorStatistics());
+      assertEquals(1, entryCountOf(john));
+      assertEquals(0, entryCountOf(jane));
+    }
+  }
+
+  // getCacheStatistics tests
+  @Nested
+  @DisplayName("getCacheStatistics()")
+  class GetCacheStatisticsTests {
+
+    @Test
+    @DisplayName("should count query cache misses and hits")
+    void shouldCountQueryCacheLookups() {
+      authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      sessionFactory.getStatistics().clear();
+
+      authorRepository.findAll();
+      authorRepository.findAll();
+
+      CacheStatistics stats = repository.getCacheStatistics().orElseThrow();
+      assertEquals(1, stats.queryMisses());
+      assertEquals(1, stats.queryHits());
+      assertEquals(0.5, stats.queryHitRatio());
+    }
+
+    @Test
+    @DisplayName("should count entity cache hits")
+    void shouldCountEntityCacheHits() {
+      Author author = authorRepository.save(new Author("John", "Doe", "john@example.com"));
+      sessionFactory.getStatistics().clear();
+
+      authorRepository.findById(author.getId());
+
+      CacheStatistics stats = repository.getCacheStatistics().orElseThrow();
+      assertEquals(1, stats.entityHits());
+      assertEquals(1.0, stats.entityHitRatio());
+    }
+
+    @Test
+    @DisplayName("should report zero ratios before any lookup")
+    void shouldReportZeroRatiosBeforeLookups() {
+      CacheStatistics stats = repository.getCacheStatistics().orElseThrow();
+
+      assertEquals(0.0, stats.entityHitRatio());
+      assertEquals(0.0, stats.queryHitRatio());
+    }
+
+    @Test
+    @DisplayName("should return empty when statistics are disabled")
+    void shouldReturnEmptyWhenDisabled() {
+      sessionFactory.getStatistics().setStatisticsEnabled(false);
+
+      assertTrue(repository.getCacheStatistics().isEmpty());
+    }
+  }
+}
@@ -2,12 +2,19 @@ package edu.ntnu.idi.idatt.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.TestEntityHelper;
 import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.SavedAuthor;
+import jakarta.persistence.OptimisticLockException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -57,20 +64,22 @@ class AuthorServiceTest {
     @Test
     @DisplayName("should return empty when email already exists")
     void shouldReturnEmptyWhenEmailExists() {
-      when(authorRepository.existsByEmail("john@example.com")).thenReturn(true);
+      Author existing = new Author("Jane", "Doe", "john@example.com");
+      when(authorRepository.saveIfAbsent(any(Author.class)))
+          .thenReturn(new SavedAuthor(existing, false));
 
       Optional<Author> result = authorService.createAuthor("John", "Doe", "john@example.com");
 
       assertTrue(result.isEmpty());
-      verify(authorRepository).existsByEmail("john@example.com");
+      verify(authorRepository, never()).existsByEmail(any());
       verify(authorRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("should create and return author when email is unique")
     void shouldCreateAuthorWhenEmailIsUnique() {
-      when(authorRepository.existsByEmail("john@example.com")).thenReturn(false);
-      when(authorRepository.save(any(Author.class))).thenAnswer(invocation -> invocation.getArgument(0));
+      when(authorRepository.saveIfAbsent(any(Author.class)))
+          .thenAnswer(invocation -> new SavedAuthor(invocation.getArgument(0), true));
 
       Optional<Author> result = authorService.createAuthor("John", "Doe", "john@example.com");
 
@@ -78,24 +87,33 @@ class AuthorServiceTest {
       assertEquals("John", result.get().getFirstName());
       assertEquals("Doe", result.get().getLastName());
       assertEquals("john@example.com", result.get().getEmail());
-      verify(authorRepository).save(any(Author.class));
+      verify(authorRepository).saveIfAbsent(any(Author.class));
     }
 
     @Test
     @DisplayName("should pass correct author to repository")
     void shouldPassCorrectAuthorToRepository() {
-      when(authorRepository.existsByEmail("john@example.com")).thenReturn(false);
-      when(authorRepository.save(any(Author.class))).thenAnswer(invocation -> invocation.getArgument(0));
+      when(authorRepository.saveIfAbsent(any(Author.class)))
+          .thenAnswer(invocation -> new SavedAuthor(invocation.getArgument(0), true));
 
       authorService.createAuthor("John", "Doe", "john@example.com");
 
       ArgumentCaptor<Author> authorCaptor = ArgumentCaptor.forClass(Author.class);
-      verify(authorRepository).save(authorCaptor.capture());
+      verify(authorRepository).saveIfAbsent(authorCaptor.capture());
       Author savedAuthor = authorCaptor.getValue();
       assertEquals("John", savedAuthor.getFirstName());
       assertEquals("Doe", savedAuthor.getLastName());
       assertEquals("john@example.com", savedAuthor.getEmail());
     }
+
+    @Test
+    @DisplayName("should not call repository for invalid input")
+    void shouldNotCallRepositoryForInvalidInput() {
+      assertThrows(IllegalArgumentException.class,
+          () -> authorService.createAuthor("John", "Doe", "not-an-email"));
+
+      verifyNoInteractions(authorRepository);
+    }
   }
 
   // createAuthorOrThrow tests
@@ -106,7 +124,9 @@ class AuthorServiceTest {
     @Test
     @DisplayName("should throw IllegalArgumentException when email already exists")
     void shouldThrowWhenEmailExists() {
-      when(authorRepository.existsByEmail("john@example.com")).thenReturn(true);
+      Author existing = new Author("Jane", "Doe", "john@example.com");
+      when(authorRepository.saveIfAbsent(any(Author.class)))
+          .thenReturn(new SavedAuthor(existing, false));
 
       IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
           () -> authorService.createAuthorOrThrow("John", "Doe", "john@example.com"));
@@ -119,14 +139,30 @@ class AuthorServiceTest {
     @Test
     @DisplayName("should create and return author when email is unique")
     void shouldCreateAuthorWhenEmailIsUnique() {
-      when(authorRepository.existsByEmail("john@example.com")).thenReturn(false);
-      when(authorRepository.save(any(Author.class))).thenAnswer(invocation -> invocation.getArgument(0));
+      when(authorRepository.saveIfAbsent(any(Author.class)))
+          .thenAnswer(invocation -> new SavedAuthor(invocation.getArgument(0), true));
 
       Author result = authorService.createAuthorOrThrow("John", "Doe", "john@example.com");
 
       assertNotNull(result);
       assertEquals("John", result.getFirstName());
-      verify(authorRepository).save(any(Author.class));
+      verify(authorRepository).saveIfAbsent(any(Author.class));
+    }
+  }
+
+  // createAuthors tests
+  @Nested
+  @DisplayName("createAuthors()")
+  class CreateAuthorsTests {
+
+    @Test
+    @DisplayName("should delegate to repository")
+    void shouldDelegateToRepository() {
+      List<Author> authors = List.of(new Author("John", "Doe", "john@example.com"));
+      List<SavedAuthor> saved = List.of(new SavedAuthor(authors.get(0), true));
+      when(authorRepository.saveAllIfAbsent(authors)).thenReturn(saved);
+
+      assertSame(saved, authorService.createAuthors(authors));
     }
   }
 
@@ -211,6 +247,100 @@ class AuthorServiceTest {
     }
   }
 
+  // complete tests
+  @Nested
+  @DisplayName("complete()")
+  class CompleteTests {
+
+    private Author john;
+    private Author jane;
+    private Map<Long, Author> stored;
+
+    @BeforeEach
+    void setUp() {
+      john = new Author("John", "Doe", "john@example.com");
+      jane = new Author("Jane", "Smith", "jane@example.com");
+      TestEntityHelper.setAuthorId(john, 1L);
+      TestEntityHelper.setAuthorId(jane, 2L);
+      stored = new HashMap<>(Map.of(1L, john, 2L, jane));
+      when(authorRepository.findAll()).thenReturn(List.of(john, jane));
+      // The mocked table skips IDs that do not exist, like the real query
+      when(authorRepository.findByIds(anyCollection())).thenAnswer(inv -> inv
+          .<List<Long>>getArgument(0).stream().map(stored::get).filter(Objects::nonNull)
+          .toList());
+    }
+
+    @Test
+    @DisplayName("should complete names and emails ignoring case")
+    void shouldCompleteNamesAndEmails() {
+      assertEquals(List.of(jane, john), authorService.complete("J", 10));
+      assertEquals(List.of(jane), authorService.complete("smi", 10));
+      assertEquals(List.of(john), authorService.complete("john@", 10));
+    }
+
+    @Test
+    @DisplayName("should load the index only once")
+    void shouldLoadIndexOnce() {
+      authorService.complete("doe", 10);
+      authorService.complete("john", 10);
+
+      verify(authorRepository).findAll();
+    }
+
+    @Test
+    @DisplayName("should complete the new name after a rename")
+    void shouldCompleteNewNameAfterRename() {
+      authorService.complete("", 0);
+      when(authorRepository.updateName(john, "Johnny", null)).thenReturn(true);
+
+      authorService.rename(john, "Johnny", null);
+
+      assertEquals(List.of(john), authorService.complete("johnny", 10));
+      assertTrue(authorService.complete("john doe", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should replace the old name after a full update")
+    void shouldReplaceOldNameAfterUpdate() {
+      authorService.complete("", 0);
+      john.setFirstName("Johnny");
+      when(authorRepository.update(john)).thenReturn(john);
+
+      authorService.update(john);
+
+      assertTrue(authorService.complete("john doe", 10).isEmpty());
+      verify(authorRepository, never()).findByIds(List.of(1L));
+      assertEquals(List.of(john), authorService.complete("johnny", 10));
+    }
+
+    @Test
+    @DisplayName("should not complete deleted authors")
+    void shouldNotCompleteDeletedAuthors() {
+      stored.remove(1L);
+
+      assertTrue(authorService.complete("doe", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should load the matching authors with one lookup")
+    void shouldLoadMatchesInOneLookup() {
+      authorService.complete("j", 10);
+
+      verify(authorRepository).findByIds(List.of(2L, 1L));
+      verify(authorRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("should load the index again after bulk changes")
+    void shouldReloadAfterBulkChanges() {
+      authorService.complete("", 0);
+      authorService.refreshAfterBulkChanges();
+      authorService.complete("", 0);
+
+      verify(authorRepository, times(2)).findAll();
+    }
+  }
+
   // update tests
   @Nested
   @DisplayName("update()")
@@ -227,6 +357,63 @@ class AuthorServiceTest {
       assertEquals(author, result);
       verify(authorRepository).update(author);
     }
+
+    @Test
+    @DisplayName("should report an optimistic locking failure as ConcurrentEditException")
+    void shouldReportOptimisticLockFailure() {
+      Author author = new Author("John", "Doe", "john@example.com");
+      when(authorRepository.update(author)).thenThrow(new OptimisticLockException("stale"));
+
+      var e = assertThrows(ConcurrentEditException.class, () -> authorService.update(author));
+      assertInstanceOf(OptimisticLockException.class, e.getCause());
+    }
+  }
+
+  // rename tests
+  @Nested
+  @DisplayName("rename()")
+  class RenameTests {
+
+    @Test
+    @DisplayName("should write only the changed name")
+    void shouldWriteOnlyChangedName() {
+      Author author = new Author("John", "Doe", "john@example.com");
+      when(authorRepository.updateName(author, "Johnny", null)).thenReturn(true);
+
+      Author result = authorService.rename(author, " Johnny ", null);
+
+      assertEquals("Johnny Doe", result.getFullName());
+      verify(authorRepository, never()).update(any());
+    }
+
+    @Test
+    @DisplayName("should not write anything for a blank name")
+    void shouldNotWriteBlankName() {
+      Author author = new Author("John", "Doe", "john@example.com");
+
+      assertThrows(IllegalArgumentException.class, () -> authorService.rename(author, null, " "));
+      verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    @DisplayName("should throw ConcurrentEditException when the author was changed elsewhere")
+    void shouldThrowWhenAuthorWasChanged() {
+      Author author = new Author("John", "Doe", "john@example.com");
+      when(authorRepository.updateName(any(), any(), any())).thenReturn(false);
+
+      assertThrows(ConcurrentEditException.class, () -> authorService.rename(author, "Jo", null));
+    }
+
+    @Test
+    @DisplayName("should leave the author unchanged when the update conflicts")
+    void shouldLeaveAuthorUnchangedOnConflict() {
+      Author author = new Author("John", "Doe", "john@example.com");
+      when(authorRepository.updateName(any(), any(), any())).thenReturn(false);
+
+      assertThrows(ConcurrentEditException.class,
+          () -> authorService.rename(author, "Johnny", "Smith"));
+      assertEquals("John Doe", author.getFullName());
+    }
   }
 
   // delete tests
@@ -238,11 +425,21 @@ class AuthorServiceTest {
     @DisplayName("should delegate to repository")
     void shouldDelegateToRepository() {
       Author author = new Author("John", "Doe", "john@example.com");
+      when(authorRepository.delete(author)).thenReturn(true);
 
       authorService.delete(author);
 
       verify(authorRepository).delete(author);
     }
+
+    @Test
+    @DisplayName("should throw ConcurrentEditException when the author was changed elsewhere")
+    void shouldThrowWhenAuthorWasChanged() {
+      Author author = new Author("John", "Doe", "john@example.com");
+      when(authorRepository.delete(author)).thenReturn(false);
+
+      assertThrows(ConcurrentEditException.class, () -> authorService.delete(author));
+    }
   }
 
   // emailExists tests
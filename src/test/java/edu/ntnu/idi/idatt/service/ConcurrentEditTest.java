@@ -0,0 +1,210 @@
+package edu.ntnu.idi.idatt.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.util.SchemaMigrator;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Stress tests for concurrent writers. Several threads, each standing in for an instance of the
+ * application, increment a counter stored in the same row of a database file. Every thread reads
+ * the row, writes the next value and starts over when its write is rejected, so any update that
+ * was silently overwritten would show up as a missing increment. The threads also race to create
+ * the same authors.
+ */
+class ConcurrentEditTest {
+
+  private static final int THREADS = 4;
+  private static final int INCREMENTS = 25;
+
+  @TempDir
+  Path tempDir;
+
+  private SessionFactory sessionFactory;
+  private DiaryEntryService entryService;
+  private AuthorService authorService;
+
+  @BeforeEach
+  void setUp() {
+    // The application's configuration, with its connection pool and WAL journal
+    sessionFactory = new Configuration()
+        .configure()
+        .setProperty("hibernate.connection.url", "jdbc:sqlite:" + tempDir.resolve("diary.db"))
+        .buildSessionFactory();
+    new SchemaMigrator(sessionFactory).migrate();
+    entryService = new DiaryEntryService(new DiaryEntryRepository(sessionFactory));
+    authorService = new AuthorService(new AuthorRepository(sessionFactory));
+  }
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.close();
+  }
+
+  /**
+   * Runs the task on every thread at once.
+   *
+   * @return the number of rejected writes, summed over the threads
+   */
+  private int runConcurrently(Callable<Integer> task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      start.countDown();
+      int conflicts = 0;
+      for (Future<Integer> result : results) {
+        conflicts += result.get();
+      }
+      return conflicts;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Increments a counter {@value #INCREMENTS} times, starting over whenever a write is rejected.
+   *
+   * @param attempt reads the counter and writes the next value
+   * @return the number of rejected writes
+   */
+  private static int increment(Runnable attempt) {
+    int conflicts = 0;
+    for (int i = 0; i < INCREMENTS; i++) {
+      while (true) {
+        try {
+          attempt.run();
+          break;
+        } catch (ConcurrentEditException e) {
+          conflicts++;
+        }
+      }
+    }
+    return conflicts;
+  }
+
+  // diary entry tests
+  @Nested
+  @DisplayName("Diary entries")
+  class DiaryEntryTests {
+
+    private long entryId;
+
+    @BeforeEach
+    void setUp() {
+      Author author = authorService.createAuthorOrThrow("John", "Doe", "john@example.com");
+      entryId = entryService.createEntry("Counter", author, "0").getId();
+    }
+
+    private DiaryEntry load() {
+      return entryService.findById(entryId).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("should lose no partial updates under contention")
+    void shouldLoseNoPartialUpdates() throws Exception {
+      runConcurrently(() -> increment(() -> {
+        DiaryEntry entry = load();
+        int value = Integer.parseInt(entry.getContent());
+        entryService.updateContent(entry, String.valueOf(value + 1));
+      }));
+
+      DiaryEntry entry = load();
+      assertEquals(String.valueOf(THREADS * INCREMENTS), entry.getContent());
+      assertEquals(THREADS * INCREMENTS, entry.getVersion());
+    }
+
+    @Test
+    @DisplayName("should lose no merged updates under contention")
+    void shouldLoseNoMergedUpdates() throws Exception {
+      runConcurrently(() -> increment(() -> {
+        DiaryEntry entry = load();
+        entry.setContent(String.valueOf(Integer.parseInt(entry.getContent()) + 1));
+        entryService.update(entry);
+      }));
+
+      DiaryEntry entry = load();
+      assertEquals(String.valueOf(THREADS * INCREMENTS), entry.getContent());
+      assertEquals(THREADS * INCREMENTS, entry.getVersion());
+    }
+  }
+
+  // author tests
+  @Nested
+  @DisplayName("Authors")
+  class AuthorTests {
+
+    private long authorId;
+
+    @BeforeEach
+    void setUp() {
+      authorId = authorService.createAuthorOrThrow("0", "Doe", "john@example.com").getId();
+    }
+
+    private Author load() {
+      return authorService.findById(authorId).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("should lose no renames under contention")
+    void shouldLoseNoRenames() throws Exception {
+      runConcurrently(() -> increment(() -> {
+        Author author = load();
+        int value = Integer.parseInt(author.getFirstName());
+        authorService.rename(author, String.valueOf(value + 1), null);
+      }));
+
+      Author author = load();
+      assertEquals(String.valueOf(THREADS * INCREMENTS), author.getFirstName());
+      assertEquals(THREADS * INCREMENTS, author.getVersion());
+    }
+  }
+
+  // author creation tests
+  @Nested
+  @DisplayName("Author creation")
+  class AuthorCreationTests {
+
+    @Test
+    @DisplayName("should create each email exactly once under contention")
+    void shouldCreateEachEmailOnce() throws Exception {
+      int created = runConcurrently(() -> {
+        int createdByThread = 0;
+        for (int i = 0; i < INCREMENTS; i++) {
+          if (authorService.createAuthor("Jane", "Doe", "jane" + i + "@example.com").isPresent()) {
+            createdByThread++;
+          }
+        }
+        return createdByThread;
+      });
+
+      assertEquals(INCREMENTS, created);
+      assertEquals(INCREMENTS, authorService.findAll().size());
+    }
+  }
+}
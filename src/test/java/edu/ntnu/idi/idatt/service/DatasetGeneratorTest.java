@@ -0,0 +1,236 @@
+package edu.ntnu.idi.idatt.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetGeneratorTest {
+
+  @Mock
+  private AuthorRepository authorRepository;
+
+  @Mock
+  private DiaryEntryRepository entryRepository;
+
+  private DatasetGenerator generator;
+  private List<Author> savedAuthors;
+  private List<DiaryEntry> savedEntries;
+
+  @BeforeEach
+  void setUp() {
+    generator = new DatasetGenerator(authorRepository, entryRepository);
+    savedAuthors = new ArrayList<>();
+    savedEntries = new ArrayList<>();
+  }
+
+  /**
+   * Makes the mocked repositories collect everything saved through them.
+   */
+  @SuppressWarnings("unchecked")
+  private void collectSaves() {
+    when(authorRepository.saveAll(any())).thenAnswer(invocation -> {
+      ((Iterable<Author>) invocation.getArgument(0)).forEach(savedAuthors::add);
+      return (long) savedAuthors.size();
+    });
+    when(entryRepository.saveAll(any())).thenAnswer(invocation -> {
+      ((Iterable<DiaryEntry>) invocation.getArgument(0)).forEach(savedEntries::add);
+      return (long) savedEntries.size();
+    });
+  }
+
+  // constructor tests
+  @Nested
+  @DisplayName("Constructor")
+  class ConstructorTests {
+
+    @Test
+    @DisplayName("should throw NullPointerException for null repositories")
+    void shouldThrowForNullRepositories() {
+      assertThrows(NullPointerException.class,
+          () -> new DatasetGenerator(null, entryRepository));
+      assertThrows(NullPointerException.class,
+          () -> new DatasetGenerator(authorRepository, null));
+    }
+  }
+
+  // generate tests
+  @Nested
+  @DisplayName("generate()")
+  class GenerateTests {
+
+    @Test
+    @DisplayName("should create the requested authors and entries")
+    void shouldCreateRequestedCounts() {
+      collectSaves();
+
+      DatasetReport report = generator.generate(DatasetSpec.of(5, 200, 1));
+
+      assertEquals(5, report.authors());
+      assertEquals(200, report.entries());
+      assertEquals(5, savedAuthors.size());
+      assertEquals(200, savedEntries.size());
+      assertEquals(DatasetGenerator.emailOf(1, 0), savedAuthors.get(0).getEmail());
+      long words = savedEntries.stream()
+          .mapToLong(entry -> entry.getContent().split(" ").length)
+          .sum();
+      assertEquals(words, report.words());
+    }
+
+    @Test
+    @DisplayName("should produce the same data for the same seed")
+    void shouldBeReproducible() {
+      collectSaves();
+      generator.generate(DatasetSpec.of(3, 50, 42));
+      List<DiaryEntry> first = List.copyOf(savedEntries);
+      savedAuthors.clear();
+      savedEntries.clear();
+
+      generator.generate(DatasetSpec.of(3, 50, 42));
+
+      for (int i = 0; i < first.size(); i++) {
+        assertEquals(first.get(i).getTitle(), savedEntries.get(i).getTitle());
+        assertEquals(first.get(i).getContent(), savedEntries.get(i).getContent());
+        assertEquals(first.get(i).getCreatedAt(), savedEntries.get(i).getCreatedAt());
+        assertEquals(first.get(i).getAuthor().getEmail(),
+            savedEntries.get(i).getAuthor().getEmail());
+      }
+    }
+
+    @Test
+    @DisplayName("should spread creation times over the period in increasing order")
+    void shouldSpreadCreationTimes() {
+      collectSaves();
+      LocalDate from = LocalDate.of(2021, 1, 1);
+      LocalDate to = LocalDate.of(2023, 1, 1);
+
+      generator.generate(DatasetSpec.of(2, 1_000, 7).withPeriod(from, to));
+
+      LocalDateTime previous = from.atStartOfDay();
+      for (DiaryEntry entry : savedEntries) {
+        assertFalse(entry.getCreatedAt().isBefore(previous));
+        previous = entry.getCreatedAt();
+      }
+      assertTrue(previous.isBefore(to.atStartOfDay()));
+      assertTrue(previous.isAfter(to.atStartOfDay().minusDays(7)));
+    }
+
+    @Test
+    @DisplayName("should give the first authors most of the entries")
+    void shouldSkewEntriesPerAuthor() {
+      collectSaves();
+
+      generator.generate(DatasetSpec.of(100, 5_000, 3));
+
+      Map<String, Integer> perAuthor = new HashMap<>();
+      savedEntries.forEach(entry -> perAuthor.merge(entry.getAuthor().getEmail(), 1, Integer::sum));
+      int first = perAuthor.getOrDefault(DatasetGenerator.emailOf(3, 0), 0);
+      int last = perAuthor.getOrDefault(DatasetGenerator.emailOf(3, 99), 0);
+      assertTrue(first > 10 * Math.max(1, last), first + " vs " + last);
+    }
+
+    @Test
+    @DisplayName("should spread entries evenly without skew")
+    void shouldSpreadEvenlyWithoutSkew() {
+      collectSaves();
+
+      generator.generate(DatasetSpec.of(4, 4_000, 3).withAuthorSkew(0));
+
+      Map<String, Integer> perAuthor = new HashMap<>();
+      savedEntries.forEach(entry -> perAuthor.merge(entry.getAuthor().getEmail(), 1, Integer::sum));
+      perAuthor.values().forEach(count -> assertTrue(count > 850 && count < 1150, "" + count));
+    }
+
+    @Test
+    @DisplayName("should vary content length around the median")
+    void shouldVaryContentLength() {
+      collectSaves();
+
+      generator.generate(DatasetSpec.of(1, 2_000, 5).withContentLength(50, 0.8));
+
+      int[] lengths = savedEntries.stream()
+          .mapToInt(entry -> entry.getContent().split(" ").length)
+          .sorted()
+          .toArray();
+      int median = lengths[lengths.length / 2];
+      assertTrue(median > 40 && median < 60, "median " + median);
+      assertTrue(lengths[lengths.length - 1] > 3 * median);
+      assertTrue(lengths[lengths.length - 1] <= DatasetGenerator.MAX_WORDS);
+    }
+
+    @Test
+    @DisplayName("should build titles and contents from the vocabulary")
+    void shouldUseVocabulary() {
+      collectSaves();
+      List<String> vocabulary = List.of("alpha", "beta", "gamma");
+
+      generator.generate(DatasetSpec.of(1, 100, 9).withContentLength(10, 0)
+          .withVocabulary(vocabulary));
+
+      Set<String> used = new HashSet<>();
+      for (DiaryEntry entry : savedEntries) {
+        assertEquals(10, entry.getContent().split(" ").length);
+        for (String word : (entry.getTitle() + " " + entry.getContent()).split(" ")) {
+          used.add(word.toLowerCase().replace(".", ""));
+        }
+      }
+      assertEquals(Set.copyOf(vocabulary), used);
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null spec")
+    void shouldThrowForNullSpec() {
+      assertThrows(NullPointerException.class, () -> generator.generate(null));
+    }
+  }
+
+  // spec tests
+  @Nested
+  @DisplayName("DatasetSpec")
+  class SpecTests {
+
+    @Test
+    @DisplayName("should reject invalid parameters")
+    void shouldRejectInvalidParameters() {
+      DatasetSpec spec = DatasetSpec.of(1, 1, 1);
+      LocalDate day = LocalDate.of(2024, 1, 1);
+
+      assertThrows(IllegalArgumentException.class, () -> DatasetSpec.of(0, 1, 1));
+      assertThrows(IllegalArgumentException.class, () -> DatasetSpec.of(1, -1, 1));
+      assertThrows(IllegalArgumentException.class, () -> spec.withAuthorSkew(-0.5));
+      assertThrows(IllegalArgumentException.class, () -> spec.withContentLength(0, 1));
+      assertThrows(IllegalArgumentException.class, () -> spec.withPeriod(day, day));
+      assertThrows(IllegalArgumentException.class, () -> spec.withVocabulary(List.of()));
+      assertThrows(IllegalArgumentException.class, () -> spec.withVocabulary(List.of(" ")));
+    }
+
+    @Test
+    @DisplayName("should create distinct equally long synthetic words")
+    void shouldCreateDistinctWords() {
+      List<String> words = DatasetSpec.syntheticVocabulary(DatasetSpec.DEFAULT_VOCABULARY_SIZE);
+
+      assertEquals(words.size(), Set.copyOf(words).size());
+      assertEquals(1, words.stream().mapToInt(String::length).distinct().count());
+    }
+  }
+}
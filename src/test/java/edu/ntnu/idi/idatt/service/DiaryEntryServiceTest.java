@@ -6,11 +6,19 @@ import static org.mockito.Mockito.*;
 
 import edu.ntnu.idi.idatt.model.entities.Author;
 import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.DiaryEntrySummary;
+import edu.ntnu.idi.idatt.model.projections.EntryTitle;
+import edu.ntnu.idi.idatt.repository.DiaryEntryQuery;
 import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.EntryCursor;
+import edu.ntnu.idi.idatt.repository.Page;
+import edu.ntnu.idi.idatt.repository.PageRequest;
+import jakarta.persistence.OptimisticLockException;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -86,6 +94,33 @@ class DiaryEntryServiceTest {
     }
   }
 
+  // createEntries tests
+  @Nested
+  @DisplayName("createEntries()")
+  class CreateEntriesTests {
+
+    @Test
+    @DisplayName("should delegate to repository saveAll")
+    void shouldDelegateToSaveAll() {
+      List<DiaryEntry> entries = List.of(new DiaryEntry("A", testAuthor, "Content"),
+          new DiaryEntry("B", testAuthor, "Content"));
+      when(entryRepository.saveAll(entries)).thenReturn(2L);
+
+      assertEquals(2, diaryEntryService.createEntries(entries));
+      verify(entryRepository).saveAll(entries);
+    }
+
+    @Test
+    @DisplayName("should pass chunk size to repository")
+    void shouldPassChunkSize() {
+      List<DiaryEntry> entries = List.of(new DiaryEntry("A", testAuthor, "Content"));
+      when(entryRepository.saveAll(entries, 500)).thenReturn(1L);
+
+      assertEquals(1, diaryEntryService.createEntries(entries, 500));
+      verify(entryRepository).saveAll(entries, 500);
+    }
+  }
+
   // findById tests
   @Nested
   @DisplayName("findById()")
@@ -216,44 +251,268 @@ class DiaryEntryServiceTest {
       assertEquals(1, result.size());
       verify(entryRepository).searchByTitleOrContent("vacation");
     }
+
+    @Test
+    @DisplayName("should use full-text index when available")
+    void shouldUseFullTextIndexWhenAvailable() {
+      List<DiaryEntry> entries = List.of(new DiaryEntry("Vacation", testAuthor, "Beach day"));
+      when(entryRepository.isFullTextSearchAvailable()).thenReturn(true);
+      when(entryRepository.searchFullText("vacation")).thenReturn(entries);
+
+      List<DiaryEntry> result = diaryEntryService.search("vacation");
+
+      assertEquals(1, result.size());
+      verify(entryRepository, never()).searchByTitleOrContent(any());
+    }
   }
 
-  // findByDate tests
+  // searchSummaries tests
   @Nested
-  @DisplayName("findByDate()")
-  class FindByDateTests {
+  @DisplayName("searchSummaries()")
+  class SearchSummariesTests {
 
     @Test
-    @DisplayName("should delegate to repository")
-    void shouldDelegateToRepository() {
-      LocalDate today = LocalDate.now();
-      List<DiaryEntry> entries = List.of(new DiaryEntry("Title", testAuthor, "Content"));
-      when(entryRepository.findByDate(today)).thenReturn(entries);
+    @DisplayName("should return empty list for blank search text")
+    void shouldReturnEmptyListForBlankSearchText() {
+      assertTrue(diaryEntryService.searchSummaries(" ").isEmpty());
+      verifyNoInteractions(entryRepository);
+    }
 
-      List<DiaryEntry> result = diaryEntryService.findByDate(today);
+    @Test
+    @DisplayName("should use full-text index when available")
+    void shouldUseFullTextIndexWhenAvailable() {
+      when(entryRepository.isFullTextSearchAvailable()).thenReturn(true);
 
-      assertEquals(1, result.size());
-      verify(entryRepository).findByDate(today);
+      diaryEntryService.searchSummaries("vacation");
+
+      verify(entryRepository).searchSummariesFullText("vacation");
+      verify(entryRepository, never()).searchSummariesByTitleOrContent(any());
+    }
+
+    @Test
+    @DisplayName("should fall back to substring search without full-text index")
+    void shouldFallBackToSubstringSearch() {
+      when(entryRepository.isFullTextSearchAvailable()).thenReturn(false);
+
+      diaryEntryService.searchSummaries("vacation");
+
+      verify(entryRepository).searchSummariesByTitleOrContent("vacation");
+    }
+  }
+
+  // completeTitles tests
+  @Nested
+  @DisplayName("completeTitles()")
+  class CompleteTitlesTests {
+
+    private final DiaryEntrySummary beach =
+        new DiaryEntrySummary(1L, "Beach day", 1L, "John Doe", null);
+    private final DiaryEntrySummary berlin =
+        new DiaryEntrySummary(2L, "Berlin trip", 1L, "John Doe", null);
+
+    @BeforeEach
+    void setUp() {
+      lenient().doAnswer(invocation -> {
+        Consumer<EntryTitle> action = invocation.getArgument(0);
+        action.accept(new EntryTitle(1L, beach.title()));
+        action.accept(new EntryTitle(2L, berlin.title()));
+        return 2L;
+      }).when(entryRepository).streamTitles(any());
+    }
+
+    @Test
+    @DisplayName("should complete titles in title order")
+    void shouldCompleteTitles() {
+      when(entryRepository.findSummariesByIds(List.of(1L, 2L)))
+          .thenReturn(List.of(beach, berlin));
+
+      assertEquals(List.of(beach, berlin), diaryEntryService.completeTitles("BE", 10));
+    }
+
+    @Test
+    @DisplayName("should load the index only once")
+    void shouldLoadIndexOnce() {
+      when(entryRepository.findSummariesByIds(List.of(2L))).thenReturn(List.of(berlin));
+
+      diaryEntryService.completeTitles("ber", 10);
+      diaryEntryService.completeTitles("berlin", 10);
+
+      verify(entryRepository).streamTitles(any());
+    }
+
+    @Test
+    @DisplayName("should complete the new title after an edit")
+    void shouldCompleteNewTitleAfterEdit() {
+      diaryEntryService.completeTitles("", 0);
+      DiaryEntry entry = spy(new DiaryEntry("Beach day", testAuthor, "Content"));
+      doReturn(1L).when(entry).getId();
+      when(entryRepository.updateTitleAndContent(entry, "Lake swim", null)).thenReturn(true);
+      DiaryEntrySummary lake = new DiaryEntrySummary(1L, "Lake swim", 1L, "John Doe", null);
+      when(entryRepository.findSummariesByIds(List.of(1L))).thenReturn(List.of(lake));
+
+      diaryEntryService.edit(entry, "Lake swim", null);
+
+      assertEquals(List.of(lake), diaryEntryService.completeTitles("lake", 10));
+      assertTrue(diaryEntryService.completeTitles("beach", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should replace the old title after a full update")
+    void shouldReplaceOldTitleAfterUpdate() {
+      diaryEntryService.completeTitles("", 0);
+      DiaryEntry entry = spy(new DiaryEntry("Lake swim", testAuthor, "Content"));
+      doReturn(1L).when(entry).getId();
+      when(entryRepository.update(entry)).thenReturn(entry);
+
+      diaryEntryService.update(entry);
+
+      assertTrue(diaryEntryService.completeTitles("beach", 10).isEmpty());
+      verify(entryRepository, never()).findSummariesByIds(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("should drop the title of an entry deleted by ID")
+    void shouldDropTitleAfterDeleteById() {
+      diaryEntryService.completeTitles("", 0);
+      when(entryRepository.deleteById(1L)).thenReturn(true);
+
+      diaryEntryService.deleteById(1L);
+
+      assertTrue(diaryEntryService.completeTitles("beach", 10).isEmpty());
+      verify(entryRepository, never()).findSummariesByIds(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null prefix")
+    void shouldThrowForNullPrefix() {
+      assertThrows(NullPointerException.class, () -> diaryEntryService.completeTitles(null, 10));
+    }
+  }
+
+  // findSummaries tests
+  @Nested
+  @DisplayName("findSummaries()")
+  class FindSummariesTests {
+
+    @Test
+    @DisplayName("should delegate the combined query to the repository")
+    void shouldDelegateToRepository() {
+      DiaryEntryQuery query = DiaryEntryQuery.all().withKeyword("beach");
+      DiaryEntrySummary summary = new DiaryEntrySummary(1L, "Beach", 1L, "John Doe", null);
+      when(entryRepository.findSummaries(query)).thenReturn(List.of(summary));
+
+      assertEquals(List.of(summary), diaryEntryService.findSummaries(query));
     }
   }
 
-  // findByDateRange tests
+  // paging tests
   @Nested
-  @DisplayName("findByDateRange()")
-  class FindByDateRangeTests {
+  @DisplayName("findSummaryPage()")
+  class FindPageTests {
 
     @Test
     @DisplayName("should delegate to repository")
     void shouldDelegateToRepository() {
-      LocalDate start = LocalDate.now().minusDays(7);
-      LocalDate end = LocalDate.now();
-      List<DiaryEntry> entries = List.of(new DiaryEntry("Title", testAuthor, "Content"));
-      when(entryRepository.findByDateRange(start, end)).thenReturn(entries);
+      PageRequest request = PageRequest.first(10);
+      Page<DiaryEntrySummary> page = new Page<>(List.of(), null, null, false, false, 10);
+      when(entryRepository.findSummaryPage(request)).thenReturn(page);
 
-      List<DiaryEntry> result = diaryEntryService.findByDateRange(start, end);
+      assertSame(page, diaryEntryService.findSummaryPage(request));
+      verify(entryRepository).findSummaryPage(request);
+    }
 
-      assertEquals(1, result.size());
-      verify(entryRepository).findByDateRange(start, end);
+    @Test
+    @DisplayName("should delegate author paging to repository")
+    void shouldDelegateAuthorPagingToRepository() {
+      PageRequest request = PageRequest.first(10);
+
+      diaryEntryService.findSummaryPageByAuthorId(1L, request);
+
+      verify(entryRepository).findSummaryPageByAuthorId(1L, request);
+    }
+  }
+
+  // date paging tests
+  @Nested
+  @DisplayName("findSummaryPageByDateRange()")
+  class FindPageByDateTests {
+
+    private final LocalDate today = LocalDate.now();
+
+    /**
+     * Creates a summary of an entry created today.
+     */
+    private DiaryEntrySummary summary(long id) {
+      return new DiaryEntrySummary(id, "Entry " + id, 1L, "John Doe", today.atTime(12, 0));
+    }
+
+    @Test
+    @DisplayName("should load only the summaries on the first page")
+    void shouldLoadFirstPage() {
+      when(entryRepository.findIdsByDateRange(today, today)).thenReturn(List.of(3L, 2L, 1L));
+      when(entryRepository.findSummariesByIds(List.of(3L, 2L)))
+          .thenReturn(List.of(summary(3L), summary(2L)));
+
+      Page<DiaryEntrySummary> page =
+          diaryEntryService.findSummaryPageByDate(today, PageRequest.first(2));
+
+      assertEquals(List.of(summary(3L), summary(2L)), page.items());
+      assertFalse(page.hasPrevious());
+      assertTrue(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("should page forwards and backwards over the cached IDs")
+    void shouldPageOverCachedIds() {
+      when(entryRepository.findIdsByDateRange(today, today)).thenReturn(List.of(3L, 2L, 1L));
+      when(entryRepository.findSummariesByIds(List.of(3L, 2L)))
+          .thenReturn(List.of(summary(3L), summary(2L)));
+      when(entryRepository.findSummariesByIds(List.of(1L))).thenReturn(List.of(summary(1L)));
+
+      Page<DiaryEntrySummary> first =
+          diaryEntryService.findSummaryPageByDateRange(today, today, PageRequest.first(2));
+      Page<DiaryEntrySummary> second =
+          diaryEntryService.findSummaryPageByDateRange(today, today, first.nextRequest());
+      Page<DiaryEntrySummary> back =
+          diaryEntryService.findSummaryPageByDateRange(today, today, second.previousRequest());
+
+      assertEquals(List.of(summary(1L)), second.items());
+      assertTrue(second.hasPrevious());
+      assertFalse(second.hasNext());
+      assertEquals(first.items(), back.items());
+      verify(entryRepository, times(1)).findIdsByDateRange(today, today);
+      verify(entryRepository, never()).findSummaryPageByDateRange(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should query the page when an entry on it is gone")
+    void shouldQueryPageWhenEntryIsGone() {
+      PageRequest request = PageRequest.first(2);
+      Page<DiaryEntrySummary> page = new Page<>(List.of(), null, null, false, false, 2);
+      when(entryRepository.findIdsByDateRange(today, today)).thenReturn(List.of(3L, 2L));
+      when(entryRepository.findSummariesByIds(List.of(3L, 2L))).thenReturn(List.of(summary(3L)));
+      when(entryRepository.findSummaryPageByDateRange(today, today, request)).thenReturn(page);
+
+      assertSame(page, diaryEntryService.findSummaryPageByDateRange(today, today, request));
+    }
+
+    @Test
+    @DisplayName("should query the page when the cursor entry is not in the results")
+    void shouldQueryPageForUnknownCursor() {
+      PageRequest request = PageRequest.after(new EntryCursor(today.atTime(12, 0), 9L), 2);
+      Page<DiaryEntrySummary> page = new Page<>(List.of(), null, null, true, false, 2);
+      when(entryRepository.findIdsByDateRange(today, today)).thenReturn(List.of(3L, 2L));
+      when(entryRepository.findSummaryPageByDateRange(today, today, request)).thenReturn(page);
+
+      assertSame(page, diaryEntryService.findSummaryPageByDateRange(today, today, request));
+      verify(entryRepository, never()).findSummariesByIds(any());
+    }
+
+    @Test
+    @DisplayName("should throw exception for null date")
+    void shouldThrowForNullDate() {
+      assertThrows(NullPointerException.class,
+          () -> diaryEntryService.findSummaryPageByDate(null, PageRequest.first(2)));
     }
   }
 
@@ -263,15 +522,25 @@ class DiaryEntryServiceTest {
   class UpdateTitleTests {
 
     @Test
-    @DisplayName("should update title and delegate to repository")
-    void shouldUpdateTitleAndDelegateToRepository() {
+    @DisplayName("should update only the title in the repository")
+    void shouldUpdateOnlyTitle() {
       DiaryEntry entry = new DiaryEntry("Old Title", testAuthor, "Content");
-      when(entryRepository.update(entry)).thenReturn(entry);
+      when(entryRepository.updateTitleAndContent(entry, "New Title", null))
+          .thenReturn(true);
 
       DiaryEntry result = diaryEntryService.updateTitle(entry, "New Title");
 
       assertEquals("New Title", result.getTitle());
-      verify(entryRepository).update(entry);
+            verify(entryRepository, never()).update(any());
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null title")
+    void shouldThrowForNullTitle() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+
+      assertThrows(NullPointerException.class, () -> diaryEntryService.updateTitle(entry, null));
+      verifyNoInteractions(entryRepository);
     }
   }
 
@@ -281,15 +550,66 @@ class DiaryEntryServiceTest {
   class UpdateContentTests {
 
     @Test
-    @DisplayName("should update content and delegate to repository")
-    void shouldUpdateContentAndDelegateToRepository() {
+    @DisplayName("should update only the content in the repository")
+    void shouldUpdateOnlyContent() {
       DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Old Content");
-      when(entryRepository.update(entry)).thenReturn(entry);
+      when(entryRepository.updateTitleAndContent(entry, null, "New Content"))
+          .thenReturn(true);
 
       DiaryEntry result = diaryEntryService.updateContent(entry, "New Content");
 
       assertEquals("New Content", result.getContent());
-      verify(entryRepository).update(entry);
+      verify(entryRepository).updateTitleAndContent(entry, null, "New Content");
+    }
+  }
+
+  // edit tests
+  @Nested
+  @DisplayName("edit()")
+  class EditTests {
+
+    @Test
+    @DisplayName("should write the trimmed title and content in one update")
+    void shouldWriteTrimmedFieldsInOneUpdate() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+      when(entryRepository.updateTitleAndContent(any(), any(), any())).thenReturn(true);
+
+      diaryEntryService.edit(entry, "  New Title ", " New Content ");
+
+      assertEquals("New Title", entry.getTitle());
+      verify(entryRepository).updateTitleAndContent(entry, "New Title", "New Content");
+    }
+
+    @Test
+    @DisplayName("should not write anything for a blank title")
+    void shouldNotWriteBlankTitle() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+
+      assertThrows(IllegalArgumentException.class,
+          () -> diaryEntryService.edit(entry, " ", null));
+      verifyNoInteractions(entryRepository);
+    }
+
+    @Test
+    @DisplayName("should throw ConcurrentEditException when the entry was changed elsewhere")
+    void shouldThrowWhenEntryWasChanged() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+      when(entryRepository.updateTitleAndContent(any(), any(), any())).thenReturn(false);
+
+      assertThrows(ConcurrentEditException.class,
+          () -> diaryEntryService.edit(entry, "New Title", null));
+    }
+
+    @Test
+    @DisplayName("should leave the entry unchanged when the update conflicts")
+    void shouldLeaveEntryUnchangedOnConflict() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+      when(entryRepository.updateTitleAndContent(any(), any(), any())).thenReturn(false);
+
+      assertThrows(ConcurrentEditException.class,
+          () -> diaryEntryService.edit(entry, "New Title", "New Content"));
+      assertEquals("Title", entry.getTitle());
+      assertEquals("Content", entry.getContent());
     }
   }
 
@@ -309,6 +629,16 @@ class DiaryEntryServiceTest {
       assertEquals(entry, result);
       verify(entryRepository).update(entry);
     }
+
+    @Test
+    @DisplayName("should report an optimistic locking failure as ConcurrentEditException")
+    void shouldReportOptimisticLockFailure() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+      when(entryRepository.update(entry)).thenThrow(new OptimisticLockException("stale"));
+
+      var e = assertThrows(ConcurrentEditException.class, () -> diaryEntryService.update(entry));
+      assertInstanceOf(OptimisticLockException.class, e.getCause());
+    }
   }
 
   // delete tests
@@ -320,11 +650,21 @@ class DiaryEntryServiceTest {
     @DisplayName("should delegate to repository")
     void shouldDelegateToRepository() {
       DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+      when(entryRepository.delete(entry)).thenReturn(true);
 
       diaryEntryService.delete(entry);
 
       verify(entryRepository).delete(entry);
     }
+
+    @Test
+    @DisplayName("should throw ConcurrentEditException when the entry was changed elsewhere")
+    void shouldThrowWhenEntryWasChanged() {
+      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
+      when(entryRepository.delete(entry)).thenReturn(false);
+
+      assertThrows(ConcurrentEditException.class, () -> diaryEntryService.delete(entry));
+    }
   }
 
   // deleteById tests
@@ -333,28 +673,376 @@ class DiaryEntryServiceTest {
   class DeleteByIdTests {
 
     @Test
-    @DisplayName("should return true and delete when entry exists")
-    void shouldReturnTrueAndDeleteWhenEntryExists() {
-      DiaryEntry entry = new DiaryEntry("Title", testAuthor, "Content");
-      when(entryRepository.findById(1L)).thenReturn(Optional.of(entry));
+    @DisplayName("should return true when entry was deleted")
+    void shouldReturnTrueWhenEntryWasDeleted() {
+      when(entryRepository.deleteById(1L)).thenReturn(true);
 
       boolean result = diaryEntryService.deleteById(1L);
 
       assertTrue(result);
-      verify(entryRepository).findById(1L);
-      verify(entryRepository).delete(entry);
+      verify(entryRepository).deleteById(1L);
+      verify(entryRepository, never()).findById(any());
     }
 
     @Test
     @DisplayName("should return false when entry does not exist")
     void shouldReturnFalseWhenEntryDoesNotExist() {
-      when(entryRepository.findById(1L)).thenReturn(Optional.empty());
+      when(entryRepository.deleteById(1L)).thenReturn(false);
 
       boolean result = diaryEntryService.deleteById(1L);
 
       assertFalse(result);
-      verify(entryRepository).findById(1L);
-      verify(entryRepository, never()).delete(any());
+      verify(entryRepository).deleteById(1L);
+    }
+  }
+
+  // search index tests
+  @Nested
+  @DisplayName("With search index")
+  class SearchIndexTests {
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    private DiaryEntryService service;
+
+    @BeforeEach
+    void setUp() {
+      service = new DiaryEntryService(entryRepository, searchIndex);
+    }
+
+    private DiaryEntry entry(long id, String title, String content) {
+      DiaryEntry entry = mock(DiaryEntry.class);
+      when(entry.getId()).thenReturn(id);
+      when(entry.getTitle()).thenReturn(title);
+      when(entry.getContent()).thenReturn(content);
+      return entry;
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null index")
+    void shouldThrowForNullIndex() {
+      assertThrows(NullPointerException.class,
+          () -> new DiaryEntryService(entryRepository, null));
+    }
+
+    @Test
+    @DisplayName("should search through the index when it is ready")
+    void shouldSearchThroughIndex() {
+      DiaryEntry first = mock(DiaryEntry.class);
+      DiaryEntry second = mock(DiaryEntry.class);
+      when(searchIndex.isReady()).thenReturn(true);
+      when(searchIndex.search("trip")).thenReturn(List.of(2L, 1L));
+      when(entryRepository.findByIds(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+      assertEquals(List.of(first, second), service.search("trip"));
+      verify(entryRepository, never()).searchFullText(any());
+      verify(entryRepository, never()).searchByTitleOrContent(any());
+    }
+
+    @Test
+    @DisplayName("should search fuzzily through the index when it is ready")
+    void shouldSearchFuzzilyThroughIndex() {
+      DiaryEntrySummary summary = new DiaryEntrySummary(1L, "Trip", 1L, "John Doe", null);
+      when(searchIndex.isAcceptingChanges()).thenReturn(true);
+      when(searchIndex.isReady()).thenReturn(true);
+      when(searchIndex.searchFuzzy("tirp", 1)).thenReturn(List.of(1L));
+      when(entryRepository.findSummariesByIds(List.of(1L))).thenReturn(List.of(summary));
+
+      assertEquals(List.of(summary), service.searchSummariesFuzzy("tirp", 1));
+      verify(searchIndex, never()).search(any());
+      verify(searchIndex, never()).build(any());
+    }
+
+    @Test
+    @DisplayName("should build the index on the first fuzzy search")
+    void shouldBuildIndexOnFirstFuzzySearch() {
+      boolean[] built = {false};
+      when(searchIndex.isAcceptingChanges()).thenAnswer(inv -> built[0]);
+      when(searchIndex.isReady()).thenAnswer(inv -> built[0]);
+      doAnswer(inv -> built[0] = true).when(searchIndex).build(entryRepository);
+      when(searchIndex.searchFuzzy("tirp", 1)).thenReturn(List.of());
+
+      assertFalse(service.isFuzzySearchReady());
+      service.searchSummariesFuzzy("tirp", 1);
+      service.searchSummariesFuzzy("tirp", 1);
+
+      verify(searchIndex, times(1)).build(entryRepository);
+      verify(searchIndex, times(2)).searchFuzzy("tirp", 1);
+      assertTrue(service.isFuzzySearchReady());
+    }
+
+    @Test
+    @DisplayName("should fall back to exact search while a build is running")
+    void shouldFallBackToExactSearchWhileBuilding() {
+      when(searchIndex.isAcceptingChanges()).thenReturn(true);
+      when(searchIndex.isReady()).thenReturn(false);
+
+      assertFalse(service.prepareFuzzySearch());
+      service.searchSummariesFuzzy("trip", 2);
+
+      verify(entryRepository).searchSummariesByTitleOrContent("trip");
+      verify(searchIndex, never()).searchFuzzy(any(), anyInt());
+      verify(searchIndex, never()).build(any());
+    }
+
+    @Test
+    @DisplayName("should reject a negative fuzzy distance")
+    void shouldRejectNegativeFuzzyDistance() {
+      assertThrows(IllegalArgumentException.class, () -> service.searchSummariesFuzzy("trip", -1));
+      assertTrue(service.searchSummariesFuzzy(" ", 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should use SQL search while the index is not ready")
+    void shouldUseSqlSearchWhileNotReady() {
+      when(searchIndex.isReady()).thenReturn(false);
+
+      service.searchSummaries("trip");
+
+      verify(entryRepository).searchSummariesByTitleOrContent("trip");
+      verify(searchIndex, never()).search(any());
+    }
+
+    @Test
+    @DisplayName("should use SQL search for text without words")
+    void shouldUseSqlSearchForTextWithoutWords() {
+      when(searchIndex.isReady()).thenReturn(true);
+
+      service.searchSummaries("%!");
+
+      verify(entryRepository).searchSummariesByTitleOrContent("%!");
+      verify(searchIndex, never()).search(any());
+    }
+
+    @Test
+    @DisplayName("should drop entries that no longer exist from the index")
+    void shouldDropMissingEntries() {
+      DiaryEntrySummary summary = new DiaryEntrySummary(1L, "Trip", 1L, "John Doe", null);
+      when(searchIndex.isReady()).thenReturn(true);
+      when(searchIndex.search("trip")).thenReturn(List.of(3L, 1L));
+      when(entryRepository.findSummariesByIds(List.of(3L, 1L))).thenReturn(List.of(summary));
+
+      assertEquals(List.of(summary), service.searchSummaries("trip"));
+      verify(searchIndex).remove(3L);
+      verify(searchIndex, never()).remove(1L);
+    }
+
+    @Test
+    @DisplayName("should index created entries")
+    void shouldIndexCreatedEntries() {
+      DiaryEntry saved = entry(7L, "My Day", "Great day!");
+      when(entryRepository.save(any(DiaryEntry.class))).thenReturn(saved);
+      when(searchIndex.isAcceptingChanges()).thenReturn(true);
+
+      service.createEntry("My Day", testAuthor, "Great day!");
+
+      verify(searchIndex).index(eq(7L), eq("My Day"), eq("Great day!"), any());
+    }
+
+    @Test
+    @DisplayName("should not index entries while the index is unused")
+    void shouldNotIndexWhileUnused() {
+      when(entryRepository.save(any(DiaryEntry.class))).thenAnswer(inv -> inv.getArgument(0));
+      when(searchIndex.isAcceptingChanges()).thenReturn(false);
+
+      service.createEntry("My Day", testAuthor, "Great day!");
+
+      verify(searchIndex, never()).index(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should index edited entries")
+    void shouldIndexEditedEntries() {
+      DiaryEntry entry = entry(7L, "New title", "Content");
+      when(entryRepository.updateTitleAndContent(entry, "New title", null)).thenReturn(true);
+      when(searchIndex.isAcceptingChanges()).thenReturn(true);
+
+      service.updateTitle(entry, "New title");
+
+      verify(searchIndex).index(eq(7L), eq("New title"), eq("Content"), any());
+    }
+
+    @Test
+    @DisplayName("should index updated entries")
+    void shouldIndexUpdatedEntries() {
+      DiaryEntry entry = entry(7L, "Title", "New content");
+      when(entryRepository.update(entry)).thenReturn(entry);
+      when(searchIndex.isAcceptingChanges()).thenReturn(true);
+
+      service.update(entry);
+
+      verify(searchIndex).index(eq(7L), eq("Title"), eq("New content"), any());
+    }
+
+    @Test
+    @DisplayName("should remove deleted entries")
+    void shouldRemoveDeletedEntries() {
+      when(entryRepository.deleteById(7L)).thenReturn(true);
+      when(entryRepository.deleteById(8L)).thenReturn(false);
+
+      service.deleteById(7L);
+      service.deleteById(8L);
+
+      verify(searchIndex).remove(eq(7L), any());
+      verify(searchIndex, never()).remove(eq(8L), any());
+    }
+
+    @Test
+    @DisplayName("should rebuild the index after bulk saves")
+    void shouldRebuildAfterBulkSaves() {
+      List<DiaryEntry> entries = List.of(new DiaryEntry("A", testAuthor, "Content"));
+      when(entryRepository.saveAll(entries)).thenReturn(1L);
+      when(searchIndex.isReady()).thenReturn(true);
+
+      service.createEntries(entries);
+
+      verify(searchIndex).build(entryRepository);
+    }
+
+    @Test
+    @DisplayName("should not build an index that is not in use")
+    void shouldNotBuildUnusedIndex() {
+      when(searchIndex.isReady()).thenReturn(false);
+
+      assertFalse(service.rebuildSearchIndex());
+      verify(searchIndex, never()).build(any());
+    }
+  }
+
+  // search result cache tests
+  @Nested
+  @DisplayName("Search result cache")
+  class SearchResultCacheTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 5, 1);
+
+    private DiaryEntryService service;
+
+    @BeforeEach
+    void setUp() {
+      service = new DiaryEntryService(entryRepository, new SearchIndex(), new SearchResultCache());
+    }
+
+    private DiaryEntry entry(long id) {
+      DiaryEntry entry = mock(DiaryEntry.class);
+      when(entry.getId()).thenReturn(id);
+      return entry;
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null cache")
+    void shouldThrowForNullCache() {
+      assertThrows(NullPointerException.class,
+          () -> new DiaryEntryService(entryRepository, new SearchIndex(), null));
+    }
+
+    @Test
+    @DisplayName("should load repeated searches by ID")
+    void shouldLoadRepeatedSearchesById() {
+      DiaryEntry first = entry(2L);
+      DiaryEntry second = entry(1L);
+      when(entryRepository.searchByTitleOrContent(any())).thenReturn(List.of(first, second));
+      when(entryRepository.findByIds(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+      service.search("Beach");
+      List<DiaryEntry> result = service.search("beach");
+
+      assertEquals(List.of(first, second), result);
+      verify(entryRepository, times(1)).searchByTitleOrContent(any());
+      assertEquals(1, service.getSearchCacheStatistics().hits());
+    }
+
+    @Test
+    @DisplayName("should share cached IDs between entries and summaries")
+    void shouldShareIdsWithSummaries() {
+      DiaryEntrySummary summary = new DiaryEntrySummary(3L, "Beach", 1L, "John Doe", null);
+      when(entryRepository.searchSummariesByTitleOrContent("beach")).thenReturn(List.of(summary));
+      when(entryRepository.findByIds(List.of(3L))).thenReturn(List.of());
+
+      service.searchSummaries("beach");
+      service.search("beach");
+
+      verify(entryRepository, never()).searchByTitleOrContent(any());
+    }
+
+    @Test
+    @DisplayName("should search again after an entry with a matching word is created")
+    void shouldSearchAgainAfterMatchingCreate() {
+      DiaryEntry saved = entry(5L);
+      when(saved.getTitle()).thenReturn("Beach day");
+      when(saved.getContent()).thenReturn("Sun");
+      when(entryRepository.save(any(DiaryEntry.class))).thenReturn(saved);
+      when(entryRepository.searchSummariesByTitleOrContent("beach")).thenReturn(List.of());
+
+      service.searchSummaries("beach");
+      service.createEntry("Beach day", testAuthor, "Sun");
+      service.searchSummaries("beach");
+
+      verify(entryRepository, times(2)).searchSummariesByTitleOrContent("beach");
+    }
+
+    @Test
+    @DisplayName("should keep results an edit cannot change")
+    void shouldKeepUnaffectedResults() {
+      DiaryEntry entry = entry(5L);
+      when(entry.getTitle()).thenReturn("Mountain hike");
+      when(entryRepository.updateTitleAndContent(entry, "Mountain hike", null)).thenReturn(true);
+      when(entryRepository.searchSummariesByTitleOrContent("beach")).thenReturn(List.of());
+
+      service.searchSummaries("beach");
+      service.updateTitle(entry, "Mountain hike");
+      service.searchSummaries("beach");
+
+      verify(entryRepository, times(1)).searchSummariesByTitleOrContent("beach");
+    }
+
+    @Test
+    @DisplayName("should search dates again after an entry in the range is deleted")
+    void shouldSearchDatesAgainAfterDelete() {
+      DiaryEntry entry = entry(5L);
+      when(entry.getCreatedAt()).thenReturn(DAY.atTime(12, 0));
+      when(entryRepository.findIdsByDateRange(any(), any())).thenReturn(List.of());
+      when(entryRepository.findSummariesByIds(List.of())).thenReturn(List.of());
+
+      service.findSummaryPageByDateRange(DAY.minusDays(1), DAY, PageRequest.first(10));
+      service.findSummaryPageByDate(DAY.plusDays(1), PageRequest.first(10));
+      when(entryRepository.delete(entry)).thenReturn(true);
+      service.delete(entry);
+      service.findSummaryPageByDateRange(DAY.minusDays(1), DAY, PageRequest.first(10));
+      service.findSummaryPageByDate(DAY.plusDays(1), PageRequest.first(10));
+
+      verify(entryRepository, times(2)).findIdsByDateRange(DAY.minusDays(1), DAY);
+      verify(entryRepository, times(1)).findIdsByDateRange(DAY.plusDays(1), DAY.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("should drop results containing an entry deleted by ID")
+    void shouldDropResultsOfDeletedEntry() {
+      DiaryEntrySummary summary = new DiaryEntrySummary(5L, "Beach", 1L, "John Doe",
+          DAY.atTime(12, 0));
+      when(entryRepository.findIdsByDateRange(DAY, DAY)).thenReturn(List.of(5L));
+      when(entryRepository.findSummariesByIds(List.of(5L))).thenReturn(List.of(summary));
+      when(entryRepository.deleteById(5L)).thenReturn(true);
+
+      service.findSummaryPageByDate(DAY, PageRequest.first(10));
+      service.deleteById(5L);
+      service.findSummaryPageByDate(DAY, PageRequest.first(10));
+
+      verify(entryRepository, times(2)).findIdsByDateRange(DAY, DAY);
+    }
+
+    @Test
+    @DisplayName("should clear the cache after bulk changes")
+    void shouldClearAfterBulkChanges() {
+      when(entryRepository.findIdsByDateRange(DAY, DAY)).thenReturn(List.of());
+      when(entryRepository.findSummariesByIds(List.of())).thenReturn(List.of());
+
+      service.findSummaryPageByDate(DAY, PageRequest.first(10));
+      service.refreshAfterBulkChanges();
+      service.findSummaryPageByDate(DAY, PageRequest.first(10));
+
+      verify(entryRepository, times(2)).findIdsByDateRange(DAY, DAY);
     }
   }
 
@@ -0,0 +1,209 @@
+package edu.ntnu.idi.idatt.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import edu.ntnu.idi.idatt.model.projections.EntryRecord;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.EntryFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+  private static final LocalDateTime CREATED = LocalDateTime.of(2025, 12, 5, 9, 30);
+  private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 12, 6, 18, 0, 15);
+
+  @Mock
+  private DiaryEntryRepository entryRepository;
+
+  @TempDir
+  Path tempDir;
+
+  private ExportService exportService;
+
+  @BeforeEach
+  void setUp() {
+    exportService = new ExportService(entryRepository);
+  }
+
+  /**
+   * Makes the mocked repository stream the given records.
+   */
+  @SuppressWarnings("unchecked")
+  private void streamRecords(List<EntryRecord> records) {
+    when(entryRepository.streamRecords(any(EntryFilter.class), any(Consumer.class)))
+        .thenAnswer(inv -> {
+          Consumer<EntryRecord> action = inv.getArgument(1);
+          records.forEach(action);
+          return (long) records.size();
+        });
+  }
+
+  private EntryRecord record(long id, String title, String content) {
+    return new EntryRecord(id, title, content, "john@example.com", "John", "Doe", CREATED,
+        UPDATED);
+  }
+
+  // constructor tests
+  @Nested
+  @DisplayName("Constructor")
+  class ConstructorTests {
+
+    @Test
+    @DisplayName("should throw NullPointerException for null repository")
+    void shouldThrowForNullRepository() {
+      assertThrows(NullPointerException.class, () -> new ExportService(null));
+    }
+  }
+
+  // NDJSON tests
+  @Nested
+  @DisplayName("export() as NDJSON")
+  class NdjsonTests {
+
+    @Test
+    @DisplayName("should write one JSON object per line")
+    void shouldWriteOneObjectPerLine() throws IOException {
+      streamRecords(List.of(record(1, "First", "Hello"), record(2, "Second", "World")));
+      Path file = tempDir.resolve("entries.ndjson");
+
+      ExportReport report = exportService.export(file, EntryFileFormat.NDJSON, false,
+          EntryFilter.all());
+
+      List<String> lines = Files.readAllLines(file);
+      assertEquals(2, report.rows());
+      assertEquals(2, lines.size());
+      assertEquals("{\"id\":1,\"title\":\"First\",\"content\":\"Hello\","
+          + "\"authorEmail\":\"john@example.com\",\"authorFirstName\":\"John\","
+          + "\"authorLastName\":\"Doe\",\"createdAt\":\"2025-12-05T09:30:00\","
+          + "\"updatedAt\":\"2025-12-06T18:00:15\"}", lines.get(0));
+    }
+
+    @Test
+    @DisplayName("should escape quotes, backslashes and line breaks")
+    void shouldEscapeSpecialCharacters() throws IOException {
+      streamRecords(List.of(record(1, "Say \"hi\"", "Line 1\nC:\\diary\ttab")));
+      Path file = tempDir.resolve("entries.ndjson");
+
+      exportService.export(file, EntryFileFormat.NDJSON, false, EntryFilter.all());
+
+      String line = Files.readAllLines(file).get(0);
+      assertTrue(line.contains("\"title\":\"Say \\\"hi\\\"\""));
+      assertTrue(line.contains("\"content\":\"Line 1\\nC:\\\\diary\\ttab\""));
+    }
+  }
+
+  // CSV tests
+  @Nested
+  @DisplayName("export() as CSV")
+  class CsvTests {
+
+    @Test
+    @DisplayName("should write a header row and quote fields that need it")
+    void shouldWriteHeaderAndQuoteFields() throws IOException {
+      streamRecords(List.of(record(1, "Plain", "Hello, \"world\"\nBye")));
+      Path file = tempDir.resolve("entries.csv");
+
+      exportService.export(file, EntryFileFormat.CSV, false, EntryFilter.all());
+
+      String csv = Files.readString(file);
+      assertEquals("id,title,content,author_email,author_first_name,author_last_name,"
+          + "created_at,updated_at\r\n"
+          + "1,Plain,\"Hello, \"\"world\"\"\nBye\",john@example.com,John,Doe,"
+          + "2025-12-05T09:30:00,2025-12-06T18:00:15\r\n", csv);
+    }
+
+    @Test
+    @DisplayName("should write only the header when there are no entries")
+    void shouldWriteOnlyHeaderWhenEmpty() throws IOException {
+      streamRecords(List.of());
+      Path file = tempDir.resolve("entries.csv");
+
+      ExportReport report = exportService.export(file, EntryFileFormat.CSV, false,
+          EntryFilter.all());
+
+      assertEquals(0, report.rows());
+      assertEquals(1, Files.readAllLines(file).size());
+    }
+  }
+
+  // general export tests
+  @Nested
+  @DisplayName("export()")
+  class ExportTests {
+
+    @Test
+    @DisplayName("should gzip the file when requested")
+    void shouldGzipFile() throws IOException {
+      streamRecords(List.of(record(1, "First", "Hello")));
+      Path file = tempDir.resolve("entries.ndjson.gz");
+
+      exportService.export(file, EntryFileFormat.NDJSON, true, EntryFilter.all());
+
+      try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+        String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("{\"id\":1,\"title\":\"First\""));
+      }
+    }
+
+    @Test
+    @DisplayName("should pass the filter to the repository")
+    @SuppressWarnings("unchecked")
+    void shouldPassFilterToRepository() throws IOException {
+      streamRecords(List.of());
+      EntryFilter filter = new EntryFilter(7L, null, null);
+
+      exportService.export(tempDir.resolve("entries.csv"), EntryFileFormat.CSV, false, filter);
+
+      verify(entryRepository).streamRecords(eq(filter), any(Consumer.class));
+    }
+
+    @Test
+    @DisplayName("should report progress at every interval")
+    void shouldReportProgress() throws IOException {
+      List<EntryRecord> records = new ArrayList<>();
+      for (int i = 0; i < ExportService.PROGRESS_INTERVAL * 2 + 1; i++) {
+        records.add(record(i, "Entry", "Content"));
+      }
+      streamRecords(records);
+      List<Long> reported = new ArrayList<>();
+
+      ExportReport report = exportService.export(tempDir.resolve("entries.ndjson"),
+          EntryFileFormat.NDJSON, false, EntryFilter.all(),
+          progress -> reported.add(progress.rows()));
+
+      assertEquals(List.of((long) ExportService.PROGRESS_INTERVAL,
+          (long) ExportService.PROGRESS_INTERVAL * 2), reported);
+      assertEquals(records.size(), report.rows());
+    }
+
+    @Test
+    @DisplayName("should throw IOException when the file cannot be written")
+    void shouldThrowWhenFileCannotBeWritten() {
+      Path file = tempDir.resolve("missing").resolve("entries.csv");
+
+      assertThrows(IOException.class,
+          () -> exportService.export(file, EntryFileFormat.CSV, false, EntryFilter.all()));
+    }
+  }
+}
@@ -0,0 +1,351 @@
+package edu.ntnu.idi.idatt.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.model.projections.EntryRecord;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.SavedAuthor;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+
+  private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 8, 15);
+
+  @Mock
+  private AuthorRepository authorRepository;
+
+  @Mock
+  private DiaryEntryRepository entryRepository;
+
+  @TempDir
+  Path tempDir;
+
+  private ImportService importService;
+  private Author existingAuthor;
+  private List<DiaryEntry> saved;
+
+  @BeforeEach
+  void setUp() {
+    importService = new ImportService(authorRepository, entryRepository, 3);
+    existingAuthor = new Author("John", "Doe", "john@example.com");
+    saved = new ArrayList<>();
+  }
+
+  /**
+   * Makes the mocked repositories behave like a database that knows the existing author.
+   */
+  @SuppressWarnings("unchecked")
+  private void mockDatabase() {
+    when(authorRepository.findAll()).thenReturn(List.of(existingAuthor));
+    lenient().when(authorRepository.saveAllIfAbsent(anyCollection())).thenAnswer(inv -> {
+      Collection<Author> authors = inv.getArgument(0);
+      return authors.stream().map(author -> new SavedAuthor(author, true)).toList();
+    });
+    when(entryRepository.saveAll(any(Iterable.class), anyInt())).thenAnswer(inv -> {
+      Iterable<DiaryEntry> entries = inv.getArgument(0);
+      entries.forEach(saved::add);
+      return (long) saved.size();
+    });
+  }
+
+  private Path write(String name, String content) throws IOException {
+    Path file = tempDir.resolve(name);
+    Files.writeString(file, content);
+    return file;
+  }
+
+  private String ndjson(EntryRecord... records) throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (EntryRecord record : records) {
+      EntryFileFormat.NDJSON.write(record, text);
+    }
+    return text.toString();
+  }
+
+  private EntryRecord record(String title, String email) {
+    return new EntryRecord(1L, title, "Content of " + title, email, "Jane", "Smith", CREATED,
+        CREATED);
+  }
+
+  // constructor tests
+  @Nested
+  @DisplayName("Constructor")
+  class ConstructorTests {
+
+    @Test
+    @DisplayName("should throw NullPointerException for null repositories")
+    void shouldThrowForNullRepositories() {
+      assertThrows(NullPointerException.class, () -> new ImportService(null, entryRepository));
+      assertThrows(NullPointerException.class, () -> new ImportService(authorRepository, null));
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for no parser threads")
+    void shouldThrowForNoParserThreads() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new ImportService(authorRepository, entryRepository, 0));
+    }
+  }
+
+  // NDJSON tests
+  @Nested
+  @DisplayName("importEntries() from NDJSON")
+  class NdjsonTests {
+
+    @Test
+    @DisplayName("should save entries with their creation time")
+    void shouldSaveEntries() throws IOException {
+      mockDatabase();
+      Path file = write("entries.ndjson", ndjson(record("First", "john@example.com")));
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.NDJSON);
+
+      assertEquals(1, report.imported());
+      assertEquals(0, report.rejected());
+      assertEquals(1, saved.size());
+      DiaryEntry entry = saved.get(0);
+      assertEquals("First", entry.getTitle());
+      assertEquals("Content of First", entry.getContent());
+      assertEquals(CREATED, entry.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("should attach entries to existing authors without saving them again")
+    void shouldReuseExistingAuthors() throws IOException {
+      mockDatabase();
+      Path file = write("entries.ndjson", ndjson(record("First", "JOHN@example.com"),
+          record("Second", "john@example.com")));
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.NDJSON);
+
+      assertEquals(0, report.authorsCreated());
+      assertTrue(saved.stream().allMatch(entry -> entry.getAuthor() == existingAuthor));
+      verify(authorRepository, never()).saveAllIfAbsent(anyCollection());
+    }
+
+    @Test
+    @DisplayName("should create each unknown author once")
+    void shouldCreateUnknownAuthorsOnce() throws IOException {
+      mockDatabase();
+      Path file = write("entries.ndjson", ndjson(record("First", "jane@example.com"),
+          record("Second", "jane@example.com")));
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.NDJSON);
+
+      assertEquals(1, report.authorsCreated());
+      verify(authorRepository, times(1)).saveAllIfAbsent(argThat(authors -> authors.size() == 1));
+      assertSame(saved.get(0).getAuthor(), saved.get(1).getAuthor());
+      assertEquals("Jane Smith", saved.get(0).getAuthor().getFullName());
+    }
+
+    @Test
+    @DisplayName("should attach entries to authors created elsewhere without counting them")
+    void shouldReuseAuthorsCreatedElsewhere() throws IOException {
+      mockDatabase();
+      Author createdElsewhere = new Author("Jane", "Smith", "jane@example.com");
+      when(authorRepository.saveAllIfAbsent(anyCollection()))
+          .thenReturn(List.of(new SavedAuthor(createdElsewhere, false)));
+      Path file = write("entries.ndjson", ndjson(record("First", "jane@example.com")));
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.NDJSON);
+
+      assertEquals(0, report.authorsCreated());
+      assertSame(createdElsewhere, saved.get(0).getAuthor());
+    }
+
+    @Test
+    @DisplayName("should skip invalid records and report their line numbers")
+    void shouldSkipInvalidRecords() throws IOException {
+      mockDatabase();
+      Path file = write("entries.ndjson", ndjson(record("Valid", "john@example.com"))
+          + "{\"title\":\"No author\",\"content\":\"Text\"}\n"
+          + "\n"
+          + "{not json}\n"
+          + ndjson(record("Bad email", "not-an-email"), record(" ", "john@example.com")));
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.NDJSON);
+
+      assertEquals(1, report.imported());
+      assertEquals(4, report.rejected());
+      List<String> errors = report.errors().stream().sorted().toList();
+      assertTrue(errors.get(0).startsWith("Line 2: "));
+      assertTrue(errors.get(1).startsWith("Line 4: Invalid JSON"));
+      assertTrue(errors.get(2).startsWith("Line 5: Invalid email format"));
+      assertTrue(errors.get(3).startsWith("Line 6: Title cannot be blank"));
+    }
+
+    @Test
+    @DisplayName("should read escaped characters")
+    void shouldReadEscapedCharacters() throws IOException {
+      mockDatabase();
+      EntryRecord record = new EntryRecord(1L, "Say \"hi\"", "Line 1\nC:\\diary\tæøå",
+          "john@example.com", "John", "Doe", CREATED, CREATED);
+      Path file = write("entries.ndjson", ndjson(record));
+
+      importService.importEntries(file, EntryFileFormat.NDJSON);
+
+      assertEquals("Say \"hi\"", saved.get(0).getTitle());
+      assertEquals("Line 1\nC:\\diary\tæøå", saved.get(0).getContent());
+    }
+  }
+
+  // CSV tests
+  @Nested
+  @DisplayName("importEntries() from CSV")
+  class CsvTests {
+
+    @Test
+    @DisplayName("should read quoted fields spanning several lines")
+    void shouldReadMultiLineFields() throws IOException {
+      mockDatabase();
+      StringBuilder csv = new StringBuilder();
+      EntryFileFormat.CSV.writeHeader(csv);
+      EntryFileFormat.CSV.write(new EntryRecord(1L, "Quoted, \"title\"", "Line 1\nLine 2",
+          "john@example.com", "John", "Doe", CREATED, CREATED), csv);
+      Path file = write("entries.csv", csv.toString());
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.CSV);
+
+      assertEquals(1, report.imported());
+      assertEquals("Quoted, \"title\"", saved.get(0).getTitle());
+      assertEquals("Line 1\nLine 2", saved.get(0).getContent());
+    }
+
+    @Test
+    @DisplayName("should keep track of quotes across the lines of a record")
+    void shouldTrackQuotesAcrossLines() throws IOException {
+      mockDatabase();
+      StringBuilder csv = new StringBuilder();
+      EntryFileFormat.CSV.writeHeader(csv);
+      EntryFileFormat.CSV.write(new EntryRecord(1L, "First", "Start\nSaid \"hi\"\n\"\nEnd",
+          "john@example.com", "John", "Doe", CREATED, CREATED), csv);
+      EntryFileFormat.CSV.write(new EntryRecord(2L, "Second", "Plain",
+          "john@example.com", "John", "Doe", CREATED, CREATED), csv);
+      Path file = write("entries.csv", csv.toString());
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.CSV);
+
+      assertEquals(2, report.imported());
+      assertEquals("Start\nSaid \"hi\"\n\"\nEnd", saved.get(0).getContent());
+      assertEquals("Plain", saved.get(1).getContent());
+    }
+
+    @Test
+    @DisplayName("should map columns by header name in any order")
+    void shouldMapColumnsByHeader() throws IOException {
+      mockDatabase();
+      Path file = write("entries.csv", "Content,Title,Author_Email,Author_First_Name,"
+          + "Author_Last_Name,Created_At\n"
+          + "Hello,Greeting,john@example.com,John,Doe,2024-03-01T08:15:00\n");
+
+      importService.importEntries(file, EntryFileFormat.CSV);
+
+      assertEquals("Greeting", saved.get(0).getTitle());
+      assertEquals("Hello", saved.get(0).getContent());
+      assertEquals(CREATED, saved.get(0).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("should reject records with the wrong number of fields")
+    void shouldRejectWrongFieldCount() throws IOException {
+      mockDatabase();
+      Path file = write("entries.csv", "title,content\nOnly title\n");
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.CSV);
+
+      assertEquals(0, report.imported());
+      assertEquals(List.of("Line 2: Expected 2 fields but found 1"), report.errors());
+    }
+  }
+
+  // general import tests
+  @Nested
+  @DisplayName("importEntries()")
+  class ImportTests {
+
+    @Test
+    @DisplayName("should detect and read gzip-compressed files")
+    void shouldReadGzipFiles() throws IOException {
+      mockDatabase();
+      Path file = tempDir.resolve("entries.ndjson.gz");
+      try (OutputStream stream = new GZIPOutputStream(Files.newOutputStream(file));
+          Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8)) {
+        writer.write(ndjson(record("Zipped", "john@example.com")));
+      }
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.NDJSON);
+
+      assertEquals(1, report.imported());
+      assertEquals("Zipped", saved.get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("should import files larger than the pipeline queues and report progress")
+    void shouldImportLargeFiles() throws IOException {
+      mockDatabase();
+      int count = ImportService.PROGRESS_INTERVAL * 2 + 7;
+      StringBuilder text = new StringBuilder();
+      for (int i = 0; i < count; i++) {
+        EntryFileFormat.NDJSON.write(record("Entry " + i, "john@example.com"), text);
+      }
+      Path file = write("entries.ndjson", text.toString());
+      List<Long> reported = new ArrayList<>();
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.NDJSON,
+          progress -> reported.add(progress.imported()));
+
+      assertEquals(count, report.imported());
+      assertEquals(count, saved.size());
+      assertEquals(count, saved.stream().map(DiaryEntry::getTitle).distinct().count());
+      assertEquals(List.of((long) ImportService.PROGRESS_INTERVAL,
+          (long) ImportService.PROGRESS_INTERVAL * 2), reported);
+    }
+
+    @Test
+    @DisplayName("should limit the number of described errors")
+    void shouldLimitDescribedErrors() throws IOException {
+      mockDatabase();
+      Path file = write("entries.ndjson", "{}\n".repeat(ImportService.MAX_REPORTED_ERRORS + 5));
+
+      ImportReport report = importService.importEntries(file, EntryFileFormat.NDJSON);
+
+      assertEquals(ImportService.MAX_REPORTED_ERRORS + 5, report.rejected());
+      assertEquals(ImportService.MAX_REPORTED_ERRORS, report.errors().size());
+    }
+
+    @Test
+    @DisplayName("should throw IOException for a missing file")
+    void shouldThrowForMissingFile() {
+      Path file = tempDir.resolve("missing.csv");
+
+      assertThrows(IOException.class,
+          () -> importService.importEntries(file, EntryFileFormat.CSV));
+    }
+  }
+}
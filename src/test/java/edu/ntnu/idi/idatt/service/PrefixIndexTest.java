@@ -0,0 +1,238 @@
+package edu.ntnu.idi.idatt.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+
+  private PrefixIndex index;
+  private Map<Long, String> titles;
+
+  @BeforeEach
+  void setUp() {
+    index = new PrefixIndex();
+    titles = new HashMap<>();
+    titles.put(1L, "Beach day");
+    titles.put(2L, "Berlin trip");
+    titles.put(3L, "beach again");
+    titles.put(4L, "Mountain hike");
+    index.ensureLoaded(keys -> titles.forEach((id, title) -> keys.accept(title, id)));
+  }
+
+  private List<String> completeTitles(String prefix, int limit) {
+    return index.complete(prefix, limit,
+        ids -> ids.stream().filter(titles::containsKey).toList(),
+        id -> id, id -> List.of(titles.get(id))).stream().map(titles::get).toList();
+  }
+
+  // ensureLoaded tests
+  @Nested
+  @DisplayName("ensureLoaded()")
+  class EnsureLoadedTests {
+
+    @Test
+    @DisplayName("should load only once")
+    void shouldLoadOnlyOnce() {
+      index.ensureLoaded(keys -> keys.accept("Other", 9L));
+
+      assertTrue(index.isLoaded());
+      assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("should skip blank keys and duplicates")
+    void shouldSkipBlankKeysAndDuplicates() {
+      PrefixIndex fresh = new PrefixIndex();
+      fresh.ensureLoaded(keys -> {
+        keys.accept("Beach", 1L);
+        keys.accept("beach ", 1L);
+        keys.accept(" ", 2L);
+        keys.accept(null, 3L);
+      });
+
+      assertEquals(1, fresh.size());
+    }
+
+    @Test
+    @DisplayName("should load again after unload")
+    void shouldLoadAgainAfterUnload() {
+      index.unload();
+      assertFalse(index.isLoaded());
+
+      index.ensureLoaded(keys -> keys.accept("Other", 9L));
+
+      assertEquals(List.of(9L), index.complete("o", 10));
+    }
+  }
+
+  // complete tests
+  @Nested
+  @DisplayName("complete()")
+  class CompleteTests {
+
+    @Test
+    @DisplayName("should return keys starting with the prefix in key order")
+    void shouldReturnMatchesInKeyOrder() {
+      assertEquals(List.of(3L, 1L), index.complete("bea", 10));
+      assertEquals(List.of(3L, 1L, 2L), index.complete("BE", 10));
+    }
+
+    @Test
+    @DisplayName("should stop at the limit")
+    void shouldStopAtLimit() {
+      assertEquals(List.of(3L, 1L), index.complete("b", 2));
+      assertEquals(List.of(), index.complete("b", 0));
+    }
+
+    @Test
+    @DisplayName("should match every key for an empty prefix")
+    void shouldMatchEverythingForEmptyPrefix() {
+      assertEquals(List.of(3L, 1L, 2L, 4L), index.complete("  ", 10));
+    }
+
+    @Test
+    @DisplayName("should return nothing when no key starts with the prefix")
+    void shouldReturnNothingWithoutMatch() {
+      assertTrue(index.complete("zebra", 10).isEmpty());
+      assertTrue(index.complete("beach day!", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should return an ID matching with several keys once")
+    void shouldReturnIdOnce() {
+      index.add(4L, List.of("Mountains", "Mount Everest"));
+
+      assertEquals(List.of(4L), index.complete("mount", 10));
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for negative limit")
+    void shouldThrowForNegativeLimit() {
+      assertThrows(IllegalArgumentException.class, () -> index.complete("b", -1));
+    }
+  }
+
+  // add, remove and replace tests
+  @Nested
+  @DisplayName("add(), remove() and replace()")
+  class ChangeTests {
+
+    @Test
+    @DisplayName("should keep added keys in order")
+    void shouldKeepAddedKeysInOrder() {
+      for (long id = 10; id < 40; id++) {
+        index.add(id, List.of("Beach " + id));
+      }
+
+      // Digits sort before letters, so the new keys come before "beach again" and "beach day"
+      List<Long> matches = index.complete("beach ", 100);
+      assertEquals(32, matches.size());
+      assertEquals(10L, matches.get(0));
+      assertEquals(39L, matches.get(29));
+      assertEquals(List.of(3L, 1L), matches.subList(30, 32));
+    }
+
+    @Test
+    @DisplayName("should ignore changes before loading")
+    void shouldIgnoreChangesBeforeLoading() {
+      PrefixIndex fresh = new PrefixIndex();
+      fresh.add(1L, List.of("Beach"));
+
+      assertFalse(fresh.isLoaded());
+      assertEquals(0, fresh.size());
+    }
+
+    @Test
+    @DisplayName("should remove only the key of the given ID")
+    void shouldRemoveKeyOfId() {
+      index.add(5L, List.of("Beach day"));
+
+      index.remove(1L, "BEACH DAY");
+
+      assertEquals(List.of(3L, 5L), index.complete("beach", 10));
+    }
+
+    @Test
+    @DisplayName("should replace old keys by new keys")
+    void shouldReplaceKeys() {
+      index.replace(4L, List.of("Mountain hike"), List.of("Lake swim"));
+
+      assertTrue(index.complete("mountain", 10).isEmpty());
+      assertEquals(List.of(4L), index.complete("lake", 10));
+    }
+
+    @Test
+    @DisplayName("should remove every key of the given ID")
+    void shouldRemoveAllKeysOfId() {
+      index.add(1L, List.of("Lake swim"));
+      int before = index.size();
+
+      index.removeAll(1L);
+
+      assertEquals(before - 2, index.size());
+      assertEquals(List.of(3L), index.complete("beach", 10));
+      assertTrue(index.complete("lake", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should replace every key of the given ID")
+    void shouldReplaceAllKeysOfId() {
+      index.replaceAll(1L, List.of("Lake swim"));
+
+      assertEquals(List.of(3L), index.complete("beach", 10));
+      assertEquals(List.of(1L), index.complete("lake", 10));
+    }
+  }
+
+  // complete with loader tests
+  @Nested
+  @DisplayName("complete() with loader")
+  class CompleteWithLoaderTests {
+
+    @Test
+    @DisplayName("should return the loaded entities in key order")
+    void shouldReturnLoadedEntities() {
+      assertEquals(List.of("beach again", "Beach day"), completeTitles("beach", 10));
+    }
+
+    @Test
+    @DisplayName("should drop entities that no longer exist and fill up the limit")
+    void shouldDropDeletedEntities() {
+      titles.remove(3L);
+
+      assertEquals(List.of("Beach day", "Berlin trip"), completeTitles("be", 2));
+      assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("should drop keys that no longer match the entity")
+    void shouldDropRenamedKeys() {
+      titles.put(1L, "Lake swim");
+      index.add(1L, List.of("Lake swim"));
+
+      assertEquals(List.of("beach again"), completeTitles("beach", 10));
+      assertEquals(List.of("Lake swim"), completeTitles("lake", 10));
+    }
+
+    @Test
+    @DisplayName("should load only the matching IDs")
+    void shouldOnlyLoadMatches() {
+      List<List<Long>> loaded = new ArrayList<>();
+      index.complete("mountain", 10, ids -> {
+        loaded.add(ids);
+        return ids;
+      }, id -> id, id -> List.of(Objects.requireNonNull(titles.get(id))));
+
+      assertEquals(List.of(List.of(4L)), loaded);
+    }
+  }
+}
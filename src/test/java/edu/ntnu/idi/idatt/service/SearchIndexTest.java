@@ -0,0 +1,615 @@
+package edu.ntnu.idi.idatt.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import edu.ntnu.idi.idatt.model.projections.EntryText;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import edu.ntnu.idi.idatt.repository.EntryTableState;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SearchIndexTest {
+
+  private DiaryEntryRepository repository;
+  private TreeMap<Long, EntryText> table;
+  private LocalDateTime lastUpdatedAt;
+  private SearchIndex searchIndex;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    table = new TreeMap<>();
+    lastUpdatedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+    repository = mock(DiaryEntryRepository.class);
+    // The mocked table serves ranges in ID order, like the real query
+    when(repository.streamText(anyLong(), anyLong(), any())).thenAnswer(inv -> {
+      Consumer<EntryText> action = inv.getArgument(2);
+      Map<Long, EntryText> range = new TreeMap<>(
+          table.subMap(inv.<Long>getArgument(0), true, inv.<Long>getArgument(1), true));
+      range.values().forEach(action);
+      return (long) range.size();
+    });
+    when(repository.findTableState()).thenAnswer(inv -> new EntryTableState(table.size(),
+        table.isEmpty() ? null : table.firstKey(), table.isEmpty() ? null : table.lastKey(),
+        table.isEmpty() ? null : lastUpdatedAt));
+    searchIndex = new SearchIndex();
+  }
+
+  private void put(long id, String title, String content) {
+    table.put(id, new EntryText(id, title, content));
+  }
+
+  // terms tests
+  @Nested
+  @DisplayName("terms()")
+  class TermsTests {
+
+    @Test
+    @DisplayName("should split on non-word characters and lower-case")
+    void shouldSplitAndLowerCase() {
+      assertEquals(List.of("summer", "trip", "2024", "it", "s", "great"),
+          SearchIndex.terms("Summer-trip 2024: it's GREAT!"));
+    }
+
+    @Test
+    @DisplayName("should remove diacritics")
+    void shouldRemoveDiacritics() {
+      assertEquals(List.of("cafe", "pa", "tur", "cafe"),
+          SearchIndex.terms("Café på TUR café"));
+    }
+
+    @Test
+    @DisplayName("should keep letters without a decomposition")
+    void shouldKeepLettersWithoutDecomposition() {
+      assertEquals(List.of("ørret", "ærlig"), SearchIndex.terms("Ørret, ærlig"));
+    }
+
+    @Test
+    @DisplayName("should cut off long terms")
+    void shouldCutOffLongTerms() {
+      String term = SearchIndex.terms("x".repeat(200)).get(0);
+
+      assertEquals(SearchIndex.MAX_TERM_LENGTH, term.length());
+    }
+
+    @Test
+    @DisplayName("should return no terms for null or punctuation")
+    void shouldReturnNoTerms() {
+      assertTrue(SearchIndex.terms(null).isEmpty());
+      assertTrue(SearchIndex.terms(" -- !? ").isEmpty());
+    }
+  }
+
+  // parseQuery tests
+  @Nested
+  @DisplayName("parseQuery()")
+  class ParseQueryTests {
+
+    @Test
+    @DisplayName("should split groups on OR")
+    void shouldSplitGroupsOnOr() {
+      assertEquals(List.of(List.of("summer", "trip"), List.of("holiday")),
+          SearchIndex.parseQuery("Summer trip OR holiday"));
+    }
+
+    @Test
+    @DisplayName("should treat lower-case or as a word")
+    void shouldTreatLowerCaseOrAsWord() {
+      assertEquals(List.of(List.of("this", "or", "that")),
+          SearchIndex.parseQuery("this or that"));
+    }
+
+    @Test
+    @DisplayName("should drop empty groups")
+    void shouldDropEmptyGroups() {
+      assertEquals(List.of(List.of("a"), List.of("b")),
+          SearchIndex.parseQuery("OR a OR OR !! OR b OR"));
+    }
+
+    @Test
+    @DisplayName("should report whether text has terms")
+    void shouldReportTerms() {
+      assertTrue(SearchIndex.hasTerms("trip"));
+      assertFalse(SearchIndex.hasTerms("%% OR"));
+      assertFalse(SearchIndex.hasTerms(null));
+    }
+  }
+
+  // unbuilt index tests
+  @Nested
+  @DisplayName("Before build")
+  class BeforeBuildTests {
+
+    @Test
+    @DisplayName("should not be ready and find nothing")
+    void shouldNotBeReady() {
+      assertFalse(searchIndex.isReady());
+      assertFalse(searchIndex.isAcceptingChanges());
+      assertTrue(searchIndex.search("trip").isEmpty());
+    }
+
+    @Test
+    @DisplayName("should ignore changes")
+    void shouldIgnoreChanges() {
+      searchIndex.index(1, "Trip", "Content");
+
+      put(2, "Other", "Content");
+      searchIndex.build(repository);
+
+      assertEquals(List.of(), searchIndex.search("trip"));
+      assertEquals(1, searchIndex.size());
+    }
+
+    @Test
+    @DisplayName("should build an empty index for an empty table")
+    void shouldBuildEmptyIndex() {
+      searchIndex.build(repository);
+
+      assertTrue(searchIndex.isReady());
+      assertEquals(0, searchIndex.size());
+      verify(repository, never()).streamText(anyLong(), anyLong(), any());
+    }
+  }
+
+  // search tests
+  @Nested
+  @DisplayName("search()")
+  class SearchTests {
+
+    @BeforeEach
+    void setUp() {
+      put(1, "Summer trip", "We went to the beach and swam");
+      put(2, "Winter", "A cold trip to the mountains");
+      put(3, "Holiday plans", "Nothing planned yet");
+      put(4, "Beach", "Beach beach beach, a summer of beaches");
+      searchIndex.build(repository);
+    }
+
+    @Test
+    @DisplayName("should require every word")
+    void shouldRequireEveryWord() {
+      assertEquals(List.of(1L), searchIndex.search("summer swam"));
+      assertEquals(List.of(), searchIndex.search("winter beach"));
+    }
+
+    @Test
+    @DisplayName("should match any group")
+    void shouldMatchAnyGroup() {
+      assertEquals(List.of(1L, 2L, 3L),
+          searchIndex.search("trip OR holiday").stream().sorted().toList());
+    }
+
+    @Test
+    @DisplayName("should match word prefixes")
+    void shouldMatchPrefixes() {
+      assertEquals(List.of(3L), searchIndex.search("plan"));
+      assertEquals(List.of(3L), searchIndex.search("HOLI"));
+    }
+
+    @Test
+    @DisplayName("should rank title matches above content matches")
+    void shouldRankTitleMatchesFirst() {
+      assertEquals(List.of(1L, 2L), searchIndex.search("trip"));
+    }
+
+    @Test
+    @DisplayName("should rank frequent terms higher")
+    void shouldRankFrequentTermsHigher() {
+      assertEquals(4L, searchIndex.search("beach").get(0));
+    }
+
+    @Test
+    @DisplayName("should rank entries matching more groups higher")
+    void shouldRankMoreGroupsHigher() {
+      assertEquals(1L, searchIndex.search("swam OR went OR mountains").get(0));
+    }
+
+    @Test
+    @DisplayName("should rank equal scores latest first")
+    void shouldRankTiesLatestFirst() {
+      searchIndex.index(10, "Same", "Text");
+      searchIndex.index(11, "Same", "Text");
+
+      assertEquals(List.of(11L, 10L), searchIndex.search("same"));
+    }
+
+    @Test
+    @DisplayName("should find nothing for unknown words")
+    void shouldFindNothingForUnknownWords() {
+      assertTrue(searchIndex.search("zebra").isEmpty());
+      assertTrue(searchIndex.search("!!").isEmpty());
+    }
+  }
+
+  // searchFuzzy tests
+  @Nested
+  @DisplayName("searchFuzzy()")
+  class SearchFuzzyTests {
+
+    @BeforeEach
+    void setUp() {
+      put(1, "Summer trip", "We went to the beach and swam");
+      put(2, "Winter", "A cold trip to the mountains");
+      put(3, "Holiday plans", "Nothing planned yet");
+      put(4, "Beach", "Beach beach beach, a summer of beaches");
+      searchIndex.build(repository);
+    }
+
+    @Test
+    @DisplayName("should match words with a replaced, missing or extra letter")
+    void shouldMatchTypos() {
+      assertEquals(List.of(2L), searchIndex.searchFuzzy("montains", 2));
+      assertEquals(List.of(2L), searchIndex.searchFuzzy("mountainss", 2));
+      assertEquals(List.of(3L), searchIndex.searchFuzzy("holliday", 2));
+      assertEquals(List.of(4L, 1L), searchIndex.searchFuzzy("beech", 2));
+    }
+
+    @Test
+    @DisplayName("should not match beyond the maximum distance")
+    void shouldRespectMaxDistance() {
+      assertEquals(List.of(2L), searchIndex.searchFuzzy("muontains", 2));
+      assertTrue(searchIndex.searchFuzzy("muontains", 1).isEmpty());
+      assertTrue(searchIndex.searchFuzzy("montains", 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should allow one edit per three letters of a word")
+    void shouldScaleDistanceWithWordLength() {
+      assertTrue(searchIndex.searchFuzzy("tp", 2).isEmpty());
+      assertEquals(List.of(1L, 2L), searchIndex.searchFuzzy("to", 2).stream().sorted().toList());
+      assertEquals(List.of(1L), searchIndex.searchFuzzy("swim", 2));
+      assertTrue(searchIndex.searchFuzzy("smwi", 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should allow the lower of the maximum and one typo per three letters")
+    void shouldReportAllowedDistance() {
+      assertEquals(0, SearchIndex.allowedDistance("to", 2));
+      assertEquals(1, SearchIndex.allowedDistance("swim", 2));
+      assertEquals(2, SearchIndex.allowedDistance("summer", 2));
+      assertEquals(1, SearchIndex.allowedDistance("mountains", 1));
+    }
+
+    @Test
+    @DisplayName("should rank exact spellings above similar ones")
+    void shouldRankExactSpellingFirst() {
+      searchIndex.index(10, "Lanterns", "Glow");
+      searchIndex.index(11, "Lantern", "Light");
+
+      assertEquals(List.of(11L, 10L), searchIndex.searchFuzzy("lantern", 2));
+    }
+
+    @Test
+    @DisplayName("should require every word and match any group")
+    void shouldCombineWordsLikeSearch() {
+      assertEquals(List.of(1L), searchIndex.searchFuzzy("sumer swam", 2));
+      assertEquals(List.of(2L, 3L),
+          searchIndex.searchFuzzy("wintr OR holidy", 2).stream().sorted().toList());
+    }
+
+    @Test
+    @DisplayName("should match terms of entries added after the build")
+    void shouldMatchNewTerms() {
+      searchIndex.index(10, "Autumn", "Leaves falling");
+
+      assertEquals(List.of(10L), searchIndex.searchFuzzy("autunm", 2));
+    }
+
+    @Test
+    @DisplayName("should not return removed entries")
+    void shouldNotReturnRemovedEntries() {
+      searchIndex.remove(2);
+
+      assertTrue(searchIndex.searchFuzzy("montains", 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for negative distance")
+    void shouldThrowForNegativeDistance() {
+      assertThrows(IllegalArgumentException.class, () -> searchIndex.searchFuzzy("beach", -1));
+    }
+  }
+
+  // build tests
+  @Nested
+  @DisplayName("build()")
+  class BuildTests {
+
+    @Test
+    @DisplayName("should give the same results when built in many ranges")
+    void shouldMergeRanges() {
+      for (long id = 1; id <= 300; id += 1 + id % 3) {
+        put(id, "Entry " + id, "word" + id % 7 + " common");
+      }
+      SearchIndex whole = new SearchIndex();
+      whole.build(repository);
+      clearInvocations(repository);
+
+      searchIndex.build(repository, 8);
+
+      verify(repository, atLeast(20)).streamText(anyLong(), anyLong(), any());
+      assertEquals(table.size(), searchIndex.size());
+      assertEquals(whole.search("common"), searchIndex.search("common"));
+      assertEquals(whole.search("word3 OR word5"), searchIndex.search("word3 OR word5"));
+    }
+
+    @Test
+    @DisplayName("should apply changes made during the build")
+    @SuppressWarnings("unchecked")
+    void shouldApplyChangesDuringBuild() {
+      put(1, "Old title", "Content");
+      put(2, "Doomed", "Content");
+      doAnswer(inv -> {
+        Consumer<EntryText> action = inv.getArgument(2);
+        table.values().forEach(action);
+        // Changes committed after the rows were read
+        searchIndex.index(1, "New title", "Content");
+        searchIndex.remove(2);
+        searchIndex.index(3, "Created", "Content");
+        return (long) table.size();
+      }).when(repository).streamText(anyLong(), anyLong(), any());
+
+      searchIndex.build(repository);
+
+      assertEquals(List.of(1L), searchIndex.search("new"));
+      assertEquals(List.of(), searchIndex.search("old"));
+      assertEquals(List.of(), searchIndex.search("doomed"));
+      assertEquals(List.of(3L), searchIndex.search("created"));
+      assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    @DisplayName("should reject a second build while one is running")
+    @SuppressWarnings("unchecked")
+    void shouldRejectConcurrentBuild() {
+      put(1, "Title", "Content");
+      List<Throwable> errors = new ArrayList<>();
+      doAnswer(inv -> {
+        errors.add(assertThrows(IllegalStateException.class,
+            () -> searchIndex.build(repository)));
+        return 0L;
+      }).when(repository).streamText(anyLong(), anyLong(), any());
+
+      searchIndex.build(repository);
+
+      assertEquals(1, errors.size());
+      assertTrue(searchIndex.isReady());
+    }
+
+    @Test
+    @DisplayName("should keep the current index when a build fails")
+    void shouldKeepIndexWhenBuildFails() {
+      put(1, "Title", "Content");
+      searchIndex.build(repository);
+      when(repository.findTableState()).thenThrow(new IllegalStateException("closed"));
+
+      assertThrows(IllegalStateException.class, () -> searchIndex.build(repository));
+      assertEquals(List.of(1L), searchIndex.search("title"));
+    }
+  }
+
+  // incremental update tests
+  @Nested
+  @DisplayName("index() and remove()")
+  class UpdateTests {
+
+    @BeforeEach
+    void setUp() {
+      put(1, "Summer trip", "Beach");
+      searchIndex.build(repository);
+    }
+
+    @Test
+    @DisplayName("should replace the text of an indexed entry")
+    void shouldReplaceText() {
+      searchIndex.index(1, "Winter trip", "Snow");
+
+      assertEquals(List.of(), searchIndex.search("summer"));
+      assertEquals(List.of(1L), searchIndex.search("winter snow"));
+      assertEquals(1, searchIndex.size());
+      assertTrue(searchIndex.isModified());
+    }
+
+    @Test
+    @DisplayName("should remove entries")
+    void shouldRemoveEntries() {
+      searchIndex.remove(1);
+      searchIndex.remove(99);
+
+      assertEquals(List.of(), searchIndex.search("trip"));
+      assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    @DisplayName("should stay correct across compactions")
+    void shouldStayCorrectAcrossCompactions() {
+      for (long id = 2; id <= 5000; id++) {
+        searchIndex.index(id, "Bulk", id % 2 == 0 ? "even" : "odd");
+      }
+      for (long id = 2; id <= 4000; id++) {
+        searchIndex.remove(id);
+      }
+
+      assertEquals(1001, searchIndex.size());
+      assertEquals(500, searchIndex.search("even").size());
+      assertEquals(1001, searchIndex.search("bulk OR beach").size());
+      assertEquals(5000L, searchIndex.search("bulk").get(0));
+    }
+  }
+
+  // snapshot tests
+  @Nested
+  @DisplayName("Snapshots")
+  class SnapshotTests {
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() {
+      snapshot = tempDir.resolve("diary.db.search-index");
+      put(1, "Summer trip", "We went to the beach");
+      put(5, "Winter", "A cold trip, ÅRETS tur");
+      put(-3, "Imported", "Negative IDs survive the delta encoding");
+    }
+
+    @Test
+    @DisplayName("should build and save when no snapshot exists")
+    void shouldBuildAndSave() {
+      assertFalse(searchIndex.loadOrBuild(repository, snapshot));
+
+      assertTrue(Files.isRegularFile(snapshot));
+      assertFalse(searchIndex.isModified());
+      assertEquals(3, searchIndex.size());
+    }
+
+    @Test
+    @DisplayName("should load a current snapshot without reading entries")
+    void shouldLoadCurrentSnapshot() {
+      searchIndex.loadOrBuild(repository, snapshot);
+      clearInvocations(repository);
+
+      SearchIndex loaded = new SearchIndex();
+      assertTrue(loaded.loadOrBuild(repository, snapshot));
+
+      verify(repository, never()).streamText(anyLong(), anyLong(), any());
+      assertEquals(3, loaded.size());
+      for (String query : List.of("trip", "beach OR cold", "arets", "negative", "s")) {
+        assertEquals(searchIndex.search(query), loaded.search(query), query);
+      }
+      assertEquals(List.of(5L), loaded.searchFuzzy("wniter", 2));
+    }
+
+    @Test
+    @DisplayName("should rebuild when the table changed")
+    void shouldRebuildWhenTableChanged() {
+      searchIndex.loadOrBuild(repository, snapshot);
+      lastUpdatedAt = lastUpdatedAt.plusNanos(1000);
+      table.put(1L, new EntryText(1, "Autumn trip", "Leaves"));
+
+      SearchIndex loaded = new SearchIndex();
+      assertFalse(loaded.loadOrBuild(repository, snapshot));
+      assertEquals(List.of(1L), loaded.search("autumn"));
+    }
+
+    @Test
+    @DisplayName("should rebuild when the snapshot is damaged")
+    void shouldRebuildWhenDamaged() throws IOException {
+      searchIndex.loadOrBuild(repository, snapshot);
+      byte[] bytes = Files.readAllBytes(snapshot);
+      Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+
+      SearchIndex loaded = new SearchIndex();
+      assertFalse(loaded.loadOrBuild(repository, snapshot));
+      assertEquals(3, loaded.size());
+    }
+
+    @Test
+    @DisplayName("should save its own changes for the next load")
+    void shouldSaveChanges() throws IOException {
+      searchIndex.loadOrBuild(repository, snapshot);
+      LocalDateTime earlier = lastUpdatedAt.minusDays(1);
+      table.remove(1L);
+      searchIndex.remove(1, state -> state.afterDelete(1, earlier));
+      lastUpdatedAt = lastUpdatedAt.plusSeconds(1);
+      put(6, "Spring", "Flowers");
+      searchIndex.index(6, "Spring", "Flowers", state -> state.afterInsert(6, lastUpdatedAt));
+      assertTrue(searchIndex.isModified());
+
+      assertTrue(searchIndex.save(repository, snapshot));
+
+      assertFalse(searchIndex.isModified());
+      assertFalse(Files.exists(tempDir.resolve("diary.db.search-index.partial")));
+      SearchIndex loaded = new SearchIndex();
+      assertTrue(loaded.loadOrBuild(repository, snapshot));
+      assertEquals(List.of(6L), loaded.search("flowers"));
+      assertEquals(List.of(), loaded.search("summer"));
+    }
+
+    @Test
+    @DisplayName("should delete the snapshot when another process changed the table")
+    void shouldDeleteSnapshotAfterOtherWrites() throws IOException {
+      searchIndex.loadOrBuild(repository, snapshot);
+      // This process adds "banana", another one sharing the database adds "cherry"
+      lastUpdatedAt = lastUpdatedAt.plusSeconds(1);
+      put(6, "Banana", "Yellow");
+      searchIndex.index(6, "Banana", "Yellow", state -> state.afterInsert(6, lastUpdatedAt));
+      lastUpdatedAt = lastUpdatedAt.plusSeconds(1);
+      put(7, "Cherry", "Red");
+
+      assertFalse(searchIndex.save(repository, snapshot));
+
+      assertFalse(Files.exists(snapshot));
+      SearchIndex loaded = new SearchIndex();
+      assertFalse(loaded.loadOrBuild(repository, snapshot));
+      assertEquals(List.of(7L), loaded.search("cherry"));
+      assertEquals(List.of(6L), loaded.search("banana"));
+    }
+
+    @Test
+    @DisplayName("should delete the snapshot after changes not written by this process")
+    void shouldDeleteSnapshotAfterUntrackedChanges() throws IOException {
+      searchIndex.loadOrBuild(repository, snapshot);
+      searchIndex.remove(5);
+
+      assertFalse(searchIndex.save(repository, snapshot));
+
+      assertFalse(Files.exists(snapshot));
+    }
+
+    @Test
+    @DisplayName("should delete the snapshot when a write had an unknown effect on the table")
+    void shouldDeleteSnapshotAfterUnknownWrite() throws IOException {
+      searchIndex.loadOrBuild(repository, snapshot);
+      // Deleting the entry with the highest ID leaves the next highest unknown
+      table.remove(5L);
+      searchIndex.remove(5, state -> state.afterDelete(5, lastUpdatedAt.minusDays(1)));
+
+      assertFalse(searchIndex.save(repository, snapshot));
+
+      assertFalse(Files.exists(snapshot));
+    }
+
+    @Test
+    @DisplayName("should follow its own changes made during the build")
+    void shouldFollowChangesDuringBuild() throws IOException {
+      when(repository.findTableState()).thenAnswer(inv -> {
+        EntryTableState state = new EntryTableState(table.size(), table.firstKey(),
+            table.lastKey(), lastUpdatedAt);
+        if (!table.containsKey(6L)) {
+          // This process saves an entry right after the build read the table state
+          lastUpdatedAt = lastUpdatedAt.plusSeconds(1);
+          put(6, "Spring", "Flowers");
+          searchIndex.index(6, "Spring", "Flowers", s -> s.afterInsert(6, lastUpdatedAt));
+        }
+        return state;
+      });
+      searchIndex.loadOrBuild(repository, snapshot);
+
+      assertTrue(searchIndex.save(repository, snapshot));
+      assertTrue(new SearchIndex().loadOrBuild(repository, snapshot));
+    }
+
+    @Test
+    @DisplayName("should reject saving an index that is not ready")
+    void shouldRejectSavingUnbuiltIndex() {
+      assertThrows(IllegalStateException.class, () -> searchIndex.save(repository, snapshot));
+    }
+  }
+}
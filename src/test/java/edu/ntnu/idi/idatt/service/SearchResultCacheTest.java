@@ -0,0 +1,275 @@
+package edu.ntnu.idi.idatt.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.ntnu.idi.idatt.service.SearchResultCache.DateRangeKey;
+import edu.ntnu.idi.idatt.service.SearchResultCache.KeywordKey;
+import edu.ntnu.idi.idatt.service.SearchResultCache.SearchRoute;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class SearchResultCacheTest {
+
+  private static final LocalDate MAY_1 = LocalDate.of(2025, 5, 1);
+  private static final LocalDate MAY_31 = LocalDate.of(2025, 5, 31);
+
+  private SearchResultCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new SearchResultCache();
+  }
+
+  private KeywordKey keyword(SearchRoute route, String text) {
+    return KeywordKey.of(route, text);
+  }
+
+  private void put(SearchResultCache.Key key, Long... ids) {
+    cache.put(key, List.of(ids), cache.version());
+  }
+
+  // constructor tests
+  @Nested
+  @DisplayName("Constructor")
+  class ConstructorTests {
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for negative capacity")
+    void shouldThrowForNegativeCapacity() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new SearchResultCache(-1, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for zero max age")
+    void shouldThrowForZeroMaxAge() {
+      assertThrows(IllegalArgumentException.class,
+          () -> new SearchResultCache(10, Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("should throw NullPointerException for null max age")
+    void shouldThrowForNullMaxAge() {
+      assertThrows(NullPointerException.class, () -> new SearchResultCache(10, null));
+    }
+
+    @Test
+    @DisplayName("should cache nothing with capacity 0")
+    void shouldCacheNothingWithZeroCapacity() {
+      cache = new SearchResultCache(0, Duration.ofMinutes(1));
+      put(new DateRangeKey(MAY_1, MAY_1), 1L);
+
+      assertTrue(cache.get(new DateRangeKey(MAY_1, MAY_1)).isEmpty());
+    }
+  }
+
+  // key tests
+  @Nested
+  @DisplayName("KeywordKey.of()")
+  class KeyTests {
+
+    @Test
+    @DisplayName("should give equal keys for texts differing in case and punctuation")
+    void shouldNormalizeIndexedText() {
+      assertEquals(keyword(SearchRoute.INDEX, "Beach, trip!"),
+          keyword(SearchRoute.INDEX, "beach trip"));
+      assertEquals(keyword(SearchRoute.FULL_TEXT, "Café"), keyword(SearchRoute.FULL_TEXT, "cafe"));
+    }
+
+    @Test
+    @DisplayName("should keep OR groups apart in index keys")
+    void shouldKeepOrGroupsApart() {
+      assertNotEquals(keyword(SearchRoute.INDEX, "beach trip"),
+          keyword(SearchRoute.INDEX, "beach OR trip"));
+    }
+
+    @Test
+    @DisplayName("should give different keys per route")
+    void shouldDifferPerRoute() {
+      assertNotEquals(keyword(SearchRoute.INDEX, "beach"), keyword(SearchRoute.FULL_TEXT, "beach"));
+    }
+
+    @Test
+    @DisplayName("should only ignore case in substring keys")
+    void shouldOnlyIgnoreCaseInSubstringKeys() {
+      assertEquals(keyword(SearchRoute.SUBSTRING, "Beach"),
+          keyword(SearchRoute.SUBSTRING, "beach"));
+      assertNotEquals(keyword(SearchRoute.SUBSTRING, "beach!"),
+          keyword(SearchRoute.SUBSTRING, "beach"));
+    }
+  }
+
+  // get and put tests
+  @Nested
+  @DisplayName("get() and put()")
+  class GetPutTests {
+
+    @Test
+    @DisplayName("should return stored IDs in result order")
+    void shouldReturnStoredIds() {
+      put(keyword(SearchRoute.INDEX, "beach"), 3L, 1L, 2L);
+
+      assertEquals(Optional.of(List.of(3L, 1L, 2L)),
+          cache.get(keyword(SearchRoute.INDEX, "Beach")));
+    }
+
+    @Test
+    @DisplayName("should count hits and misses")
+    void shouldCountHitsAndMisses() {
+      DateRangeKey key = new DateRangeKey(MAY_1, MAY_1);
+      cache.get(key);
+      put(key, 1L);
+      cache.get(key);
+      cache.get(key);
+
+      SearchCacheStatistics stats = cache.getStatistics();
+      assertEquals(2, stats.hits());
+      assertEquals(1, stats.misses());
+      assertEquals(1, stats.size());
+      assertEquals(2.0 / 3, stats.hitRatio(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used results over capacity")
+    void shouldEvictLeastRecentlyUsed() {
+      cache = new SearchResultCache(2, Duration.ofMinutes(1));
+      DateRangeKey first = new DateRangeKey(MAY_1, MAY_1);
+      DateRangeKey second = new DateRangeKey(MAY_31, MAY_31);
+      DateRangeKey third = new DateRangeKey(MAY_1, MAY_31);
+      put(first, 1L);
+      put(second, 2L);
+      cache.get(first);
+      put(third, 3L);
+
+      assertTrue(cache.get(first).isPresent());
+      assertTrue(cache.get(second).isEmpty());
+      assertTrue(cache.get(third).isPresent());
+      assertEquals(1, cache.getStatistics().evictions());
+    }
+
+    @Test
+    @DisplayName("should expire results older than the maximum age")
+    void shouldExpireOldResults() throws InterruptedException {
+      cache = new SearchResultCache(10, Duration.ofMillis(1));
+      DateRangeKey key = new DateRangeKey(MAY_1, MAY_1);
+      put(key, 1L);
+      Thread.sleep(5);
+
+      assertTrue(cache.get(key).isEmpty());
+      assertEquals(1, cache.getStatistics().evictions());
+    }
+
+    @Test
+    @DisplayName("should not store results queried before an invalidation")
+    void shouldNotStoreStaleResults() {
+      DateRangeKey key = new DateRangeKey(MAY_1, MAY_1);
+      long version = cache.version();
+      cache.invalidate(9L, null, List.of("Unrelated"));
+      cache.put(key, List.of(1L), version);
+
+      assertTrue(cache.get(key).isEmpty());
+    }
+  }
+
+  // invalidate tests
+  @Nested
+  @DisplayName("invalidate()")
+  class InvalidateTests {
+
+    @Test
+    @DisplayName("should drop results containing the entry")
+    void shouldDropResultsContainingEntry() {
+      put(new DateRangeKey(MAY_1, MAY_31), 4L, 7L);
+      put(new DateRangeKey(MAY_1, MAY_1), 4L);
+
+      cache.invalidate(7L, null, List.of());
+
+      assertTrue(cache.get(new DateRangeKey(MAY_1, MAY_31)).isEmpty());
+      assertTrue(cache.get(new DateRangeKey(MAY_1, MAY_1)).isPresent());
+      assertEquals(1, cache.getStatistics().invalidations());
+    }
+
+    @Test
+    @DisplayName("should drop date results covering the date of a new entry")
+    void shouldDropDateResultsCoveringDate() {
+      put(new DateRangeKey(MAY_1, MAY_31));
+      put(new DateRangeKey(MAY_31, MAY_31));
+
+      cache.invalidate(9L, MAY_1, List.of("Title", "Content"));
+
+      assertTrue(cache.get(new DateRangeKey(MAY_1, MAY_31)).isEmpty());
+      assertTrue(cache.get(new DateRangeKey(MAY_31, MAY_31)).isPresent());
+    }
+
+    @Test
+    @DisplayName("should keep date results when only text changed")
+    void shouldKeepDateResultsOnTextChange() {
+      put(new DateRangeKey(MAY_1, MAY_31));
+
+      cache.invalidate(9L, null, List.of("Title"));
+
+      assertTrue(cache.get(new DateRangeKey(MAY_1, MAY_31)).isPresent());
+    }
+
+    @Test
+    @DisplayName("should drop keyword results whose words occur in the new text")
+    void shouldDropKeywordResultsWithMatchingWords() {
+      put(keyword(SearchRoute.INDEX, "beach"));
+      put(keyword(SearchRoute.FULL_TEXT, "mountain"));
+      put(keyword(SearchRoute.SUBSTRING, "lake"));
+
+      cache.invalidate(9L, MAY_1, List.of("Beaches", "A day at the Lakeside"));
+
+      assertTrue(cache.get(keyword(SearchRoute.INDEX, "beach")).isEmpty());
+      assertTrue(cache.get(keyword(SearchRoute.FULL_TEXT, "mountain")).isPresent());
+      assertTrue(cache.get(keyword(SearchRoute.SUBSTRING, "lake")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should drop results of either side of an OR")
+    void shouldDropOrResults() {
+      put(keyword(SearchRoute.INDEX, "beach OR mountain"));
+
+      cache.invalidate(9L, null, List.of("Mountain hike"));
+
+      assertTrue(cache.get(keyword(SearchRoute.INDEX, "beach OR mountain")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should drop substring results with wildcards on any text change")
+    void shouldDropWildcardResults() {
+      put(keyword(SearchRoute.SUBSTRING, "b_ach"));
+
+      cache.invalidate(9L, null, List.of("Unrelated"));
+
+      assertTrue(cache.get(keyword(SearchRoute.SUBSTRING, "b_ach")).isEmpty());
+    }
+  }
+
+  // clear tests
+  @Nested
+  @DisplayName("clear()")
+  class ClearTests {
+
+    @Test
+    @DisplayName("should drop every result and reject queries started before")
+    void shouldDropEverything() {
+      DateRangeKey key = new DateRangeKey(MAY_1, MAY_1);
+      put(key, 1L);
+      long version = cache.version();
+
+      cache.clear();
+      cache.put(new DateRangeKey(MAY_31, MAY_31), List.of(2L), version);
+
+      assertTrue(cache.get(key).isEmpty());
+      assertEquals(0, cache.getStatistics().size());
+      assertEquals(1, cache.getStatistics().invalidations());
+    }
+  }
+}
@@ -3,12 +3,18 @@ package edu.ntnu.idi.idatt.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import static edu.ntnu.idi.idatt.model.entities.TestEntityHelper.setAuthorId;
-
-import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.projections.AuthorStatistics;
+import edu.ntnu.idi.idatt.model.projections.AuthorStreak;
+import edu.ntnu.idi.idatt.repository.ActivityBucket;
+import edu.ntnu.idi.idatt.repository.ActivityProfile;
+import edu.ntnu.idi.idatt.repository.ActivityRepository;
+import edu.ntnu.idi.idatt.repository.ActivitySeries;
+import edu.ntnu.idi.idatt.repository.CacheStatistics;
+import edu.ntnu.idi.idatt.repository.StatisticsRepository;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -21,140 +27,202 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class StatisticsServiceTest {
 
   @Mock
-  private AuthorService authorService;
+  private StatisticsRepository statisticsRepository;
 
   @Mock
-  private DiaryEntryService diaryEntryService;
+  private ActivityRepository activityRepository;
 
   private StatisticsService statisticsService;
 
   @BeforeEach
   void setUp() {
-    statisticsService = new StatisticsService(authorService, diaryEntryService);
+    statisticsService = new StatisticsService(statisticsRepository, activityRepository);
   }
 
-  // getTotalAuthors tests
+  // constructor tests
   @Nested
-  @DisplayName("getTotalAuthors()")
-  class GetTotalAuthorsTests {
+  @DisplayName("Constructor")
+  class ConstructorTests {
 
     @Test
-    @DisplayName("should return 0 when no authors exist")
-    void shouldReturnZeroWhenNoAuthorsExist() {
-      when(authorService.findAll()).thenReturn(Collections.emptyList());
+    @DisplayName("should throw NullPointerException for null repository")
+    void shouldThrowForNullRepository() {
+      assertThrows(NullPointerException.class,
+          () -> new StatisticsService(null, activityRepository));
+    }
 
-      assertEquals(0, statisticsService.getTotalAuthors());
-      verify(authorService).findAll();
+    @Test
+    @DisplayName("should throw NullPointerException for null activity repository")
+    void shouldThrowForNullActivityRepository() {
+      assertThrows(NullPointerException.class,
+          () -> new StatisticsService(statisticsRepository, null));
     }
+  }
+
+  // getAuthorStatistics tests
+  @Nested
+  @DisplayName("getAuthorStatistics()")
+  class GetAuthorStatisticsTests {
 
     @Test
-    @DisplayName("should return correct count of authors")
-    void shouldReturnCorrectCountOfAuthors() {
-      List<Author> authors = List.of(
-          new Author("John", "Doe", "john@example.com"),
-          new Author("Jane", "Smith", "jane@example.com"),
-          new Author("Bob", "Wilson", "bob@example.com")
-      );
-      when(authorService.findAll()).thenReturn(authors);
+    @DisplayName("should return empty list when no authors exist")
+    void shouldReturnEmptyListWhenNoAuthorsExist() {
+      when(statisticsRepository.findAuthorStatistics()).thenReturn(Collections.emptyList());
+
+      assertTrue(statisticsService.getAuthorStatistics().isEmpty());
+    }
 
-      assertEquals(3, statisticsService.getTotalAuthors());
-      verify(authorService).findAll();
+    @Test
+    @DisplayName("should return maintained counts from the repository")
+    void shouldReturnMaintainedCounts() {
+      List<AuthorStatistics> stats = List.of(
+          new AuthorStatistics(1L, "John Doe", 3),
+          new AuthorStatistics(2L, "Jane Smith", 0));
+      when(statisticsRepository.findAuthorStatistics()).thenReturn(stats);
+
+      assertEquals(stats, statisticsService.getAuthorStatistics());
+      verify(statisticsRepository, times(1)).findAuthorStatistics();
     }
   }
 
-  // getTotalEntries tests
+  // reconcileAuthorStatistics tests
   @Nested
-  @DisplayName("getTotalEntries()")
-  class GetTotalEntriesTests {
+  @DisplayName("reconcileAuthorStatistics()")
+  class ReconcileAuthorStatisticsTests {
 
     @Test
-    @DisplayName("should return 0 when no entries exist")
-    void shouldReturnZeroWhenNoEntriesExist() {
-      when(diaryEntryService.count()).thenReturn(0L);
+    @DisplayName("should not rebuild when counts are correct")
+    void shouldNotRebuildWhenCorrect() {
+      when(statisticsRepository.verifyAuthorStatistics()).thenReturn(0L);
 
-      assertEquals(0, statisticsService.getTotalEntries());
-      verify(diaryEntryService).count();
+      assertEquals(0, statisticsService.reconcileAuthorStatistics());
+      verify(statisticsRepository, never()).rebuildAuthorStatistics();
     }
 
     @Test
-    @DisplayName("should return correct count of entries")
-    void shouldReturnCorrectCountOfEntries() {
-      when(diaryEntryService.count()).thenReturn(42L);
+    @DisplayName("should rebuild and report stale counts")
+    void shouldRebuildStaleCounts() {
+      when(statisticsRepository.verifyAuthorStatistics()).thenReturn(2L);
 
-      assertEquals(42, statisticsService.getTotalEntries());
-      verify(diaryEntryService).count();
+      assertEquals(2, statisticsService.reconcileAuthorStatistics());
+      verify(statisticsRepository).rebuildAuthorStatistics();
     }
   }
 
-  // getEntriesPerAuthor tests
+  // getCacheStatistics tests
   @Nested
-  @DisplayName("getEntriesPerAuthor()")
-  class GetEntriesPerAuthorTests {
+  @DisplayName("getCacheStatistics()")
+  class GetCacheStatisticsTests {
 
     @Test
-    @DisplayName("should return empty map when no authors exist")
-    void shouldReturnEmptyMapWhenNoAuthorsExist() {
-      when(authorService.findAll()).thenReturn(Collections.emptyList());
-      when(diaryEntryService.countEntriesGroupedByAuthor()).thenReturn(Collections.emptyMap());
+    @DisplayName("should return cache statistics from the repository")
+    void shouldReturnCacheStatistics() {
+      CacheStatistics stats = new CacheStatistics(3, 1, 4, 4);
+      when(statisticsRepository.getCacheStatistics()).thenReturn(Optional.of(stats));
+
+      assertEquals(Optional.of(stats), statisticsService.getCacheStatistics());
+    }
+
+    @Test
+    @DisplayName("should return empty when statistics are not collected")
+    void shouldReturnEmptyWhenNotCollected() {
+      when(statisticsRepository.getCacheStatistics()).thenReturn(Optional.empty());
+
+      assertTrue(statisticsService.getCacheStatistics().isEmpty());
+    }
+  }
+
+  // reconcileActivity tests
+  @Nested
+  @DisplayName("reconcileActivity()")
+  class ReconcileActivityTests {
 
-      Map<Author, Long> result = statisticsService.getEntriesPerAuthor();
+    @Test
+    @DisplayName("should not rebuild when the rollup is correct")
+    void shouldNotRebuildWhenCorrect() {
+      when(activityRepository.verifyActivity()).thenReturn(0L);
 
-      assertTrue(result.isEmpty());
-      verify(authorService).findAll();
-      verify(diaryEntryService).countEntriesGroupedByAuthor();
+      assertEquals(0, statisticsService.reconcileActivity());
+      verify(activityRepository, never()).rebuildActivity();
     }
 
     @Test
-    @DisplayName("should return 0 entries for authors with no entries")
-    void shouldReturnZeroEntriesForAuthorsWithNoEntries() {
-      Author author = new Author("Test", "Author", "test@example.com");
-      setAuthorId(author, 1L);
-      
-      when(authorService.findAll()).thenReturn(List.of(author));
-      when(diaryEntryService.countEntriesGroupedByAuthor()).thenReturn(Collections.emptyMap());
+    @DisplayName("should rebuild and report stale rows")
+    void shouldRebuildStaleRows() {
+      when(activityRepository.verifyActivity()).thenReturn(5L);
 
-      Map<Author, Long> result = statisticsService.getEntriesPerAuthor();
+      assertEquals(5, statisticsService.reconcileActivity());
+      verify(activityRepository).rebuildActivity();
+    }
+  }
+
+  // activity series tests
+  @Nested
+  @DisplayName("getActivitySeries() and getRecentActivity()")
+  class ActivitySeriesTests {
 
-      assertEquals(1, result.size());
-      assertEquals(0L, result.get(author));
-      verify(diaryEntryService).countEntriesGroupedByAuthor();
+    @Test
+    @DisplayName("should count all authors in the given range")
+    void shouldCountAllAuthors() {
+      LocalDate from = LocalDate.of(2025, 1, 1);
+      LocalDate to = LocalDate.of(2025, 1, 31);
+      ActivitySeries series = new ActivitySeries(ActivityBucket.WEEK, from, new long[5]);
+      when(activityRepository.findSeries(ActivityBucket.WEEK, from, to, null)).thenReturn(series);
+
+      assertSame(series, statisticsService.getActivitySeries(ActivityBucket.WEEK, from, to));
     }
 
     @Test
-    @DisplayName("should return correct entry count per author")
-    void shouldReturnCorrectEntryCountPerAuthor() {
-      Author author1 = new Author("John", "Doe", "john@example.com");
-      Author author2 = new Author("Jane", "Smith", "jane@example.com");
-      setAuthorId(author1, 1L);
-      setAuthorId(author2, 2L);
-      
-      when(authorService.findAll()).thenReturn(List.of(author1, author2));
-      when(diaryEntryService.countEntriesGroupedByAuthor()).thenReturn(Map.of(1L, 3L, 2L, 1L));
+    @DisplayName("should end the recent buckets today")
+    void shouldEndRecentBucketsToday() {
+      LocalDate today = LocalDate.now();
+
+      statisticsService.getRecentActivity(ActivityBucket.DAY, 14);
+      statisticsService.getRecentActivity(ActivityBucket.MONTH, 1);
+
+      verify(activityRepository).findSeries(ActivityBucket.DAY, today.minusDays(13), today, null);
+      verify(activityRepository).findSeries(ActivityBucket.MONTH, today.withDayOfMonth(1), today,
+          null);
+    }
 
-      Map<Author, Long> result = statisticsService.getEntriesPerAuthor();
+    @Test
+    @DisplayName("should reject a non-positive number of buckets")
+    void shouldRejectNonPositiveBuckets() {
+      assertThrows(IllegalArgumentException.class,
+          () -> statisticsService.getRecentActivity(ActivityBucket.DAY, 0));
+      verifyNoInteractions(activityRepository);
+    }
 
-      assertEquals(2, result.size());
-      assertEquals(3L, result.get(author1));
-      assertEquals(1L, result.get(author2));
+    @Test
+    @DisplayName("should throw NullPointerException for null bucket")
+    void shouldThrowForNullBucket() {
+      assertThrows(NullPointerException.class,
+          () -> statisticsService.getRecentActivity(null, 7));
     }
+  }
+
+  // profile and streak tests
+  @Nested
+  @DisplayName("getActivityProfile() and getLongestStreaks()")
+  class ProfileAndStreakTests {
 
     @Test
-    @DisplayName("should use single query for efficiency")
-    void shouldUseSingleQueryForEfficiency() {
-      Author author1 = new Author("John", "Doe", "john@example.com");
-      Author author2 = new Author("Jane", "Smith", "jane@example.com");
-      Author author3 = new Author("Bob", "Wilson", "bob@example.com");
-      setAuthorId(author1, 1L);
-      setAuthorId(author2, 2L);
-      setAuthorId(author3, 3L);
-      
-      when(authorService.findAll()).thenReturn(List.of(author1, author2, author3));
-      when(diaryEntryService.countEntriesGroupedByAuthor()).thenReturn(Map.of(1L, 5L, 2L, 3L, 3L, 1L));
+    @DisplayName("should return the profile of all authors")
+    void shouldReturnProfileOfAllAuthors() {
+      ActivityProfile profile = new ActivityProfile(new long[7], new long[24], 0, 0);
+      when(activityRepository.findProfile(null)).thenReturn(profile);
+
+      assertSame(profile, statisticsService.getActivityProfile());
+    }
 
-      statisticsService.getEntriesPerAuthor();
+    @Test
+    @DisplayName("should return streaks from the repository")
+    void shouldReturnStreaks() {
+      List<AuthorStreak> streaks = List.of(new AuthorStreak(1L, "John Doe", 3,
+          LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)));
+      when(activityRepository.findLongestStreaks()).thenReturn(streaks);
 
-      // Verify single query is used instead of N queries
-      verify(diaryEntryService, times(1)).countEntriesGroupedByAuthor();
+      assertEquals(streaks, statisticsService.getLongestStreaks());
     }
   }
 }
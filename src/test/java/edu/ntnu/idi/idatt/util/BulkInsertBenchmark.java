@@ -0,0 +1,93 @@
+package edu.ntnu.idi.idatt.util;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Properties;
+import org.hibernate.SessionFactory;
+
+/**
+ * Measures the insert throughput of {@link DiaryEntryRepository#saveAll(Iterable, int)} against
+ * one {@link DiaryEntryRepository#save} per entry, on a fresh database file with the application
+ * configuration. Run it like {@link ConnectionTuningBenchmark}.
+ */
+public final class BulkInsertBenchmark {
+
+  private static final int SINGLE_SAVES = 2_000;
+  private static final int BULK_ENTRIES = 200_000;
+
+  private BulkInsertBenchmark() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Runs the benchmark and prints rows per second for both paths.
+   *
+   * @param args unused
+   * @throws IOException if the temporary database directory cannot be created
+   */
+  public static void main(String[] args) throws IOException {
+    Path dir = Files.createTempDirectory("diary-bench");
+    Properties overrides = new Properties();
+    overrides.setProperty("hibernate.connection.url", "jdbc:sqlite:" + dir.resolve("bulk.db"));
+
+    try (SessionFactory sessionFactory = HibernateUtil.buildSessionFactory(overrides)) {
+      AuthorRepository authorRepository = new AuthorRepository(sessionFactory);
+      DiaryEntryRepository entryRepository = new DiaryEntryRepository(sessionFactory);
+      entryRepository.initFullTextSearch();
+      Author author = authorRepository.save(new Author("Bench", "Mark", "bench@example.com"));
+
+      long start = System.nanoTime();
+      for (int i = 0; i < SINGLE_SAVES; i++) {
+        entryRepository.save(new DiaryEntry("Single " + i, author, "Benchmark content " + i));
+      }
+      print("save() per entry", SINGLE_SAVES, System.nanoTime() - start);
+
+      for (int chunkSize : new int[] {1_000, 10_000}) {
+        start = System.nanoTime();
+        long saved = entryRepository.saveAll(generate(author, BULK_ENTRIES), chunkSize);
+        print("saveAll() chunk " + chunkSize, saved, System.nanoTime() - start);
+      }
+    }
+  }
+
+  /**
+   * Produces entries lazily so the input itself does not hold them all in memory.
+   *
+   * @param author the author of the entries
+   * @param count  the number of entries
+   * @return an iterable over new, unsaved entries
+   */
+  private static Iterable<DiaryEntry> generate(Author author, int count) {
+    return () -> new Iterator<>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < count;
+      }
+
+      @Override
+      public DiaryEntry next() {
+        int i = next++;
+        return new DiaryEntry("Bulk " + i, author, "Benchmark content " + i);
+      }
+    };
+  }
+
+  /**
+   * Prints the throughput of one run.
+   *
+   * @param label   the measured path
+   * @param rows    the number of rows written
+   * @param elapsed the elapsed time in nanoseconds
+   */
+  private static void print(String label, long rows, long elapsed) {
+    System.out.printf("  %-22s %8d rows  %8.0f rows/s%n", label, rows, rows / (elapsed / 1e9));
+  }
+}
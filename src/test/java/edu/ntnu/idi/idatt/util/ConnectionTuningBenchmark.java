@@ -0,0 +1,109 @@
+package edu.ntnu.idi.idatt.util;
+
+import edu.ntnu.idi.idatt.model.entities.Author;
+import edu.ntnu.idi.idatt.model.entities.DiaryEntry;
+import edu.ntnu.idi.idatt.repository.AuthorRepository;
+import edu.ntnu.idi.idatt.repository.DiaryEntryRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import org.hibernate.SessionFactory;
+
+/**
+ * Compares {@link DiaryEntryRepository#save} and {@link DiaryEntryRepository#findAll} latency
+ * between Hibernate's built-in connection pool with SQLite defaults and the tuned HikariCP setup
+ * from {@code hibernate.cfg.xml}.
+ *
+ * <p>Each run uses a fresh database file in a temporary directory. Run the {@code main} method
+ * from the IDE, or from the command line with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) \
+ *     edu.ntnu.idi.idatt.util.ConnectionTuningBenchmark
+ * </pre>
+ */
+public final class ConnectionTuningBenchmark {
+
+  private static final int WARMUP_SAVES = 200;
+  private static final int MEASURED_SAVES = 1000;
+  private static final int MEASURED_READS = 50;
+
+  private ConnectionTuningBenchmark() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Runs the baseline and tuned configurations and prints the results.
+   *
+   * @param args unused
+   * @throws IOException if the temporary database directory cannot be created
+   */
+  public static void main(String[] args) throws IOException {
+    Path dir = Files.createTempDirectory("diary-bench");
+
+    Properties baseline = new Properties();
+    baseline.setProperty("hibernate.connection.url",
+        "jdbc:sqlite:" + dir.resolve("baseline.db"));
+    baseline.setProperty("hibernate.connection.provider_class",
+        "org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl");
+
+    Properties tuned = new Properties();
+    tuned.setProperty("hibernate.connection.url", "jdbc:sqlite:" + dir.resolve("tuned.db"));
+
+    run("baseline (built-in pool, rollback journal)", baseline);
+    run("tuned (HikariCP, WAL)", tuned);
+  }
+
+  /**
+   * Measures one configuration.
+   *
+   * @param label     the name printed with the results
+   * @param overrides the properties applied on top of {@code hibernate.cfg.xml}
+   */
+  private static void run(String label, Properties overrides) {
+    try (SessionFactory sessionFactory = HibernateUtil.buildSessionFactory(overrides)) {
+      AuthorRepository authorRepository = new AuthorRepository(sessionFactory);
+      DiaryEntryRepository entryRepository = new DiaryEntryRepository(sessionFactory);
+      Author author = authorRepository.save(new Author("Bench", "Mark", "bench@example.com"));
+
+      for (int i = 0; i < WARMUP_SAVES; i++) {
+        entryRepository.save(new DiaryEntry("Warmup " + i, author, "Warmup content"));
+      }
+
+      long[] saves = new long[MEASURED_SAVES];
+      for (int i = 0; i < MEASURED_SAVES; i++) {
+        DiaryEntry entry = new DiaryEntry("Entry " + i, author, "Benchmark content " + i);
+        long start = System.nanoTime();
+        entryRepository.save(entry);
+        saves[i] = System.nanoTime() - start;
+      }
+
+      long[] reads = new long[MEASURED_READS];
+      for (int i = 0; i < MEASURED_READS; i++) {
+        long start = System.nanoTime();
+        entryRepository.findAll();
+        reads[i] = System.nanoTime() - start;
+      }
+
+      System.out.println(label);
+      print("save", saves);
+      print("findAll (" + (WARMUP_SAVES + MEASURED_SAVES) + " rows)", reads);
+    }
+  }
+
+  /**
+   * Prints the median and 95th percentile of a set of samples in microseconds.
+   *
+   * @param operation the measured operation
+   * @param samples   the latencies in nanoseconds
+   */
+  private static void print(String operation, long[] samples) {
+    long[] sorted = samples.clone();
+    Arrays.sort(sorted);
+    long p50 = sorted[sorted.length / 2] / 1_000;
+    long p95 = sorted[(int) (sorted.length * 0.95)] / 1_000;
+    System.out.printf("  %-22s p50 %7d us   p95 %7d us%n", operation, p50, p95);
+  }
+}
@@ -0,0 +1,80 @@
+package edu.ntnu.idi.idatt.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.util.Properties;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HibernateUtilTest {
+
+  @TempDir
+  Path tempDir;
+
+  private Properties databaseAt(Path file) {
+    Properties properties = new Properties();
+    properties.setProperty("hibernate.connection.url", "jdbc:sqlite:" + file);
+    return properties;
+  }
+
+  private String pragma(SessionFactory sessionFactory, String name) {
+    String[] value = new String[1];
+    try (var session = sessionFactory.openSession()) {
+      session.doWork(connection -> {
+        try (Statement statement = connection.createStatement();
+            var rows = statement.executeQuery("PRAGMA " + name)) {
+          rows.next();
+          value[0] = rows.getString(1);
+        }
+      });
+    }
+    return value[0];
+  }
+
+  @Test
+  @DisplayName("should apply SQLite pragmas to pooled connections")
+  void shouldApplyPragmasToPooledConnections() {
+    Configuration configuration = HibernateUtil.createConfiguration(
+        databaseAt(tempDir.resolve("diary.db")));
+
+    try (SessionFactory sessionFactory = configuration.buildSessionFactory()) {
+      assertEquals("wal", pragma(sessionFactory, "journal_mode"));
+      assertEquals("1", pragma(sessionFactory, "synchronous"));
+      assertEquals("5000", pragma(sessionFactory, "busy_timeout"));
+      assertEquals("-16384", pragma(sessionFactory, "cache_size"));
+    }
+  }
+
+  @Test
+  @DisplayName("should let hibernate properties override the configuration file")
+  void shouldLetPropertiesOverrideConfigurationFile() {
+    Properties overrides = databaseAt(tempDir.resolve("diary.db"));
+    overrides.setProperty("hibernate.hikari.dataSource.synchronous", "FULL");
+    overrides.setProperty("unrelated.property", "ignored");
+
+    Configuration configuration = HibernateUtil.createConfiguration(overrides);
+
+    assertNull(configuration.getProperty("unrelated.property"));
+    try (SessionFactory sessionFactory = configuration.buildSessionFactory()) {
+      assertEquals("2", pragma(sessionFactory, "synchronous"));
+    }
+  }
+
+  @Test
+  @DisplayName("should migrate the schema when building the SessionFactory")
+  void shouldMigrateSchemaWhenBuilding() {
+    try (SessionFactory sessionFactory =
+        HibernateUtil.buildSessionFactory(databaseAt(tempDir.resolve("diary.db")));
+        var session = sessionFactory.openSession()) {
+      Number version = (Number) session.createNativeQuery(
+              "SELECT MAX(version) FROM schema_version", Object.class)
+          .getSingleResult();
+      assertEquals(SchemaMigrator.SCRIPTS.size(), version.intValue());
+    }
+  }
+}
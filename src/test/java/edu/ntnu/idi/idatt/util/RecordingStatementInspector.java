@@ -0,0 +1,42 @@
+package edu.ntnu.idi.idatt.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL of every statement Hibernate prepares, so tests can inspect the generated
+ * queries. Configured in {@code hibernate-test.cfg.xml}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+  private static final List<String> STATEMENTS = new ArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    synchronized (STATEMENTS) {
+      STATEMENTS.add(sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Forgets all recorded statements.
+   */
+  public static void clear() {
+    synchronized (STATEMENTS) {
+      STATEMENTS.clear();
+    }
+  }
+
+  /**
+   * Returns the statements recorded since the last {@link #clear()}, in execution order.
+   *
+   * @return a copy of the recorded statements
+   */
+  public static List<String> statements() {
+    synchronized (STATEMENTS) {
+      return List.copyOf(STATEMENTS);
+    }
+  }
+}
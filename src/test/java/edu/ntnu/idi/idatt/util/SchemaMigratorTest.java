@@ -0,0 +1,218 @@
+package edu.ntnu.idi.idatt.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SchemaMigratorTest {
+
+  private static final String TEST_MIGRATION = "V999__add_test_notes.sql";
+
+  @TempDir
+  Path tempDir;
+
+  private SessionFactory sessionFactory;
+
+  @BeforeEach
+  void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty("hibernate.connection.url",
+        "jdbc:sqlite:" + tempDir.resolve("diary.db"));
+    sessionFactory = HibernateUtil.createConfiguration(properties).buildSessionFactory();
+  }
+
+  @AfterEach
+  void tearDown() {
+    sessionFactory.close();
+  }
+
+  private void executeSql(String sql) {
+    try (var session = sessionFactory.openSession()) {
+      var tx = session.beginTransaction();
+      session.createNativeMutationQuery(sql).executeUpdate();
+      tx.commit();
+    }
+  }
+
+  private <T> List<T> query(String sql, Class<T> type) {
+    try (var session = sessionFactory.openSession()) {
+      return session.createNativeQuery(sql, type).list();
+    }
+  }
+
+  private List<String> indexes() {
+    return query("SELECT name FROM sqlite_master WHERE type = 'index' "
+        + "AND name NOT LIKE 'sqlite_%' ORDER BY name", String.class);
+  }
+
+  private static List<String> withTestMigration() {
+    List<String> scripts = new ArrayList<>(SchemaMigrator.SCRIPTS);
+    scripts.add(TEST_MIGRATION);
+    return scripts;
+  }
+
+  // constructor tests
+  @Nested
+  @DisplayName("Constructor")
+  class ConstructorTests {
+
+    @Test
+    @DisplayName("should throw exception when sessionFactory is null")
+    void shouldThrowExceptionWhenSessionFactoryIsNull() {
+      assertThrows(NullPointerException.class, () -> new SchemaMigrator(null));
+    }
+
+    @Test
+    @DisplayName("should throw exception when scripts is null")
+    void shouldThrowExceptionWhenScriptsIsNull() {
+      assertThrows(NullPointerException.class, () -> new SchemaMigrator(sessionFactory, null));
+    }
+  }
+
+  // migrate tests
+  @Nested
+  @DisplayName("migrate()")
+  class MigrateTests {
+
+    @Test
+    @DisplayName("should create the schema of an empty database")
+    void shouldCreateSchemaOfEmptyDatabase() {
+      int applied = new SchemaMigrator(sessionFactory).migrate();
+
+      assertEquals(SchemaMigrator.SCRIPTS.size(), applied);
+      assertEquals(List.of("authors", "diary_entries", "id_generators", "schema_version"),
+          query("SELECT name FROM sqlite_master WHERE type = 'table' ORDER BY name",
+              String.class));
+      assertEquals(List.of("authors_created_at", "diary_entries_author_created_at",
+          "diary_entries_created_at"), indexes());
+    }
+
+    @Test
+    @DisplayName("should record applied versions with their descriptions")
+    void shouldRecordAppliedVersions() {
+      new SchemaMigrator(sessionFactory).migrate();
+
+      assertEquals(List.of("create tables", "add listing indexes", "add versions"),
+          query("SELECT description FROM schema_version ORDER BY version", String.class));
+    }
+
+    @Test
+    @DisplayName("should apply nothing when the schema is up to date")
+    void shouldApplyNothingWhenUpToDate() {
+      new SchemaMigrator(sessionFactory).migrate();
+
+      assertEquals(0, new SchemaMigrator(sessionFactory).migrate());
+    }
+
+    @Test
+    @DisplayName("should apply only pending migrations")
+    void shouldApplyOnlyPendingMigrations() {
+      new SchemaMigrator(sessionFactory).migrate();
+
+      int applied = new SchemaMigrator(sessionFactory, withTestMigration()).migrate();
+
+      assertEquals(1, applied);
+      assertEquals(List.of("first; with a semicolon"),
+          query("SELECT text FROM test_notes", String.class));
+    }
+
+    @Test
+    @DisplayName("should adopt a database created before migrations existed")
+    void shouldAdoptExistingDatabase() {
+      executeSql("CREATE TABLE authors (id bigint not null, created_at timestamp not null, "
+          + "email varchar(255) not null unique, first_name varchar(255) not null, "
+          + "last_name varchar(255) not null, updated_at timestamp not null, primary key (id))");
+      executeSql("INSERT INTO authors VALUES (1, 0, 'john@example.com', 'John', 'Doe', 0)");
+
+      new SchemaMigrator(sessionFactory).migrate();
+
+      assertEquals(List.of("john@example.com"),
+          query("SELECT email FROM authors", String.class));
+      assertTrue(indexes().contains("authors_created_at"));
+    }
+
+    @Test
+    @DisplayName("should throw exception when an applied migration has changed")
+    void shouldThrowExceptionWhenAppliedMigrationChanged() {
+      new SchemaMigrator(sessionFactory).migrate();
+      executeSql("UPDATE schema_version SET checksum = 0 WHERE version = 2");
+
+      var migrator = new SchemaMigrator(sessionFactory);
+      assertThrows(IllegalStateException.class, migrator::migrate);
+    }
+
+    @Test
+    @DisplayName("should throw exception when the database is newer than the application")
+    void shouldThrowExceptionWhenDatabaseIsNewer() {
+      new SchemaMigrator(sessionFactory, withTestMigration()).migrate();
+
+      var migrator = new SchemaMigrator(sessionFactory);
+      assertThrows(IllegalStateException.class, migrator::migrate);
+    }
+
+    @Test
+    @DisplayName("should throw exception when a script is missing")
+    void shouldThrowExceptionWhenScriptIsMissing() {
+      var migrator = new SchemaMigrator(sessionFactory, List.of("V1__missing.sql"));
+
+      assertThrows(IllegalStateException.class, migrator::migrate);
+    }
+
+    @Test
+    @DisplayName("should throw exception when scripts are out of order")
+    void shouldThrowExceptionWhenScriptsAreOutOfOrder() {
+      var migrator = new SchemaMigrator(sessionFactory,
+          List.of("V2__add_listing_indexes.sql", "V1__create_tables.sql"));
+
+      assertThrows(IllegalStateException.class, migrator::migrate);
+    }
+
+    @Test
+    @DisplayName("should throw exception when a script name is invalid")
+    void shouldThrowExceptionWhenScriptNameIsInvalid() {
+      var migrator = new SchemaMigrator(sessionFactory, List.of("create_tables.sql"));
+
+      assertThrows(IllegalStateException.class, migrator::migrate);
+    }
+  }
+
+  // statement splitting tests
+  @Nested
+  @DisplayName("Migration.statements()")
+  class StatementTests {
+
+    @Test
+    @DisplayName("should split statements at line-ending semicolons and skip comments")
+    void shouldSplitStatementsAndSkipComments() {
+      var migration = new SchemaMigrator.Migration(1, "test", """
+          -- A comment; not a statement
+          CREATE TABLE a (
+              id INTEGER
+          );
+
+          INSERT INTO a VALUES (1);
+          """);
+
+      assertEquals(List.of("CREATE TABLE a ( id INTEGER )", "INSERT INTO a VALUES (1)"),
+          migration.statements());
+    }
+
+    @Test
+    @DisplayName("should throw exception when the last statement is unterminated")
+    void shouldThrowExceptionWhenUnterminated() {
+      var migration = new SchemaMigrator.Migration(1, "test", "CREATE TABLE a (id INTEGER)");
+
+      assertThrows(IllegalStateException.class, migration::statements);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package edu.ntnu.idi.idatt.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the startup time of the packaged application with and without the class data sharing
+ * (AppCDS) archive built by the {@code cds} Maven profile.
+ *
+ * <p>Each launch runs {@code java -jar target/diary.jar} on a database in a temporary directory.
+ * The time to first menu is taken when the main menu has been printed; the application is then
+ * told to quit, and the time to exit includes waiting for the background database bootstrap.
+ * Configurations are launched in turns to spread out background noise. Build the jar and archive
+ * first, then run the {@code main} method from the IDE, or from the command line with:
+ * <pre>
+ * mvn -P cds package
+ * mvn test-compile
+ * java -cp target/test-classes edu.ntnu.idi.idatt.util.StartupBenchmark
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+  private static final int WARMUP_LAUNCHES = 1;
+  private static final int MEASURED_LAUNCHES = 5;
+  private static final Path JAR = Path.of("target", "diary.jar");
+  private static final Path ARCHIVE = Path.of("target", "diary.jsa");
+  // The last line of the main menu
+  private static final String MENU_END = "Quit";
+
+  private StartupBenchmark() {
+    // Prevent instantiation
+  }
+
+  /**
+   * A JVM configuration to launch the application with.
+   *
+   * @param label   the name printed with the results
+   * @param options the JVM options
+   */
+  private record Configuration(String label, List<String> options) {
+  }
+
+  /**
+   * Runs every configuration and prints the median times.
+   *
+   * @param args unused
+   * @throws IOException          if the application cannot be launched
+   * @throws InterruptedException if interrupted while waiting for the application
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    if (!Files.exists(JAR) || !Files.exists(ARCHIVE)) {
+      System.err.println("Build " + JAR + " and " + ARCHIVE + " first: mvn -P cds package");
+      System.exit(2);
+      return;
+    }
+    Path dir = Files.createTempDirectory("diary-startup");
+    List<Configuration> configurations = List.of(
+        new Configuration("no CDS", List.of("-Xshare:off")),
+        new Configuration("JDK CDS (default)", List.of()),
+        new Configuration("AppCDS archive",
+            List.of("-XX:SharedArchiveFile=" + ARCHIVE.toAbsolutePath(), "-Xshare:on")));
+
+    long[][] menu = new long[configurations.size()][MEASURED_LAUNCHES];
+    long[][] exit = new long[configurations.size()][MEASURED_LAUNCHES];
+    for (int run = -WARMUP_LAUNCHES; run < MEASURED_LAUNCHES; run++) {
+      for (int i = 0; i < configurations.size(); i++) {
+        long[] times = launch(configurations.get(i), dir);
+        if (run >= 0) {
+          menu[i][run] = times[0];
+          exit[i][run] = times[1];
+        }
+      }
+    }
+
+    System.out.printf("%-20s %14s %14s%n", "Configuration", "first menu", "exit");
+    for (int i = 0; i < configurations.size(); i++) {
+      System.out.printf("%-20s %11d ms %11d ms%n", configurations.get(i).label(),
+          median(menu[i]), median(exit[i]));
+    }
+  }
+
+  /**
+   * Launches the application once, quits as soon as the main menu is shown and waits for it to
+   * exit.
+   *
+   * @param configuration the JVM configuration
+   * @param dir           the directory holding the benchmark database
+   * @return the time to first menu and the time to exit, in milliseconds
+   * @throws IOException          if the application cannot be launched
+   * @throws InterruptedException if interrupted while waiting for the application
+   */
+  private static long[] launch(Configuration configuration, Path dir)
+      throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(configuration.options());
+    command.add("-Dhibernate.connection.url=jdbc:sqlite:" + dir.resolve("diary.db"));
+    command.add("-jar");
+    command.add(JAR.toAbsolutePath().toString());
+
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    long menu = -1;
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (InputStream in = process.getInputStream();
+        OutputStream stdin = process.getOutputStream()) {
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        output.write(buffer, 0, read);
+        if (menu < 0 && output.toString(StandardCharsets.UTF_8).contains(MENU_END)) {
+          menu = (System.nanoTime() - start) / 1_000_000;
+          stdin.write("q\n".getBytes(StandardCharsets.UTF_8));
+          stdin.flush();
+        }
+      }
+    }
+    int status = process.waitFor();
+    long exit = (System.nanoTime() - start) / 1_000_000;
+    if (status != 0 || menu < 0) {
+      throw new IllegalStateException(configuration.label() + " failed with status " + status
+          + ":\n" + output.toString(StandardCharsets.UTF_8));
+    }
+    return new long[] {menu, exit};
+  }
+
+  /**
+   * Returns the median of the given values.
+   *
+   * @param values the values, which are sorted in place
+   * @return the median
+   */
+  private static long median(long[] values) {
+    Arrays.sort(values);
+    return values[values.length / 2];
+  }
+}
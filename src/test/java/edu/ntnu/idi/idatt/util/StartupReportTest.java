@@ -0,0 +1,76 @@
+package edu.ntnu.idi.idatt.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class StartupReportTest {
+
+  private static StartupReport.Phase find(String name) {
+    return StartupReport.phases().stream()
+        .filter(phase -> phase.name().equals(name))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  // record tests
+  @Nested
+  @DisplayName("record()")
+  class RecordTests {
+
+    @Test
+    @DisplayName("should record the phase with its thread and duration")
+    void shouldRecordPhase() throws InterruptedException {
+      long start = StartupReport.now();
+      Thread.sleep(20);
+
+      StartupReport.record("Test phase", start);
+
+      StartupReport.Phase phase = find("Test phase");
+      assertEquals(start, phase.start());
+      assertTrue(phase.duration() >= 20);
+      assertEquals(Thread.currentThread().getName(), phase.thread());
+    }
+
+    @Test
+    @DisplayName("should name unnamed virtual threads")
+    void shouldNameVirtualThreads() throws InterruptedException {
+      Thread.ofVirtual().start(() -> StartupReport.record("Virtual phase", 0)).join();
+
+      assertEquals("virtual", find("Virtual phase").thread());
+    }
+
+    @Test
+    @DisplayName("should order phases by start")
+    void shouldOrderPhasesByStart() {
+      StartupReport.record("Later phase", 2);
+      StartupReport.record("Earlier phase", 1);
+
+      List<String> names = StartupReport.phases().stream()
+          .map(StartupReport.Phase::name)
+          .toList();
+      assertTrue(names.indexOf("Earlier phase") < names.indexOf("Later phase"));
+    }
+  }
+
+  // format tests
+  @Nested
+  @DisplayName("format()")
+  class FormatTests {
+
+    @Test
+    @DisplayName("should list every phase and the loaded class count")
+    void shouldListPhases() {
+      StartupReport.record("Formatted phase", StartupReport.now());
+
+      String report = StartupReport.format();
+
+      assertTrue(report.startsWith("Startup report"));
+      assertTrue(report.contains("Formatted phase"));
+      assertTrue(report.contains("Classes loaded:"));
+    }
+  }
+}
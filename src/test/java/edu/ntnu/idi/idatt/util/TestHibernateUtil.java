@@ -23,6 +23,7 @@ public class TestHibernateUtil {
       sessionFactory = new Configuration()
           .configure(configUrl)
           .buildSessionFactory();
+      new SchemaMigrator(sessionFactory).migrate();
     }
     return sessionFactory;
   }
@@ -0,0 +1,7 @@
+-- Only used by SchemaMigratorTest to check that pending migrations are applied
+CREATE TABLE test_notes (
+    id INTEGER PRIMARY KEY,
+    text TEXT NOT NULL
+);
+
+INSERT INTO test_notes (id, text) VALUES (1, 'first; with a semicolon');